@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.iceberg;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.drill.common.PlanStringBuilder;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.SchemaParser;
+
+import java.util.Objects;
+
+/**
+ * Parquet delete file of an Iceberg data file, read by the Parquet readers of
+ * Drill: either a positional delete file, or an equality delete file with the
+ * schema of its equality columns.
+ */
+public class IcebergDeleteFile {
+
+  private final String path;
+
+  private final String equalitySchema;
+
+  /**
+   * @param path path of the delete file
+   * @param equalitySchema JSON schema of the equality columns, or null for a
+   * positional delete file
+   */
+  @JsonCreator
+  public IcebergDeleteFile(@JsonProperty("path") String path,
+    @JsonProperty("equalitySchema") String equalitySchema) {
+    this.path = path;
+    this.equalitySchema = equalitySchema;
+  }
+
+  public static IcebergDeleteFile positional(String path) {
+    return new IcebergDeleteFile(path, null);
+  }
+
+  public static IcebergDeleteFile equality(String path, Schema equalitySchema) {
+    return new IcebergDeleteFile(path, SchemaParser.toJson(equalitySchema));
+  }
+
+  @JsonProperty
+  public String getPath() {
+    return path;
+  }
+
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public String getEqualitySchema() {
+    return equalitySchema;
+  }
+
+  @JsonIgnore
+  public boolean isEquality() {
+    return equalitySchema != null;
+  }
+
+  /**
+   * @return schema of the equality columns of an equality delete file
+   */
+  @JsonIgnore
+  public Schema parseEqualitySchema() {
+    return SchemaParser.fromJson(equalitySchema);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    IcebergDeleteFile that = (IcebergDeleteFile) o;
+    return Objects.equals(path, that.path) && Objects.equals(equalitySchema, that.equalitySchema);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(path, equalitySchema);
+  }
+
+  @Override
+  public String toString() {
+    return new PlanStringBuilder(this)
+      .field("path", path)
+      .field("equality", isEquality())
+      .toString();
+  }
+}
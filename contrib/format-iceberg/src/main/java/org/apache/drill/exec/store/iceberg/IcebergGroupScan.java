@@ -33,6 +33,7 @@ import org.apache.drill.exec.physical.EndpointAffinity;
 import org.apache.drill.exec.physical.base.AbstractGroupScan;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.physical.base.ScanStats;
+import org.apache.drill.exec.physical.base.SubScan;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.record.metadata.TupleMetadata;
 import org.apache.drill.exec.store.StoragePluginRegistry;
@@ -40,11 +41,15 @@ import org.apache.drill.exec.store.dfs.DrillFileSystem;
 import org.apache.drill.exec.store.iceberg.format.IcebergFormatPlugin;
 import org.apache.drill.exec.store.iceberg.plan.DrillExprToIcebergTranslator;
 import org.apache.drill.exec.store.iceberg.snapshot.Snapshot;
+import org.apache.drill.exec.store.parquet.ParquetReaderConfig;
+import org.apache.drill.exec.store.parquet.RowGroupReadEntry;
 import org.apache.drill.exec.store.schedule.AffinityCreator;
 import org.apache.drill.exec.store.schedule.AssignmentCreator;
 import org.apache.drill.exec.util.ImpersonationUtil;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ListMultimap;
+import org.apache.hadoop.fs.Path;
+import org.apache.iceberg.TableProperties;
 import org.apache.iceberg.TableScan;
 import org.apache.iceberg.expressions.Expression;
 import org.apache.iceberg.hadoop.HadoopTables;
@@ -52,6 +57,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -84,6 +91,11 @@ public class IcebergGroupScan extends AbstractGroupScan {
 
   private ListMultimap<Integer, IcebergCompleteWork> mappings;
 
+  // row groups of the works, when they are read by the Parquet readers of Drill
+  private Map<IcebergCompleteWork, List<RowGroupReadEntry>> rowGroups;
+
+  private Map<Path, List<IcebergDeleteFile>> deletes;
+
   @JsonCreator
   public IcebergGroupScan(
       @JsonProperty("userName") String userName,
@@ -169,6 +181,8 @@ public class IcebergGroupScan extends AbstractGroupScan {
     this.chunks = that.chunks;
     this.tableScan = that.tableScan;
     this.endpointAffinities = that.endpointAffinities;
+    this.rowGroups = that.rowGroups;
+    this.deletes = that.deletes;
   }
 
   public static IcebergGroupScanBuilder builder() {
@@ -204,7 +218,7 @@ public class IcebergGroupScan extends AbstractGroupScan {
   }
 
   @Override
-  public IcebergSubScan getSpecificScan(int minorFragmentId) {
+  public SubScan getSpecificScan(int minorFragmentId) {
     if (mappings == null) {
       createMappings(endpointAffinities);
     }
@@ -217,6 +231,10 @@ public class IcebergGroupScan extends AbstractGroupScan {
     Preconditions.checkArgument(!workList.isEmpty(),
       String.format("MinorFragmentId %d has no read entries assigned", minorFragmentId));
 
+    if (rowGroups != null) {
+      return getRowGroupScan(workList);
+    }
+
     IcebergSubScan subScan = IcebergSubScan.builder()
       .userName(userName)
       .formatPlugin(formatPlugin)
@@ -233,6 +251,28 @@ public class IcebergGroupScan extends AbstractGroupScan {
     return subScan;
   }
 
+  private IcebergRowGroupScan getRowGroupScan(List<IcebergCompleteWork> workList) {
+    List<RowGroupReadEntry> rowGroupReadEntries = new ArrayList<>();
+    Map<Path, List<IcebergDeleteFile>> workDeletes = new HashMap<>();
+    for (IcebergCompleteWork work : workList) {
+      for (RowGroupReadEntry rowGroup : rowGroups.get(work)) {
+        List<IcebergDeleteFile> deleteFiles = deletes.get(rowGroup.getPath());
+        if (deleteFiles != null) {
+          workDeletes.put(rowGroup.getPath(), deleteFiles);
+        } else if (maxRecords >= 0) {
+          // rows of the files with deletes are all read, the limit applies to the rows remaining after deletes
+          rowGroup = new RowGroupReadEntry(rowGroup.getPath(), rowGroup.getStart(), rowGroup.getLength(),
+            rowGroup.getRowGroupIndex(), Math.min(rowGroup.getNumRecordsToRead(), maxRecords));
+        }
+        rowGroupReadEntries.add(rowGroup);
+      }
+    }
+    IcebergRowGroupScan subScan = new IcebergRowGroupScan(userName, formatPlugin, rowGroupReadEntries, columns,
+      workDeletes, ParquetReaderConfig.getDefaultInstance(), schema);
+    subScan.setOperatorId(getOperatorId());
+    return subScan;
+  }
+
   private List<IcebergWork> convertWorkList(List<IcebergCompleteWork> workList) {
     return workList.stream()
       .map(IcebergCompleteWork::getScanTask)
@@ -281,6 +321,54 @@ public class IcebergGroupScan extends AbstractGroupScan {
     chunks = new IcebergBlockMapBuilder(fs, formatPlugin.getContext().getBits())
       .generateFileWork(tableScan.planTasks());
     endpointAffinities = AffinityCreator.getAffinityMap(chunks);
+    planRowGroups();
+  }
+
+  /**
+   * Maps the works to the row groups of their Parquet data files, when all the
+   * works may be read by the Parquet readers of Drill, which read whole
+   * batches instead of converting the records read by Iceberg one at a time.
+   */
+  private void planRowGroups() throws IOException {
+    // the types of the provided schema are applied by the conversion of records
+    if (schema != null || chunks.isEmpty()) {
+      return;
+    }
+    Boolean ignoreResiduals = formatPlugin.getConfig().getIgnoreResiduals();
+    IcebergRowGroupBuilder builder = new IcebergRowGroupBuilder(fs, tableScan.schema(),
+      ignoreResiduals != null && ignoreResiduals);
+    if (!builder.supportsSchema()) {
+      return;
+    }
+    Map<IcebergCompleteWork, List<RowGroupReadEntry>> workRowGroups = new HashMap<>();
+    Map<Path, List<IcebergDeleteFile>> workDeletes = new HashMap<>();
+    for (IcebergCompleteWork chunk : chunks) {
+      List<RowGroupReadEntry> chunkRowGroups = builder.build(chunk.getScanTask(), workDeletes);
+      if (chunkRowGroups == null || chunkRowGroups.isEmpty()) {
+        return;
+      }
+      workRowGroups.put(chunk, chunkRowGroups);
+    }
+    // checked once the tasks are known to be data files, as metadata tables have no properties
+    if (!isVectorizationEnabled()) {
+      return;
+    }
+    rowGroups = workRowGroups;
+    deletes = workDeletes;
+  }
+
+  /**
+   * Vectorized reads are enabled unless disabled with the Iceberg
+   * {@code read.parquet.vectorization.enabled} property, set either for the
+   * table or in the properties of the format.
+   */
+  private boolean isVectorizationEnabled() {
+    Map<String, String> properties = formatPlugin.getConfig().getProperties();
+    String enabled = properties == null ? null : properties.get(TableProperties.PARQUET_VECTORIZATION_ENABLED);
+    if (enabled == null) {
+      enabled = tableScan.table().properties().get(TableProperties.PARQUET_VECTORIZATION_ENABLED);
+    }
+    return enabled == null || Boolean.parseBoolean(enabled);
   }
 
   public static TableScan projectColumns(TableScan tableScan, List<SchemaPath> columns) {
@@ -367,6 +455,7 @@ public class IcebergGroupScan extends AbstractGroupScan {
       .field("columns", columns)
       .field("tableScan", tableScan)
       .field("maxRecords", maxRecords)
+      .field("vectorized", rowGroups != null)
       .toString();
   }
 
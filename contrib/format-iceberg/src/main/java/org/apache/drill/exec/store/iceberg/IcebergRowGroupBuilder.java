@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.iceberg;
+
+import org.apache.drill.exec.store.dfs.DrillFileSystem;
+import org.apache.drill.exec.store.parquet.ParquetFooterCache;
+import org.apache.drill.exec.store.parquet.ParquetReaderConfig;
+import org.apache.drill.exec.store.parquet.RowGroupReadEntry;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.iceberg.CombinedScanTask;
+import org.apache.iceberg.DeleteFile;
+import org.apache.iceberg.FileContent;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.parquet.ParquetSchemaUtil;
+import org.apache.iceberg.types.Type.TypeID;
+import org.apache.iceberg.types.TypeUtil;
+import org.apache.iceberg.types.Types;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.schema.MessageType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps the file scan tasks planned by Iceberg to the row groups of their
+ * Parquet data files, so that they may be read by the Parquet readers of Drill.
+ * <p>
+ * A task is read by Drill when:
+ * <ul>
+ *   <li>its data file is a Parquet file,</li>
+ *   <li>the columns of the data file are those of the projected table schema,
+ *   with the same names, field ids and types, that is the data file was not
+ *   written before a column was renamed or its type promoted,</li>
+ *   <li>the projected columns are primitive,</li>
+ *   <li>no filter remains to be applied to its rows, which Iceberg reports
+ *   as the residual of the task,</li>
+ *   <li>its delete files, if any, are stored as Parquet files, and are either
+ *   positional delete files or equality delete files whose equality columns
+ *   are projected and of a type compared exactly once read by Drill.</li>
+ * </ul>
+ * The rows removed by the delete files are dropped from the batches read by
+ * {@link org.apache.drill.exec.store.iceberg.read.DeleteFilterRecordReader}.
+ * Otherwise, the records of the task are converted by
+ * {@link org.apache.drill.exec.store.iceberg.read.IcebergRecordReader}.
+ */
+public class IcebergRowGroupBuilder {
+
+  private static final Logger logger = LoggerFactory.getLogger(IcebergRowGroupBuilder.class);
+
+  // types of the equality columns whose values read by Drill equal the values read by Iceberg
+  private static final Set<TypeID> EQUALITY_TYPES = EnumSet.of(TypeID.BOOLEAN, TypeID.INTEGER, TypeID.LONG,
+    TypeID.FLOAT, TypeID.DOUBLE, TypeID.DATE, TypeID.STRING, TypeID.DECIMAL, TypeID.BINARY, TypeID.FIXED);
+
+  private final DrillFileSystem fs;
+
+  private final Schema schema;
+
+  private final MessageType expectedSchema;
+
+  private final boolean ignoreResiduals;
+
+  private final ParquetReaderConfig readerConfig = ParquetReaderConfig.getDefaultInstance();
+
+  /**
+   * @param fs file system of the table
+   * @param schema projected schema of the table
+   * @param ignoreResiduals whether the residual filters of the tasks are ignored
+   */
+  public IcebergRowGroupBuilder(DrillFileSystem fs, Schema schema, boolean ignoreResiduals) {
+    this.fs = fs;
+    this.schema = schema;
+    this.expectedSchema = ParquetSchemaUtil.convert(schema, "table");
+    this.ignoreResiduals = ignoreResiduals;
+  }
+
+  /**
+   * @return true if the projected columns may be read by Drill
+   */
+  public boolean supportsSchema() {
+    return !schema.columns().isEmpty() && schema.columns().stream()
+      .map(Types.NestedField::type)
+      .allMatch(org.apache.iceberg.types.Type::isPrimitiveType);
+  }
+
+  /**
+   * Maps the tasks of a work to row groups.
+   *
+   * @param scanTask tasks of the work
+   * @param deletes delete files of the data files, to which the delete files
+   * of the tasks are added
+   * @return row groups of the tasks, or null if the tasks must be read by
+   * Iceberg
+   */
+  public List<RowGroupReadEntry> build(CombinedScanTask scanTask, Map<Path, List<IcebergDeleteFile>> deletes)
+      throws IOException {
+    List<RowGroupReadEntry> rowGroups = new ArrayList<>();
+    for (FileScanTask task : scanTask.files()) {
+      if (!addRowGroups(task, rowGroups, deletes)) {
+        return null;
+      }
+    }
+    return rowGroups;
+  }
+
+  private boolean addRowGroups(FileScanTask task, List<RowGroupReadEntry> rowGroups,
+      Map<Path, List<IcebergDeleteFile>> deletes) throws IOException {
+    if (task.isDataTask() || task.file().format() != FileFormat.PARQUET) {
+      return false;
+    }
+    if (!ignoreResiduals && task.residual().op() != Expression.Operation.TRUE) {
+      logger.debug("Residual filter {} of {} is applied by Iceberg", task.residual(), task.file().path());
+      return false;
+    }
+    Set<IcebergDeleteFile> deleteFiles = new LinkedHashSet<>();
+    for (DeleteFile deleteFile : task.deletes()) {
+      IcebergDeleteFile readDeleteFile = toReadDeleteFile(deleteFile);
+      if (readDeleteFile == null) {
+        logger.debug("Delete file {} of {} is applied by Iceberg", deleteFile.path(), task.file().path());
+        return false;
+      }
+      deleteFiles.add(readDeleteFile);
+    }
+
+    Path path = new Path(task.file().path().toString());
+    ParquetMetadata footer = readFooter(fs.getFileStatus(path));
+    if (!matchesSchema(footer.getFileMetaData().getSchema())) {
+      logger.debug("Schema of {} differs from the table schema", path);
+      return false;
+    }
+
+    long start = task.start();
+    long end = start + task.length();
+    List<BlockMetaData> blocks = footer.getBlocks();
+    for (int i = 0; i < blocks.size(); i++) {
+      BlockMetaData block = blocks.get(i);
+      // the row groups of the split of the task, as Parquet readers find them
+      long midpoint = block.getStartingPos() + block.getCompressedSize() / 2;
+      if (midpoint < start || midpoint >= end || block.getRowCount() == 0) {
+        continue;
+      }
+      rowGroups.add(new RowGroupReadEntry(path, block.getStartingPos(), block.getCompressedSize(), i,
+        block.getRowCount()));
+    }
+    if (!deleteFiles.isEmpty()) {
+      deletes.put(path, new ArrayList<>(deleteFiles));
+    }
+    return true;
+  }
+
+  /**
+   * @return the delete file to apply to the batches read, or null if it must
+   * be applied by Iceberg
+   */
+  private IcebergDeleteFile toReadDeleteFile(DeleteFile deleteFile) {
+    if (deleteFile.format() != FileFormat.PARQUET) {
+      return null;
+    }
+    String path = deleteFile.path().toString();
+    if (deleteFile.content() == FileContent.POSITION_DELETES) {
+      return IcebergDeleteFile.positional(path);
+    }
+    List<Integer> equalityIds = deleteFile.equalityFieldIds();
+    if (deleteFile.content() != FileContent.EQUALITY_DELETES || equalityIds == null || equalityIds.isEmpty()) {
+      return null;
+    }
+    for (int id : equalityIds) {
+      // the values of the equality columns are compared in the batches read
+      Types.NestedField field = schema.findField(id);
+      if (field == null || !EQUALITY_TYPES.contains(field.type().typeId())) {
+        return null;
+      }
+    }
+    return IcebergDeleteFile.equality(path, TypeUtil.select(schema, new HashSet<>(equalityIds)));
+  }
+
+  private boolean matchesSchema(MessageType fileSchema) {
+    for (org.apache.parquet.schema.Type expected : expectedSchema.getFields()) {
+      if (!fileSchema.containsField(expected.getName())
+          || !expected.equals(fileSchema.getType(expected.getName()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private ParquetMetadata readFooter(FileStatus status) throws IOException {
+    try {
+      return ParquetFooterCache.getInstance().get(status, readerConfig, () -> {
+        try (ParquetFileReader reader = ParquetFileReader.open(
+          HadoopInputFile.fromStatus(status, fs.getConf()), readerConfig.toReadOptions())) {
+          return reader.getFooter();
+        }
+      });
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.iceberg;
+
+import com.fasterxml.jackson.annotation.JacksonInject;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.logical.FormatPluginConfig;
+import org.apache.drill.common.logical.StoragePluginConfig;
+import org.apache.drill.exec.physical.base.PhysicalOperator;
+import org.apache.drill.exec.record.metadata.TupleMetadata;
+import org.apache.drill.exec.store.StoragePluginRegistry;
+import org.apache.drill.exec.store.iceberg.format.IcebergFormatPlugin;
+import org.apache.drill.exec.store.iceberg.format.IcebergFormatPluginConfig;
+import org.apache.drill.exec.store.parquet.AbstractParquetRowGroupScan;
+import org.apache.drill.exec.store.parquet.ParquetReaderConfig;
+import org.apache.drill.exec.store.parquet.RowGroupReadEntry;
+import com.google.common.base.Preconditions;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the row groups of the Parquet data files of an Iceberg table with the
+ * Parquet readers of Drill, instead of converting the records returned by
+ * Iceberg. The rows removed by the positional and equality delete files of a
+ * data file are dropped from the batches read.
+ */
+@JsonTypeName("iceberg-row-group-scan")
+public class IcebergRowGroupScan extends AbstractParquetRowGroupScan {
+
+  public static final String OPERATOR_TYPE = "ICEBERG_ROW_GROUP_SCAN";
+
+  private final IcebergFormatPlugin formatPlugin;
+  private final IcebergFormatPluginConfig formatPluginConfig;
+  private final Map<Path, List<IcebergDeleteFile>> deletes;
+
+  @JsonCreator
+  public IcebergRowGroupScan(@JacksonInject StoragePluginRegistry registry,
+    @JsonProperty("userName") String userName,
+    @JsonProperty("storageConfig") StoragePluginConfig storageConfig,
+    @JsonProperty("formatPluginConfig") FormatPluginConfig formatPluginConfig,
+    @JsonProperty("rowGroupReadEntries") List<RowGroupReadEntry> rowGroupReadEntries,
+    @JsonProperty("columns") List<SchemaPath> columns,
+    @JsonProperty("deletes") Map<Path, List<IcebergDeleteFile>> deletes,
+    @JsonProperty("readerConfig") ParquetReaderConfig readerConfig,
+    @JsonProperty("schema") TupleMetadata schema) {
+    this(userName,
+      registry.resolveFormat(storageConfig, formatPluginConfig, IcebergFormatPlugin.class),
+      rowGroupReadEntries,
+      columns,
+      deletes,
+      readerConfig,
+      schema);
+  }
+
+  public IcebergRowGroupScan(String userName,
+    IcebergFormatPlugin formatPlugin,
+    List<RowGroupReadEntry> rowGroupReadEntries,
+    List<SchemaPath> columns,
+    Map<Path, List<IcebergDeleteFile>> deletes,
+    ParquetReaderConfig readerConfig,
+    TupleMetadata schema) {
+    super(userName, rowGroupReadEntries, columns, readerConfig, null, null, schema);
+    this.formatPlugin = formatPlugin;
+    this.formatPluginConfig = formatPlugin.getConfig();
+    this.deletes = deletes == null ? Collections.emptyMap() : deletes;
+  }
+
+  @JsonProperty
+  public StoragePluginConfig getStorageConfig() {
+    return formatPlugin.getStorageConfig();
+  }
+
+  @JsonProperty
+  public IcebergFormatPluginConfig getFormatPluginConfig() {
+    return formatPluginConfig;
+  }
+
+  @JsonProperty
+  public Map<Path, List<IcebergDeleteFile>> getDeletes() {
+    return deletes;
+  }
+
+  /**
+   * @param rowGroupReadEntry row group
+   * @return the delete files which apply to the data file of the row group
+   */
+  public List<IcebergDeleteFile> getDeletes(RowGroupReadEntry rowGroupReadEntry) {
+    return deletes.getOrDefault(rowGroupReadEntry.getPath(), Collections.emptyList());
+  }
+
+  @Override
+  public PhysicalOperator getNewWithChildren(List<PhysicalOperator> children) {
+    Preconditions.checkArgument(children.isEmpty());
+    return new IcebergRowGroupScan(getUserName(), formatPlugin, rowGroupReadEntries, columns, deletes,
+      readerConfig, schema);
+  }
+
+  @Override
+  public String getOperatorType() {
+    return OPERATOR_TYPE;
+  }
+
+  @Override
+  public AbstractParquetRowGroupScan copy(List<SchemaPath> columns) {
+    return new IcebergRowGroupScan(getUserName(), formatPlugin, rowGroupReadEntries, columns, deletes,
+      readerConfig, schema);
+  }
+
+  @Override
+  public Configuration getFsConf(RowGroupReadEntry rowGroupReadEntry) {
+    return formatPlugin.getFsConf();
+  }
+
+  @Override
+  public boolean supportsFileImplicitColumns() {
+    return false;
+  }
+
+  @Override
+  public List<String> getPartitionValues(RowGroupReadEntry rowGroupReadEntry) {
+    return Collections.emptyList();
+  }
+}
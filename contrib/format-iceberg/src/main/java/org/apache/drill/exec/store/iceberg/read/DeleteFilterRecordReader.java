@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.iceberg.read;
+
+import org.apache.drill.common.exceptions.ExecutionSetupException;
+import org.apache.drill.exec.exception.OutOfMemoryException;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.ops.OperatorContext;
+import org.apache.drill.exec.physical.impl.OutputMutator;
+import org.apache.drill.exec.physical.impl.RecordingOutputMutator;
+import org.apache.drill.exec.record.TransferPair;
+import org.apache.drill.exec.store.CommonParquetRecordReader;
+import org.apache.drill.exec.vector.AllocationHelper;
+import org.apache.drill.exec.vector.ValueVector;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drops the rows removed by Iceberg delete files from the batches of the
+ * reader of a row group, as a filter applied to whole batches.
+ * <p>
+ * The deleted rows of a batch are first marked in a bitmap: by their
+ * positions, known from the position of the first row of the row group in
+ * its data file, as the reader returns the rows of the row group in order;
+ * then by comparing the values of the equality columns of the remaining rows
+ * with those of the rows of the equality delete files. Batches without
+ * deleted rows are returned as read. Otherwise the vectors of the batch are
+ * compacted, column by column, by copying the values of the rows left.
+ */
+public class DeleteFilterRecordReader extends CommonParquetRecordReader {
+
+  private final CommonParquetRecordReader delegate;
+  // sorted positions of the deleted rows of the data file
+  private final long[] deletedPositions;
+  private final List<EqualityDeletes> equalityDeletes;
+  private final BitSet deleted = new BitSet();
+
+  private RecordingOutputMutator recorder;
+  private Map<String, ValueVector> vectorMap;
+  // position in the data file of the next row read
+  private long position;
+  // index of the first deleted position not before the next row read
+  private int deleteIndex;
+
+  /**
+   * @param fragmentContext fragment context
+   * @param footer footer of the data file
+   * @param delegate reader of the row group
+   * @param deletedPositions sorted positions of the rows of the data file
+   * removed by its positional delete files
+   * @param firstPosition position of the first row of the row group in the
+   * data file
+   * @param equalityDeletes rows removed by the equality delete files of the
+   * data file
+   */
+  public DeleteFilterRecordReader(FragmentContext fragmentContext, ParquetMetadata footer,
+    CommonParquetRecordReader delegate, long[] deletedPositions, long firstPosition,
+    List<EqualityDeletes> equalityDeletes) {
+    super(footer, fragmentContext);
+    this.delegate = delegate;
+    this.deletedPositions = deletedPositions;
+    this.equalityDeletes = equalityDeletes;
+    this.position = firstPosition;
+    int index = Arrays.binarySearch(deletedPositions, firstPosition);
+    this.deleteIndex = index >= 0 ? index : -index - 1;
+  }
+
+  @Override
+  public void setup(OperatorContext context, OutputMutator output) throws ExecutionSetupException {
+    this.operatorContext = context;
+    recorder = new RecordingOutputMutator(output);
+    delegate.setup(context, recorder);
+  }
+
+  @Override
+  public void allocate(Map<String, ValueVector> vectorMap) throws OutOfMemoryException {
+    this.vectorMap = vectorMap;
+    delegate.allocate(vectorMap);
+  }
+
+  @Override
+  public int next() {
+    while (true) {
+      int recordCount = delegate.next();
+      if (recordCount == 0) {
+        return 0;
+      }
+      int remaining = filter(recordCount);
+      if (remaining > 0) {
+        return remaining;
+      }
+      // all the rows of the batch were deleted, a batch without rows would end the reader
+      delegate.allocate(vectorMap);
+    }
+  }
+
+  /**
+   * Removes the deleted rows of the batch just read.
+   *
+   * @param recordCount rows of the batch
+   * @return rows remaining in the batch
+   */
+  private int filter(int recordCount) {
+    deleted.clear();
+    markDeletedPositions(recordCount);
+    for (EqualityDeletes deletes : equalityDeletes) {
+      deletes.markDeleted(recorder, recordCount, deleted);
+    }
+    if (deleted.isEmpty()) {
+      return recordCount;
+    }
+
+    int remaining = recordCount - deleted.cardinality();
+    for (ValueVector vector : recorder.getVectors()) {
+      TransferPair pair = vector.getTransferPair(operatorContext.getAllocator());
+      pair.transfer();
+      ValueVector read = pair.getTo();
+      try {
+        AllocationHelper.allocateNew(vector, remaining);
+        int index = 0;
+        for (int row = deleted.nextClearBit(0); row < recordCount; row = deleted.nextClearBit(row + 1)) {
+          vector.copyEntry(index++, read, row);
+        }
+        vector.getMutator().setValueCount(remaining);
+      } finally {
+        read.clear();
+      }
+    }
+    return remaining;
+  }
+
+  private void markDeletedPositions(int recordCount) {
+    long start = position;
+    position += recordCount;
+    // positions may be deleted more than once
+    while (deleteIndex < deletedPositions.length && deletedPositions[deleteIndex] < position) {
+      deleted.set((int) (deletedPositions[deleteIndex++] - start));
+    }
+  }
+
+  @Override
+  public void updateRowGroupsStats(long numRowGroups, long rowGroupsPruned) {
+    delegate.updateRowGroupsStats(numRowGroups, rowGroupsPruned);
+  }
+
+  @Override
+  public void close() throws Exception {
+    delegate.close();
+  }
+
+  @Override
+  public String toString() {
+    return "DeleteFilterRecordReader[Deleted positions=" + deletedPositions.length
+      + ", Equality deletes=" + equalityDeletes.size()
+      + ", Reader=" + delegate + "]";
+  }
+}
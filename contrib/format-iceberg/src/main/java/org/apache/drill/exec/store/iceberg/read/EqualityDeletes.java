@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.iceberg.read;
+
+import org.apache.drill.common.exceptions.DrillRuntimeException;
+import org.apache.drill.exec.physical.impl.RecordingOutputMutator;
+import org.apache.drill.exec.util.Text;
+import org.apache.drill.exec.vector.ValueVector;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rows removed by the equality delete files of a data file which share the
+ * same equality columns: a row of the data file is deleted when its values
+ * of these columns equal those of a deleted row, nulls included.
+ * <p>
+ * The values read by Iceberg from the delete files and those read by Drill
+ * from the data file are compared once normalized, so that strings, binary
+ * values and decimals compare by their contents.
+ */
+public class EqualityDeletes {
+
+  private final List<String> columns;
+  // normalized values of the deleted rows, a single value for a single column
+  private final Set<Object> deletedKeys;
+
+  /**
+   * @param columns names of the equality columns
+   * @param deletedKeys keys of the deleted rows, built with {@link #key(Object[])}
+   */
+  public EqualityDeletes(List<String> columns, Set<Object> deletedKeys) {
+    this.columns = columns;
+    this.deletedKeys = deletedKeys;
+  }
+
+  public List<String> getColumns() {
+    return columns;
+  }
+
+  public int size() {
+    return deletedKeys.size();
+  }
+
+  /**
+   * Marks the deleted rows of a batch.
+   *
+   * @param recorder vectors of the batch
+   * @param recordCount rows of the batch
+   * @param deleted rows already deleted, to which the rows deleted here are added
+   */
+  public void markDeleted(RecordingOutputMutator recorder, int recordCount, BitSet deleted) {
+    ValueVector.Accessor[] accessors = new ValueVector.Accessor[columns.size()];
+    for (int i = 0; i < accessors.length; i++) {
+      ValueVector vector = recorder.getVector(columns.get(i));
+      if (vector == null) {
+        throw new DrillRuntimeException(String.format("Equality column %s was not read", columns.get(i)));
+      }
+      accessors[i] = vector.getAccessor();
+    }
+    Object[] values = new Object[accessors.length];
+    for (int row = deleted.nextClearBit(0); row < recordCount; row = deleted.nextClearBit(row + 1)) {
+      for (int i = 0; i < accessors.length; i++) {
+        values[i] = accessors[i].getObject(row);
+      }
+      if (deletedKeys.contains(key(values))) {
+        deleted.set(row);
+      }
+    }
+  }
+
+  /**
+   * @param values values of the equality columns of a row
+   * @return key of the row, compared with the keys of the deleted rows
+   */
+  public static Object key(Object[] values) {
+    if (values.length == 1) {
+      return normalize(values[0]);
+    }
+    Object[] key = new Object[values.length];
+    for (int i = 0; i < values.length; i++) {
+      key[i] = normalize(values[i]);
+    }
+    return Arrays.asList(key);
+  }
+
+  private static Object normalize(Object value) {
+    if (value instanceof CharSequence || value instanceof Text) {
+      return value.toString();
+    } else if (value instanceof byte[]) {
+      return ByteBuffer.wrap((byte[]) value);
+    } else if (value instanceof BigDecimal) {
+      return ((BigDecimal) value).stripTrailingZeros();
+    }
+    return value;
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.iceberg.read;
+
+import org.apache.drill.common.exceptions.DrillRuntimeException;
+import org.apache.drill.common.exceptions.ExecutionSetupException;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.ops.ExecutorFragmentContext;
+import org.apache.drill.exec.ops.OperatorContext;
+import org.apache.drill.exec.physical.impl.BatchCreator;
+import org.apache.drill.exec.record.CloseableRecordBatch;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.server.options.OptionManager;
+import org.apache.drill.exec.store.CommonParquetRecordReader;
+import org.apache.drill.exec.store.iceberg.IcebergDeleteFile;
+import org.apache.drill.exec.store.iceberg.IcebergRowGroupScan;
+import org.apache.drill.exec.store.parquet.AbstractParquetRowGroupScan;
+import org.apache.drill.exec.store.parquet.AbstractParquetScanBatchCreator;
+import org.apache.drill.exec.store.parquet.ParquetScanBatchCreator;
+import org.apache.drill.exec.store.parquet.RowGroupReadEntry;
+import com.google.common.base.Preconditions;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.iceberg.MetadataColumns;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.data.parquet.GenericParquetReaders;
+import org.apache.iceberg.hadoop.HadoopInputFile;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.parquet.Parquet;
+import org.apache.iceberg.types.Types;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@SuppressWarnings("unused")
+public class IcebergRowGroupScanBatchCreator extends AbstractParquetScanBatchCreator
+  implements BatchCreator<IcebergRowGroupScan> {
+
+  private static final Schema POSITION_DELETE_SCHEMA =
+    new Schema(MetadataColumns.DELETE_FILE_PATH, MetadataColumns.DELETE_FILE_POS);
+
+  // deleted positions of the data files, read once per scan
+  private final Map<Path, long[]> deletedPositions = new HashMap<>();
+
+  // rows of the equality delete files, which may apply to several data files, read once per scan
+  private final Map<IcebergDeleteFile, Set<Object>> equalityDeletes = new HashMap<>();
+
+  @Override
+  public CloseableRecordBatch getBatch(ExecutorFragmentContext context, IcebergRowGroupScan rowGroupScan,
+    List<RecordBatch> children) throws ExecutionSetupException {
+    Preconditions.checkArgument(children.isEmpty());
+    OperatorContext oContext = context.newOperatorContext(rowGroupScan);
+    // batch creators are shared by the fragments, while deleted positions are kept per scan
+    return new IcebergRowGroupScanBatchCreator().getBatch(context, rowGroupScan, oContext);
+  }
+
+  @Override
+  protected AbstractDrillFileSystemManager getDrillFileSystemCreator(
+    OperatorContext operatorContext, OptionManager optionManager) {
+    return new ParquetScanBatchCreator.ParquetDrillFileSystemManager(operatorContext,
+      optionManager.getOption(ExecConstants.PARQUET_PAGEREADER_ASYNC).bool_val);
+  }
+
+  @Override
+  protected CommonParquetRecordReader wrapReader(ExecutorFragmentContext context,
+    AbstractParquetRowGroupScan rowGroupScan, RowGroupReadEntry rowGroup, ParquetMetadata footer,
+    CommonParquetRecordReader reader) {
+    IcebergRowGroupScan scan = (IcebergRowGroupScan) rowGroupScan;
+    List<IcebergDeleteFile> deleteFiles = scan.getDeletes(rowGroup);
+    if (deleteFiles.isEmpty()) {
+      return reader;
+    }
+    Configuration conf = scan.getFsConf(rowGroup);
+    List<String> positionDeleteFiles = new ArrayList<>();
+    // equality delete files with the same columns are applied together
+    Map<List<String>, Set<Object>> keysByColumns = new LinkedHashMap<>();
+    for (IcebergDeleteFile deleteFile : deleteFiles) {
+      if (!deleteFile.isEquality()) {
+        positionDeleteFiles.add(deleteFile.getPath());
+        continue;
+      }
+      Schema equalitySchema = deleteFile.parseEqualitySchema();
+      List<String> columns = equalitySchema.columns().stream()
+        .map(Types.NestedField::name)
+        .collect(Collectors.toList());
+      Set<Object> keys = equalityDeletes.computeIfAbsent(deleteFile,
+        file -> readEqualityDeletes(conf, file.getPath(), equalitySchema));
+      keysByColumns.merge(columns, keys, (left, right) -> {
+        Set<Object> union = new HashSet<>(left);
+        union.addAll(right);
+        return union;
+      });
+    }
+    long[] positions = positionDeleteFiles.isEmpty() ? new long[0] : deletedPositions.computeIfAbsent(
+      rowGroup.getPath(), path -> readDeletedPositions(conf, path, positionDeleteFiles));
+    List<EqualityDeletes> rowGroupEqualityDeletes = new ArrayList<>();
+    keysByColumns.forEach((columns, keys) -> rowGroupEqualityDeletes.add(new EqualityDeletes(columns, keys)));
+    long firstPosition = 0;
+    for (int i = 0; i < rowGroup.getRowGroupIndex(); i++) {
+      firstPosition += footer.getBlocks().get(i).getRowCount();
+    }
+    return new DeleteFilterRecordReader(context, footer, reader, positions, firstPosition, rowGroupEqualityDeletes);
+  }
+
+  /**
+   * Reads the values of the equality columns of the rows of an equality
+   * delete file.
+   *
+   * @param conf file system configuration
+   * @param deleteFile equality delete file
+   * @param equalitySchema schema of the equality columns
+   * @return keys of the deleted rows, as built by {@link EqualityDeletes#key(Object[])}
+   */
+  private static Set<Object> readEqualityDeletes(Configuration conf, String deleteFile, Schema equalitySchema) {
+    Set<Object> keys = new HashSet<>();
+    Object[] values = new Object[equalitySchema.columns().size()];
+    try (CloseableIterable<Record> deletes = Parquet.read(HadoopInputFile.fromLocation(deleteFile, conf))
+        .project(equalitySchema)
+        .createReaderFunc(fileSchema -> GenericParquetReaders.buildReader(equalitySchema, fileSchema))
+        .build()) {
+      for (Record delete : deletes) {
+        for (int i = 0; i < values.length; i++) {
+          values[i] = delete.get(i);
+        }
+        keys.add(EqualityDeletes.key(values));
+      }
+    } catch (IOException e) {
+      throw new DrillRuntimeException(String.format("Failed to read the delete file %s", deleteFile), e);
+    }
+    return keys;
+  }
+
+  /**
+   * Reads the positions of the rows of a data file removed by positional
+   * delete files.
+   *
+   * @param conf file system configuration
+   * @param dataFile data file
+   * @param deleteFiles positional delete files which apply to the data file
+   * @return sorted deleted positions
+   */
+  private static long[] readDeletedPositions(Configuration conf, Path dataFile, List<String> deleteFiles) {
+    long[] positions = new long[16];
+    int count = 0;
+    for (String deleteFile : deleteFiles) {
+      try (CloseableIterable<Record> deletes = Parquet.read(HadoopInputFile.fromLocation(deleteFile, conf))
+          .project(POSITION_DELETE_SCHEMA)
+          .createReaderFunc(fileSchema -> GenericParquetReaders.buildReader(POSITION_DELETE_SCHEMA, fileSchema))
+          .build()) {
+        // delete files are sorted by path, so that consecutive rows mostly refer to the same data file
+        String lastPath = null;
+        boolean lastMatches = false;
+        for (Record delete : deletes) {
+          String path = delete.get(0, CharSequence.class).toString();
+          if (!path.equals(lastPath)) {
+            lastPath = path;
+            lastMatches = dataFile.equals(new Path(path));
+          }
+          if (lastMatches) {
+            if (count == positions.length) {
+              positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = delete.get(1, Long.class);
+          }
+        }
+      } catch (IOException e) {
+        throw new DrillRuntimeException(String.format("Failed to read the delete file %s", deleteFile), e);
+      }
+    }
+    long[] sorted = Arrays.copyOf(positions, count);
+    Arrays.sort(sorted);
+    return sorted;
+  }
+}
@@ -32,17 +32,24 @@ import org.apache.drill.test.ClusterTest;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.iceberg.BaseTable;
 import org.apache.iceberg.DataFile;
 import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.DeleteFile;
 import org.apache.iceberg.FileFormat;
 import org.apache.iceberg.HistoryEntry;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.Table;
+import org.apache.iceberg.TableMetadata;
+import org.apache.iceberg.TableOperations;
 import org.apache.iceberg.Transaction;
 import org.apache.iceberg.data.GenericAppenderFactory;
 import org.apache.iceberg.data.GenericRecord;
 import org.apache.iceberg.data.Record;
+import org.apache.iceberg.deletes.EqualityDeleteWriter;
+import org.apache.iceberg.deletes.PositionDeleteWriter;
+import org.apache.iceberg.encryption.EncryptedFiles;
 import org.apache.iceberg.hadoop.HadoopTables;
 import org.apache.iceberg.io.FileAppender;
 import org.apache.iceberg.io.OutputFile;
@@ -237,13 +244,40 @@ public class IcebergQueriesTest extends ClusterTest {
 
     String emptyTableLocation = Paths.get(dirTestWatcher.getDfsTestTmpDir().toURI().getPath(), "testAllTypesEmpty").toUri().getPath();
     tables.create(structSchema, emptyTableLocation);
+
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      Record deletesRecord = GenericRecord.create(structSchema);
+      deletesRecord.setField("struct_int_field", i);
+      deletesRecord.setField("struct_string_field", "value_" + i);
+      records.add(deletesRecord);
+    }
+    Table deletesTable = createTableWithDeletes(tables, structSchema, "testPositionDeletes");
+    DataFile deletesDataFile = writeAndCommitDataFile(deletesTable, "values", FileFormat.PARQUET, records);
+    writeAndCommitPositionDeletes(deletesTable, deletesDataFile, 1, 3, 9);
+
+    Table equalityDeletesTable = createTableWithDeletes(tables, structSchema, "testEqualityDeletes");
+    DataFile equalityDeletesDataFile = writeAndCommitDataFile(equalityDeletesTable, "values", FileFormat.PARQUET, records);
+    writeAndCommitPositionDeletes(equalityDeletesTable, equalityDeletesDataFile, 0);
+    writeAndCommitEqualityDeletes(equalityDeletesTable, "struct_string_field", "value_2", "value_5", "value_42");
+  }
+
+  private static Table createTableWithDeletes(HadoopTables tables, Schema schema, String name) {
+    String location = Paths.get(dirTestWatcher.getDfsTestTmpDir().toURI().getPath(), name).toUri().getPath();
+    Table table = tables.create(schema, location);
+    // delete files require the version 2 of the table format
+    TableOperations operations = ((BaseTable) table).operations();
+    TableMetadata metadata = operations.current();
+    operations.commit(metadata, metadata.upgradeToFormatVersion(2));
+    table.refresh();
+    return table;
   }
 
   private static void writeParquetAndCommitDataFile(Table table, String name, Iterable<Record> records) throws IOException {
     writeAndCommitDataFile(table, name, FileFormat.PARQUET, records);
   }
 
-  private static void writeAndCommitDataFile(Table table, String name, FileFormat fileFormat, Iterable<Record> records) throws IOException {
+  private static DataFile writeAndCommitDataFile(Table table, String name, FileFormat fileFormat, Iterable<Record> records) throws IOException {
     OutputFile outputFile = table.io().newOutputFile(
       new Path(table.location(), fileFormat.addExtension(name)).toUri().getPath());
 
@@ -262,6 +296,46 @@ public class IcebergQueriesTest extends ClusterTest {
       .appendFile(dataFile)
       .commit();
     transaction.commitTransaction();
+    return dataFile;
+  }
+
+  private static void writeAndCommitPositionDeletes(Table table, DataFile dataFile, long... positions) throws IOException {
+    OutputFile outputFile = table.io().newOutputFile(
+      new Path(table.location(), FileFormat.PARQUET.addExtension("deletes")).toUri().getPath());
+
+    PositionDeleteWriter<Record> writer = new GenericAppenderFactory(table.schema(), table.spec())
+      .newPosDeleteWriter(EncryptedFiles.plainAsEncryptedOutput(outputFile), FileFormat.PARQUET, null);
+    for (long position : positions) {
+      writer.delete(dataFile.path(), position);
+    }
+    writer.close();
+    DeleteFile deleteFile = writer.toDeleteFile();
+
+    table.newRowDelta()
+      .addDeletes(deleteFile)
+      .commit();
+  }
+
+  private static void writeAndCommitEqualityDeletes(Table table, String column, Object... values) throws IOException {
+    OutputFile outputFile = table.io().newOutputFile(
+      new Path(table.location(), FileFormat.PARQUET.addExtension("equality-deletes")).toUri().getPath());
+
+    Schema deleteSchema = table.schema().select(column);
+    int[] equalityFieldIds = {table.schema().findField(column).fieldId()};
+    EqualityDeleteWriter<Record> writer = new GenericAppenderFactory(table.schema(), table.spec(),
+      equalityFieldIds, deleteSchema, null)
+      .newEqDeleteWriter(EncryptedFiles.plainAsEncryptedOutput(outputFile), FileFormat.PARQUET, null);
+    for (Object value : values) {
+      Record delete = GenericRecord.create(deleteSchema);
+      delete.setField(column, value);
+      writer.delete(delete);
+    }
+    writer.close();
+    DeleteFile deleteFile = writer.toDeleteFile();
+
+    table.newRowDelta()
+      .addDeletes(deleteFile)
+      .commit();
   }
 
   @Test
@@ -426,6 +500,107 @@ public class IcebergQueriesTest extends ClusterTest {
       .go();
   }
 
+  @Test
+  public void testVectorizedScan() throws Exception {
+    String query = "select int_field, long_field, string_field, decimal_field from dfs.tmp.testAllTypes";
+
+    queryBuilder()
+      .sql(query)
+      .planMatcher()
+      .include("vectorized\\=true")
+      .match();
+
+    testBuilder()
+      .sqlQuery(query)
+      .unOrdered()
+      .baselineColumns("int_field", "long_field", "string_field", "decimal_field")
+      .baselineValues(1, 100L, "abc", new BigDecimal("12.34"))
+      .baselineValues(null, null, null, null)
+      .baselineValues(988, 543L, "def", new BigDecimal("99.99"))
+      .go();
+  }
+
+  @Test
+  public void testVectorizedScanWithPositionDeletes() throws Exception {
+    String query = "select struct_int_field, struct_string_field from dfs.tmp.testPositionDeletes";
+
+    queryBuilder()
+      .sql(query)
+      .planMatcher()
+      .include("vectorized\\=true")
+      .match();
+
+    testBuilder()
+      .sqlQuery(query)
+      .unOrdered()
+      .baselineColumns("struct_int_field", "struct_string_field")
+      .baselineValues(0, "value_0")
+      .baselineValues(2, "value_2")
+      .baselineValues(4, "value_4")
+      .baselineValues(5, "value_5")
+      .baselineValues(6, "value_6")
+      .baselineValues(7, "value_7")
+      .baselineValues(8, "value_8")
+      .go();
+  }
+
+  @Test
+  public void testVectorizedScanWithEqualityDeletes() throws Exception {
+    String query = "select struct_int_field, struct_string_field from dfs.tmp.testEqualityDeletes";
+
+    queryBuilder()
+      .sql(query)
+      .planMatcher()
+      .include("vectorized\\=true")
+      .match();
+
+    testBuilder()
+      .sqlQuery(query)
+      .unOrdered()
+      .baselineColumns("struct_int_field", "struct_string_field")
+      .baselineValues(1, "value_1")
+      .baselineValues(3, "value_3")
+      .baselineValues(4, "value_4")
+      .baselineValues(6, "value_6")
+      .baselineValues(7, "value_7")
+      .baselineValues(8, "value_8")
+      .baselineValues(9, "value_9")
+      .go();
+  }
+
+  @Test
+  public void testEqualityDeletesOfColumnNotProjected() throws Exception {
+    String query = "select struct_int_field from dfs.tmp.testEqualityDeletes";
+
+    queryBuilder()
+      .sql(query)
+      .planMatcher()
+      .include("vectorized\\=false")
+      .match();
+
+    testBuilder()
+      .sqlQuery(query)
+      .unOrdered()
+      .baselineColumns("struct_int_field")
+      .baselineValuesForSingleColumn(1, 3, 4, 6, 7, 8, 9)
+      .go();
+  }
+
+  @Test
+  public void testNotVectorizedScan() throws Exception {
+    queryBuilder()
+      .sql("select int_field, string_field from dfs.tmp.testAllTypes where long_field = 100")
+      .planMatcher()
+      .include("vectorized\\=false")
+      .match();
+
+    queryBuilder()
+      .sql("select t.struct_field.struct_int_field as i from dfs.tmp.testAllTypes t")
+      .planMatcher()
+      .include("vectorized\\=false")
+      .match();
+  }
+
   @Test
   public void testProjectNestedColumn() throws Exception {
     String query = "select t.struct_field.struct_int_field as i, list_field[1] as l," +
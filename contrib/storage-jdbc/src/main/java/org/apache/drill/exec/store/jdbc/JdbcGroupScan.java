@@ -17,6 +17,8 @@
  */
 package org.apache.drill.exec.store.jdbc;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -40,14 +42,17 @@ import com.fasterxml.jackson.annotation.JsonTypeName;
 public class JdbcGroupScan extends AbstractGroupScan {
 
   private final String sql;
+  private final List<String> splits;
   private final List<SchemaPath> columns;
   private final JdbcStoragePlugin plugin;
   private final double rows;
+  private int width = 1;
   private int hashCode;
 
   @JsonCreator
   public JdbcGroupScan(
       @JsonProperty("sql") String sql,
+      @JsonProperty("splits") List<String> splits,
       @JsonProperty("columns") List<SchemaPath> columns,
       @JsonProperty("config") JdbcStorageConfig config,
       @JsonProperty("rows") double rows,
@@ -55,14 +60,17 @@ public class JdbcGroupScan extends AbstractGroupScan {
       @JacksonInject StoragePluginRegistry plugins) throws ExecutionSetupException {
     super(username);
     this.sql = sql;
+    this.splits = splits == null ? Collections.emptyList() : splits;
     this.columns = columns;
     this.plugin = plugins.resolve(config, JdbcStoragePlugin.class);
     this.rows = rows;
   }
 
-  JdbcGroupScan(String sql, List<SchemaPath> columns, JdbcStoragePlugin plugin, double rows, String username) {
+  JdbcGroupScan(String sql, List<String> splits, List<SchemaPath> columns, JdbcStoragePlugin plugin,
+      double rows, String username) {
     super(username);
     this.sql = sql;
+    this.splits = splits;
     this.columns = columns;
     this.plugin = plugin;
     this.rows = rows;
@@ -75,16 +83,30 @@ public class JdbcGroupScan extends AbstractGroupScan {
 
   @Override
   public void applyAssignments(List<DrillbitEndpoint> endpoints) {
+    width = endpoints.size();
   }
 
   @Override
   public SubScan getSpecificScan(int minorFragmentId) {
-    return new JdbcSubScan(sql, columns, plugin, getUserName());
+    if (splits.isEmpty()) {
+      return new JdbcSubScan(Collections.singletonList(sql), columns, plugin, getUserName());
+    }
+    // Deal the splits out to the minor fragments
+    List<String> queries = new ArrayList<>();
+    for (int i = minorFragmentId; i < splits.size(); i += width) {
+      queries.add(splits.get(i));
+    }
+    return new JdbcSubScan(queries, columns, plugin, getUserName());
+  }
+
+  @Override
+  public int getMinParallelizationWidth() {
+    return getMaxParallelizationWidth();
   }
 
   @Override
   public int getMaxParallelizationWidth() {
-    return 1;
+    return Math.max(splits.size(), 1);
   }
 
   @Override
@@ -101,6 +123,15 @@ public class JdbcGroupScan extends AbstractGroupScan {
     return sql;
   }
 
+  /**
+   * SQL of the range splits of the scan, each read by one minor fragment,
+   * empty if the scan is not split.
+   */
+  @JsonProperty("splits")
+  public List<String> getSplits() {
+    return splits;
+  }
+
   @Override
   @JsonProperty("columns")
   public List<SchemaPath> getColumns() {
@@ -109,7 +140,7 @@ public class JdbcGroupScan extends AbstractGroupScan {
 
   @Override
   public String getDigest() {
-    return sql + plugin.getConfig();
+    return sql + splits + plugin.getConfig();
   }
 
   public JdbcStorageConfig getConfig() {
@@ -118,7 +149,7 @@ public class JdbcGroupScan extends AbstractGroupScan {
 
   @Override
   public PhysicalOperator getNewWithChildren(List<PhysicalOperator> children) {
-    return new JdbcGroupScan(sql, columns, plugin, rows, userName);
+    return new JdbcGroupScan(sql, splits, columns, plugin, rows, userName);
   }
 
   @Override
@@ -132,6 +163,7 @@ public class JdbcGroupScan extends AbstractGroupScan {
 
     JdbcGroupScan that = (JdbcGroupScan) obj;
     return Objects.equals(sql, that.sql) &&
+      Objects.equals(splits, that.splits) &&
       Objects.equals(columns, that.columns) &&
       Objects.equals(rows, that.rows) &&
       Objects.equals(plugin.getName(), that.plugin.getName()) &&
@@ -143,7 +175,7 @@ public class JdbcGroupScan extends AbstractGroupScan {
     // Hash code is cached since Calcite calls this method many times.
     if (hashCode == 0) {
       // Don't include cost; it is derived.
-      hashCode = Objects.hash(sql, columns, plugin.getConfig(), rows, plugin.getName());
+      hashCode = Objects.hash(sql, splits, columns, plugin.getConfig(), rows, plugin.getName());
     }
     return hashCode;
   }
@@ -152,6 +184,7 @@ public class JdbcGroupScan extends AbstractGroupScan {
   public String toString() {
     return new PlanStringBuilder(this)
       .field("sql", sql)
+      .field("splits", splits.size())
       .field("columns", columns)
       .field("jdbcConfig", plugin.getConfig())
       .field("rows", rows)
@@ -17,7 +17,6 @@
  */
 package org.apache.drill.exec.store.jdbc;
 
-import org.apache.calcite.adapter.jdbc.JdbcConvention;
 import org.apache.calcite.plan.RelOptRule;
 import org.apache.calcite.plan.RelOptRuleCall;
 import org.apache.calcite.plan.RelTrait;
@@ -35,8 +34,9 @@ class JdbcIntermediatePrelConverterRule extends RelOptRule {
   private final RelTrait inTrait;
   private final RelTrait outTrait;
   private final UserCredentials userCredentials;
+  private final DrillDistributionTrait distribution;
 
-  public JdbcIntermediatePrelConverterRule(JdbcConvention jdbcConvention, UserCredentials userCredentials) {
+  public JdbcIntermediatePrelConverterRule(DrillJdbcConvention jdbcConvention, UserCredentials userCredentials) {
     super(
         RelOptHelper.some(VertexDrel.class, DrillRel.DRILL_LOGICAL,
             RelOptHelper.any(RelNode.class, jdbcConvention)),
@@ -45,6 +45,10 @@ class JdbcIntermediatePrelConverterRule extends RelOptRule {
     this.inTrait = DrillRel.DRILL_LOGICAL;
     this.outTrait = Prel.DRILL_PHYSICAL;
     this.userCredentials = userCredentials;
+    // Scans which may be split into ranges are read in parallel, see JdbcScanSplitter
+    this.distribution = jdbcConvention.getPlugin().getConfig().getScanSplits() > 1
+      ? DrillDistributionTrait.RANDOM_DISTRIBUTED
+      : DrillDistributionTrait.SINGLETON;
   }
 
   @Override
@@ -52,7 +56,7 @@ class JdbcIntermediatePrelConverterRule extends RelOptRule {
     VertexDrel in = call.rel(0);
     RelNode jdbcIntermediatePrel = new JdbcIntermediatePrel(
         in.getCluster(),
-        in.getTraitSet().replace(outTrait).plus(DrillDistributionTrait.SINGLETON),
+        in.getTraitSet().replace(outTrait).plus(distribution),
         in.getInput(0), userCredentials);
     call.transformTo(jdbcIntermediatePrel);
   }
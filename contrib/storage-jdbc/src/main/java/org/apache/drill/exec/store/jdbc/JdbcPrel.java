@@ -25,7 +25,10 @@ import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.RelWriter;
 import org.apache.calcite.rel.metadata.RelMetadataQuery;
 import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.exec.physical.base.GroupScan;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
+import org.apache.drill.exec.planner.fragment.DistributionAffinity;
+import org.apache.drill.exec.planner.physical.DrillScanPrel;
 import org.apache.drill.exec.planner.physical.PhysicalPlanCreator;
 import org.apache.drill.exec.planner.physical.Prel;
 import org.apache.drill.exec.planner.physical.visitor.PrelVisitor;
@@ -40,8 +43,9 @@ import java.util.List;
 /**
  * Represents a JDBC Plan once the children nodes have been rewritten into SQL.
  */
-public class JdbcPrel extends AbstractRelNode implements Prel {
+public class JdbcPrel extends AbstractRelNode implements DrillScanPrel {
   private final String sql;
+  private final List<String> splits;
   private final double rows;
   private final DrillJdbcConvention convention;
   private final UserCredentials userCredentials;
@@ -54,6 +58,8 @@ public class JdbcPrel extends AbstractRelNode implements Prel {
     convention = (DrillJdbcConvention) input.getTraitSet().getTrait(ConventionTraitDef.INSTANCE);
     JdbcDialect jdbcDialect = convention.getPlugin().getJdbcDialect(convention.dialect);
     sql = jdbcDialect.generateSql(getCluster(), input);
+    splits = new JdbcScanSplitter(convention.getPlugin(), convention.dialect, userCredentials)
+      .split(getCluster(), input);
     rowType = input.getRowType();
   }
 
@@ -71,17 +77,28 @@ public class JdbcPrel extends AbstractRelNode implements Prel {
 
   @Override
   public PhysicalOperator getPhysicalOperator(PhysicalPlanCreator creator) {
+    return creator.addMetadata(this, getGroupScan());
+  }
+
+  @Override
+  public GroupScan getGroupScan() {
     List<SchemaPath> columns = new ArrayList<>();
     for (String col : rowType.getFieldNames()) {
       columns.add(SchemaPath.getSimplePath(col));
     }
-    JdbcGroupScan output = new JdbcGroupScan(sql, columns, convention.getPlugin(), rows, userCredentials.getUserName());
-    return creator.addMetadata(this, output);
+    return new JdbcGroupScan(sql, splits, columns, convention.getPlugin(), rows, userCredentials.getUserName());
+  }
+
+  @Override
+  public DistributionAffinity getDistributionAffinity() {
+    return DistributionAffinity.NONE;
   }
 
   @Override
   public RelWriter explainTerms(RelWriter pw) {
-    return super.explainTerms(pw).item("sql", stripToOneLineSql(sql));
+    return super.explainTerms(pw)
+      .item("sql", stripToOneLineSql(sql))
+      .itemIf("splits", splits.size(), !splits.isEmpty());
   }
 
   @Override
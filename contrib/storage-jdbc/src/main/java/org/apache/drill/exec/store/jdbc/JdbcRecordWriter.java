@@ -34,6 +34,7 @@ import org.apache.drill.exec.record.MaterializedField;
 import org.apache.drill.exec.record.VectorAccessible;
 import org.apache.drill.exec.store.AbstractRecordWriter;
 import org.apache.drill.exec.store.EventBasedRecordWriter.FieldConverter;
+import org.apache.drill.exec.store.jdbc.JdbcStorageConfig.WriterMode;
 import org.apache.drill.exec.store.jdbc.utils.CreateTableStmtBuilder;
 import org.apache.drill.exec.store.jdbc.utils.InsertStatementBuilder;
 import org.apache.drill.exec.vector.complex.reader.FieldReader;
@@ -42,13 +43,25 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.sql.Connection;
+import java.sql.Date;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalTime;
 import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Writes the rows of CTAS queries to a JDBC table. Depending on the
+ * {@link WriterMode} of the storage config, rows are either rendered as
+ * literals of multi-row INSERT statements, or bound to the parameters of
+ * a prepared INSERT statement and sent to the database in JDBC batches.
+ */
 public class JdbcRecordWriter extends AbstractRecordWriter {
 
   private static final Logger logger = LoggerFactory.getLogger(JdbcRecordWriter.class);
@@ -58,12 +71,15 @@ public class JdbcRecordWriter extends AbstractRecordWriter {
   protected final SqlDialect dialect;
   private final InsertStatementBuilder insertStatementBuilder;
   private final JdbcWriter config;
+  private final boolean preparedInserts;
+  private PreparedStatement insertStatement;
   private int recordCount;
 
   public JdbcRecordWriter(UserCredentials userCredentials, List<String> tableIdentifier, JdbcWriter config) {
     this.tableIdentifier = tableIdentifier;
     this.dialect = config.getPlugin().getDialect(userCredentials);
     this.config = config;
+    this.preparedInserts = config.getPlugin().getConfig().getWriterMode() == WriterMode.PREPARED;
     this.recordCount = 0;
     this.insertStatementBuilder = getInsertStatementBuilder(tableIdentifier);
 
@@ -87,8 +103,18 @@ public class JdbcRecordWriter extends AbstractRecordWriter {
   }
 
   @Override
-  public void updateSchema(VectorAccessible batch) {
+  public void updateSchema(VectorAccessible batch) throws IOException {
     BatchSchema schema = batch.getSchema();
+    createTable(schema);
+    if (preparedInserts) {
+      prepareInsert(schema);
+    }
+  }
+
+  /**
+   * Creates the target table with the columns of the given schema.
+   */
+  protected void createTable(BatchSchema schema) {
     CreateTableStmtBuilder queryBuilder = new CreateTableStmtBuilder(tableIdentifier, dialect);
     for (MaterializedField field : schema) {
       logger.debug("Adding column {} of type {}.", field.getName(), field.getType().getMinorType());
@@ -117,6 +143,25 @@ public class JdbcRecordWriter extends AbstractRecordWriter {
     }
   }
 
+  private void prepareInsert(BatchSchema schema) throws IOException {
+    if (insertStatement != null) {
+      // Rows of the previous schema were bound to the old statement
+      flush();
+      AutoCloseables.closeSilently(insertStatement);
+    }
+    String sql = insertStatementBuilder.buildPreparedInsertQuery(schema.getFieldCount());
+    try {
+      logger.debug("Preparing insert query: {}", sql);
+      insertStatement = connection.prepareStatement(sql);
+    } catch (SQLException e) {
+      AutoCloseables.closeSilently(connection);
+      throw UserException.dataWriteError(e)
+        .message("The JDBC storage plugin failed to prepare the insert statement.")
+        .addContext("Sql", sql)
+        .build(logger);
+    }
+  }
+
   @Override
   public void startRecord() {
     insertStatementBuilder.resetRow();
@@ -127,20 +172,42 @@ public class JdbcRecordWriter extends AbstractRecordWriter {
   @Override
   public void endRecord() throws IOException {
     logger.debug("Ending record");
-    insertStatementBuilder.endRecord();
+    if (preparedInserts) {
+      try {
+        insertStatement.addBatch();
+      } catch (SQLException e) {
+        throw new IOException(e.getMessage() + " " + e.getSQLState(), e);
+      }
+    } else {
+      insertStatementBuilder.endRecord();
+    }
 
     recordCount++;
 
     if (recordCount >= config.getPlugin().getConfig().getWriterBatchSize()) {
-      executeInsert(insertStatementBuilder.buildInsertQuery());
-
-      // Reset the batch
-      recordCount = 0;
+      flush();
     }
 
     insertStatementBuilder.resetRow();
   }
 
+  /**
+   * Sends the rows collected since the last flush to the database.
+   */
+  private void flush() throws IOException {
+    if (recordCount == 0) {
+      return;
+    }
+    if (preparedInserts) {
+      executeBatch();
+    } else {
+      executeInsert(insertStatementBuilder.buildInsertQuery());
+    }
+
+    // Reset the batch
+    recordCount = 0;
+  }
+
   @Override
   public void abort() {
     logger.debug("Abort insert.");
@@ -149,10 +216,22 @@ public class JdbcRecordWriter extends AbstractRecordWriter {
   @Override
   public void cleanup() throws IOException {
     logger.debug("Cleanup record");
-    if (recordCount != 0) {
-      executeInsert(insertStatementBuilder.buildInsertQuery());
+    flush();
+    AutoCloseables.closeSilently(insertStatement, connection);
+  }
+
+  private void executeBatch() throws IOException {
+    try {
+      logger.debug("Executing batch of {} inserts", recordCount);
+      insertStatement.executeBatch();
+      logger.debug("Batch complete");
+    } catch (SQLException e) {
+      // Drivers such as Postgres report the cause of a failed batch as the next exception
+      SQLException cause = e.getNextException() != null ? e.getNextException() : e;
+      logger.error("Error: {} {} {}", cause.getMessage(), cause.getSQLState(), cause.getErrorCode());
+      AutoCloseables.closeSilently(insertStatement, connection);
+      throw new IOException(cause.getMessage() + " " + cause.getSQLState(), e);
     }
-    AutoCloseables.closeSilently(connection);
   }
 
   private void executeInsert(String insertQuery) throws IOException {
@@ -217,90 +296,106 @@ public class JdbcRecordWriter extends AbstractRecordWriter {
 
   @Override
   public FieldConverter getNewNullableIntConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new NullableJdbcConverter(fieldId, fieldName, reader,
-      new ExactNumericJdbcConverter(fieldId, fieldName, reader));
+    return getNullableConverter(fieldId, fieldName, reader, JDBCType.INTEGER,
+      getNewIntConverter(fieldId, fieldName, reader));
   }
 
   @Override
   public FieldConverter getNewIntConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new ExactNumericJdbcConverter(fieldId, fieldName, reader);
+    return preparedInserts
+      ? new IntParameterConverter(fieldId, fieldName, reader)
+      : new ExactNumericJdbcConverter(fieldId, fieldName, reader);
   }
 
   @Override
   public FieldConverter getNewNullableBigIntConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new NullableJdbcConverter(fieldId, fieldName, reader,
-      new ExactNumericJdbcConverter(fieldId, fieldName, reader));
+    return getNullableConverter(fieldId, fieldName, reader, JDBCType.BIGINT,
+      getNewBigIntConverter(fieldId, fieldName, reader));
   }
 
   @Override
   public FieldConverter getNewBigIntConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new ExactNumericJdbcConverter(fieldId, fieldName, reader);
+    return preparedInserts
+      ? new BigIntParameterConverter(fieldId, fieldName, reader)
+      : new ExactNumericJdbcConverter(fieldId, fieldName, reader);
   }
 
   @Override
   public FieldConverter getNewNullableSmallIntConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new NullableJdbcConverter(fieldId, fieldName, reader,
-      new ExactNumericJdbcConverter(fieldId, fieldName, reader));
+    return getNullableConverter(fieldId, fieldName, reader, JDBCType.SMALLINT,
+      getNewSmallIntConverter(fieldId, fieldName, reader));
   }
 
   @Override
   public FieldConverter getNewSmallIntConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new ExactNumericJdbcConverter(fieldId, fieldName, reader);
+    return preparedInserts
+      ? new SmallIntParameterConverter(fieldId, fieldName, reader)
+      : new ExactNumericJdbcConverter(fieldId, fieldName, reader);
   }
 
   @Override
   public FieldConverter getNewNullableTinyIntConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new NullableJdbcConverter(fieldId, fieldName, reader,
-      new ExactNumericJdbcConverter(fieldId, fieldName, reader));
+    return getNullableConverter(fieldId, fieldName, reader, JDBCType.TINYINT,
+      getNewTinyIntConverter(fieldId, fieldName, reader));
   }
 
   @Override
   public FieldConverter getNewTinyIntConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new ExactNumericJdbcConverter(fieldId, fieldName, reader);
+    return preparedInserts
+      ? new TinyIntParameterConverter(fieldId, fieldName, reader)
+      : new ExactNumericJdbcConverter(fieldId, fieldName, reader);
   }
 
   @Override
   public FieldConverter getNewNullableFloat4Converter(int fieldId, String fieldName, FieldReader reader) {
-    return new NullableJdbcConverter(fieldId, fieldName, reader,
-      new ApproxNumericJdbcConverter(fieldId, fieldName, reader));
+    return getNullableConverter(fieldId, fieldName, reader, JDBCType.REAL,
+      getNewFloat4Converter(fieldId, fieldName, reader));
   }
 
   @Override
   public FieldConverter getNewFloat4Converter(int fieldId, String fieldName, FieldReader reader) {
-    return new ApproxNumericJdbcConverter(fieldId, fieldName, reader);
+    return preparedInserts
+      ? new Float4ParameterConverter(fieldId, fieldName, reader)
+      : new ApproxNumericJdbcConverter(fieldId, fieldName, reader);
   }
 
   @Override
   public FieldConverter getNewNullableFloat8Converter(int fieldId, String fieldName, FieldReader reader) {
-    return new NullableJdbcConverter(fieldId, fieldName, reader,
-      new ApproxNumericJdbcConverter(fieldId, fieldName, reader));
+    return getNullableConverter(fieldId, fieldName, reader, JDBCType.DOUBLE,
+      getNewFloat8Converter(fieldId, fieldName, reader));
   }
 
   @Override
   public FieldConverter getNewFloat8Converter(int fieldId, String fieldName, FieldReader reader) {
-    return new ApproxNumericJdbcConverter(fieldId, fieldName, reader);
+    return preparedInserts
+      ? new Float8ParameterConverter(fieldId, fieldName, reader)
+      : new ApproxNumericJdbcConverter(fieldId, fieldName, reader);
   }
 
   @Override
   public FieldConverter getNewNullableVarDecimalConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new NullableJdbcConverter(fieldId, fieldName, reader,
-      new ExactNumericJdbcConverter(fieldId, fieldName, reader));
+    return getNullableConverter(fieldId, fieldName, reader, JDBCType.DECIMAL,
+      getNewVarDecimalConverter(fieldId, fieldName, reader));
   }
 
   @Override
   public FieldConverter getNewVarDecimalConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new ExactNumericJdbcConverter(fieldId, fieldName, reader);
+    return preparedInserts
+      ? new VarDecimalParameterConverter(fieldId, fieldName, reader)
+      : new ExactNumericJdbcConverter(fieldId, fieldName, reader);
   }
 
   @Override
   public FieldConverter getNewNullableVarCharConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new NullableJdbcConverter(fieldId, fieldName, reader,
-      new VarCharJDBCConverter(fieldId, fieldName, reader));
+    return getNullableConverter(fieldId, fieldName, reader, JDBCType.VARCHAR,
+      getNewVarCharConverter(fieldId, fieldName, reader));
   }
 
   @Override
   public FieldConverter getNewVarCharConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new VarCharJDBCConverter(fieldId, fieldName, reader);
+    return preparedInserts
+      ? new VarCharParameterConverter(fieldId, fieldName, reader)
+      : new VarCharJDBCConverter(fieldId, fieldName, reader);
   }
 
   public class VarCharJDBCConverter extends FieldConverter {
@@ -320,13 +415,15 @@ public class JdbcRecordWriter extends AbstractRecordWriter {
 
   @Override
   public FieldConverter getNewNullableDateConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new NullableJdbcConverter(fieldId, fieldName, reader,
-      new DateJDBCConverter(fieldId, fieldName, reader));
+    return getNullableConverter(fieldId, fieldName, reader, JDBCType.DATE,
+      getNewDateConverter(fieldId, fieldName, reader));
   }
 
   @Override
   public FieldConverter getNewDateConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new DateJDBCConverter(fieldId, fieldName, reader);
+    return preparedInserts
+      ? new DateParameterConverter(fieldId, fieldName, reader)
+      : new DateJDBCConverter(fieldId, fieldName, reader);
   }
 
   public class DateJDBCConverter extends FieldConverter {
@@ -345,13 +442,15 @@ public class JdbcRecordWriter extends AbstractRecordWriter {
 
   @Override
   public FieldConverter getNewNullableTimeConverter(int fieldId, String fieldName, FieldReader reader) {
-      return new NullableJdbcConverter(fieldId, fieldName, reader,
-        new TimeJDBCConverter(fieldId, fieldName, reader));
-    }
+    return getNullableConverter(fieldId, fieldName, reader, JDBCType.TIME,
+      getNewTimeConverter(fieldId, fieldName, reader));
+  }
 
   @Override
   public FieldConverter getNewTimeConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new TimeJDBCConverter(fieldId, fieldName, reader);
+    return preparedInserts
+      ? new TimeParameterConverter(fieldId, fieldName, reader)
+      : new TimeJDBCConverter(fieldId, fieldName, reader);
   }
 
   public class TimeJDBCConverter extends FieldConverter {
@@ -372,13 +471,15 @@ public class JdbcRecordWriter extends AbstractRecordWriter {
 
   @Override
   public FieldConverter getNewNullableTimeStampConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new NullableJdbcConverter(fieldId, fieldName, reader,
-      new TimeStampJDBCConverter(fieldId, fieldName, reader));
+    return getNullableConverter(fieldId, fieldName, reader, JDBCType.TIMESTAMP,
+      getNewTimeStampConverter(fieldId, fieldName, reader));
   }
 
   @Override
   public FieldConverter getNewTimeStampConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new TimeStampJDBCConverter(fieldId, fieldName, reader);
+    return preparedInserts
+      ? new TimeStampParameterConverter(fieldId, fieldName, reader)
+      : new TimeStampJDBCConverter(fieldId, fieldName, reader);
   }
 
   public class TimeStampJDBCConverter extends FieldConverter {
@@ -399,13 +500,15 @@ public class JdbcRecordWriter extends AbstractRecordWriter {
 
   @Override
   public FieldConverter getNewNullableBitConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new NullableJdbcConverter(fieldId, fieldName, reader,
-      new BitJDBCConverter(fieldId, fieldName, reader));
+    return getNullableConverter(fieldId, fieldName, reader, JDBCType.BOOLEAN,
+      getNewBitConverter(fieldId, fieldName, reader));
   }
 
   @Override
   public FieldConverter getNewBitConverter(int fieldId, String fieldName, FieldReader reader) {
-    return new BitJDBCConverter(fieldId, fieldName, reader);
+    return preparedInserts
+      ? new BitParameterConverter(fieldId, fieldName, reader)
+      : new BitJDBCConverter(fieldId, fieldName, reader);
   }
 
   public class BitJDBCConverter extends FieldConverter {
@@ -419,4 +522,207 @@ public class JdbcRecordWriter extends AbstractRecordWriter {
       insertStatementBuilder.addRowValue(SqlLiteral.createBoolean(reader.readBoolean(), SqlParserPos.ZERO));
     }
   }
+
+  private FieldConverter getNullableConverter(int fieldId, String fieldName, FieldReader reader,
+      JDBCType type, FieldConverter delegate) {
+    return preparedInserts
+      ? new NullableParameterConverter(fieldId, fieldName, reader, type, delegate)
+      : new NullableJdbcConverter(fieldId, fieldName, reader, delegate);
+  }
+
+  /**
+   * Binds the value of the current row directly to the parameter of the
+   * prepared insert statement matching its column.
+   */
+  public abstract class ParameterConverter extends FieldConverter {
+
+    public ParameterConverter(int fieldId, String fieldName, FieldReader reader) {
+      super(fieldId, fieldName, reader);
+    }
+
+    @Override
+    public void writeField() throws IOException {
+      try {
+        bind(insertStatement, fieldId + 1);
+      } catch (SQLException e) {
+        throw new IOException(e.getMessage() + " " + e.getSQLState(), e);
+      }
+    }
+
+    protected abstract void bind(PreparedStatement statement, int index) throws SQLException;
+  }
+
+  public class NullableParameterConverter extends ParameterConverter {
+    private final JDBCType type;
+    private final FieldConverter delegate;
+
+    public NullableParameterConverter(int fieldId, String fieldName, FieldReader reader,
+        JDBCType type, FieldConverter delegate) {
+      super(fieldId, fieldName, reader);
+      this.type = type;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void writeField() throws IOException {
+      if (reader.isSet()) {
+        delegate.writeField();
+      } else {
+        super.writeField();
+      }
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, int index) throws SQLException {
+      statement.setNull(index, type.getVendorTypeNumber());
+    }
+  }
+
+  public class IntParameterConverter extends ParameterConverter {
+
+    public IntParameterConverter(int fieldId, String fieldName, FieldReader reader) {
+      super(fieldId, fieldName, reader);
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, int index) throws SQLException {
+      statement.setInt(index, reader.readInteger());
+    }
+  }
+
+  public class BigIntParameterConverter extends ParameterConverter {
+
+    public BigIntParameterConverter(int fieldId, String fieldName, FieldReader reader) {
+      super(fieldId, fieldName, reader);
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, int index) throws SQLException {
+      statement.setLong(index, reader.readLong());
+    }
+  }
+
+  public class SmallIntParameterConverter extends ParameterConverter {
+
+    public SmallIntParameterConverter(int fieldId, String fieldName, FieldReader reader) {
+      super(fieldId, fieldName, reader);
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, int index) throws SQLException {
+      statement.setShort(index, reader.readShort());
+    }
+  }
+
+  public class TinyIntParameterConverter extends ParameterConverter {
+
+    public TinyIntParameterConverter(int fieldId, String fieldName, FieldReader reader) {
+      super(fieldId, fieldName, reader);
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, int index) throws SQLException {
+      statement.setByte(index, reader.readByte());
+    }
+  }
+
+  public class Float4ParameterConverter extends ParameterConverter {
+
+    public Float4ParameterConverter(int fieldId, String fieldName, FieldReader reader) {
+      super(fieldId, fieldName, reader);
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, int index) throws SQLException {
+      statement.setFloat(index, reader.readFloat());
+    }
+  }
+
+  public class Float8ParameterConverter extends ParameterConverter {
+
+    public Float8ParameterConverter(int fieldId, String fieldName, FieldReader reader) {
+      super(fieldId, fieldName, reader);
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, int index) throws SQLException {
+      statement.setDouble(index, reader.readDouble());
+    }
+  }
+
+  public class VarDecimalParameterConverter extends ParameterConverter {
+
+    public VarDecimalParameterConverter(int fieldId, String fieldName, FieldReader reader) {
+      super(fieldId, fieldName, reader);
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, int index) throws SQLException {
+      statement.setBigDecimal(index, reader.readBigDecimal());
+    }
+  }
+
+  public class VarCharParameterConverter extends ParameterConverter {
+
+    public VarCharParameterConverter(int fieldId, String fieldName, FieldReader reader) {
+      super(fieldId, fieldName, reader);
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, int index) throws SQLException {
+      statement.setString(index, reader.readText().toString());
+    }
+  }
+
+  public class DateParameterConverter extends ParameterConverter {
+
+    public DateParameterConverter(int fieldId, String fieldName, FieldReader reader) {
+      super(fieldId, fieldName, reader);
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, int index) throws SQLException {
+      statement.setDate(index, Date.valueOf(reader.readLocalDate()));
+    }
+  }
+
+  public class TimeParameterConverter extends ParameterConverter {
+
+    public TimeParameterConverter(int fieldId, String fieldName, FieldReader reader) {
+      super(fieldId, fieldName, reader);
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, int index) throws SQLException {
+      LocalTime localTime = reader.readLocalTime();
+      Time time = Time.valueOf(localTime);
+      // Time.valueOf() drops the fraction of the second
+      time.setTime(time.getTime() + TimeUnit.NANOSECONDS.toMillis(localTime.getNano()));
+      statement.setTime(index, time);
+    }
+  }
+
+  public class TimeStampParameterConverter extends ParameterConverter {
+
+    public TimeStampParameterConverter(int fieldId, String fieldName, FieldReader reader) {
+      super(fieldId, fieldName, reader);
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, int index) throws SQLException {
+      statement.setTimestamp(index, Timestamp.valueOf(reader.readLocalDateTime()));
+    }
+  }
+
+  public class BitParameterConverter extends ParameterConverter {
+
+    public BitParameterConverter(int fieldId, String fieldName, FieldReader reader) {
+      super(fieldId, fieldName, reader);
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, int index) throws SQLException {
+      statement.setBoolean(index, reader.readBoolean());
+    }
+  }
 }
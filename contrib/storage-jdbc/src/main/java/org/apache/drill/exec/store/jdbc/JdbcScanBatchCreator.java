@@ -33,8 +33,8 @@ import org.apache.drill.exec.record.CloseableRecordBatch;
 import org.apache.drill.exec.record.RecordBatch;
 import com.google.common.base.Preconditions;
 
-import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.sql.DataSource;
 
@@ -70,9 +70,9 @@ public class JdbcScanBatchCreator implements BatchCreator<JdbcSubScan> {
         plugin.getName()
       ).build(JdbcStoragePlugin.logger));
 
-    List<ManagedReader<SchemaNegotiator>> readers = Collections.singletonList(
-      new JdbcBatchReader(ds, subScan.getSql(), subScan.getColumns())
-    );
+    List<ManagedReader<SchemaNegotiator>> readers = subScan.getQueries().stream()
+      .map(sql -> new JdbcBatchReader(ds, sql, subScan.getColumns()))
+      .collect(Collectors.toList());
 
     ManagedScanFramework.ReaderFactory readerFactory = new BasicScanFactory(readers.iterator());
     builder.setReaderFactory(readerFactory);
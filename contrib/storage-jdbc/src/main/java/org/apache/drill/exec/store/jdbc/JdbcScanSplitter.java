@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.jdbc;
+
+import org.apache.calcite.adapter.jdbc.JdbcRules;
+import org.apache.calcite.adapter.jdbc.JdbcTable;
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Filter;
+import org.apache.calcite.rel.core.Project;
+import org.apache.calcite.rel.core.TableScan;
+import org.apache.calcite.rel.type.RelDataTypeField;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlDialect;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.util.DateString;
+import org.apache.calcite.util.TimestampString;
+import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.proto.UserBitShared.UserCredentials;
+import org.apache.drill.exec.store.SubsetRemover;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Splits the scan of a single JDBC table into slices on ranges of a numeric
+ * or date column, so that each minor fragment reads its own slices with its
+ * own connection. The split column is the one configured for the table in
+ * {@link JdbcStorageConfig#getSplitColumns()}, or else the single column
+ * primary key of the table. The ranges come from probing the MIN and MAX of
+ * the column. The first and last slices are open ended, and the first one
+ * also reads the rows with a null split column, so the slices cover the whole
+ * table even if it changed since it was probed.
+ * <p>
+ * Only queries which just filter and project a table are split; the slices of
+ * aggregates, joins, sorts or limits pushed down to the database would not add
+ * up to the results of the query.
+ */
+public class JdbcScanSplitter {
+
+  private static final Logger logger = LoggerFactory.getLogger(JdbcScanSplitter.class);
+
+  private final JdbcStoragePlugin plugin;
+  private final SqlDialect dialect;
+  private final JdbcDialect jdbcDialect;
+  private final UserCredentials userCredentials;
+
+  public JdbcScanSplitter(JdbcStoragePlugin plugin, SqlDialect dialect, UserCredentials userCredentials) {
+    this.plugin = plugin;
+    this.dialect = dialect;
+    this.jdbcDialect = plugin.getJdbcDialect(dialect);
+    this.userCredentials = userCredentials;
+  }
+
+  /**
+   * Generates the SQL of each slice of the given query.
+   *
+   * @param cluster cluster of the query
+   * @param input query pushed down to the database
+   * @return SQL of the slices, empty if the query is not split
+   */
+  public List<String> split(RelOptCluster cluster, RelNode input) {
+    int splitCount = plugin.getConfig().getScanSplits();
+    if (splitCount < 2) {
+      return Collections.emptyList();
+    }
+    RelNode rel = input.accept(SubsetRemover.INSTANCE);
+    TableScan scan = findScan(rel);
+    if (scan == null) {
+      return Collections.emptyList();
+    }
+    JdbcTable table = scan.getTable().unwrap(JdbcTable.class);
+    Optional<DataSource> dataSource = plugin.getDataSource(userCredentials);
+    if (table == null || !dataSource.isPresent()) {
+      return Collections.emptyList();
+    }
+
+    try (Connection connection = dataSource.get().getConnection()) {
+      String column = getSplitColumn(connection, table);
+      RelDataTypeField field = column == null ? null : scan.getRowType().getField(column, false, false);
+      if (field == null || !isSplittable(field)) {
+        logger.debug("No column to split the scan of {} on", table.jdbcTableName);
+        return Collections.emptyList();
+      }
+
+      List<RexNode> bounds = probeBounds(connection, table, field, splitCount, cluster.getRexBuilder());
+      if (bounds.isEmpty()) {
+        return Collections.emptyList();
+      }
+
+      RexBuilder rexBuilder = cluster.getRexBuilder();
+      RexNode ref = rexBuilder.makeInputRef(scan, field.getIndex());
+      List<String> splits = new ArrayList<>();
+      for (int i = 0; i <= bounds.size(); i++) {
+        RexNode condition;
+        if (i == 0) {
+          condition = rexBuilder.makeCall(SqlStdOperatorTable.OR,
+            rexBuilder.makeCall(SqlStdOperatorTable.LESS_THAN, ref, bounds.get(0)),
+            rexBuilder.makeCall(SqlStdOperatorTable.IS_NULL, ref));
+        } else if (i == bounds.size()) {
+          condition = rexBuilder.makeCall(SqlStdOperatorTable.GREATER_THAN_OR_EQUAL, ref, bounds.get(i - 1));
+        } else {
+          condition = rexBuilder.makeCall(SqlStdOperatorTable.AND,
+            rexBuilder.makeCall(SqlStdOperatorTable.GREATER_THAN_OR_EQUAL, ref, bounds.get(i - 1)),
+            rexBuilder.makeCall(SqlStdOperatorTable.LESS_THAN, ref, bounds.get(i)));
+        }
+        splits.add(jdbcDialect.generateSql(cluster, withFilter(rel, scan, condition)));
+      }
+      logger.debug("Split the scan of {} on {} into {} slices", table.jdbcTableName, field.getName(), splits.size());
+      return splits;
+    } catch (SQLException e) {
+      logger.warn("Unable to split the scan of {}, it is read by a single fragment", table.jdbcTableName, e);
+      return Collections.emptyList();
+    }
+  }
+
+  /**
+   * Returns the table scan of a query which only filters and projects it,
+   * or null for any other query.
+   */
+  private static TableScan findScan(RelNode rel) {
+    if (rel instanceof TableScan) {
+      return (TableScan) rel;
+    }
+    if (rel instanceof Project || rel instanceof Filter) {
+      return findScan(rel.getInput(0));
+    }
+    return null;
+  }
+
+  private static RelNode withFilter(RelNode rel, TableScan scan, RexNode condition) {
+    if (rel == scan) {
+      return new JdbcRules.JdbcFilter(scan.getCluster(), scan.getTraitSet(), scan, condition);
+    }
+    RelNode input = withFilter(rel.getInput(0), scan, condition);
+    return rel.copy(rel.getTraitSet(), Collections.singletonList(input));
+  }
+
+  private String getSplitColumn(Connection connection, JdbcTable table) throws SQLException {
+    Map<String, String> splitColumns = plugin.getConfig().getSplitColumns();
+    if (table.jdbcSchemaName != null) {
+      String column = splitColumns.get(table.jdbcSchemaName + "." + table.jdbcTableName);
+      if (column != null) {
+        return column;
+      }
+    }
+    String column = splitColumns.get(table.jdbcTableName);
+    if (column != null) {
+      return column;
+    }
+
+    try (ResultSet primaryKey = connection.getMetaData()
+        .getPrimaryKeys(table.jdbcCatalogName, table.jdbcSchemaName, table.jdbcTableName)) {
+      while (primaryKey.next()) {
+        if (column != null) {
+          // Compound primary key
+          return null;
+        }
+        column = primaryKey.getString("COLUMN_NAME");
+      }
+    }
+    return column;
+  }
+
+  private static boolean isSplittable(RelDataTypeField field) {
+    switch (field.getType().getSqlTypeName()) {
+      case TINYINT:
+      case SMALLINT:
+      case INTEGER:
+      case BIGINT:
+      case DECIMAL:
+      case DATE:
+      case TIMESTAMP:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Probes the MIN and MAX of the split column and returns the literals of
+   * the bounds between the slices, in increasing order, or an empty list if
+   * the column has less than two distinct values.
+   */
+  private List<RexNode> probeBounds(Connection connection, JdbcTable table, RelDataTypeField field,
+      int splitCount, RexBuilder rexBuilder) throws SQLException {
+    List<String> names = new ArrayList<>();
+    for (String name : new String[] {table.jdbcCatalogName, table.jdbcSchemaName, table.jdbcTableName}) {
+      if (name != null) {
+        names.add(name);
+      }
+    }
+    String column = dialect.quoteIdentifier(field.getName());
+    String sql = String.format("SELECT MIN(%s), MAX(%s) FROM %s",
+      column, column, dialect.quoteIdentifier(new StringBuilder(), names));
+
+    BigDecimal min;
+    BigDecimal max;
+    try (Statement statement = connection.createStatement();
+         ResultSet resultSet = statement.executeQuery(sql)) {
+      if (!resultSet.next()) {
+        return Collections.emptyList();
+      }
+      switch (field.getType().getSqlTypeName()) {
+        case DATE:
+          java.sql.Date minDate = resultSet.getDate(1);
+          java.sql.Date maxDate = resultSet.getDate(2);
+          min = minDate == null ? null : BigDecimal.valueOf(minDate.toLocalDate().toEpochDay());
+          max = maxDate == null ? null : BigDecimal.valueOf(maxDate.toLocalDate().toEpochDay());
+          break;
+        case TIMESTAMP:
+          java.sql.Timestamp minTimestamp = resultSet.getTimestamp(1);
+          java.sql.Timestamp maxTimestamp = resultSet.getTimestamp(2);
+          min = minTimestamp == null ? null
+            : BigDecimal.valueOf(minTimestamp.toLocalDateTime().toInstant(ZoneOffset.UTC).toEpochMilli());
+          max = maxTimestamp == null ? null
+            : BigDecimal.valueOf(maxTimestamp.toLocalDateTime().toInstant(ZoneOffset.UTC).toEpochMilli());
+          break;
+        default:
+          min = resultSet.getBigDecimal(1);
+          max = resultSet.getBigDecimal(2);
+      }
+    }
+    if (min == null || max == null || min.compareTo(max) >= 0) {
+      return Collections.emptyList();
+    }
+
+    int scale = field.getType().getSqlTypeName() == SqlTypeName.DECIMAL
+      ? Math.max(field.getType().getScale(), 0)
+      : 0;
+    BigDecimal range = max.subtract(min);
+    List<RexNode> bounds = new ArrayList<>();
+    BigDecimal previous = min;
+    for (int i = 1; i < splitCount; i++) {
+      BigDecimal bound = min.add(range.multiply(BigDecimal.valueOf(i))
+        .divide(BigDecimal.valueOf(splitCount), scale, RoundingMode.FLOOR));
+      // Narrow ranges yield fewer slices than asked for
+      if (bound.compareTo(previous) <= 0) {
+        continue;
+      }
+      bounds.add(toLiteral(bound, field, rexBuilder));
+      previous = bound;
+    }
+    return bounds;
+  }
+
+  private static RexNode toLiteral(BigDecimal value, RelDataTypeField field, RexBuilder rexBuilder) {
+    switch (field.getType().getSqlTypeName()) {
+      case DATE:
+        return rexBuilder.makeDateLiteral(DateString.fromDaysSinceEpoch(value.intValueExact()));
+      case TIMESTAMP:
+        return rexBuilder.makeTimestampLiteral(
+          TimestampString.fromMillisSinceEpoch(value.longValueExact()), Types.DEFAULT_TIMESTAMP_PRECISION);
+      default:
+        return rexBuilder.makeExactLiteral(value, field.getType());
+    }
+  }
+}
@@ -36,6 +36,7 @@ import org.apache.drill.common.logical.StoragePluginConfig;
 import org.apache.drill.common.logical.security.CredentialsProvider;
 import org.apache.drill.exec.store.security.UsernamePasswordCredentials;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,6 +55,44 @@ public class JdbcStorageConfig extends StoragePluginConfig {
   private final boolean writable;
   private final Map<String, Object> sourceParameters;
   private final int writerBatchSize;
+  private final WriterMode writerMode;
+  private final int scanSplits;
+  private final Map<String, String> splitColumns;
+
+  /**
+   * How the writer sends the rows of CTAS and INSERT queries to the database.
+   */
+  public enum WriterMode {
+    /**
+     * Rows are rendered as SQL literals in the text of multi-row
+     * INSERT statements.
+     */
+    LITERAL,
+    /**
+     * Rows are bound to the parameters of a single prepared INSERT statement
+     * and sent to the database in JDBC batches.
+     */
+    PREPARED;
+
+    public static WriterMode parseOrDefault(String writerMode, WriterMode defavlt) {
+      return !Strings.isNullOrEmpty(writerMode) ? WriterMode.valueOf(writerMode.toUpperCase()) : defavlt;
+    }
+  }
+
+  public JdbcStorageConfig(
+      String driver,
+      String url,
+      String username,
+      String password,
+      boolean caseInsensitiveTableNames,
+      boolean writable,
+      Map<String, Object> sourceParameters,
+      CredentialsProvider credentialsProvider,
+      String authMode,
+      int writerBatchSize) {
+    this(driver, url, username, password, caseInsensitiveTableNames, writable, sourceParameters,
+      credentialsProvider, authMode, writerBatchSize, null, 0, null);
+  }
 
   @JsonCreator
   public JdbcStorageConfig(
@@ -66,7 +105,10 @@ public class JdbcStorageConfig extends StoragePluginConfig {
       @JsonProperty("sourceParameters") Map<String, Object> sourceParameters,
       @JsonProperty("credentialsProvider") CredentialsProvider credentialsProvider,
       @JsonProperty("authMode") String authMode,
-      @JsonProperty("writerBatchSize") int writerBatchSize) {
+      @JsonProperty("writerBatchSize") int writerBatchSize,
+      @JsonProperty("writerMode") String writerMode,
+      @JsonProperty("scanSplits") int scanSplits,
+      @JsonProperty("splitColumns") Map<String, String> splitColumns) {
     super(
       CredentialProviderUtils.getCredentialsProvider(username, password, credentialsProvider),
       credentialsProvider == null,
@@ -78,6 +120,9 @@ public class JdbcStorageConfig extends StoragePluginConfig {
     this.caseInsensitiveTableNames = caseInsensitiveTableNames;
     this.sourceParameters = sourceParameters == null ? Collections.emptyMap() : sourceParameters;
     this.writerBatchSize = writerBatchSize == 0 ? DEFAULT_MAX_WRITER_BATCH_SIZE : writerBatchSize;
+    this.writerMode = WriterMode.parseOrDefault(writerMode, WriterMode.LITERAL);
+    this.scanSplits = scanSplits;
+    this.splitColumns = splitColumns == null ? Collections.emptyMap() : splitColumns;
   }
 
 
@@ -89,6 +134,9 @@ public class JdbcStorageConfig extends StoragePluginConfig {
     this.caseInsensitiveTableNames = that.caseInsensitiveTableNames;
     this.sourceParameters = that.sourceParameters;
     this.writerBatchSize = that.writerBatchSize;
+    this.writerMode = that.writerMode;
+    this.scanSplits = that.scanSplits;
+    this.splitColumns = that.splitColumns;
   }
 
   @JsonProperty("username")
@@ -128,6 +176,23 @@ public class JdbcStorageConfig extends StoragePluginConfig {
 
   public int getWriterBatchSize() { return writerBatchSize; }
 
+  public WriterMode getWriterMode() { return writerMode; }
+
+  /**
+   * Number of range splits to read a table with in parallel, zero or one
+   * to read each table with a single fragment.
+   */
+  public int getScanSplits() { return scanSplits; }
+
+  /**
+   * Columns to split the scans of tables on, keyed by table name, optionally
+   * qualified with its schema. The scans of other tables are split on their
+   * single column primary key, if any.
+   */
+  public Map<String, String> getSplitColumns() {
+    return splitColumns;
+  }
+
   @JsonProperty("caseInsensitiveTableNames")
   public boolean areTableNamesCaseInsensitive() {
     return caseInsensitiveTableNames;
@@ -164,7 +229,7 @@ public class JdbcStorageConfig extends StoragePluginConfig {
   public int hashCode() {
     return Objects.hash(
       driver, url, caseInsensitiveTableNames, sourceParameters,
-      credentialsProvider, writable, writerBatchSize, authMode
+      credentialsProvider, writable, writerBatchSize, writerMode, scanSplits, splitColumns, authMode
     );
   }
 
@@ -184,6 +249,9 @@ public class JdbcStorageConfig extends StoragePluginConfig {
         Objects.equals(sourceParameters, that.sourceParameters) &&
         Objects.equals(credentialsProvider, that.credentialsProvider) &&
         Objects.equals(writerBatchSize, that.writerBatchSize) &&
+        Objects.equals(writerMode, that.writerMode) &&
+        scanSplits == that.scanSplits &&
+        Objects.equals(splitColumns, that.splitColumns) &&
         Objects.equals(authMode, that.authMode);
   }
 
@@ -194,6 +262,9 @@ public class JdbcStorageConfig extends StoragePluginConfig {
       .field("url", url)
       .field("writable", writable)
       .field("writerBatchSize", writerBatchSize)
+      .field("writerMode", writerMode)
+      .field("scanSplits", scanSplits)
+      .field("splitColumns", splitColumns)
       .field("sourceParameters", sourceParameters)
       .field("caseInsensitiveTableNames", caseInsensitiveTableNames)
       .field("credentialProvider", credentialsProvider)
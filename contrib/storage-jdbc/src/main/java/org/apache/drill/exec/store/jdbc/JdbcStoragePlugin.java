@@ -250,6 +250,11 @@ public class JdbcStoragePlugin extends AbstractStoragePlugin {
         hikariConfig.setReadOnly(!config.isWritable());
       }
 
+      if (config.isWritable() != null && config.isWritable()
+          && config.getWriterMode() == JdbcStorageConfig.WriterMode.PREPARED) {
+        enableBatchRewrite(config.getUrl(), hikariConfig);
+      }
+
       return new HikariDataSource(hikariConfig);
     } catch (RuntimeException e) {
       throw UserException.connectionError(e)
@@ -257,4 +262,24 @@ public class JdbcStoragePlugin extends AbstractStoragePlugin {
         .build(logger);
     }
   }
+
+  /**
+   * Drivers of some databases send a JDBC batch of inserts one statement at a
+   * time unless asked to rewrite it into multi-row inserts, which is what makes
+   * batched writes fast. Enables that bulk path for the drivers known to have
+   * one, unless the user configured the driver property themselves.
+   */
+  private static void enableBatchRewrite(String url, HikariConfig hikariConfig) {
+    String property;
+    if (url.startsWith("jdbc:mysql:") || url.startsWith("jdbc:mariadb:")) {
+      property = "rewriteBatchedStatements";
+    } else if (url.startsWith("jdbc:postgresql:")) {
+      property = "reWriteBatchedInserts";
+    } else {
+      return;
+    }
+    if (!url.contains(property) && !hikariConfig.getDataSourceProperties().containsKey(property)) {
+      hikariConfig.addDataSourceProperty(property, "true");
+    }
+  }
 }
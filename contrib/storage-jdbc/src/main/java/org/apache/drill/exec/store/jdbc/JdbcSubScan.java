@@ -38,26 +38,26 @@ public class JdbcSubScan extends AbstractSubScan {
 
   public static final String OPERATOR_TYPE = "JDBC_SCAN";
 
-  private final String sql;
+  private final List<String> queries;
   private final JdbcStoragePlugin plugin;
   private final List<SchemaPath> columns;
 
   @JsonCreator
   public JdbcSubScan(
-      @JsonProperty("sql") String sql,
+      @JsonProperty("queries") List<String> queries,
       @JsonProperty("columns") List<SchemaPath> columns,
       @JsonProperty("config") StoragePluginConfig config,
       @JsonProperty("username") String username,
       @JacksonInject StoragePluginRegistry plugins) throws ExecutionSetupException {
     super(username);
-    this.sql = sql;
+    this.queries = queries;
     this.columns = columns;
     this.plugin = plugins.resolve(config, JdbcStoragePlugin.class);
   }
 
-  JdbcSubScan(String sql, List<SchemaPath> columns, JdbcStoragePlugin plugin, String username) {
+  JdbcSubScan(List<String> queries, List<SchemaPath> columns, JdbcStoragePlugin plugin, String username) {
     super(username);
-    this.sql = sql;
+    this.queries = queries;
     this.columns = columns;
     this.plugin = plugin;
   }
@@ -67,8 +67,12 @@ public class JdbcSubScan extends AbstractSubScan {
     return OPERATOR_TYPE;
   }
 
-  public String getSql() {
-    return sql;
+  /**
+   * SQL of the queries read one after the other by the scan: the whole
+   * query, or some of its range splits.
+   */
+  public List<String> getQueries() {
+    return queries;
   }
 
   public List<SchemaPath> getColumns() {
@@ -87,14 +91,14 @@ public class JdbcSubScan extends AbstractSubScan {
   @Override
   public String toString() {
     return new PlanStringBuilder(this)
-      .field("sql", sql)
+      .field("queries", queries)
       .field("columns", columns)
       .toString();
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(sql, columns);
+    return Objects.hash(queries, columns);
   }
 
   @Override
@@ -106,7 +110,7 @@ public class JdbcSubScan extends AbstractSubScan {
       return false;
     }
     JdbcSubScan other = (JdbcSubScan) obj;
-    return Objects.equals(sql, other.sql)
+    return Objects.equals(queries, other.queries)
       && Objects.equals(columns, other.columns);
   }
 }
@@ -18,7 +18,7 @@
 package org.apache.drill.exec.store.jdbc;
 
 import org.apache.drill.exec.proto.UserBitShared.UserCredentials;
-import org.apache.drill.exec.record.VectorAccessible;
+import org.apache.drill.exec.record.BatchSchema;
 
 import java.util.List;
 
@@ -29,7 +29,7 @@ public class JdbcTableModifyWriter extends JdbcRecordWriter {
   }
 
   @Override
-  public void updateSchema(VectorAccessible batch) {
-    // no-op
+  protected void createTable(BatchSchema schema) {
+    // no-op, the table already exists
   }
 }
@@ -19,6 +19,7 @@ package org.apache.drill.exec.store.jdbc.utils;
 
 import org.apache.calcite.sql.SqlCall;
 import org.apache.calcite.sql.SqlDialect;
+import org.apache.calcite.sql.SqlDynamicParam;
 import org.apache.calcite.sql.SqlIdentifier;
 import org.apache.calcite.sql.SqlInsert;
 import org.apache.calcite.sql.SqlNode;
@@ -61,6 +62,27 @@ public class InsertStatementBuilder {
       SqlParserPos.ZERO, sqlRows.toArray(new SqlNode[0]));
     resetRow();
     sqlRows.clear();
+    return buildInsert(values);
+  }
+
+  /**
+   * Builds an INSERT statement of a single row whose values are all
+   * dynamic parameters, for use as a prepared statement.
+   *
+   * @param columnCount number of columns of the table
+   * @return text of the INSERT statement
+   */
+  public String buildPreparedInsertQuery(int columnCount) {
+    SqlNode[] params = new SqlNode[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      params[i] = new SqlDynamicParam(i, SqlParserPos.ZERO);
+    }
+    SqlCall values = SqlStdOperatorTable.VALUES.createCall(SqlParserPos.ZERO,
+      SqlInternalOperators.ANONYMOUS_ROW.createCall(SqlParserPos.ZERO, params));
+    return buildInsert(values);
+  }
+
+  private String buildInsert(SqlCall values) {
     SqlInsert sqlInsert = new SqlInsert(
       SqlParserPos.ZERO,
       SqlNodeList.EMPTY,
@@ -17,6 +17,7 @@
  */
 package org.apache.drill.exec.store.jdbc;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.drill.categories.JdbcStorageTest;
@@ -89,6 +90,21 @@ public class TestJdbcPluginWithH2IT extends ClusterTest {
     cluster.defineStoragePlugin("h2", jdbcStorageConfig);
     cluster.defineStoragePlugin("h2o", jdbcStorageConfig);
 
+    Map<String, Object> splitSourceParameters = new HashMap<>();
+    splitSourceParameters.put("minimumIdle", 1);
+    splitSourceParameters.put("maximumPoolSize", "4");
+    JdbcStorageConfig splitStorageConfig = new JdbcStorageConfig("org.h2.Driver", connString,
+        null, null, true, false, splitSourceParameters, credentialsProvider, AuthMode.SHARED_USER.name(), 10000,
+        null, 3, null);
+    splitStorageConfig.setEnabled(true);
+    cluster.defineStoragePlugin("h2_split", splitStorageConfig);
+
+    JdbcStorageConfig dateSplitStorageConfig = new JdbcStorageConfig("org.h2.Driver", connString,
+        null, null, true, false, splitSourceParameters, credentialsProvider, AuthMode.SHARED_USER.name(), 10000,
+        null, 3, Collections.singletonMap("DRILL_H2_TEST.PERSON", "date_field"));
+    dateSplitStorageConfig.setEnabled(true);
+    cluster.defineStoragePlugin("h2_date_split", dateSplitStorageConfig);
+
     EnumMockPlugin.EnumMockStoragePluginConfig config = new EnumMockPlugin.EnumMockStoragePluginConfig();
     config.setEnabled(true);
     cluster.defineStoragePlugin("mocked_enum", config);
@@ -140,6 +156,63 @@ public class TestJdbcPluginWithH2IT extends ClusterTest {
         .go();
   }
 
+  @Test
+  public void testRangeSplitScan() throws Exception {
+    String query = "select person_id, first_name from h2_split.tmp.drill_h2_test.person";
+
+    queryBuilder()
+        .sql(query)
+        .planMatcher()
+        .include("splits=\\[3\\]")
+        .match();
+
+    testBuilder()
+        .sqlQuery(query)
+        .unOrdered()
+        .baselineColumns("person_id", "first_name")
+        .baselineValues(1, "first_name_1")
+        .baselineValues(2, "first_name_2")
+        .baselineValues(3, "first_name_3")
+        .baselineValues(4, null)
+        .baselineValues(5, null)
+        .go();
+  }
+
+  @Test
+  public void testRangeSplitScanOnConfiguredColumn() throws Exception {
+    // The row with a null date is read by the first split
+    String query = "select person_id from h2_date_split.tmp.drill_h2_test.person where person_id <> 2";
+
+    queryBuilder()
+        .sql(query)
+        .planMatcher()
+        .include("splits=\\[3\\]")
+        .match();
+
+    testBuilder()
+        .sqlQuery(query)
+        .unOrdered()
+        .baselineColumns("person_id")
+        .baselineValues(1)
+        .baselineValues(3)
+        .baselineValues(4)
+        .baselineValues(5)
+        .go();
+  }
+
+  @Test
+  public void testAggregationIsNotSplit() throws Exception {
+    String query = "select count(*) from h2_split.tmp.drill_h2_test.person";
+
+    queryBuilder()
+        .sql(query)
+        .planMatcher()
+        .exclude("splits=")
+        .match();
+
+    assertEquals(5, queryBuilder().sql(query).singletonLong());
+  }
+
   @Test
   public void pushDownJoin() throws Exception {
     String query = "select x.person_id from (select person_id from h2.tmp.drill_h2_test.person) x "
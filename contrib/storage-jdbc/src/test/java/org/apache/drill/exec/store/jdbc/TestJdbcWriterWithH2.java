@@ -63,6 +63,8 @@ public class TestJdbcWriterWithH2 extends ClusterTest {
 
   public static final String TEST_TABLE = "h2.tmp.drill_h2_test.test_table";
 
+  public static final String PREPARED_TEST_TABLE = "h2_prepared.tmp.drill_h2_test.test_table";
+
   public static final String DROP_TEST_TABLE = String.format("DROP TABLE %s", TEST_TABLE);
 
   @BeforeClass
@@ -97,7 +99,13 @@ public class TestJdbcWriterWithH2 extends ClusterTest {
     jdbcStorageConfig.setEnabled(true);
     jdbcStorageConfigNoWrite.setEnabled(true);
 
+    JdbcStorageConfig jdbcStorageConfigPrepared = new JdbcStorageConfig("org.h2.Driver", connString,
+      "root", "root", true, true, sourceParameters, credentialsProvider, AuthMode.SHARED_USER.name(), 1000,
+      JdbcStorageConfig.WriterMode.PREPARED.name(), 0, null);
+    jdbcStorageConfigPrepared.setEnabled(true);
+
     cluster.defineStoragePlugin("h2", jdbcStorageConfig);
+    cluster.defineStoragePlugin("h2_prepared", jdbcStorageConfigPrepared);
     cluster.defineStoragePlugin("h2_unwritable", jdbcStorageConfigNoWrite);
 
     EnumMockPlugin.EnumMockStoragePluginConfig config = new EnumMockPlugin.EnumMockStoragePluginConfig();
@@ -238,6 +246,96 @@ public class TestJdbcWriterWithH2 extends ClusterTest {
     }
   }
 
+  @Test
+  public void testPreparedCTASWithDataTypes() throws Exception {
+    String query = String.format("CREATE TABLE %s AS ", PREPARED_TEST_TABLE) +
+      "SELECT CAST(1 AS INTEGER) AS int_field," +
+      "CAST(2 AS BIGINT) AS bigint_field," +
+      "CAST(3.0 AS FLOAT) AS float4_field," +
+      "CAST(4.0 AS DOUBLE) AS float8_field," +
+      "'5.0' AS varchar_field," +
+      "CAST('2021-01-01' AS DATE) as date_field," +
+      "CAST('12:00:00' AS TIME) as time_field, " +
+      "CAST('2015-12-30 22:55:55.23' AS TIMESTAMP) as timestamp_field, true AS boolean_field " +
+      "FROM (VALUES(1))";
+    QuerySummary insertResults = queryBuilder().sql(query).run();
+    assertTrue(insertResults.succeeded());
+
+    try {
+      String testQuery = String.format("SELECT * FROM  %s", TEST_TABLE);
+      DirectRowSet results = queryBuilder().sql(testQuery).rowSet();
+
+      TupleMetadata expectedSchema = new SchemaBuilder()
+        .addNullable("int_field", MinorType.INT, 32)
+        .addNullable("bigint_field", MinorType.BIGINT, 38)
+        .addNullable("float4_field", MinorType.FLOAT4, 38)
+        .addNullable("float8_field", MinorType.FLOAT8, 38)
+        .addNullable("varchar_field", MinorType.VARCHAR, 3)
+        .addNullable("date_field", MinorType.DATE, 10)
+        .addNullable("time_field", MinorType.TIME, 12, 3)
+        .addNullable("timestamp_field", MinorType.TIMESTAMP, 23, 3)
+        .addNullable("boolean_field", MinorType.BIT, 1)
+        .buildSchema();
+
+      RowSet expected = new RowSetBuilder(client.allocator(), expectedSchema)
+        .addRow(1, 2L, 3.0, 4.0, "5.0", LocalDate.parse("2021-01-01"), LocalTime.parse("12:00"), 1451516155230L, true)
+        .build();
+
+      RowSetUtilities.verify(expected, results);
+    } finally {
+      QuerySummary dropResults = queryBuilder().sql(DROP_TEST_TABLE).run();
+      assertTrue(dropResults.succeeded());
+    }
+  }
+
+  @Test
+  public void testPreparedCTASFromFileWithNulls() throws Exception {
+    String sql = String.format("CREATE TABLE %s AS SELECT int_field, float_field, varchar_field, boolean_field FROM cp.`json/dataTypes.json`", PREPARED_TEST_TABLE);
+    QuerySummary insertResults = queryBuilder().sql(sql).run();
+    assertTrue(insertResults.succeeded());
+
+    try {
+      sql = String.format("SELECT * FROM %s", TEST_TABLE);
+      DirectRowSet results = queryBuilder().sql(sql).rowSet();
+
+      TupleMetadata expectedSchema = new SchemaBuilder()
+        .addNullable("int_field", MinorType.BIGINT, 38)
+        .addNullable("float_field", MinorType.FLOAT8, 38)
+        .addNullable("varchar_field", MinorType.VARCHAR, 38)
+        .addNullable("boolean_field", MinorType.BIT, 1)
+        .build();
+
+      RowSet expected = new RowSetBuilder(client.allocator(), expectedSchema)
+        .addRow(1L, 1.0, "foo1", true)
+        .addRow(null, null, null, null)
+        .addRow(2L, 2.0, "foo2", false)
+        .build();
+
+      RowSetUtilities.verify(expected, results);
+    } finally {
+      QuerySummary dropResults = queryBuilder().sql(DROP_TEST_TABLE).run();
+      assertTrue(dropResults.succeeded());
+    }
+  }
+
+  @Test
+  public void testPreparedCTASWithLargeFile() throws Exception {
+    // Spans several batches of the prepared insert
+    String query = String.format("CREATE TABLE %s (id,first_name,last_name,email,gender,ip_address) AS " +
+      "SELECT id,first_name,last_name,email,gender,ip_address FROM cp.`csv/large_csv.csvh`", PREPARED_TEST_TABLE);
+    QuerySummary insertResults = queryBuilder().sql(query).run();
+    assertTrue(insertResults.succeeded());
+
+    try {
+      query = String.format("SELECT COUNT(*) FROM %s", TEST_TABLE);
+      long rowCount = queryBuilder().sql(query).singletonLong();
+      assertEquals(6000, rowCount);
+    } finally {
+      QuerySummary dropResults = queryBuilder().sql(DROP_TEST_TABLE).run();
+      assertTrue(dropResults.succeeded());
+    }
+  }
+
   @Test
   public void testDropNonExistentTable() throws Exception {
     String dropQuery = "DROP TABLE h2.tmp.`drill_h2_test`.`none_shall_pass`";
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.drill.common.types.TypeProtos.DataMode;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.physical.rowSet.RowSet;
+import org.apache.drill.exec.physical.rowSet.RowSetBuilder;
+import org.apache.drill.exec.record.metadata.SchemaBuilder;
+import org.apache.drill.exec.record.metadata.TupleMetadata;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Generates synthetic batches of {@code (key, value)} rows. The key column has
+ * a configurable type, width (for VARCHAR keys), number of distinct values and
+ * fraction of nulls; the value column is a required BIGINT uniformly
+ * distributed in {@code [0, 100)}, so that {@code value < n} selects about
+ * {@code n} percent of the rows.
+ * <p>
+ * A fixed seed is used so that every run of a benchmark sees the same data.
+ */
+public class BatchGenerator {
+
+  /**
+   * Supported key column types.
+   */
+  public enum KeyType {
+    INT(MinorType.INT),
+    BIGINT(MinorType.BIGINT),
+    VARCHAR(MinorType.VARCHAR);
+
+    private final MinorType minorType;
+
+    KeyType(MinorType minorType) {
+      this.minorType = minorType;
+    }
+
+    public MinorType minorType() {
+      return minorType;
+    }
+  }
+
+  public static final long DEFAULT_SEED = 0x5EED_D811L;
+
+  private final BufferAllocator allocator;
+  private final String keyName;
+  private final String valueName;
+  private final KeyType keyType;
+  private final int keyWidth;
+  private final int cardinality;
+  private final double nullFraction;
+  private final TupleMetadata schema;
+  private final String keyFormat;
+
+  public BatchGenerator(BufferAllocator allocator, String keyName, String valueName,
+                        KeyType keyType, int keyWidth, int cardinality, double nullFraction) {
+    Preconditions.checkArgument(cardinality > 0, "Cardinality must be positive");
+    Preconditions.checkArgument(keyWidth > 0, "Key width must be positive");
+    Preconditions.checkArgument(nullFraction >= 0 && nullFraction < 1, "Null fraction must be in [0, 1)");
+    this.allocator = allocator;
+    this.keyName = keyName;
+    this.valueName = valueName;
+    this.keyType = keyType;
+    this.keyWidth = keyWidth;
+    this.cardinality = cardinality;
+    this.nullFraction = nullFraction;
+    this.keyFormat = "%0" + keyWidth + "d";
+    this.schema = new SchemaBuilder()
+        .add(keyName, keyType.minorType(), nullFraction > 0 ? DataMode.OPTIONAL : DataMode.REQUIRED)
+        .add(valueName, MinorType.BIGINT, DataMode.REQUIRED)
+        .buildSchema();
+  }
+
+  public TupleMetadata schema() {
+    return schema;
+  }
+
+  public String keyName() {
+    return keyName;
+  }
+
+  public String valueName() {
+    return valueName;
+  }
+
+  public int keyWidth() {
+    return keyWidth;
+  }
+
+  /**
+   * Builds {@code batchCount} batches of {@code batchSize} rows each.
+   *
+   * @param batchCount number of batches
+   * @param batchSize rows per batch
+   * @param seed random seed, use different seeds for independent streams
+   * @return the generated row sets, owned by the caller
+   */
+  public List<RowSet> generate(int batchCount, int batchSize, long seed) {
+    Random random = new Random(seed);
+    List<RowSet> batches = new ArrayList<>(batchCount);
+    for (int i = 0; i < batchCount; i++) {
+      RowSetBuilder builder = new RowSetBuilder(allocator, schema, batchSize);
+      for (int row = 0; row < batchSize; row++) {
+        builder.addRow(nextKey(random), (long) random.nextInt(100));
+      }
+      batches.add(builder.build());
+    }
+    return batches;
+  }
+
+  /**
+   * Builds batches containing each key exactly once, in ascending order, as
+   * for the primary key of a dimension table. No null keys are generated.
+   *
+   * @param batchSize rows per batch
+   * @param seed random seed for the value column
+   * @return the generated row sets, owned by the caller
+   */
+  public List<RowSet> generateDistinct(int batchSize, long seed) {
+    Random random = new Random(seed);
+    List<RowSet> batches = new ArrayList<>();
+    for (int start = 0; start < cardinality; start += batchSize) {
+      int end = Math.min(cardinality, start + batchSize);
+      RowSetBuilder builder = new RowSetBuilder(allocator, schema, end - start);
+      for (int key = start; key < end; key++) {
+        builder.addRow(keyValue(key), (long) random.nextInt(100));
+      }
+      batches.add(builder.build());
+    }
+    return batches;
+  }
+
+  private Object nextKey(Random random) {
+    if (nullFraction > 0 && random.nextDouble() < nullFraction) {
+      return null;
+    }
+    return keyValue(random.nextInt(cardinality));
+  }
+
+  private Object keyValue(int key) {
+    switch (keyType) {
+      case INT:
+        return key;
+      case BIGINT:
+        return (long) key;
+      case VARCHAR:
+        return String.format(keyFormat, key);
+      default:
+        throw new IllegalStateException("Unexpected key type: " + keyType);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.calcite.rel.RelFieldCollation.Direction;
+import org.apache.calcite.rel.RelFieldCollation.NullDirection;
+import org.apache.drill.exec.physical.config.ExternalSort;
+import org.apache.drill.exec.physical.rowSet.RowSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * External sort on the key column. With the default memory limit the sort
+ * runs in memory ({@code MSortTemplate}); a small {@code memoryLimitMb}
+ * forces spilling, so that the merge phase
+ * ({@code PriorityQueueCopierTemplate}) is measured as well.
+ */
+public class ExternalSortBenchmark extends KeyedOperatorBenchmark {
+
+  /**
+   * Memory limit of the sort operator in MB, zero for the operator default.
+   */
+  @Param({"0", "64"})
+  public long memoryLimitMb;
+
+  private BatchGenerator generator;
+  private ExternalSort config;
+  private List<RowSet> input;
+
+  @Override
+  protected void setupBenchmark() {
+    generator = generator(KEY, VALUE);
+    config = new ExternalSort(null,
+        Lists.newArrayList(ordering(KEY, Direction.ASCENDING, NullDirection.FIRST)), false);
+    if (memoryLimitMb > 0) {
+      config.setMaxAllocation(memoryLimitMb * 1024 * 1024);
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void prepareInput() {
+    input = generator.generate(batchCount, batchSize, BatchGenerator.DEFAULT_SEED);
+  }
+
+  @Benchmark
+  public long externalSort(RowCounters counters) throws Exception {
+    return drain(config, Collections.singletonList(upstream(input)), inputRows(), counters);
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.drill.exec.physical.config.Filter;
+import org.apache.drill.exec.physical.rowSet.RowSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Filter ({@code FilterTemplate2}) on the value column with a configurable
+ * selectivity, optionally combined with a null check on the key.
+ */
+public class FilterBenchmark extends KeyedOperatorBenchmark {
+
+  /**
+   * Percentage of rows passing the value predicate.
+   */
+  @Param({"1", "50", "99"})
+  public int selectivity;
+
+  private BatchGenerator generator;
+  private Filter config;
+  private List<RowSet> input;
+
+  @Override
+  protected void setupBenchmark() {
+    generator = generator(KEY, VALUE);
+    String condition = VALUE + " < " + selectivity;
+    if (nullFraction > 0) {
+      condition = condition + " and " + KEY + " is not null";
+    }
+    config = new Filter(null, parseExpr(condition), 1.0f);
+  }
+
+  @Setup(Level.Invocation)
+  public void prepareInput() {
+    input = generator.generate(batchCount, batchSize, BatchGenerator.DEFAULT_SEED);
+  }
+
+  @Benchmark
+  public long filter(RowCounters counters) throws Exception {
+    return drain(config, Collections.singletonList(upstream(input)), inputRows(), counters);
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.drill.exec.physical.config.HashJoinPOP;
+import org.apache.drill.exec.physical.rowSet.RowSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Hash join ({@code HashJoinProbeTemplate}) of a probe stream against a build
+ * side holding every key exactly once, as in a star-schema join against a
+ * dimension table. The {@code cardinality} parameter is thus the number of
+ * build rows.
+ */
+public class HashJoinBenchmark extends KeyedOperatorBenchmark {
+
+  public static final String BUILD_KEY = "k2";
+  public static final String BUILD_VALUE = "v2";
+
+  @Param({"INNER", "LEFT"})
+  public JoinRelType joinType;
+
+  private BatchGenerator probeGenerator;
+  private BatchGenerator buildGenerator;
+  private HashJoinPOP config;
+  private List<RowSet> probeInput;
+  private List<RowSet> buildInput;
+  private long buildRows;
+
+  @Override
+  protected void setupBenchmark() {
+    probeGenerator = generator(KEY, VALUE);
+    buildGenerator = generator(BUILD_KEY, BUILD_VALUE);
+    config = new HashJoinPOP(null, null,
+        Lists.newArrayList(joinCond(KEY, "EQUALS", BUILD_KEY)), joinType, null);
+  }
+
+  @Setup(Level.Invocation)
+  public void prepareInput() {
+    probeInput = probeGenerator.generate(batchCount, batchSize, BatchGenerator.DEFAULT_SEED);
+    buildInput = buildGenerator.generateDistinct(batchSize, BatchGenerator.DEFAULT_SEED + 1);
+    buildRows = buildInput.stream().mapToLong(RowSet::rowCount).sum();
+  }
+
+  @Benchmark
+  public long hashJoin(RowCounters counters) throws Exception {
+    return drain(config, Arrays.asList(upstream(probeInput), upstream(buildInput)),
+        inputRows() + buildRows, counters);
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.benchmarks;
+
+import org.apache.drill.exec.benchmarks.BatchGenerator.KeyType;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Base class for benchmarks over a single {@code (key, value)} input stream.
+ * The shape of the data is controlled by JMH parameters, which can be
+ * overridden on the command line, e.g. {@code -p keyType=INT -p cardinality=10}.
+ */
+public abstract class KeyedOperatorBenchmark extends OperatorBenchmark {
+
+  public static final String KEY = "k";
+  public static final String VALUE = "v";
+
+  /**
+   * Number of distinct key values.
+   */
+  @Param({"1000", "1000000"})
+  public int cardinality;
+
+  @Param({"BIGINT", "VARCHAR"})
+  public KeyType keyType;
+
+  /**
+   * Width in characters of VARCHAR keys, ignored for other key types.
+   */
+  @Param({"16"})
+  public int keyWidth;
+
+  /**
+   * Fraction of null keys, zero makes the key column REQUIRED.
+   */
+  @Param({"0", "0.1"})
+  public double nullFraction;
+
+  @Param({"256"})
+  public int batchCount;
+
+  @Param({"4096"})
+  public int batchSize;
+
+  protected BatchGenerator generator(String keyName, String valueName) {
+    return new BatchGenerator(operatorFixture.allocator(), keyName, valueName,
+        keyType, keyWidth, cardinality, nullFraction);
+  }
+
+  protected long inputRows() {
+    return (long) batchCount * batchSize;
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.ops.OperatorContext;
+import org.apache.drill.exec.ops.OperatorStats;
+import org.apache.drill.exec.physical.base.PhysicalOperator;
+import org.apache.drill.exec.physical.impl.BatchCreator;
+import org.apache.drill.exec.physical.impl.MockRecordBatch;
+import org.apache.drill.exec.physical.rowSet.RowSet;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.drill.exec.record.CloseableRecordBatch;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.RecordBatch.IterOutcome;
+import org.apache.drill.test.OperatorFixture;
+import org.apache.drill.test.PhysicalOpUnitTestBase;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Base class for operator micro-benchmarks. Reuses the fixture of
+ * {@link PhysicalOpUnitTestBase} to create a mock fragment, then drives a
+ * single operator, created through its regular {@link BatchCreator}, over
+ * synthetic input batches produced by {@link BatchGenerator}.
+ * <p>
+ * Each benchmark invocation consumes one full input stream: inputs are
+ * rebuilt before every invocation since {@link MockRecordBatch} transfers
+ * the vectors of its row sets to the operator. Results are reported through
+ * {@link RowCounters}: processed input rows per second and the peak direct
+ * memory of the operator allocator, which divided by the input rows
+ * gives the bytes allocated per row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-XX:MaxDirectMemorySize=8g"})
+public abstract class OperatorBenchmark extends PhysicalOpUnitTestBase {
+
+  /**
+   * JMH auxiliary counters. {@code rows} is reported as input rows per
+   * second, {@code allocatedBytes} as peak operator memory per second of
+   * benchmark time; their ratio is the peak bytes allocated per input row.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class RowCounters {
+    public long rows;
+    public long allocatedBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      rows = 0;
+      allocatedBytes = 0;
+    }
+  }
+
+  private BenchmarkFragmentContext benchmarkContext;
+
+  @Setup(Level.Trial)
+  public void setupFixture() throws Exception {
+    dirTestWatcher.start(getClass());
+    setup();
+    setupBenchmark();
+  }
+
+  @TearDown(Level.Trial)
+  public void teardownFixture() throws Exception {
+    teardown();
+    operatorFixture.close();
+  }
+
+  @Override
+  protected void mockFragmentContext() throws Exception {
+    benchmarkContext = new BenchmarkFragmentContext(operatorFixture);
+    fragContext = benchmarkContext;
+  }
+
+  /**
+   * Called once per trial, after the fixture is created, to set options
+   * and build the operator configuration of the benchmark.
+   */
+  protected abstract void setupBenchmark() throws Exception;
+
+  /**
+   * Wraps a list of row sets into an upstream batch for the operator under test.
+   */
+  protected MockRecordBatch upstream(List<RowSet> rowSets) {
+    MockRecordBatch.Builder builder = new MockRecordBatch.Builder();
+    rowSets.forEach(builder::sendData);
+    return builder.build(fragContext);
+  }
+
+  /**
+   * Creates the operator for the given configuration, pulls all of its output
+   * and releases each output batch the way a downstream operator would.
+   *
+   * @param config physical operator configuration
+   * @param incoming upstream batches, in the order expected by the operator
+   * @param inputRows total number of rows provided by the upstream batches
+   * @param counters counters to update
+   * @return number of rows produced by the operator
+   */
+  @SuppressWarnings("unchecked")
+  protected long drain(PhysicalOperator config, List<RecordBatch> incoming,
+                       long inputRows, RowCounters counters) throws Exception {
+    BatchCreator<PhysicalOperator> creator =
+        (BatchCreator<PhysicalOperator>) opCreatorReg.getOperatorCreator(config.getClass());
+    CloseableRecordBatch operator = creator.getBatch(fragContext, config, incoming);
+    long outputRows = 0;
+    try {
+      while (true) {
+        IterOutcome outcome = operator.next();
+        switch (outcome) {
+          case OK_NEW_SCHEMA:
+          case OK:
+            outputRows += operator.getRecordCount();
+            release(operator);
+            break;
+          case NONE:
+            return outputRows;
+          default:
+            throw new IllegalStateException("Unexpected outcome: " + outcome);
+        }
+      }
+    } finally {
+      operator.close();
+      counters.rows += inputRows;
+      counters.allocatedBytes += benchmarkContext.closeOperatorContext();
+      for (RecordBatch batch : incoming) {
+        ((MockRecordBatch) batch).close();
+      }
+    }
+  }
+
+  private void release(RecordBatch batch) {
+    SelectionVectorMode mode = batch.getSchema().getSelectionVectorMode();
+    if (mode == SelectionVectorMode.FOUR_BYTE) {
+      return;
+    }
+    batch.getContainer().zeroVectors();
+    if (mode == SelectionVectorMode.TWO_BYTE) {
+      batch.getSelectionVector2().clear();
+    }
+  }
+
+  /**
+   * Fragment context which hands out one operator context per benchmark
+   * invocation and closes it once the operator is done, reporting the peak
+   * memory of the operator allocator. Unlike the test fragment context, it
+   * does not retain the contexts until the fragment is closed, since a
+   * benchmark trial creates many thousands of them.
+   */
+  protected static class BenchmarkFragmentContext extends MockExecutorFragmentContext {
+    private OperatorContext operatorContext;
+
+    public BenchmarkFragmentContext(OperatorFixture fixture) {
+      super(fixture.getFragmentContext());
+    }
+
+    @Override
+    public OperatorContext newOperatorContext(PhysicalOperator popConfig, OperatorStats stats) {
+      Preconditions.checkState(operatorContext == null, "Previous operator context was not closed");
+      BufferAllocator childAllocator = getAllocator().newChildAllocator(
+          "benchmark:" + popConfig.getClass().getSimpleName(),
+          popConfig.getInitialAllocation(),
+          popConfig.getMaxAllocation());
+      operatorContext = new OperatorFixture.MockOperatorContext(this, childAllocator, popConfig);
+      return operatorContext;
+    }
+
+    /**
+     * Closes the current operator context.
+     *
+     * @return peak memory allocated by the operator, in bytes
+     */
+    public long closeOperatorContext() {
+      if (operatorContext == null) {
+        return 0;
+      }
+      long peak = operatorContext.getAllocator().getPeakMemoryAllocation();
+      operatorContext.close();
+      operatorContext = null;
+      return peak;
+    }
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.drill.exec.physical.config.Project;
+import org.apache.drill.exec.physical.rowSet.RowSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Project evaluating arithmetic expressions on the value column and
+ * passing the key column through.
+ */
+public class ProjectBenchmark extends KeyedOperatorBenchmark {
+
+  private BatchGenerator generator;
+  private Project config;
+  private List<RowSet> input;
+
+  @Override
+  protected void setupBenchmark() {
+    generator = generator(KEY, VALUE);
+    config = new Project(parseExprs(
+        KEY, KEY,
+        VALUE + " + 1", "v1",
+        VALUE + " * 2 - 3", "v2",
+        "mod(" + VALUE + ", 7)", "v3"), null);
+  }
+
+  @Setup(Level.Invocation)
+  public void prepareInput() {
+    input = generator.generate(batchCount, batchSize, BatchGenerator.DEFAULT_SEED);
+  }
+
+  @Benchmark
+  public long project(RowCounters counters) throws Exception {
+    return drain(config, Collections.singletonList(upstream(input)), inputRows(), counters);
+  }
+}
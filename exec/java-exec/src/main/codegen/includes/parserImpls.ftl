@@ -501,6 +501,29 @@ SqlNode SqlRefreshMetadata() :
     }
 }
 
+/**
+ * Parse cache table statement.
+ * { CACHE | UNCACHE } TABLE table_name
+ */
+SqlNode SqlCacheTable() :
+{
+    SqlParserPos pos;
+    SqlIdentifier tblName;
+    boolean cache;
+}
+{
+    (
+        <CACHE> { pos = getPos(); cache = true; }
+    |
+        <UNCACHE> { pos = getPos(); cache = false; }
+    )
+    <TABLE>
+    tblName = CompoundIdentifier()
+    {
+        return new SqlCacheTable(pos, tblName, SqlLiteral.createBoolean(cache, getPos()));
+    }
+}
+
 /**
 * Parses statement
 *   { DESCRIBE | DESC } { SCHEMA | DATABASE } name
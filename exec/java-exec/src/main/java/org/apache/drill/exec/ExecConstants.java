@@ -63,6 +63,8 @@ public final class ExecConstants {
   public static final String INITIAL_BIT_PORT = "drill.exec.rpc.bit.server.port";
   public static final String INITIAL_DATA_PORT = "drill.exec.rpc.bit.server.dataport";
   public static final String BIT_RPC_TIMEOUT = "drill.exec.rpc.bit.timeout";
+  public static final String BIT_DATA_COMPRESSION_CODEC = "drill.exec.rpc.bit.data.compression.codec";
+  public static final String BIT_DATA_COMPRESSION_THRESHOLD = "drill.exec.rpc.bit.data.compression.threshold";
   public static final String INITIAL_USER_PORT = "drill.exec.rpc.user.server.port";
   public static final String USER_RPC_TIMEOUT = "drill.exec.rpc.user.timeout";
   public static final String METRICS_CONTEXT_NAME = "drill.exec.metrics.context";
@@ -83,6 +85,21 @@ public final class ExecConstants {
   public static final String SPOOLING_BUFFER_MEMORY = "drill.exec.buffer.spooling.size";
   public static final String UNLIMITED_BUFFER_MAX_MEMORY_SIZE = "drill.exec.buffer.unlimited_receiver.max_size";
   public static final String BATCH_PURGE_THRESHOLD = "drill.exec.sort.purge.threshold";
+  public static final String METASTORE_METADATA_CACHE_MAX_SIZE = "drill.exec.metastore_metadata_cache.max_size";
+  public static final String METASTORE_METADATA_CACHE_TTL = "drill.exec.metastore_metadata_cache.ttl";
+  public static final String PARQUET_FOOTER_CACHE_MAX_SIZE = "drill.exec.parquet_footer_cache.max_size";
+  public static final String PARQUET_FOOTER_CACHE_TTL = "drill.exec.parquet_footer_cache.ttl";
+  public static final String PLAN_CACHE_MAX_ENTRIES = "drill.exec.plan_cache.max_entries";
+  public static final String PLAN_CACHE_TTL = "drill.exec.plan_cache.ttl";
+  public static final String RESULT_CACHE_FILESYSTEM = "drill.exec.result_cache.fs";
+  public static final String RESULT_CACHE_DIRECTORY = "drill.exec.result_cache.directory";
+  public static final String RESULT_CACHE_MAX_SIZE = "drill.exec.result_cache.max_size";
+  public static final String RESULT_CACHE_MAX_ENTRY_SIZE = "drill.exec.result_cache.max_entry_size";
+  public static final String RESULT_CACHE_TTL = "drill.exec.result_cache.ttl";
+  public static final String TABLE_CACHE_MAX_SIZE = "drill.exec.table_cache.max_size";
+  public static final String TABLE_CACHE_SPILL_DIRECTORY = "drill.exec.table_cache.spill.directory";
+  public static final String TABLE_CACHE_SPILL_MAX_SIZE = "drill.exec.table_cache.spill.max_size";
+  public static final String TABLE_CACHE_REGISTRY_REFRESH = "drill.exec.table_cache.registry_refresh";
 
   // Spill boot-time Options common to all spilling operators
   // (Each individual operator may override the common options)
@@ -90,6 +107,11 @@ public final class ExecConstants {
   public static final String SPILL_FILESYSTEM = "drill.exec.spill.fs";
   public static final String SPILL_DIRS = "drill.exec.spill.directories";
 
+  // Memory arbiter of the spilling operators of the Drillbit
+  public static final String MEMORY_ARBITER_ENABLED = "drill.exec.memory.arbiter.enabled";
+  public static final String MEMORY_ARBITER_GRANT_THRESHOLD = "drill.exec.memory.arbiter.grant_threshold";
+  public static final String MEMORY_ARBITER_SPILL_THRESHOLD = "drill.exec.memory.arbiter.spill_threshold";
+
   public static final String OUTPUT_BATCH_SIZE = "drill.exec.memory.operator.output_batch_size";
   // Output Batch Size in Bytes. We have a small lower bound so we can test with unit tests without the
   // need to produce very large batches that take up lot of memory.
@@ -122,6 +144,19 @@ public final class ExecConstants {
   public static final String EXTERNAL_SORT_DISABLE_MANAGED = "drill.exec.sort.external.disable_managed";
   @Deprecated
   public static final BooleanValidator EXTERNAL_SORT_DISABLE_MANAGED_OPTION = new BooleanValidator("exec.sort.disable_managed", null);
+  public static final String EXTERNAL_SORT_SPILL_COMPRESSION = "exec.sort.spill.compression";
+  public static final EnumeratedStringValidator EXTERNAL_SORT_SPILL_COMPRESSION_VALIDATOR = new EnumeratedStringValidator(EXTERNAL_SORT_SPILL_COMPRESSION,
+      new OptionDescription("Compression codec for External Sort spill files. Allowed values: none, lz4, snappy, zstd. Default is none."),
+      "none", "lz4", "snappy", "zstd");
+
+  // TopN Options. A TopN which spills degrades into an external sort, and so
+  // uses the sort's spill locations and compression.
+  public static final String TOPN_ENABLE_SPILL_KEY = "exec.topn.enable_spill";
+  public static final BooleanValidator TOPN_ENABLE_SPILL_VALIDATOR = new BooleanValidator(TOPN_ENABLE_SPILL_KEY,
+      new OptionDescription("Enables the TopN operator to fall back to an external sort, spilling to disk, when the rows it retains exceed its memory limit. Default is true."));
+  public static final String TOPN_MAX_MEMORY_KEY = "exec.topn.mem_limit";
+  public static final LongValidator TOPN_MAX_MEMORY_VALIDATOR = new RangeLongValidator(TOPN_MAX_MEMORY_KEY, 0, Long.MAX_VALUE,
+      new OptionDescription("Enforces the value set as the maximum memory for the TopN operator; used for testing purposes. Default is 0 (disabled)."));
 
   // Hash Join Options
   public static final String HASHJOIN_HASHTABLE_CALC_TYPE_KEY = "exec.hashjoin.hash_table_calc_type";
@@ -151,6 +186,10 @@ public final class ExecConstants {
       new OptionDescription("Enforces the maximum memory limit for the Hash Join operator (if non-zero); used for testing purposes. Default is 0 (disabled)."));
   public static final String HASHJOIN_SPILL_DIRS = "drill.exec.hashjoin.spill.directories";
   public static final String HASHJOIN_SPILL_FILESYSTEM = "drill.exec.hashjoin.spill.fs";
+  public static final String HASHJOIN_SPILL_COMPRESSION = "exec.hashjoin.spill.compression";
+  public static final EnumeratedStringValidator HASHJOIN_SPILL_COMPRESSION_VALIDATOR = new EnumeratedStringValidator(HASHJOIN_SPILL_COMPRESSION,
+      new OptionDescription("Compression codec for Hash Join spill files. Allowed values: none, lz4, snappy, zstd. Default is none."),
+      "none", "lz4", "snappy", "zstd");
   public static final String HASHJOIN_FALLBACK_ENABLED_KEY = "drill.exec.hashjoin.fallback.enabled";
   public static final BooleanValidator HASHJOIN_FALLBACK_ENABLED_VALIDATOR = new BooleanValidator(HASHJOIN_FALLBACK_ENABLED_KEY,
       new OptionDescription("Hash Joins ignore memory limits when this option is enabled (true). When disabled (false), Hash Joins fail when memory is set too low."));
@@ -165,6 +204,15 @@ public final class ExecConstants {
   public static final String HASHJOIN_RUNTIME_FILTER_MAX_WAITING_TIME_KEY = "exec.hashjoin.runtime_filter.max.waiting.time";
   public static final PositiveLongValidator HASHJOIN_RUNTIME_FILTER_MAX_WAITING_TIME = new PositiveLongValidator(HASHJOIN_RUNTIME_FILTER_MAX_WAITING_TIME_KEY, Character.MAX_VALUE, null);
 
+  // Nested Loop Join Options
+  public static final String NESTEDLOOPJOIN_ENABLE_SPILL_KEY = "exec.nestedloopjoin.enable_spill";
+  public static final BooleanValidator NESTEDLOOPJOIN_ENABLE_SPILL_VALIDATOR = new BooleanValidator(NESTEDLOOPJOIN_ENABLE_SPILL_KEY,
+      new OptionDescription("Enables the Nested Loop Join to spill its right side to disk in blocks when it exceeds the memory limit, and to join the left side with each block in turn. Default is true."));
+  public static final String NESTEDLOOPJOIN_MAX_MEMORY_KEY = "exec.nestedloopjoin.mem_limit";
+  public static final LongValidator NESTEDLOOPJOIN_MAX_MEMORY_VALIDATOR = new RangeLongValidator(NESTEDLOOPJOIN_MAX_MEMORY_KEY, 0, Long.MAX_VALUE,
+      new OptionDescription("Enforces the value set as the maximum memory for the right side of the Nested Loop Join; used for testing purposes. Default is 0 (disabled)."));
+  public static final String NESTEDLOOPJOIN_SPILL_DIRS = "drill.exec.nestedloopjoin.spill.directories";
+  public static final String NESTEDLOOPJOIN_SPILL_FILESYSTEM = "drill.exec.nestedloopjoin.spill.fs";
 
   // Hash Aggregate Options
   public static final String HASHAGG_NUM_PARTITIONS_KEY = "exec.hashagg.num_partitions";
@@ -185,13 +233,33 @@ public final class ExecConstants {
   public static final String HASHAGG_USE_MEMORY_PREDICTION_KEY = "exec.hashagg.use_memory_prediction";
   public static final BooleanValidator HASHAGG_USE_MEMORY_PREDICTION_VALIDATOR = new BooleanValidator(HASHAGG_USE_MEMORY_PREDICTION_KEY,
       new OptionDescription("Enables Hash Aggregates to use memory predictions to proactively spill early. Default is true."));
+  // The 1st phase of a two phase aggregation stops accumulating groups when its input barely reduces
+  public static final String HASHAGG_PASS_THROUGH_ENABLED_KEY = "exec.hashagg.pass_through.enabled";
+  public static final BooleanValidator HASHAGG_PASS_THROUGH_ENABLED_VALIDATOR = new BooleanValidator(HASHAGG_PASS_THROUGH_ENABLED_KEY,
+      new OptionDescription("Enables the 1st phase Hash Aggregates to switch to a pass-through mode, grouping each incoming batch on its own, " +
+          "when the number of groups is close to the number of rows. Default is true."));
+  public static final String HASHAGG_PASS_THROUGH_MIN_BATCHES_KEY = "exec.hashagg.pass_through.min_batches";
+  public static final LongValidator HASHAGG_PASS_THROUGH_MIN_BATCHES_VALIDATOR = new RangeLongValidator(HASHAGG_PASS_THROUGH_MIN_BATCHES_KEY, 1, 1000,
+      new OptionDescription("Sets the number of incoming batches a 1st phase Hash Aggregate reads before deciding whether to switch to the pass-through mode. Default is 10."));
+  public static final String HASHAGG_PASS_THROUGH_GROUP_RATIO_KEY = "exec.hashagg.pass_through.group_ratio";
+  public static final DoubleValidator HASHAGG_PASS_THROUGH_GROUP_RATIO_VALIDATOR = new RangeDoubleValidator(HASHAGG_PASS_THROUGH_GROUP_RATIO_KEY, 0.0, 1.0,
+      new OptionDescription("Sets the ratio of groups to rows read at or above which a 1st phase Hash Aggregate switches to the pass-through mode. Default is 0.9."));
 
   public static final String HASHAGG_SPILL_DIRS = "drill.exec.hashagg.spill.directories";
   public static final String HASHAGG_SPILL_FILESYSTEM = "drill.exec.hashagg.spill.fs";
+  public static final String HASHAGG_SPILL_COMPRESSION = "exec.hashagg.spill.compression";
+  public static final EnumeratedStringValidator HASHAGG_SPILL_COMPRESSION_VALIDATOR = new EnumeratedStringValidator(HASHAGG_SPILL_COMPRESSION,
+      new OptionDescription("Compression codec for Hash Aggregate spill files. Allowed values: none, lz4, snappy, zstd. Default is none."),
+      "none", "lz4", "snappy", "zstd");
   public static final String HASHAGG_FALLBACK_ENABLED_KEY = "drill.exec.hashagg.fallback.enabled";
   public static final BooleanValidator HASHAGG_FALLBACK_ENABLED_VALIDATOR = new BooleanValidator(HASHAGG_FALLBACK_ENABLED_KEY,
       new OptionDescription("Hash Aggregates ignore memory limits when enabled (true). When disabled (false), Hash Aggregates fail when memory is set too low."));
 
+  // Hash Table Options
+  public static final String HASHTABLE_FIXED_WIDTH_KEY_ENABLE_KEY = "exec.hashtable.fixed_width_key.enable";
+  public static final BooleanValidator HASHTABLE_FIXED_WIDTH_KEY_ENABLE_VALIDATOR = new BooleanValidator(HASHTABLE_FIXED_WIDTH_KEY_ENABLE_KEY,
+      new OptionDescription("Enables the open addressing hash table of Hash Aggregates and Hash Joins on a single INT, BIGINT, DATE, TIME or TIMESTAMP key. Default is true."));
+
   public static final String IMPLICIT_CAST_FOR_JOINS_ENABLED = "drill.exec.implicit_casts.joins.enabled";
   public static final BooleanValidator IMPLICIT_CAST_FOR_JOINS_ENABLED_VALIDATOR = new BooleanValidator(IMPLICIT_CAST_FOR_JOINS_ENABLED,
       new OptionDescription("When true, this option enables implicit casts for joins.  This is an experimental feature in Drill 1.21.1"));
@@ -462,6 +530,11 @@ public final class ExecConstants {
   public static final OptionValidator PARQUET_PAGEREADER_USE_FADVISE_VALIDATOR = new  BooleanValidator(PARQUET_PAGEREADER_USE_FADVISE,
       new OptionDescription("If the file system supports it, the Parquet file reader issues an fadvise call to enable file server side sequential reading and caching. Since many HDFS implementations do not support this and because this may have no effect in conditions of high concurrency, the option is set to false. Useful for benchmarks and for performance critical queries."));
 
+  // Skip the data pages which cannot match the filter, using the column and offset indexes of the files
+  public static final String PARQUET_PAGEREADER_PAGE_INDEX_FILTER = "store.parquet.reader.pagereader.page_index_filter";
+  public static final OptionValidator PARQUET_PAGEREADER_PAGE_INDEX_FILTER_VALIDATOR = new BooleanValidator(PARQUET_PAGEREADER_PAGE_INDEX_FILTER,
+      new OptionDescription("Enables skipping the data pages of a row group which do not match the filter of a query, using the min/max and null counts of the column indexes of the Parquet files. Pages are skipped only at rows where the pages of all the columns read start together. Applies to the Parquet reader for flat data."));
+
   // scalar replacement strategy
   public final static String SCALAR_REPLACEMENT_OPTION = "org.apache.drill.exec.compile.ClassTransformer.scalar_replacement";
   public final static EnumeratedStringValidator SCALAR_REPLACEMENT_VALIDATOR = new EnumeratedStringValidator( SCALAR_REPLACEMENT_OPTION,
@@ -473,6 +546,11 @@ public final class ExecConstants {
   public static final OptionValidator PARQUET_FLAT_READER_BULK_VALIDATOR = new BooleanValidator(PARQUET_FLAT_READER_BULK,
       new OptionDescription("Parquet Reader which uses bulk processing (default)."));
 
+  public static final String PARQUET_FLAT_READER_FLAT_DICTIONARY = "store.parquet.flat.reader.flat_dictionary";
+  public static final OptionValidator PARQUET_FLAT_READER_FLAT_DICTIONARY_VALIDATOR = new BooleanValidator(PARQUET_FLAT_READER_FLAT_DICTIONARY,
+      new OptionDescription("Enables the bulk Parquet Reader to decode the dictionary of dictionary encoded strings " +
+          "once per column chunk into a flat array, and to copy the values into the VarChar vectors from it (default)."));
+
   // Controls the flat parquet reader batching constraints (number of record and memory limit)
   public static final String PARQUET_FLAT_BATCH_NUM_RECORDS = "store.parquet.flat.batch.num_records";
   public static final OptionValidator PARQUET_FLAT_BATCH_NUM_RECORDS_VALIDATOR = new RangeLongValidator(PARQUET_FLAT_BATCH_NUM_RECORDS, 1, ValueVector.MAX_ROW_COUNT -1,
@@ -508,6 +586,12 @@ public final class ExecConstants {
   public static final String JSON_READER_PRINT_INVALID_RECORDS_LINE_NOS_FLAG = "store.json.reader.print_skipped_invalid_record_number";
   public static final BooleanValidator JSON_READER_PRINT_INVALID_RECORDS_LINE_NOS_FLAG_VALIDATOR = new BooleanValidator(JSON_READER_PRINT_INVALID_RECORDS_LINE_NOS_FLAG,
       new OptionDescription("Enables Drill to log the bad records that the JSON record reader skips when reading JSON files. Default is false. (Drill 1.9+)"));
+  public static final String DECOMPRESSION_ASYNC = "store.decompression.async";
+  public static final BooleanValidator DECOMPRESSION_ASYNC_VALIDATOR = new BooleanValidator(DECOMPRESSION_ASYNC,
+      new OptionDescription("Decompresses compressed text and JSON files on a scan decode thread, ahead of the reader parsing them, so that decompression and parsing run in parallel."));
+  public static final String DECOMPRESSION_ASYNC_QUEUE_SIZE = "store.decompression.async.queuesize";
+  public static final LongValidator DECOMPRESSION_ASYNC_QUEUE_SIZE_VALIDATOR = new RangeLongValidator(DECOMPRESSION_ASYNC_QUEUE_SIZE, 1, 64,
+      new OptionDescription("Sets the number of 1 MB chunks of decompressed data that are read ahead of the reader of a compressed file."));
   public static final String TEXT_ESTIMATED_ROW_SIZE_KEY = "store.text.estimated_row_size_bytes";
   public static final DoubleValidator TEXT_ESTIMATED_ROW_SIZE = new RangeDoubleValidator(TEXT_ESTIMATED_ROW_SIZE_KEY, 1, Long.MAX_VALUE,
       new OptionDescription("Estimate of the row size in a delimited text file, such as csv. The closer to actual, the better the query plan. Used for all csv files in the system/session where the value is set. Impacts the decision to plan a broadcast join or not."));
@@ -820,6 +904,16 @@ public final class ExecConstants {
   public static final LongValidator QUEUE_TIMEOUT = new PositiveLongValidator("exec.queue.timeout_millis", Long.MAX_VALUE,
       new OptionDescription("Indicates how long a query can wait in queue before the query fails. Range: 0-9223372036854775807"));
 
+  // Fragment scheduler boot-time options. When enabled, fragments run in time
+  // slices on a fixed pool of threads instead of a thread each.
+  public static final String FRAGMENT_SCHEDULER_ENABLED = "drill.exec.work.scheduler.enabled";
+  public static final String FRAGMENT_SCHEDULER_THREADS = "drill.exec.work.scheduler.threads";
+  public static final String FRAGMENT_SCHEDULER_QUANTUM_MS = "drill.exec.work.scheduler.quantum_ms";
+
+  public static final String FRAGMENT_SCHEDULER_QUERY_WEIGHT_KEY = "exec.scheduler.query_weight";
+  public static final LongValidator FRAGMENT_SCHEDULER_QUERY_WEIGHT = new RangeLongValidator(FRAGMENT_SCHEDULER_QUERY_WEIGHT_KEY, 1, 100,
+      new OptionDescription("Share of the fragment scheduler threads given to the fragments of a query, relative to the other queries. Used only when drill.exec.work.scheduler.enabled is true. Range: 1-100"));
+
   // New Smart RM boot time configs
   public static final String RM_QUERY_TAGS_KEY = "exec.rm.queryTags";
   public static final StringValidator RM_QUERY_TAGS_VALIDATOR = new StringValidator(RM_QUERY_TAGS_KEY,
@@ -879,6 +973,14 @@ public final class ExecConstants {
   public static final String ENABLE_WINDOW_FUNCTIONS = "window.enable";
   public static final OptionValidator ENABLE_WINDOW_FUNCTIONS_VALIDATOR = new BooleanValidator(ENABLE_WINDOW_FUNCTIONS,
       new OptionDescription("Enable or disable window functions in Drill 1.1+"));
+  public static final String WINDOW_ENABLE_SPILL_KEY = "exec.window.enable_spill";
+  public static final BooleanValidator WINDOW_ENABLE_SPILL_VALIDATOR = new BooleanValidator(WINDOW_ENABLE_SPILL_KEY,
+      new OptionDescription("Enables the Window operator to spill the buffered batches of a partition to disk when they exceed its memory limit. Default is true."));
+  public static final String WINDOW_MAX_MEMORY_KEY = "exec.window.mem_limit";
+  public static final LongValidator WINDOW_MAX_MEMORY_VALIDATOR = new RangeLongValidator(WINDOW_MAX_MEMORY_KEY, 0, Long.MAX_VALUE,
+      new OptionDescription("Enforces the value set as the maximum memory for the batches buffered by the Window operator; used for testing purposes. Default is 0 (disabled)."));
+  public static final String WINDOW_SPILL_DIRS = "drill.exec.window.spill.directories";
+  public static final String WINDOW_SPILL_FILESYSTEM = "drill.exec.window.spill.fs";
 
   public static final String DRILLBIT_CONTROL_INJECTIONS = "drill.exec.testing.controls";
   public static final OptionValidator DRILLBIT_CONTROLS_VALIDATOR = new ExecutionControls.ControlsOptionValidator(DRILLBIT_CONTROL_INJECTIONS, 1, null);
@@ -1147,6 +1249,12 @@ public final class ExecConstants {
           "SET, USE, REFRESH METADATA TABLE queries. If set to false affected rows count will be returned instead and result set will be null. " +
           "Affects JDBC connections only. Default is true. (Drill 1.15+)"));
 
+  public static final String RESULT_CACHE_ENABLED = "exec.query.result_cache.enabled";
+  public static final BooleanValidator RESULT_CACHE_ENABLED_VALIDATOR = new BooleanValidator(RESULT_CACHE_ENABLED,
+      new OptionDescription("Enables the cache of query results. The results of a query over Parquet or text files are " +
+          "kept on the local file system of the Drillbit, and returned again to an identical query as long as the files " +
+          "it scans were not modified. Default is false."));
+
   /**
    * Option whose value is a long value representing the number of bits required for computing ndv (using HLL).
    * Controls the trade-off between accuracy and memory requirements. The number of bits correlates positively with accuracy
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import org.apache.drill.exec.metrics.DrillMetrics;
+
+import com.codahale.metrics.Gauge;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.Weigher;
+
+/**
+ * In-heap cache of the Drillbit, bounded by the total estimated size of its
+ * values, which counts its hits, misses and evictions and exposes them as
+ * metrics. A maximum size of 0 disables the cache: values are then loaded
+ * on each request.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class SizeBoundedCache<K, V> {
+
+  private final Cache<K, V> cache;
+  private final ToIntFunction<? super V> sizeEstimator;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong size = new AtomicLong();
+
+  /**
+   * @param maxSize maximum total estimated size of the values, 0 disables the cache
+   * @param ttl seconds after which a value is discarded, 0 keeps values until evicted
+   * @param sizeEstimator estimates the heap usage of a value
+   */
+  public SizeBoundedCache(long maxSize, long ttl, ToIntFunction<? super V> sizeEstimator) {
+    this.sizeEstimator = sizeEstimator;
+    if (maxSize <= 0) {
+      cache = null;
+      return;
+    }
+    CacheBuilder<K, V> builder = CacheBuilder.newBuilder()
+        .maximumWeight(maxSize)
+        .weigher((Weigher<K, V>) (key, value) -> sizeEstimator.applyAsInt(value))
+        .removalListener((RemovalListener<K, V>) notification -> {
+          size.addAndGet(-sizeEstimator.applyAsInt(notification.getValue()));
+          if (notification.wasEvicted()) {
+            evictions.incrementAndGet();
+          }
+        });
+    if (ttl > 0) {
+      builder.expireAfterWrite(ttl, TimeUnit.SECONDS);
+    }
+    cache = builder.build();
+  }
+
+  /**
+   * Registers the metrics of the cache: its number of entries, total size,
+   * hits, misses, hit ratio and evictions.
+   *
+   * @param prefix prefix of the names of the metrics, ending with a dot
+   */
+  public void registerMetrics(String prefix) {
+    DrillMetrics.register(prefix + "entries", (Gauge<Long>) this::getEntryCount);
+    DrillMetrics.register(prefix + "size", (Gauge<Long>) size::get);
+    DrillMetrics.register(prefix + "hits", (Gauge<Long>) hits::get);
+    DrillMetrics.register(prefix + "misses", (Gauge<Long>) misses::get);
+    DrillMetrics.register(prefix + "hit_ratio", (Gauge<Double>) this::getHitRatio);
+    DrillMetrics.register(prefix + "evictions", (Gauge<Long>) evictions::get);
+  }
+
+  /**
+   * Returns a value, loading it if it is not cached. Concurrent calls for the
+   * same key load the value once.
+   *
+   * @param key key of the value
+   * @param loader loads the value, which must not be null
+   * @return value of the key
+   * @throws ExecutionException wrapping the failure of the loader
+   */
+  public V get(K key, Callable<? extends V> loader) throws ExecutionException {
+    if (cache == null) {
+      try {
+        return loader.call();
+      } catch (Exception e) {
+        throw new ExecutionException(e);
+      }
+    }
+    AtomicBoolean loaded = new AtomicBoolean();
+    V value = cache.get(key, () -> {
+      loaded.set(true);
+      V loadedValue = loader.call();
+      size.addAndGet(sizeEstimator.applyAsInt(loadedValue));
+      return loadedValue;
+    });
+    if (loaded.get()) {
+      misses.incrementAndGet();
+    } else {
+      hits.incrementAndGet();
+    }
+    return value;
+  }
+
+  /**
+   * Returns a cached value, counting a hit if it is cached, a miss otherwise.
+   *
+   * @param key key of the value
+   * @return value of the key, or null if it is not cached
+   */
+  public V getIfPresent(K key) {
+    if (cache == null) {
+      return null;
+    }
+    V value = cache.getIfPresent(key);
+    if (value != null) {
+      hits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+    }
+    return value;
+  }
+
+  public void put(K key, V value) {
+    if (cache != null) {
+      size.addAndGet(sizeEstimator.applyAsInt(value));
+      cache.put(key, value);
+    }
+  }
+
+  /**
+   * Discards the values of the keys matching a predicate.
+   */
+  public void invalidate(Predicate<? super K> predicate) {
+    if (cache != null) {
+      cache.asMap().keySet().removeIf(predicate);
+    }
+  }
+
+  public void invalidateAll() {
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  public boolean isEnabled() {
+    return cache != null;
+  }
+
+  public long getEntryCount() {
+    return cache == null ? 0 : cache.size();
+  }
+
+  /**
+   * @return total estimated size of the cached values
+   */
+  public long getSize() {
+    return size.get();
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  public double getHitRatio() {
+    long hitCount = hits.get();
+    long requestCount = hitCount + misses.get();
+    return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+  }
+}
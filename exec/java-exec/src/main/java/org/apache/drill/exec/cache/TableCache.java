@@ -0,0 +1,753 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.common.exceptions.DrillRuntimeException;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.exception.OutOfMemoryException;
+import org.apache.drill.exec.exception.StoreException;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.metrics.DrillMetrics;
+import org.apache.drill.exec.proto.UserBitShared.RecordBatchDef;
+import org.apache.drill.exec.proto.UserBitShared.SerializedField;
+import org.apache.drill.exec.store.sys.PersistentStore;
+import org.apache.drill.exec.store.sys.PersistentStoreConfig;
+import org.apache.drill.exec.store.sys.PersistentStoreProvider;
+import org.apache.drill.exec.util.Utilities;
+import org.apache.drill.exec.vector.ValueVector;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.math.LongMath;
+
+import io.netty.buffer.DrillBuf;
+
+/**
+ * Per-Drillbit cache of the value vectors read from the tables marked with
+ * {@code CACHE TABLE}, so that the dashboards and iterative workloads which
+ * scan the same tables over and over skip the file system reads and the
+ * decoding of the files.
+ * <p>
+ * The tables to cache are registered by the root directory of their files in
+ * a persistent store, shared by the Drillbits of the cluster. Each Drillbit
+ * keeps a copy of the registered roots, read again from the store every
+ * {@code drill.exec.table_cache.registry_refresh} milliseconds, so that the
+ * scans do not go to the store. A scan of such a table fills the cache of
+ * the Drillbit it runs on with the batches its readers return for each row
+ * group, and later scans of the row group load their vectors from the cached
+ * buffers, which they share without copying.
+ * A cached row group is bound to the length and modification time of its
+ * file and, when the Metastore is enabled, to the version of the Metastore:
+ * a cached row group is dropped when any of them changes.
+ * <p>
+ * The cached buffers are allocated from a child of the root allocator, and
+ * their total size is bounded by {@code drill.exec.table_cache.max_size}. The
+ * least recently used row groups are evicted when the cache is full, and written to the local directory
+ * {@code drill.exec.table_cache.spill.directory}, in the format of
+ * {@link VectorAccessibleSerializable}, as long as their total size is below
+ * {@code drill.exec.table_cache.spill.max_size}. A row group read back from
+ * disk is moved to memory again.
+ */
+public class TableCache implements AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(TableCache.class);
+
+  private static final String METRICS_PREFIX = "drill.exec.table_cache.";
+  private static final String REGISTRY_NAME = "sys.table_cache";
+
+  private final PersistentStoreProvider storeProvider;
+  private final ObjectMapper mapper;
+  private final long maxSize;
+  private final long maxSpillSize;
+  private final File spillDirectory;
+  private final BufferAllocator allocator;
+  private final long registryRefreshNanos;
+  // Access ordered, so that the least recently used row groups are iterated first
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<Key, Entry> spilledEntries = new LinkedHashMap<>(16, 0.75f, true);
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private long size;
+  private long spillSize;
+  private volatile PersistentStore<String> registry;
+  // Keys of the registered roots, as last read from the registry
+  private volatile Set<String> registeredRoots = Collections.emptySet();
+  private volatile long registeredRootsReadTime;
+  private volatile boolean registeredRootsRead;
+  private final Object registeredRootsLock = new Object();
+
+  public TableCache(DrillConfig config, BufferAllocator rootAllocator,
+                    PersistentStoreProvider storeProvider, ObjectMapper mapper) {
+    this.storeProvider = storeProvider;
+    this.mapper = mapper;
+    maxSize = config.getBytes(ExecConstants.TABLE_CACHE_MAX_SIZE);
+    maxSpillSize = config.getBytes(ExecConstants.TABLE_CACHE_SPILL_MAX_SIZE);
+    registryRefreshNanos = TimeUnit.MILLISECONDS.toNanos(config.getLong(ExecConstants.TABLE_CACHE_REGISTRY_REFRESH));
+    // Several Drillbits may share the directory
+    spillDirectory = new File(config.getString(ExecConstants.TABLE_CACHE_SPILL_DIRECTORY),
+        UUID.randomUUID().toString());
+    // Leaves room for the row groups being recorded or read back from disk,
+    // which evict older ones only once they are cached
+    allocator = maxSize > 0
+        ? rootAllocator.newChildAllocator("table-cache", 0, LongMath.saturatedMultiply(maxSize, 2))
+        : null;
+    DrillMetrics.register(METRICS_PREFIX + "entries", (Gauge<Integer>) this::getEntryCount);
+    DrillMetrics.register(METRICS_PREFIX + "size", (Gauge<Long>) this::getSize);
+    DrillMetrics.register(METRICS_PREFIX + "spilled_entries", (Gauge<Integer>) this::getSpilledEntryCount);
+    DrillMetrics.register(METRICS_PREFIX + "spilled_size", (Gauge<Long>) this::getSpilledSize);
+    DrillMetrics.register(METRICS_PREFIX + "hits", (Gauge<Long>) hits::get);
+    DrillMetrics.register(METRICS_PREFIX + "misses", (Gauge<Long>) misses::get);
+    DrillMetrics.register(METRICS_PREFIX + "evictions", (Gauge<Long>) evictions::get);
+  }
+
+  public boolean isEnabled() {
+    return allocator != null;
+  }
+
+  /**
+   * Marks a table to be cached by the Drillbits which scan it.
+   *
+   * @param root root directory of the files of the table
+   */
+  public void register(Path root) {
+    String key = registryKey(root);
+    getRegistry().put(key, Path.getPathWithoutSchemeAndAuthority(root).toString());
+    synchronized (registeredRootsLock) {
+      Set<String> roots = new HashSet<>(registeredRoots);
+      roots.add(key);
+      registeredRoots = roots;
+    }
+  }
+
+  /**
+   * Stops caching a table, and drops the row groups of its files cached by
+   * this Drillbit. The other Drillbits stop using their cached row groups,
+   * which are evicted in time.
+   *
+   * @param root root directory of the files of the table
+   * @return whether the table was cached
+   */
+  public boolean unregister(Path root) {
+    String key = registryKey(root);
+    PersistentStore<String> store = getRegistry();
+    if (!store.contains(key)) {
+      return false;
+    }
+    store.delete(key);
+    synchronized (registeredRootsLock) {
+      Set<String> roots = new HashSet<>(registeredRoots);
+      roots.remove(key);
+      registeredRoots = roots;
+    }
+    invalidate(root);
+    return true;
+  }
+
+  /**
+   * @param root root directory of the files of a table
+   * @return whether the table was marked with {@code CACHE TABLE}
+   */
+  public boolean isCached(Path root) {
+    return isEnabled() && root != null && getRegisteredRoots().contains(registryKey(root));
+  }
+
+  /**
+   * Reads the registered roots again from the registry once they are older
+   * than the refresh interval, to see the tables cached or uncached through
+   * other Drillbits.
+   */
+  private Set<String> getRegisteredRoots() {
+    if (registeredRootsRead && System.nanoTime() - registeredRootsReadTime < registryRefreshNanos) {
+      return registeredRoots;
+    }
+    synchronized (registeredRootsLock) {
+      long now = System.nanoTime();
+      if (!registeredRootsRead || now - registeredRootsReadTime >= registryRefreshNanos) {
+        Set<String> roots = new HashSet<>();
+        getRegistry().getAll().forEachRemaining(entry -> roots.add(entry.getKey()));
+        registeredRoots = roots;
+        registeredRootsReadTime = now;
+        registeredRootsRead = true;
+      }
+      return registeredRoots;
+    }
+  }
+
+  /**
+   * Looks up the batches of a row group.
+   *
+   * @param key row group, and how it is read
+   * @param status current status of the file of the row group
+   * @param metastoreVersion current version of the Metastore, or -1
+   * @param columns columns to read
+   * @return cached batches covering the columns, which must be released once
+   * used, or null if they are not cached
+   */
+  public Entry get(Key key, FileStatus status, long metastoreVersion, List<SchemaPath> columns) {
+    if (!isEnabled()) {
+      return null;
+    }
+    Entry spilledEntry;
+    List<Entry> dropped = new ArrayList<>();
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      if (entry != null) {
+        if (entry.isValid(status, metastoreVersion)) {
+          if (entry.covers(columns)) {
+            entry.retain();
+            hits.incrementAndGet();
+            return entry;
+          }
+          misses.incrementAndGet();
+          return null;
+        }
+        entries.remove(key);
+        size -= entry.size;
+        dropped.add(entry);
+      }
+      spilledEntry = spilledEntries.get(key);
+      if (spilledEntry != null && spilledEntry.isValid(status, metastoreVersion) && !spilledEntry.covers(columns)) {
+        spilledEntry = null;
+      } else if (spilledEntry != null) {
+        spilledEntries.remove(key);
+        spillSize -= spilledEntry.size;
+      }
+    }
+    release(dropped);
+
+    if (spilledEntry != null) {
+      Entry entry = spilledEntry.isValid(status, metastoreVersion) ? load(spilledEntry) : null;
+      spilledEntry.release();
+      if (entry != null) {
+        entry.retain();
+        hits.incrementAndGet();
+        put(key, entry);
+        return entry;
+      }
+    }
+    misses.incrementAndGet();
+    return null;
+  }
+
+  /**
+   * Caches the batches of a row group, evicting the least recently used row
+   * groups to make room for them.
+   *
+   * @param key row group, and how it is read
+   * @param entry batches of the row group, owned by the cache from now on
+   */
+  public void put(Key key, Entry entry) {
+    if (entry.size > maxSize) {
+      entry.release();
+      return;
+    }
+    List<Map.Entry<Key, Entry>> evicted = new ArrayList<>();
+    List<Entry> dropped = new ArrayList<>();
+    synchronized (this) {
+      Entry old = entries.put(key, entry);
+      if (old != null) {
+        size -= old.size;
+        dropped.add(old);
+      }
+      old = spilledEntries.remove(key);
+      if (old != null) {
+        spillSize -= old.size;
+        dropped.add(old);
+      }
+      size += entry.size;
+      Iterator<Map.Entry<Key, Entry>> iter = entries.entrySet().iterator();
+      while (size > maxSize && iter.hasNext()) {
+        Map.Entry<Key, Entry> eldest = iter.next();
+        if (eldest.getValue() == entry) {
+          continue;
+        }
+        iter.remove();
+        size -= eldest.getValue().size;
+        evicted.add(eldest);
+        evictions.incrementAndGet();
+      }
+    }
+    release(dropped);
+    for (Map.Entry<Key, Entry> eldest : evicted) {
+      spill(eldest.getKey(), eldest.getValue());
+    }
+  }
+
+  /**
+   * Drops the cached row groups of the files under a directory.
+   *
+   * @param root directory of the files
+   */
+  public void invalidate(Path root) {
+    String prefix = Path.getPathWithoutSchemeAndAuthority(root).toString();
+    List<Entry> dropped = new ArrayList<>();
+    synchronized (this) {
+      size -= remove(entries, prefix, dropped);
+      spillSize -= remove(spilledEntries, prefix, dropped);
+    }
+    release(dropped);
+  }
+
+  private static long remove(Map<Key, Entry> map, String prefix, List<Entry> dropped) {
+    long removedSize = 0;
+    Iterator<Map.Entry<Key, Entry>> iter = map.entrySet().iterator();
+    while (iter.hasNext()) {
+      Map.Entry<Key, Entry> entry = iter.next();
+      if (entry.getKey().isUnder(prefix)) {
+        iter.remove();
+        removedSize += entry.getValue().size;
+        dropped.add(entry.getValue());
+      }
+    }
+    return removedSize;
+  }
+
+  /**
+   * Writes an evicted row group to disk, if there is room for it.
+   */
+  private void spill(Key key, Entry entry) {
+    if (maxSpillSize <= 0 || entry.size > maxSpillSize) {
+      entry.release();
+      return;
+    }
+    File file = new File(spillDirectory, UUID.randomUUID() + ".batches");
+    try {
+      FileUtils.forceMkdir(spillDirectory);
+      try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+        for (CachedBatch batch : entry.batches) {
+          batch.write(out);
+        }
+      }
+    } catch (IOException e) {
+      logger.warn("Failed to write the cached batches of {} to {}", key, file, e);
+      FileUtils.deleteQuietly(file);
+      entry.release();
+      return;
+    }
+    Entry spilledEntry = entry.spilledTo(file);
+    entry.release();
+
+    List<Entry> dropped = new ArrayList<>();
+    synchronized (this) {
+      if (entries.containsKey(key) || spilledEntries.containsKey(key)) {
+        // Cached again in the meantime
+        dropped.add(spilledEntry);
+      } else {
+        spilledEntries.put(key, spilledEntry);
+        spillSize += spilledEntry.size;
+        Iterator<Entry> iter = spilledEntries.values().iterator();
+        while (spillSize > maxSpillSize && iter.hasNext()) {
+          Entry eldest = iter.next();
+          iter.remove();
+          spillSize -= eldest.size;
+          dropped.add(eldest);
+        }
+      }
+    }
+    release(dropped);
+  }
+
+  /**
+   * Reads a spilled row group back in memory.
+   */
+  private Entry load(Entry spilledEntry) {
+    List<CachedBatch> batches = new ArrayList<>();
+    try (InputStream in = new BufferedInputStream(new FileInputStream(spilledEntry.file))) {
+      CachedBatch batch;
+      while ((batch = CachedBatch.read(allocator, in)) != null) {
+        batches.add(batch);
+      }
+    } catch (IOException | OutOfMemoryException e) {
+      logger.warn("Failed to read the cached batches from {}", spilledEntry.file, e);
+      batches.forEach(CachedBatch::release);
+      return null;
+    }
+    return spilledEntry.loadedWith(batches);
+  }
+
+  private static void release(Collection<Entry> dropped) {
+    dropped.forEach(Entry::release);
+  }
+
+  private PersistentStore<String> getRegistry() {
+    if (registry == null) {
+      synchronized (this) {
+        if (registry == null) {
+          try {
+            registry = storeProvider.getOrCreateStore(
+                PersistentStoreConfig.newJacksonBuilder(mapper, String.class)
+                    .name(REGISTRY_NAME)
+                    .build());
+          } catch (StoreException e) {
+            throw new DrillRuntimeException("Failed to create the registry of the cached tables", e);
+          }
+        }
+      }
+    }
+    return registry;
+  }
+
+  // The names of the files of the persistent stores are limited
+  private static String registryKey(Path root) {
+    return DigestUtils.sha256Hex(Path.getPathWithoutSchemeAndAuthority(root).toString());
+  }
+
+  /**
+   * @return allocator of the cached buffers
+   */
+  public BufferAllocator getAllocator() {
+    return allocator;
+  }
+
+  /**
+   * @return maximum total size of the cached buffers
+   */
+  public long getMaxSize() {
+    return maxSize;
+  }
+
+  public synchronized int getEntryCount() {
+    return entries.size();
+  }
+
+  public synchronized long getSize() {
+    return size;
+  }
+
+  public synchronized int getSpilledEntryCount() {
+    return spilledEntries.size();
+  }
+
+  public synchronized long getSpilledSize() {
+    return spillSize;
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  @Override
+  public void close() {
+    List<Entry> dropped = new ArrayList<>();
+    synchronized (this) {
+      dropped.addAll(entries.values());
+      dropped.addAll(spilledEntries.values());
+      entries.clear();
+      spilledEntries.clear();
+      size = 0;
+      spillSize = 0;
+    }
+    release(dropped);
+    FileUtils.deleteQuietly(spillDirectory);
+    if (allocator != null) {
+      allocator.close();
+    }
+  }
+
+  /**
+   * A row group, and how it is read: readers with different settings may
+   * return different vectors for the same file.
+   */
+  public static class Key {
+    private final String path;
+    private final int rowGroupIndex;
+    private final Object readerSignature;
+
+    /**
+     * @param path path of the file
+     * @param rowGroupIndex index of the row group in the file
+     * @param readerSignature settings of the reader, comparable with
+     * {@code equals()}
+     */
+    public Key(Path path, int rowGroupIndex, Object readerSignature) {
+      this.path = Path.getPathWithoutSchemeAndAuthority(path).toString();
+      this.rowGroupIndex = rowGroupIndex;
+      this.readerSignature = readerSignature;
+    }
+
+    private boolean isUnder(String directory) {
+      return path.equals(directory) || path.startsWith(directory.endsWith("/") ? directory : directory + "/");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return rowGroupIndex == key.rowGroupIndex
+          && path.equals(key.path)
+          && Objects.equals(readerSignature, key.readerSignature);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, rowGroupIndex, readerSignature);
+    }
+
+    @Override
+    public String toString() {
+      return path + "#" + rowGroupIndex;
+    }
+  }
+
+  /**
+   * The batches of a row group, either in memory or on disk. An entry in
+   * memory is reference counted: it is released by the cache when evicted,
+   * and by each reader which got it from {@link #get}.
+   */
+  public static class Entry {
+    private final long length;
+    private final long modificationTime;
+    private final long metastoreVersion;
+    private final List<SchemaPath> columns;
+    private final Set<String> fieldNames;
+    private final List<CachedBatch> batches;
+    private final File file;
+    private final long size;
+    private final AtomicInteger refCount = new AtomicInteger(1);
+
+    /**
+     * @param status status of the file the batches were read from
+     * @param metastoreVersion version of the Metastore, or -1
+     * @param columns columns the batches were read for
+     * @param batches batches of the whole row group, allocated by the cache
+     * allocator
+     */
+    public Entry(FileStatus status, long metastoreVersion, List<SchemaPath> columns, List<CachedBatch> batches) {
+      this(status.getLen(), status.getModificationTime(), metastoreVersion, columns,
+          fieldNamesOf(batches), batches, null, sizeOf(batches));
+    }
+
+    private Entry(long length, long modificationTime, long metastoreVersion, List<SchemaPath> columns,
+                  Set<String> fieldNames, List<CachedBatch> batches, File file, long size) {
+      this.length = length;
+      this.modificationTime = modificationTime;
+      this.metastoreVersion = metastoreVersion;
+      this.columns = columns;
+      this.fieldNames = fieldNames;
+      this.batches = batches;
+      this.file = file;
+      this.size = size;
+    }
+
+    private static Set<String> fieldNamesOf(List<CachedBatch> batches) {
+      Set<String> names = new HashSet<>();
+      for (CachedBatch batch : batches) {
+        for (SerializedField field : batch.def.getFieldList()) {
+          names.add(field.getNamePart().getName().toLowerCase());
+        }
+      }
+      return names;
+    }
+
+    private static long sizeOf(List<CachedBatch> batches) {
+      return batches.stream().mapToLong(batch -> batch.body.capacity()).sum();
+    }
+
+    private Entry spilledTo(File file) {
+      return new Entry(length, modificationTime, metastoreVersion, columns, fieldNames, null, file, size);
+    }
+
+    private Entry loadedWith(List<CachedBatch> batches) {
+      return new Entry(length, modificationTime, metastoreVersion, columns, fieldNames, batches, null, size);
+    }
+
+    private boolean isValid(FileStatus status, long metastoreVersion) {
+      return length == status.getLen()
+          && modificationTime == status.getModificationTime()
+          && this.metastoreVersion == metastoreVersion;
+    }
+
+    /**
+     * Whether the batches hold the vectors a read of the given columns would
+     * return: the columns are the same, or they are top level columns among
+     * the cached ones.
+     */
+    private boolean covers(List<SchemaPath> requested) {
+      boolean cachedStar = Utilities.isStarQuery(columns);
+      if (Utilities.isStarQuery(requested)) {
+        return cachedStar;
+      }
+      if (new HashSet<>(requested).equals(new HashSet<>(columns))) {
+        return true;
+      }
+      for (SchemaPath column : requested) {
+        if (!column.isLeaf() || !fieldNames.contains(column.getRootSegmentPath().toLowerCase())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    public List<CachedBatch> getBatches() {
+      return batches;
+    }
+
+    public boolean isStar() {
+      return Utilities.isStarQuery(columns);
+    }
+
+    private void retain() {
+      refCount.incrementAndGet();
+    }
+
+    /**
+     * Releases a reference to the batches, freeing them with the last one.
+     */
+    public void release() {
+      if (refCount.decrementAndGet() > 0) {
+        return;
+      }
+      if (batches != null) {
+        batches.forEach(CachedBatch::release);
+      }
+      if (file != null) {
+        FileUtils.deleteQuietly(file);
+      }
+    }
+  }
+
+  /**
+   * A batch of a row group: the definition of its vectors, and their buffers
+   * laid out one after the other in a single buffer, as sent over the wire.
+   */
+  public static class CachedBatch {
+    private final RecordBatchDef def;
+    private final DrillBuf body;
+
+    private CachedBatch(RecordBatchDef def, DrillBuf body) {
+      this.def = def;
+      this.body = body;
+    }
+
+    /**
+     * Copies vectors, leaving them untouched.
+     *
+     * @param allocator allocator of the copy
+     * @param vectors vectors with their value count set
+     * @param recordCount number of records of the vectors
+     * @return copy of the vectors
+     */
+    public static CachedBatch copyOf(BufferAllocator allocator, Collection<ValueVector> vectors, int recordCount) {
+      List<SerializedField> metadata = new ArrayList<>();
+      List<DrillBuf> buffers = new ArrayList<>();
+      int length = 0;
+      for (ValueVector vector : vectors) {
+        metadata.add(vector.getMetadata());
+        for (DrillBuf buffer : vector.getBuffers(false)) {
+          buffers.add(buffer);
+          length += buffer.readableBytes();
+        }
+      }
+      DrillBuf body = allocator.buffer(length);
+      int offset = 0;
+      for (DrillBuf buffer : buffers) {
+        int bufferLength = buffer.readableBytes();
+        body.setBytes(offset, buffer, buffer.readerIndex(), bufferLength);
+        offset += bufferLength;
+      }
+      body.writerIndex(length);
+      RecordBatchDef def = RecordBatchDef.newBuilder()
+          .addAllField(metadata)
+          .setRecordCount(recordCount)
+          .setCarriesTwoByteSelectionVector(false)
+          .build();
+      return new CachedBatch(def, body);
+    }
+
+    private void write(OutputStream out) throws IOException {
+      def.writeDelimitedTo(out);
+      body.getBytes(0, out, body.writerIndex());
+    }
+
+    private static CachedBatch read(BufferAllocator allocator, InputStream in) throws IOException {
+      RecordBatchDef def = RecordBatchDef.parseDelimitedFrom(in);
+      if (def == null) {
+        return null;
+      }
+      int length = 0;
+      for (SerializedField field : def.getFieldList()) {
+        length += field.getBufferLength();
+      }
+      return new CachedBatch(def, allocator.read(length, in));
+    }
+
+    public RecordBatchDef getDef() {
+      return def;
+    }
+
+    public DrillBuf getBody() {
+      return body;
+    }
+
+    public int getRecordCount() {
+      return def.getRecordCount();
+    }
+
+    public long getSize() {
+      return body.capacity();
+    }
+
+    public void release() {
+      body.release();
+    }
+  }
+}
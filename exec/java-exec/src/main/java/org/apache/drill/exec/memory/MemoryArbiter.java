@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.memory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.metrics.DrillMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * Coordinates the memory of the spilling operators of all the fragments
+ * running on the Drillbit. The planner gives each spilling operator a fixed
+ * share of the query memory, so an operator may spill while the Drillbit
+ * has plenty of free memory, and operators of concurrent queries may
+ * together use more memory than the Drillbit has.
+ * <p>
+ * Spilling operators register a {@link Consumer} with the arbiter. When an
+ * operator is about to spill because it reached its budget, it first asks
+ * for more memory with {@link Consumer#requestMemory(long)}. The request is
+ * granted, by raising the limit of the allocator of the operator, if the
+ * memory allocated from the root allocator, plus the memory granted but not
+ * used yet, stays below {@code drill.exec.memory.arbiter.grant_threshold} of
+ * the root allocator limit.
+ * <p>
+ * When the memory allocated from the root allocator goes beyond
+ * {@code drill.exec.memory.arbiter.spill_threshold} of its limit, the
+ * consumers holding the most memory are asked to spill, until the memory
+ * they hold covers the excess. Operators poll {@link Consumer#shouldSpill()}
+ * and call {@link Consumer#spilled()} once they spilled, which takes back
+ * the memory granted to them, as far as they do not use it.
+ * <p>
+ * The arbiter is disabled by default, in which case operators keep the
+ * budget computed by the planner.
+ */
+public class MemoryArbiter {
+  private static final Logger logger = LoggerFactory.getLogger(MemoryArbiter.class);
+
+  private static final String METRICS_PREFIX = "drill.exec.memory.arbiter.";
+
+  /**
+   * Arbiter of operators which keep the budget computed by the planner.
+   */
+  public static final MemoryArbiter DISABLED = new MemoryArbiter(null, false, 0, 0);
+
+  private final BufferAllocator rootAllocator;
+  private final boolean enabled;
+  private final double grantThreshold;
+  private final double spillThreshold;
+
+  private final Set<Consumer> consumers = ConcurrentHashMap.newKeySet();
+  private final AtomicLong grants = new AtomicLong();
+  private final AtomicLong grantedBytes = new AtomicLong();
+  private final AtomicLong deniedRequests = new AtomicLong();
+  private final AtomicLong spillRequests = new AtomicLong();
+
+  public MemoryArbiter(DrillConfig config, BufferAllocator rootAllocator) {
+    this(rootAllocator,
+        config.getBoolean(ExecConstants.MEMORY_ARBITER_ENABLED),
+        config.getDouble(ExecConstants.MEMORY_ARBITER_GRANT_THRESHOLD),
+        config.getDouble(ExecConstants.MEMORY_ARBITER_SPILL_THRESHOLD));
+    if (enabled) {
+      registerMetrics();
+    }
+  }
+
+  @VisibleForTesting
+  public MemoryArbiter(BufferAllocator rootAllocator, boolean enabled, double grantThreshold, double spillThreshold) {
+    Preconditions.checkArgument(!enabled || grantThreshold <= spillThreshold,
+        "The grant threshold of the memory arbiter must not exceed its spill threshold");
+    this.rootAllocator = rootAllocator;
+    this.enabled = enabled;
+    this.grantThreshold = grantThreshold;
+    this.spillThreshold = spillThreshold;
+  }
+
+  private void registerMetrics() {
+    DrillMetrics.register(METRICS_PREFIX + "consumers", (Gauge<Integer>) consumers::size);
+    DrillMetrics.register(METRICS_PREFIX + "grants", (Gauge<Long>) grants::get);
+    DrillMetrics.register(METRICS_PREFIX + "granted_bytes", (Gauge<Long>) grantedBytes::get);
+    DrillMetrics.register(METRICS_PREFIX + "denied_requests", (Gauge<Long>) deniedRequests::get);
+    DrillMetrics.register(METRICS_PREFIX + "spill_requests", (Gauge<Long>) spillRequests::get);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Registers a spilling operator.
+   *
+   * @param name name of the operator, for logging
+   * @param allocator allocator of the operator, whose limit is its budget
+   * @return the consumer of the operator, to be closed with the operator
+   */
+  public Consumer register(String name, BufferAllocator allocator) {
+    Consumer consumer = new Consumer(name, allocator);
+    if (enabled) {
+      consumers.add(consumer);
+    }
+    return consumer;
+  }
+
+  public long getGrantCount() {
+    return grants.get();
+  }
+
+  public long getSpillRequestCount() {
+    return spillRequests.get();
+  }
+
+  private long grantLimit() {
+    return (long) (rootAllocator.getLimit() * grantThreshold);
+  }
+
+  private long spillLimit() {
+    return (long) (rootAllocator.getLimit() * spillThreshold);
+  }
+
+  private synchronized long grant(Consumer consumer, long bytes) {
+    long unusedGrants = 0;
+    for (Consumer other : consumers) {
+      unusedGrants += other.unusedGrant();
+    }
+    long available = grantLimit() - rootAllocator.getAllocatedMemory() - unusedGrants;
+    if (bytes > available) {
+      deniedRequests.incrementAndGet();
+      logger.debug("Denied {} bytes to {}, {} bytes available", bytes, consumer.name, available);
+      return 0;
+    }
+    consumer.granted += bytes;
+    consumer.allocator.setLimit(consumer.allocator.getLimit() + bytes);
+    grants.incrementAndGet();
+    grantedBytes.addAndGet(bytes);
+    logger.debug("Granted {} bytes to {}, {} bytes granted in total", bytes, consumer.name, consumer.granted);
+    return bytes;
+  }
+
+  /**
+   * Asks the consumers holding the most memory to spill, until the memory
+   * they hold covers the memory allocated beyond the grant threshold.
+   */
+  private synchronized void relievePressure() {
+    long excess = rootAllocator.getAllocatedMemory() - grantLimit();
+    List<Consumer> candidates = new ArrayList<>();
+    for (Consumer consumer : consumers) {
+      if (consumer.spillRequested) {
+        excess -= consumer.allocator.getAllocatedMemory();
+      } else {
+        candidates.add(consumer);
+      }
+    }
+    candidates.sort(Comparator.comparingLong((Consumer consumer) -> consumer.allocator.getAllocatedMemory()).reversed());
+    for (Consumer consumer : candidates) {
+      if (excess <= 0) {
+        break;
+      }
+      long allocated = consumer.allocator.getAllocatedMemory();
+      if (allocated == 0) {
+        break;
+      }
+      consumer.spillRequested = true;
+      excess -= allocated;
+      spillRequests.incrementAndGet();
+      logger.debug("Asked {} to spill {} bytes", consumer.name, allocated);
+    }
+  }
+
+  private synchronized long revoke(Consumer consumer, boolean unused) {
+    long revoked = consumer.granted;
+    if (unused) {
+      revoked = Math.min(revoked, consumer.unusedLimit());
+    }
+    if (revoked > 0) {
+      consumer.granted -= revoked;
+      consumer.allocator.setLimit(consumer.allocator.getLimit() - revoked);
+      grantedBytes.addAndGet(-revoked);
+    }
+    return revoked;
+  }
+
+  /**
+   * Memory of a spilling operator, as seen by the arbiter.
+   */
+  public class Consumer implements AutoCloseable {
+    private final String name;
+    private final BufferAllocator allocator;
+    // memory granted beyond the budget computed by the planner
+    private long granted;
+    private volatile boolean spillRequested;
+
+    private Consumer(String name, BufferAllocator allocator) {
+      this.name = name;
+      this.allocator = allocator;
+    }
+
+    /**
+     * Asks for memory beyond the current limit of the allocator of the
+     * operator, instead of spilling.
+     *
+     * @param bytes memory needed
+     * @return the memory added to the limit of the allocator, either all the
+     * memory asked for or 0
+     */
+    public long requestMemory(long bytes) {
+      if (!enabled || bytes <= 0 || spillRequested) {
+        return 0;
+      }
+      return grant(this, bytes);
+    }
+
+    /**
+     * Checks whether the operator should spill to relieve memory pressure on
+     * the Drillbit, even though it stays within its own budget.
+     *
+     * @return true if the operator was asked to spill
+     */
+    public boolean shouldSpill() {
+      if (!enabled) {
+        return false;
+      }
+      if (!spillRequested && rootAllocator.getAllocatedMemory() > spillLimit()) {
+        relievePressure();
+      }
+      return spillRequested;
+    }
+
+    /**
+     * Notifies that the operator spilled, and takes back the memory granted
+     * to the operator which it does not use.
+     *
+     * @return the memory taken off the limit of the allocator of the operator
+     */
+    public long spilled() {
+      if (!enabled) {
+        return 0;
+      }
+      spillRequested = false;
+      return revoke(this, true);
+    }
+
+    private long unusedLimit() {
+      return Math.max(0, allocator.getLimit() - allocator.getAllocatedMemory());
+    }
+
+    private long unusedGrant() {
+      return Math.min(granted, unusedLimit());
+    }
+
+    /**
+     * Takes back the memory granted to the operator, whose memory is released.
+     */
+    @Override
+    public void close() {
+      if (enabled && consumers.remove(this)) {
+        revoke(this, true);
+      }
+    }
+  }
+}
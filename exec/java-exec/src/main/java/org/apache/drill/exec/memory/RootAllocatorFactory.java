@@ -25,6 +25,23 @@ public class RootAllocatorFactory {
 
   public static final String TOP_LEVEL_MAX_ALLOC = "drill.memory.top.max";
 
+  /**
+   * Size of the chunks in which fragment and operator allocators reserve memory
+   * from their parent, serving smaller allocations locally. 0 disables chunked
+   * reservations.
+   */
+  public static final String RESERVATION_CHUNK_SIZE = "drill.memory.reservation_chunk_size";
+
+  /**
+   * Sampling of the sites allocating direct memory: one in {@code rate}
+   * allocations is sampled (0 disables sampling), the site being identified
+   * by {@code stack_depth} stack frames. At most {@code max_sites} sites are
+   * tracked.
+   */
+  public static final String SAMPLING_RATE = "drill.memory.sampling.rate";
+  public static final String SAMPLING_STACK_DEPTH = "drill.memory.sampling.stack_depth";
+  public static final String SAMPLING_MAX_SITES = "drill.memory.sampling.max_sites";
+
   /**
    * Constructor to prevent instantiation of this static utility class.
    */
@@ -37,7 +54,11 @@ public class RootAllocatorFactory {
    * @return a new root allocator
    */
   public static BufferAllocator newRoot(final DrillConfig drillConfig) {
-    return newRoot(drillConfig.getLong(TOP_LEVEL_MAX_ALLOC));
+    return new RootAllocator(Math.min(DrillConfig.getMaxDirectMemory(), drillConfig.getLong(TOP_LEVEL_MAX_ALLOC)),
+        drillConfig.getBytes(RESERVATION_CHUNK_SIZE),
+        new AllocationSampler(drillConfig.getInt(SAMPLING_RATE),
+            drillConfig.getInt(SAMPLING_STACK_DEPTH),
+            drillConfig.getInt(SAMPLING_MAX_SITES)));
   }
 
   @VisibleForTesting
@@ -17,6 +17,7 @@
  */
 package org.apache.drill.exec.metastore;
 
+import org.apache.drill.exec.metastore.store.MetastoreMetadataCache;
 import org.apache.drill.exec.planner.common.DrillStatsTable;
 import org.apache.drill.exec.record.metadata.schema.SchemaProvider;
 import org.apache.drill.metastore.MetastoreRegistry;
@@ -29,6 +30,7 @@ import org.apache.drill.metastore.metadata.TableMetadataProvider;
 public class MetastoreMetadataProviderManager implements MetadataProviderManager {
 
   private final MetastoreRegistry metastoreRegistry;
+  private final MetastoreMetadataCache metadataCache;
   private final TableInfo tableInfo;
   private final MetastoreMetadataProviderConfig config;
 
@@ -37,9 +39,10 @@ public class MetastoreMetadataProviderManager implements MetadataProviderManager
   private SchemaProvider schemaProvider;
   private DrillStatsTable statsProvider;
 
-  public MetastoreMetadataProviderManager(MetastoreRegistry metastoreRegistry,
+  public MetastoreMetadataProviderManager(MetastoreRegistry metastoreRegistry, MetastoreMetadataCache metadataCache,
       TableInfo tableInfo, MetastoreMetadataProviderConfig config) {
     this.metastoreRegistry = metastoreRegistry;
+    this.metadataCache = metadataCache;
     this.tableInfo = tableInfo;
     this.config = config;
   }
@@ -78,6 +81,13 @@ public class MetastoreMetadataProviderManager implements MetadataProviderManager
     return metastoreRegistry;
   }
 
+  /**
+   * @return cache of the metadata read from the Metastore, shared by the queries of the Drillbit
+   */
+  public MetastoreMetadataCache getMetadataCache() {
+    return metadataCache;
+  }
+
   public TableInfo getTableInfo() {
     return tableInfo;
   }
@@ -65,6 +65,8 @@ public class MetastoreFileTableMetadataProvider implements TableMetadataProvider
   protected final BasicTablesRequests basicTablesRequests;
   protected final TableInfo tableInfo;
   protected final MetastoreTableInfo metastoreTableInfo;
+  // metadata requests answered from the metadata cached for the table version
+  protected final MetastoreMetadataCache.TableRequests tableRequests;
   protected final TupleMetadata schema;
   protected final List<String> paths;
   protected final DrillStatsTable statsProvider;
@@ -99,6 +101,7 @@ public class MetastoreFileTableMetadataProvider implements TableMetadataProvider
     this.basicTablesRequests = builder.metadataProviderManager.getMetastoreRegistry().get().tables().basicRequests();
     this.tableInfo = builder.metadataProviderManager.getTableInfo();
     this.metastoreTableInfo = basicTablesRequests.metastoreTableInfo(tableInfo);
+    this.tableRequests = builder.metadataProviderManager.getMetadataCache().forTable(basicTablesRequests, metastoreTableInfo);
     this.useSchema = builder.metadataProviderManager.getConfig().useSchema();
     this.useStatistics = builder.metadataProviderManager.getConfig().useStatistics();
     this.fallbackToFileMetadata = builder.metadataProviderManager.getConfig().fallbackToFileMetadata();
@@ -126,12 +129,12 @@ public class MetastoreFileTableMetadataProvider implements TableMetadataProvider
     if (tableMetadata == null) {
       if (schema == null) {
         if (useSchema) {
-          tableMetadata = basicTablesRequests.tableMetadata(tableInfo);
+          tableMetadata = tableRequests.tableMetadata();
         } else {
           throw MetadataException.of(MetadataException.MetadataExceptionType.ABSENT_SCHEMA);
         }
       } else {
-        tableMetadata = basicTablesRequests.tableMetadata(tableInfo).toBuilder()
+        tableMetadata = tableRequests.tableMetadata().toBuilder()
             .schema(schema)
             .build();
       }
@@ -158,7 +161,7 @@ public class MetastoreFileTableMetadataProvider implements TableMetadataProvider
   @Override
   public List<SchemaPath> getPartitionColumns() {
     throwIfChanged();
-    return basicTablesRequests.interestingColumnsAndPartitionKeys(tableInfo).partitionKeys().values().stream()
+    return tableRequests.interestingColumnsAndPartitionKeys().partitionKeys().values().stream()
         .map(SchemaPath::getSimplePath)
         .collect(Collectors.toList());
   }
@@ -167,7 +170,7 @@ public class MetastoreFileTableMetadataProvider implements TableMetadataProvider
   public List<PartitionMetadata> getPartitionsMetadata() {
     throwIfChanged();
     if (partitions == null) {
-      partitions = basicTablesRequests.partitionsMetadata(tableInfo, null, null);
+      partitions = tableRequests.partitionsMetadata(null);
     }
     return partitions;
   }
@@ -175,14 +178,14 @@ public class MetastoreFileTableMetadataProvider implements TableMetadataProvider
   @Override
   public List<PartitionMetadata> getPartitionMetadata(SchemaPath columnName) {
     throwIfChanged();
-    return basicTablesRequests.partitionsMetadata(tableInfo, null, columnName.getRootSegmentPath());
+    return tableRequests.partitionsMetadata(columnName.getRootSegmentPath());
   }
 
   @Override
   public Map<Path, FileMetadata> getFilesMetadataMap() {
     throwIfChanged();
     if (files == null) {
-      files = basicTablesRequests.filesMetadata(tableInfo, null, paths).stream()
+      files = tableRequests.filesMetadata(paths).stream()
           .collect(Collectors.toMap(FileMetadata::getPath, Function.identity()));
     }
     return files;
@@ -192,7 +195,7 @@ public class MetastoreFileTableMetadataProvider implements TableMetadataProvider
   public Map<Path, SegmentMetadata> getSegmentsMetadataMap() {
     throwIfChanged();
     if (segmentsMetadata == null) {
-      segmentsMetadata = basicTablesRequests.segmentsMetadataByColumn(tableInfo, null, null).stream()
+      segmentsMetadata = tableRequests.segmentsMetadata().stream()
           .collect(Collectors.toMap(SegmentMetadata::getPath, Function.identity()));
     }
     return segmentsMetadata;
@@ -201,7 +204,7 @@ public class MetastoreFileTableMetadataProvider implements TableMetadataProvider
   @Override
   public FileMetadata getFileMetadata(Path location) {
     throwIfChanged();
-    return basicTablesRequests.fileMetadata(tableInfo, null, location.toUri().getPath());
+    return tableRequests.fileMetadata(location.toUri().getPath());
   }
 
   @Override
@@ -210,7 +213,7 @@ public class MetastoreFileTableMetadataProvider implements TableMetadataProvider
     List<String> paths = partition.getLocations().stream()
         .map(path -> path.toUri().getPath())
         .collect(Collectors.toList());
-    return basicTablesRequests.filesMetadata(tableInfo, null, paths);
+    return tableRequests.filesMetadata(paths);
   }
 
   @Override
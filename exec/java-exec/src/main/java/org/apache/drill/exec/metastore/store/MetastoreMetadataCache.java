@@ -0,0 +1,361 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.metastore.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.cache.SizeBoundedCache;
+import org.apache.drill.metastore.components.tables.BasicTablesRequests;
+import org.apache.drill.metastore.components.tables.MetastoreTableInfo;
+import org.apache.drill.metastore.components.tables.TableMetadataUnit;
+import org.apache.drill.metastore.metadata.BaseTableMetadata;
+import org.apache.drill.metastore.metadata.FileMetadata;
+import org.apache.drill.metastore.metadata.Metadata;
+import org.apache.drill.metastore.metadata.PartitionMetadata;
+import org.apache.drill.metastore.metadata.RowGroupMetadata;
+import org.apache.drill.metastore.metadata.SegmentMetadata;
+import org.apache.drill.metastore.metadata.TableInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of the table, segment, partition, file and row group metadata read
+ * from the Drill Metastore while planning queries, shared by all the queries
+ * planned by the Drillbit. Without it, every planning pass of a query on an
+ * analyzed table requests the metadata of all its files and row groups,
+ * which takes seconds for tables with many files.
+ * <p>
+ * Metadata is cached for a table, its last modified time and the Metastore
+ * version, as returned by {@link BasicTablesRequests#metastoreTableInfo(TableInfo)},
+ * which the metadata providers request anyway. When the Metastore supports
+ * versioning, any write to it changes the version, so the metadata of a
+ * re-analyzed table is requested again. Otherwise the metadata of a table
+ * stays cached while its last modified time does not change, so the cached
+ * metadata of a table is also discarded when ANALYZE TABLE writes its metadata
+ * or its metadata is dropped on this Drillbit, and after
+ * {@code drill.exec.metastore_metadata_cache.ttl} seconds.
+ * <p>
+ * The metadata of files and row groups is cached per file, as the planner
+ * requests it, so that only the metadata of the files not requested yet is
+ * read from the Metastore. The total size of the cached metadata, estimated
+ * from its number of column statistics, is bounded by
+ * {@code drill.exec.metastore_metadata_cache.max_size}; a size of 0 disables
+ * the cache.
+ * <p>
+ * The cache is held by the Drillbit context, and passed to the metadata
+ * providers by their {@link org.apache.drill.exec.metastore.MetastoreMetadataProviderManager}.
+ */
+public class MetastoreMetadataCache {
+  private static final Logger logger = LoggerFactory.getLogger(MetastoreMetadataCache.class);
+
+  private static final String METRICS_PREFIX = "drill.exec.metastore.metadata_cache.";
+
+  // Rough heap usage of the metadata objects
+  private static final int METADATA_SIZE = 512;
+  private static final int COLUMN_SIZE = 384;
+  private static final int LIST_SIZE = 64;
+
+  private final SizeBoundedCache<Key, Object> cache;
+  // last modified time and Metastore version of the cached metadata of each table
+  private final ConcurrentMap<TableInfo, MetastoreTableInfo> versions = new ConcurrentHashMap<>();
+
+  private enum Kind {
+    TABLE, COLUMNS, SEGMENTS, PARTITIONS, FILE, ROW_GROUPS
+  }
+
+  /**
+   * Creates the cache shared by the queries of the Drillbit, and registers its
+   * metrics.
+   *
+   * @param config Drillbit configuration
+   */
+  public MetastoreMetadataCache(DrillConfig config) {
+    this(config.getBytes(ExecConstants.METASTORE_METADATA_CACHE_MAX_SIZE),
+        config.getLong(ExecConstants.METASTORE_METADATA_CACHE_TTL));
+    cache.registerMetrics(METRICS_PREFIX);
+  }
+
+  public MetastoreMetadataCache(long maxSize, long ttl) {
+    cache = new SizeBoundedCache<>(maxSize, ttl, MetastoreMetadataCache::estimateSize);
+  }
+
+  /**
+   * Returns the requests of the metadata of a table, answered from the cache
+   * when the table did not change.
+   *
+   * @param basicTablesRequests Metastore requests
+   * @param metastoreTableInfo last modified time and Metastore version of the table
+   * @return requests of the metadata of the table
+   */
+  public TableRequests forTable(BasicTablesRequests basicTablesRequests, MetastoreTableInfo metastoreTableInfo) {
+    if (cache.isEnabled() && metastoreTableInfo.isExists()) {
+      MetastoreTableInfo previous = versions.put(metastoreTableInfo.tableInfo(), metastoreTableInfo);
+      if (previous != null && !previous.equals(metastoreTableInfo)) {
+        // metadata of older versions of the table will not be requested anymore
+        logger.debug("Metadata of table [{}] changed", metastoreTableInfo.tableInfo().name());
+        invalidate(key -> key.table.equals(previous));
+      }
+    }
+    return new TableRequests(basicTablesRequests, metastoreTableInfo);
+  }
+
+  /**
+   * Discards the cached metadata of a table, whose metadata was written or
+   * dropped.
+   *
+   * @param tableInfo table, matched by storage plugin, workspace and name
+   */
+  public void invalidate(TableInfo tableInfo) {
+    if (!cache.isEnabled()) {
+      return;
+    }
+    versions.keySet().removeIf(table -> sameTable(table, tableInfo));
+    invalidate(key -> sameTable(key.table.tableInfo(), tableInfo));
+  }
+
+  private void invalidate(Predicate<Key> predicate) {
+    cache.invalidate(predicate);
+  }
+
+  private static boolean sameTable(TableInfo table, TableInfo other) {
+    return Objects.equals(table.storagePlugin(), other.storagePlugin())
+        && Objects.equals(table.workspace(), other.workspace())
+        && Objects.equals(table.name(), other.name());
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+    versions.clear();
+  }
+
+  public boolean isEnabled() {
+    return cache.isEnabled();
+  }
+
+  public long getEntryCount() {
+    return cache.getEntryCount();
+  }
+
+  public long getHitCount() {
+    return cache.getHitCount();
+  }
+
+  public long getMissCount() {
+    return cache.getMissCount();
+  }
+
+  public double getHitRatio() {
+    return cache.getHitRatio();
+  }
+
+  /**
+   * Returns cached metadata, requesting it when it is not cached. Absent
+   * metadata is not cached.
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T get(Key key, Supplier<T> loader) {
+    if (key == null) {
+      return loader.get();
+    }
+    Object value = cache.getIfPresent(key);
+    if (value != null) {
+      return (T) value;
+    }
+    T loaded = loader.get();
+    if (loaded != null) {
+      cache.put(key, loaded);
+    }
+    return loaded;
+  }
+
+  private static int estimateSize(Object value) {
+    long estimate;
+    if (value instanceof Collection) {
+      estimate = LIST_SIZE;
+      for (Object element : (Collection<?>) value) {
+        estimate += estimateSize(element);
+      }
+    } else if (value instanceof Metadata) {
+      estimate = METADATA_SIZE + (long) COLUMN_SIZE * ((Metadata) value).getColumnsStatistics().size();
+    } else {
+      estimate = METADATA_SIZE;
+    }
+    return (int) Math.min(estimate, Integer.MAX_VALUE);
+  }
+
+  private static String pathOf(Metadata metadata) {
+    if (metadata instanceof FileMetadata) {
+      return ((FileMetadata) metadata).getPath().toUri().getPath();
+    }
+    return ((RowGroupMetadata) metadata).getPath().toUri().getPath();
+  }
+
+  /**
+   * Requests of the metadata of a table, for its last modified time and
+   * Metastore version. Mirrors the requests of {@link BasicTablesRequests}
+   * the metadata providers use, without metadata keys.
+   */
+  public class TableRequests {
+    private final BasicTablesRequests basicTablesRequests;
+    private final MetastoreTableInfo metastoreTableInfo;
+    private final TableInfo tableInfo;
+    private final boolean cached;
+
+    private TableRequests(BasicTablesRequests basicTablesRequests, MetastoreTableInfo metastoreTableInfo) {
+      this.basicTablesRequests = basicTablesRequests;
+      this.metastoreTableInfo = metastoreTableInfo;
+      this.tableInfo = metastoreTableInfo.tableInfo();
+      this.cached = cache.isEnabled() && metastoreTableInfo.isExists();
+    }
+
+    public BaseTableMetadata tableMetadata() {
+      return get(key(Kind.TABLE, null), () -> basicTablesRequests.tableMetadata(tableInfo));
+    }
+
+    public TableMetadataUnit interestingColumnsAndPartitionKeys() {
+      return get(key(Kind.COLUMNS, null), () -> basicTablesRequests.interestingColumnsAndPartitionKeys(tableInfo));
+    }
+
+    public List<SegmentMetadata> segmentsMetadata() {
+      return copy(get(key(Kind.SEGMENTS, null),
+          () -> basicTablesRequests.segmentsMetadataByColumn(tableInfo, null, null)));
+    }
+
+    /**
+     * @param column partition column, or null for the partitions of all the columns
+     * @return partitions metadata
+     */
+    public List<PartitionMetadata> partitionsMetadata(String column) {
+      return copy(get(key(Kind.PARTITIONS, column),
+          () -> basicTablesRequests.partitionsMetadata(tableInfo, null, column)));
+    }
+
+    public FileMetadata fileMetadata(String path) {
+      List<FileMetadata> files = filesMetadata(Collections.singletonList(path));
+      return files.isEmpty() ? null : files.get(0);
+    }
+
+    public List<FileMetadata> filesMetadata(List<String> paths) {
+      if (paths == null) {
+        return basicTablesRequests.filesMetadata(tableInfo, null, null);
+      }
+      return byPath(Kind.FILE, paths, missing -> basicTablesRequests.filesMetadata(tableInfo, null, missing));
+    }
+
+    public List<RowGroupMetadata> rowGroupsMetadata(List<String> paths) {
+      if (paths == null) {
+        return basicTablesRequests.rowGroupsMetadata(tableInfo, (List<String>) null, null);
+      }
+      return byPath(Kind.ROW_GROUPS, paths,
+          missing -> basicTablesRequests.rowGroupsMetadata(tableInfo, null, missing));
+    }
+
+    /**
+     * Returns the metadata of files, requesting the metadata of the files
+     * which is not cached at once. Files without metadata are cached as such.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends Metadata> List<T> byPath(Kind kind, List<String> paths,
+        Function<List<String>, List<T>> loader) {
+      if (!cached) {
+        return loader.apply(paths);
+      }
+      Map<String, List<T>> found = new HashMap<>();
+      List<String> missing = new ArrayList<>();
+      for (String path : paths) {
+        Object value = cache.getIfPresent(key(kind, path));
+        if (value != null) {
+          found.put(path, (List<T>) value);
+        } else {
+          missing.add(path);
+        }
+      }
+      if (!missing.isEmpty()) {
+        Map<String, List<T>> loaded = new HashMap<>();
+        for (String path : missing) {
+          loaded.put(path, new ArrayList<>());
+        }
+        for (T metadata : loader.apply(missing)) {
+          loaded.computeIfAbsent(pathOf(metadata), path -> new ArrayList<>()).add(metadata);
+        }
+        loaded.forEach((path, metadata) -> cache.put(key(kind, path), metadata));
+        found.putAll(loaded);
+      }
+      List<T> result = new ArrayList<>();
+      for (String path : paths) {
+        List<T> metadata = found.get(path);
+        if (metadata != null) {
+          result.addAll(metadata);
+        }
+      }
+      return result;
+    }
+
+    private Key key(Kind kind, String name) {
+      return cached ? new Key(metastoreTableInfo, kind, name) : null;
+    }
+
+    private <T> List<T> copy(List<T> list) {
+      return cached ? new ArrayList<>(list) : list;
+    }
+  }
+
+  private static class Key {
+    private final MetastoreTableInfo table;
+    private final Kind kind;
+    private final String name;
+
+    Key(MetastoreTableInfo table, Kind kind, String name) {
+      this.table = table;
+      this.kind = kind;
+      this.name = name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return kind == key.kind
+          && Objects.equals(name, key.name)
+          && table.equals(key.table);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(table, kind, name);
+    }
+  }
+}
@@ -96,7 +96,7 @@ public class MetastoreParquetTableMetadataProvider extends MetastoreFileTableMet
     throwIfChanged();
     if (rowGroups == null) {
       rowGroups = LinkedListMultimap.create();
-      basicTablesRequests.rowGroupsMetadata(tableInfo, null, paths).stream()
+      tableRequests.rowGroupsMetadata(paths).stream()
           .collect(Collectors.groupingBy(RowGroupMetadata::getPath, Collectors.toList()))
           .forEach((path, rowGroupMetadata) -> rowGroups.putAll(path, rowGroupMetadata));
       if (rowGroups.isEmpty()) {
@@ -17,14 +17,17 @@
  */
 package org.apache.drill.exec.ops;
 
+import org.apache.drill.exec.cache.TableCache;
 import org.apache.drill.exec.coord.ClusterCoordinator;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.physical.impl.OperatorCreatorRegistry;
 import org.apache.drill.exec.planner.PhysicalPlanReader;
+import org.apache.drill.exec.planner.sql.PlanCache;
 import org.apache.drill.exec.proto.CoordinationProtos;
 import org.apache.drill.exec.rpc.control.WorkEventBus;
 import org.apache.drill.exec.rpc.user.UserServer;
 import org.apache.drill.exec.server.QueryProfileStoreContext;
+import org.apache.drill.exec.store.resultcache.ResultCache;
 import org.apache.drill.exec.work.batch.IncomingBuffers;
 
 import java.util.Collection;
@@ -58,6 +61,12 @@ public interface ExecutorFragmentContext extends RootFragmentContext {
 
   QueryProfileStoreContext getProfileStoreContext();
 
+  PlanCache getPlanCache();
+
+  ResultCache getResultCache();
+
+  TableCache getTableCache();
+
   WorkEventBus getWorkEventBus();
 
   Set<Map.Entry<UserServer.BitToUserConnection, UserServer.BitToUserConnectionConfig>> getUserConnections();
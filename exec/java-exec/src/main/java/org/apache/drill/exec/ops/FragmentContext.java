@@ -31,6 +31,8 @@ import org.apache.drill.exec.expr.ClassGenerator;
 import org.apache.drill.exec.expr.CodeGenerator;
 import org.apache.drill.exec.expr.fn.FunctionLookupContext;
 import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.MemoryArbiter;
+import org.apache.drill.exec.metastore.store.MetastoreMetadataCache;
 import org.apache.drill.exec.ops.QueryContext.SqlStatementType;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.proto.ExecProtos;
@@ -199,6 +201,12 @@ public interface FragmentContext extends UdfUtilities, AutoCloseable {
    */
   MetastoreRegistry getMetastoreRegistry();
 
+  /**
+   * @return cache of the metadata read from the Metastore, to discard the
+   * metadata of the tables analyzed
+   */
+  MetastoreMetadataCache getMetastoreMetadataCache();
+
   /**
    * Get an instance of alias registry provider for obtaining aliases.
    *
@@ -206,6 +214,13 @@ public interface FragmentContext extends UdfUtilities, AutoCloseable {
    */
   AliasRegistryProvider getAliasRegistryProvider();
 
+  /**
+   * Get the arbiter of the memory of the spilling operators of the Drillbit.
+   *
+   * @return memory arbiter
+   */
+  MemoryArbiter getMemoryArbiter();
+
   /**
    * An operator is experiencing memory pressure. Asks the fragment
    * executor to poll all operators to release an optional memory
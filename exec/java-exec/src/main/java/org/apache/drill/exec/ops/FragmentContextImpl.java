@@ -38,12 +38,15 @@ import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.common.types.TypeProtos.MinorType;
 import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.alias.AliasRegistryProvider;
+import org.apache.drill.exec.cache.TableCache;
 import org.apache.drill.exec.compile.CodeCompiler;
 import org.apache.drill.exec.coord.ClusterCoordinator;
 import org.apache.drill.exec.exception.OutOfMemoryException;
 import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
 import org.apache.drill.exec.expr.holders.ValueHolder;
 import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.MemoryArbiter;
+import org.apache.drill.exec.metastore.store.MetastoreMetadataCache;
 import org.apache.drill.exec.ops.QueryContext.SqlStatementType;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.physical.impl.OperatorCreatorRegistry;
@@ -52,6 +55,7 @@ import org.apache.drill.exec.physical.resultSet.impl.ResultSetLoaderImpl;
 import org.apache.drill.exec.physical.resultSet.impl.ResultSetLoaderImpl.ResultSetOptions;
 import org.apache.drill.exec.planner.PhysicalPlanReader;
 import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.exec.planner.sql.PlanCache;
 import org.apache.drill.exec.proto.BitControl.PlanFragment;
 import org.apache.drill.exec.proto.BitData;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
@@ -76,6 +80,7 @@ import org.apache.drill.exec.server.options.OptionValue;
 import org.apache.drill.exec.store.PartitionExplorer;
 import org.apache.drill.exec.store.SchemaConfig;
 import org.apache.drill.exec.store.SchemaTreeProvider;
+import org.apache.drill.exec.store.resultcache.ResultCache;
 import org.apache.drill.exec.testing.ExecutionControls;
 import org.apache.drill.exec.util.ImpersonationUtil;
 import org.apache.drill.exec.work.batch.IncomingBuffers;
@@ -283,6 +288,21 @@ public class FragmentContextImpl extends BaseFragmentContext implements Executor
     return context.getProfileStoreContext();
   }
 
+  @Override
+  public PlanCache getPlanCache() {
+    return context.getPlanCache();
+  }
+
+  @Override
+  public ResultCache getResultCache() {
+    return context.getResultCache();
+  }
+
+  @Override
+  public TableCache getTableCache() {
+    return context.getTableCache();
+  }
+
   @Override
   public Set<Map.Entry<UserServer.BitToUserConnection, UserServer.BitToUserConnectionConfig>> getUserConnections() {
     return context.getUserConnections();
@@ -669,11 +689,21 @@ public class FragmentContextImpl extends BaseFragmentContext implements Executor
     return context.getMetastoreRegistry();
   }
 
+  @Override
+  public MetastoreMetadataCache getMetastoreMetadataCache() {
+    return context.getMetastoreMetadataCache();
+  }
+
   @Override
   public AliasRegistryProvider getAliasRegistryProvider() {
     return context.getAliasRegistryProvider();
   }
 
+  @Override
+  public MemoryArbiter getMemoryArbiter() {
+    return context.getMemoryArbiter();
+  }
+
   @Override
   public void requestMemory(RecordBatch requestor) {
     // Does not actually do anything yet. Should ask the fragment
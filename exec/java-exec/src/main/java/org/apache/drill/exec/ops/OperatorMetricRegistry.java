@@ -26,12 +26,15 @@ import org.apache.drill.exec.physical.config.HashPartitionSender;
 import org.apache.drill.exec.physical.config.LateralJoinPOP;
 import org.apache.drill.exec.physical.config.MergeJoinPOP;
 import org.apache.drill.exec.physical.config.MergingReceiverPOP;
+import org.apache.drill.exec.physical.config.NestedLoopJoinPOP;
 import org.apache.drill.exec.physical.config.RuntimeFilterPOP;
 import org.apache.drill.exec.physical.config.Screen;
 import org.apache.drill.exec.physical.config.SingleSender;
+import org.apache.drill.exec.physical.config.TopN;
 import org.apache.drill.exec.physical.config.UnionAll;
 import org.apache.drill.exec.physical.config.UnnestPOP;
 import org.apache.drill.exec.physical.config.UnorderedReceiver;
+import org.apache.drill.exec.physical.config.WindowPOP;
 import org.apache.drill.exec.physical.impl.ScreenCreator;
 import org.apache.drill.exec.physical.impl.SingleSenderCreator;
 import org.apache.drill.exec.physical.impl.aggregate.HashAggTemplate;
@@ -39,10 +42,12 @@ import org.apache.drill.exec.physical.impl.broadcastsender.BroadcastSenderRootEx
 import org.apache.drill.exec.physical.impl.filter.RuntimeFilterRecordBatch;
 import org.apache.drill.exec.physical.impl.flatten.FlattenRecordBatch;
 import org.apache.drill.exec.physical.impl.join.HashJoinBatch;
+import org.apache.drill.exec.physical.impl.join.NestedLoopJoinBatch;
 import org.apache.drill.exec.physical.impl.mergereceiver.MergingRecordBatch;
 import org.apache.drill.exec.physical.impl.partitionsender.PartitionSenderRootExec;
 import org.apache.drill.exec.physical.impl.unnest.UnnestRecordBatch;
 import org.apache.drill.exec.physical.impl.unorderedreceiver.UnorderedReceiverBatch;
+import org.apache.drill.exec.physical.impl.window.WindowFrameRecordBatch;
 import org.apache.drill.exec.physical.impl.xsort.ExternalSortBatch;
 import org.apache.drill.exec.record.AbstractBinaryRecordBatch;
 import org.apache.drill.exec.store.parquet.ParquetRowGroupScan;
@@ -71,13 +76,17 @@ public class OperatorMetricRegistry {
     register(HashAggregate.OPERATOR_TYPE, HashAggTemplate.Metric.class);
     register(HashJoinPOP.OPERATOR_TYPE, HashJoinBatch.Metric.class);
     register(ExternalSort.OPERATOR_TYPE, ExternalSortBatch.Metric.class);
+    // A TopN which exceeds its memory reports the metrics of the sort it falls back to
+    register(TopN.OPERATOR_TYPE, ExternalSortBatch.Metric.class);
     register(ParquetRowGroupScan.OPERATOR_TYPE, ParquetRecordReader.Metric.class);
     register(FlattenPOP.OPERATOR_TYPE, FlattenRecordBatch.Metric.class);
     register(MergeJoinPOP.OPERATOR_TYPE, AbstractBinaryRecordBatch.Metric.class);
+    register(NestedLoopJoinPOP.OPERATOR_TYPE, NestedLoopJoinBatch.Metric.class);
     register(LateralJoinPOP.OPERATOR_TYPE, AbstractBinaryRecordBatch.Metric.class);
     register(UnnestPOP.OPERATOR_TYPE, UnnestRecordBatch.Metric.class);
     register(UnionAll.OPERATOR_TYPE, AbstractBinaryRecordBatch.Metric.class);
     register(RuntimeFilterPOP.OPERATOR_TYPE, RuntimeFilterRecordBatch.Metric.class);
+    register(WindowPOP.OPERATOR_TYPE, WindowFrameRecordBatch.Metric.class);
   }
 
   private static void register(String operatorType, Class<? extends MetricDef> metricDef) {
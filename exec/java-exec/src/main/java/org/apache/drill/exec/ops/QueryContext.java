@@ -32,11 +32,13 @@ import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
 import org.apache.drill.exec.expr.fn.registry.RemoteFunctionRegistry;
 import org.apache.drill.exec.expr.holders.ValueHolder;
 import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.metastore.store.MetastoreMetadataCache;
 import org.apache.drill.exec.physical.resultSet.ResultSetLoader;
 import org.apache.drill.exec.physical.resultSet.impl.ResultSetLoaderImpl;
 import org.apache.drill.exec.physical.resultSet.impl.ResultSetLoaderImpl.ResultSetOptions;
 import org.apache.drill.exec.planner.physical.PlannerSettings;
 import org.apache.drill.exec.planner.sql.DrillOperatorTable;
+import org.apache.drill.exec.planner.sql.PlanCache;
 import org.apache.drill.exec.proto.BitControl.QueryContextInformation;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.proto.UserBitShared.QueryId;
@@ -87,6 +89,7 @@ public class QueryContext implements AutoCloseable, OptimizerRulesContext, Schem
   /** Stores constants and their holders by type */
   private final Map<String, Map<MinorType, ValueHolder>> constantValueHolderCache;
   private SqlStatementType stmtType;
+  private PlanCache.Usage planCacheUsage = PlanCache.Usage.NOT_REUSABLE;
 
   /*
    * Flag to indicate if close has been called, after calling close the first
@@ -418,10 +421,28 @@ public class QueryContext implements AutoCloseable, OptimizerRulesContext, Schem
     return skipProfileWrite;
   }
 
+  /**
+   * @param planCacheUsage : Sets how the plan of the statement relates to the {@link PlanCache}
+   */
+  public void setPlanCacheUsage(PlanCache.Usage planCacheUsage) {
+    this.planCacheUsage = planCacheUsage;
+  }
+
+  /**
+   * @return Get how the plan of the statement relates to the {@link PlanCache}
+   */
+  public PlanCache.Usage getPlanCacheUsage() {
+    return planCacheUsage;
+  }
+
   public MetastoreRegistry getMetastoreRegistry() {
     return drillbitContext.getMetastoreRegistry();
   }
 
+  public MetastoreMetadataCache getMetastoreMetadataCache() {
+    return drillbitContext.getMetastoreMetadataCache();
+  }
+
   public AliasRegistryProvider getAliasRegistryProvider() {
     return drillbitContext.getAliasRegistryProvider();
   }
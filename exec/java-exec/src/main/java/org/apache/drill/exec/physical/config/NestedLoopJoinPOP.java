@@ -23,6 +23,8 @@ import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.google.common.base.Preconditions;
 import org.apache.calcite.rel.core.JoinRelType;
 import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.ops.QueryContext;
 import org.apache.drill.exec.physical.base.AbstractJoinPop;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
 
@@ -53,4 +55,15 @@ public class NestedLoopJoinPOP extends AbstractJoinPop {
   public String getOperatorType() {
     return OPERATOR_TYPE;
   }
+
+  /**
+   * The Nested Loop Join spills its right side in blocks
+   * @return true (unless spilling is disabled)
+   * @param queryContext
+   */
+  @Override
+  public boolean isBufferedOperator(QueryContext queryContext) {
+    return queryContext == null ||
+      queryContext.getOptions().getOption(ExecConstants.NESTEDLOOPJOIN_ENABLE_SPILL_VALIDATOR);
+  }
 }
@@ -20,6 +20,8 @@ package org.apache.drill.exec.physical.config;
 import java.util.List;
 
 import org.apache.drill.common.logical.data.Order.Ordering;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.ops.QueryContext;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.physical.base.PhysicalVisitor;
 
@@ -54,6 +56,17 @@ public class TopN extends Sort {
     return limit;
   }
 
+  /**
+   * The TopN falls back to an external sort when the rows it retains exceed its memory
+   * @return true (unless spilling is disabled)
+   * @param queryContext
+   */
+  @Override
+  public boolean isBufferedOperator(QueryContext queryContext) {
+    return queryContext == null ||
+      queryContext.getOptions().getOption(ExecConstants.TOPN_ENABLE_SPILL_VALIDATOR);
+  }
+
   @Override
   public <T, X, E extends Throwable> T accept(PhysicalVisitor<T, X, E> physicalVisitor, X value) throws E{
     return physicalVisitor.visitSort(this, value);
@@ -23,6 +23,8 @@ import com.fasterxml.jackson.annotation.JsonTypeName;
 import org.apache.calcite.rex.RexWindowBound;
 import org.apache.drill.common.logical.data.NamedExpression;
 import org.apache.drill.common.logical.data.Order;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.ops.QueryContext;
 import org.apache.drill.exec.physical.base.AbstractSingle;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.physical.base.PhysicalVisitor;
@@ -72,6 +74,17 @@ public class WindowPOP extends AbstractSingle {
     return OPERATOR_TYPE;
   }
 
+  /**
+   * The Window operator spills the buffered batches of large partitions
+   * @return true (unless spilling is disabled)
+   * @param queryContext
+   */
+  @Override
+  public boolean isBufferedOperator(QueryContext queryContext) {
+    return queryContext == null ||
+      queryContext.getOptions().getOption(ExecConstants.WINDOW_ENABLE_SPILL_VALIDATOR);
+  }
+
   public Bound getStart() {
     return start;
   }
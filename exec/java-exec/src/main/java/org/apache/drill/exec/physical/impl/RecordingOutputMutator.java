@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.util.CallBack;
+import org.apache.drill.exec.vector.ValueVector;
+
+import io.netty.buffer.DrillBuf;
+
+/**
+ * Output mutator which keeps the vectors a record reader reads into, for the
+ * readers which wrap another one and process its batches, delegating the
+ * creation of the vectors to the output mutator of the scan.
+ */
+public class RecordingOutputMutator implements OutputMutator {
+  private final OutputMutator output;
+  private final Map<String, ValueVector> vectors = new LinkedHashMap<>();
+
+  public RecordingOutputMutator(OutputMutator output) {
+    this.output = output;
+  }
+
+  /**
+   * @return the vectors added by the reader, in the order they were added
+   */
+  public Collection<ValueVector> getVectors() {
+    return vectors.values();
+  }
+
+  /**
+   * @param name name of a column, in any case
+   * @return the vector of the column, or null if the reader did not add it
+   */
+  public ValueVector getVector(String name) {
+    ValueVector vector = vectors.get(name);
+    if (vector != null) {
+      return vector;
+    }
+    for (Map.Entry<String, ValueVector> entry : vectors.entrySet()) {
+      if (entry.getKey().equalsIgnoreCase(name)) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public <T extends ValueVector> T addField(MaterializedField field, Class<T> clazz) throws SchemaChangeException {
+    T vector = output.addField(field, clazz);
+    vectors.put(field.getName(), vector);
+    return vector;
+  }
+
+  @Override
+  public void allocate(int recordCount) {
+    output.allocate(recordCount);
+  }
+
+  @Override
+  public boolean isNewSchema() {
+    return output.isNewSchema();
+  }
+
+  @Override
+  public DrillBuf getManagedBuffer() {
+    return output.getManagedBuffer();
+  }
+
+  @Override
+  public CallBack getCallBack() {
+    return output.getCallBack();
+  }
+
+  @Override
+  public void clear() {
+    output.clear();
+    vectors.clear();
+  }
+}
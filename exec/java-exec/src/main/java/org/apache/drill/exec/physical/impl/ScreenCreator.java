@@ -29,6 +29,7 @@ import org.apache.drill.exec.physical.impl.materialize.QueryDataPackage.EmptyRes
 import org.apache.drill.exec.physical.impl.materialize.VectorRecordMaterializer;
 import org.apache.drill.exec.record.RecordBatch;
 import org.apache.drill.exec.record.RecordBatch.IterOutcome;
+import org.apache.drill.exec.store.resultcache.ResultCache;
 import org.apache.drill.exec.testing.ControlsInjector;
 import org.apache.drill.exec.testing.ControlsInjectorFactory;
 
@@ -43,7 +44,10 @@ public class ScreenCreator implements RootCreator<Screen> {
   public RootExec getRoot(ExecutorFragmentContext context, Screen config, List<RecordBatch> children) {
     Preconditions.checkNotNull(children);
     Preconditions.checkArgument(children.size() == 1);
-    return new ScreenRoot(context, children.iterator().next(), config);
+    ResultCache resultCache = context.getResultCache();
+    ResultCache.Writer resultWriter = resultCache == null ? null
+        : resultCache.writerFor(context.getHandle().getQueryId());
+    return new ScreenRoot(context, children.iterator().next(), config, resultWriter);
   }
 
   /**
@@ -57,6 +61,8 @@ public class ScreenCreator implements RootCreator<Screen> {
     private final RecordBatch incoming;
     private final RootFragmentContext context;
     private final AccountingUserConnection userConnection;
+    // Records the results of queries whose results are cached
+    private final ResultCache.Writer resultWriter;
     private DataPackage dataPackage;
     private boolean firstBatch = true;
 
@@ -70,10 +76,16 @@ public class ScreenCreator implements RootCreator<Screen> {
     }
 
     public ScreenRoot(RootFragmentContext context, RecordBatch incoming, Screen config) {
+      this(context, incoming, config, null);
+    }
+
+    public ScreenRoot(RootFragmentContext context, RecordBatch incoming, Screen config,
+                      ResultCache.Writer resultWriter) {
       super(context, config);
       this.context = context;
       this.incoming = incoming;
       this.userConnection = context.getUserDataTunnel();
+      this.resultWriter = resultWriter;
     }
 
     @Override
@@ -100,6 +112,10 @@ public class ScreenCreator implements RootCreator<Screen> {
           //$FALL-THROUGH$
         case OK:
           injector.injectPause(context.getExecutionControls(), "sending-data", logger);
+          if (resultWriter != null) {
+            // Written before sending, which releases the vectors of the batch
+            resultWriter.write(incoming, outcome == IterOutcome.OK_NEW_SCHEMA);
+          }
           stats.startWait();
           try {
             // Stats updated if connection serializes the batch
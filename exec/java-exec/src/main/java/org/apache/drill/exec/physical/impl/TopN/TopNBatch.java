@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.calcite.rel.RelFieldCollation.Direction;
+import org.apache.drill.common.AutoCloseables;
 import org.apache.drill.common.DrillAutoCloseables;
 import org.apache.drill.common.config.DrillConfig;
 import org.apache.drill.common.exceptions.UserException;
@@ -45,8 +46,14 @@ import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.physical.config.TopN;
 import org.apache.drill.exec.physical.impl.sort.RecordBatchData;
 import org.apache.drill.exec.physical.impl.sort.SortRecordBatchBuilder;
+import org.apache.drill.exec.physical.impl.spill.SpillSet;
 import org.apache.drill.exec.physical.impl.svremover.Copier;
 import org.apache.drill.exec.physical.impl.svremover.GenericCopierFactory;
+import org.apache.drill.exec.physical.impl.xsort.PriorityQueueCopierWrapper;
+import org.apache.drill.exec.physical.impl.xsort.SortConfig;
+import org.apache.drill.exec.physical.impl.xsort.SortImpl;
+import org.apache.drill.exec.physical.impl.xsort.SortImpl.SortResults;
+import org.apache.drill.exec.physical.impl.xsort.SpilledRuns;
 import org.apache.drill.exec.record.AbstractRecordBatch;
 import org.apache.drill.exec.record.BatchSchema;
 import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
@@ -83,6 +90,14 @@ import static org.apache.drill.exec.record.RecordBatch.IterOutcome.OK_NEW_SCHEMA
  * data to sort it first and then apply limit on the sorted data. Instead
  * internally it maintains a priority queue backed by a heap with the size being
  * same as limit value.
+ * <p>
+ * With a large limit the rows retained by the heap may not fit in memory. When
+ * spilling is enabled and the memory held by the operator exceeds half of its
+ * limit, the retained rows and the rest of the input are given to an external
+ * sort instead, which spills to disk as needed. Its merge stops once the limit
+ * number of rows has been delivered. This is not supported for the record
+ * boundaries of a lateral join (EMIT outcome), for which the external sort does
+ * not spill either.
  */
 public class TopNBatch extends AbstractRecordBatch<TopN> {
   private static final Logger logger = LoggerFactory.getLogger(TopNBatch.class);
@@ -109,6 +124,17 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
   private boolean firstBatchForSchema = true;
   private boolean hasOutputRecords;
 
+  private final boolean spillEnabled;
+  private final long memoryLimit;
+  private boolean emitSeen;
+  // External sort the input goes to once the retained rows exceed the memory limit
+  private SortImpl sortImpl;
+  private VectorContainer sortOutputContainer;
+  // Results of the sort, either merged from spilled runs or sorted in memory
+  private SortResults sortResults;
+  private boolean deliveringSpilledResults;
+  private int rowsToDeliver;
+
   public TopNBatch(TopN popConfig, FragmentContext context, RecordBatch incoming) throws OutOfMemoryException {
     super(popConfig, context);
     this.incoming = incoming;
@@ -116,6 +142,15 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
     DrillConfig drillConfig = context.getConfig();
     batchPurgeThreshold = drillConfig.getInt(ExecConstants.BATCH_PURGE_THRESHOLD);
     codegenDump = drillConfig.getBoolean(CodeCompiler.ENABLE_SAVE_CODE_FOR_DEBUG_TOPN);
+
+    spillEnabled = context.getOptions().getOption(ExecConstants.TOPN_ENABLE_SPILL_VALIDATOR);
+    long limit = oContext.getAllocator().getLimit();
+    // Optional configured memory limit, typically used only for testing.
+    long configLimit = context.getOptions().getOption(ExecConstants.TOPN_MAX_MEMORY_VALIDATOR);
+    if (configLimit > 0) {
+      limit = Math.min(limit, configLimit);
+    }
+    memoryLimit = limit;
   }
 
   @Override
@@ -179,6 +214,10 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
       return handleRemainingOutput();
     }
 
+    if (deliveringSpilledResults) {
+      return nextSpilledResultsBatch();
+    }
+
     // Reset the TopN state for next iteration
     resetTopNState();
 
@@ -215,6 +254,16 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
         container.clear();
       }
       logger.debug("Took {} us to get next", watch.elapsed(TimeUnit.MICROSECONDS));
+      if (lastKnownOutcome == EMIT) {
+        if (sortImpl != null) {
+          throw UserException.unsupportedError()
+            .message("TopN fell back to an external sort because its rows exceed its memory, which is not " +
+              "supported for the record boundaries of a lateral join. Please try disabling %s.",
+              ExecConstants.TOPN_ENABLE_SPILL_KEY)
+            .build(logger);
+        }
+        emitSeen = true;
+      }
       switch (lastKnownOutcome) {
       case NONE:
         break outer;
@@ -234,8 +283,13 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
                 ExecConstants.ENABLE_UNION_TYPE_KEY));
             } else {
               schema = SchemaUtil.mergeSchemas(this.schema, incoming.getSchema());
-              purgeAndResetPriorityQueue();
-              schemaChanged = true;
+              if (sortImpl != null) {
+                // The sort coerces the batches to the new schema itself
+                sortImpl.setSchema(schema);
+              } else {
+                purgeAndResetPriorityQueue();
+                schemaChanged = true;
+              }
             }
           } else {
             schema = incoming.getSchema();
@@ -254,6 +308,10 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
           }
           break;
         }
+        if (sortImpl != null) {
+          sortImpl.addBatch(incoming);
+          break;
+        }
         countSincePurge += incoming.getRecordCount();
         batchCount++;
         RecordBatchData batch;
@@ -275,7 +333,7 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
           priorityQueue.add(batch);
           // Based on static threshold of number of batches, perform purge operation to release the memory for
           // RecordBatches which are of no use or doesn't fall under TopN category
-          if (countSincePurge > config.getLimit() && batchCount > batchPurgeThreshold) {
+          if (countSincePurge > config.getLimit() && (batchCount > batchPurgeThreshold || isOverMemory())) {
             purge();
             countSincePurge = 0;
             batchCount = 0;
@@ -288,6 +346,9 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
             batch.clear();
           }
         }
+        if (spillEnabled && !emitSeen && isOverMemory()) {
+          startSort();
+        }
         break;
       default:
         throw new UnsupportedOperationException();
@@ -300,6 +361,10 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
       }
     }
 
+    if (sortImpl != null) {
+      return startSortedOutput();
+    }
+
     // PriorityQueue can be null here if first batch is received with OK_NEW_SCHEMA and is empty and second next()
     // call returned NONE or EMIT.
     // PriorityQueue can be uninitialized here if only empty batch is received between 2 EMIT outcome.
@@ -370,6 +435,138 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
     logger.debug("Took {} us to purge", watch.elapsed(TimeUnit.MICROSECONDS));
   }
 
+  /**
+   * Whether the memory held by the operator exceeds half of its limit. The
+   * other half is kept for copying the retained rows, when purging them or
+   * when giving them to the external sort.
+   */
+  private boolean isOverMemory() {
+    return oContext.getAllocator().getAllocatedMemory() > memoryLimit / 2;
+  }
+
+  /**
+   * Falls back to an external sort, once the rows retained by the priority
+   * queue exceed the memory limit. The retained rows are copied to the sort in
+   * batches, after which the priority queue is released, and the rest of the
+   * input goes to the sort.
+   */
+  private void startSort() {
+    Stopwatch watch = Stopwatch.createStarted();
+    logger.debug("TopN holds {} bytes, over half of its memory limit of {} bytes; falling back to an external sort",
+      oContext.getAllocator().getAllocatedMemory(), memoryLimit);
+
+    SortConfig sortConfig = new SortConfig(context.getConfig(), context.getOptions());
+    SpillSet spillSet = new SpillSet(context, popConfig);
+    PriorityQueueCopierWrapper copierHolder = new PriorityQueueCopierWrapper(oContext);
+    SpilledRuns spilledRuns = new SpilledRuns(oContext, spillSet, copierHolder);
+    sortOutputContainer = new VectorContainer(oContext.getAllocator());
+    sortImpl = new SortImpl(oContext, sortConfig, spilledRuns, sortOutputContainer, memoryLimit);
+    sortImpl.setSchema(schema);
+
+    // The retained rows, in order, in batches of the size of the output windows
+    priorityQueue.generate();
+    SelectionVector4 retained = priorityQueue.getFinalSv4();
+    SimpleSV4RecordBatch batch = new SimpleSV4RecordBatch(priorityQueue.getHyperBatch(), retained, context);
+    VectorContainer retainedBatch = new VectorContainer(oContext);
+    try {
+      Copier retainedCopier = GenericCopierFactory.createAndSetupCopier(batch, retainedBatch, null);
+      retainedBatch.buildSchema(SelectionVectorMode.NONE);
+      do {
+        int count = retained.getCount();
+        if (count == 0) {
+          break;
+        }
+        retainedCopier.copyRecords(0, count);
+        // The sort takes ownership of the vectors, the copier allocates new ones for the next batch
+        sortImpl.addBatch(retainedBatch);
+      } while (retained.next());
+    } finally {
+      retainedBatch.clear();
+      priorityQueue.cleanup();
+      priorityQueue = null;
+      copier = null;
+    }
+    logger.debug("Took {} us to hand the retained rows to the external sort", watch.elapsed(TimeUnit.MICROSECONDS));
+  }
+
+  /**
+   * Merges the sorted input once all of it is read. The sort either merged
+   * the input in memory, in which case the limit number of rows is selected
+   * from its result like from the priority queue, or merges its spilled runs
+   * as the output is read.
+   */
+  private IterOutcome startSortedOutput() {
+    sortResults = sortImpl.startMerge();
+    rowsToDeliver = config.getLimit();
+    SelectionVector4 sorted = sortResults.getSv4();
+    if (sorted == null) {
+      deliveringSpilledResults = true;
+      return nextSpilledResultsBatch();
+    }
+
+    // In-memory merge: keep the first rows of the sorted result
+    sortResults.next();
+    int count = Math.min(config.getLimit(), sorted.getTotalCount());
+    SelectionVector4 selected = new SelectionVector4(
+      oContext.getAllocator().buffer(4 * count), count, PriorityQueueTemplate.EST_MAX_QUEUE_SIZE);
+    int index = 0;
+    do {
+      for (int i = 0; i < sorted.getCount() && index < count; i++) {
+        selected.set(index++, sorted.get(i));
+      }
+    } while (index < count && sorted.next());
+    prepareOutputContainer(sortResults.getContainer(), selected);
+    if (sv4 != selected) {
+      selected.clear();
+    }
+    return getFinalOutcome();
+  }
+
+  /**
+   * Returns the next batch merged from the spilled runs. The merge stops once
+   * the limit number of rows has been returned.
+   */
+  private IterOutcome nextSpilledResultsBatch() {
+    if (rowsToDeliver == 0 || !sortResults.next()) {
+      closeSort();
+      state = BatchState.DONE;
+      recordCount = 0;
+      container.setRecordCount(0);
+      return NONE;
+    }
+    if (firstBatchForSchema) {
+      container.clear();
+    } else {
+      container.zeroVectors();
+    }
+    sortResults.updateOutputContainer(container, sv4, lastKnownOutcome, schema);
+    recordCount = Math.min(container.getRecordCount(), rowsToDeliver);
+    if (recordCount < container.getRecordCount()) {
+      container.setValueCount(recordCount);
+    }
+    rowsToDeliver -= recordCount;
+
+    if (firstBatchForSchema) {
+      firstBatchForSchema = false;
+      return OK_NEW_SCHEMA;
+    }
+    return OK;
+  }
+
+  private void closeSort() {
+    try {
+      AutoCloseables.closeWithUserException(
+        () -> { if (sortResults != null) { sortResults.close(); } },
+        () -> { if (sortImpl != null) { sortImpl.close(); } },
+        () -> { if (sortOutputContainer != null) { sortOutputContainer.clear(); } });
+    } finally {
+      sortResults = null;
+      sortImpl = null;
+      sortOutputContainer = null;
+      deliveringSpilledResults = false;
+    }
+  }
+
   private PriorityQueue createNewPriorityQueue(VectorAccessible batch, int limit) {
     return createNewPriorityQueue(
       mainMapping, leftMapping, rightMapping, config.getOrderings(), batch, unionTypeEnabled,
@@ -508,6 +705,7 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
     if (priorityQueue != null) {
       priorityQueue.cleanup();
     }
+    closeSort();
     container.zeroVectors();
   }
 
@@ -620,7 +818,7 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
   private IterOutcome handleRemainingOutput() {
     // if priority queue is not null that means the incoming batches were non-empty. And if there are more records
     // to send downstream for this record boundary
-    if (priorityQueue != null && sv4.next()) {
+    if ((priorityQueue != null || sortResults != null) && sv4.next()) {
       recordCount = sv4.getCount();
       container.setRecordCount(recordCount);
     } else { // This means that either:
@@ -112,6 +112,14 @@ public class HashAggBatch extends AbstractRecordBatch<HashAggregate> {
           "htRowIdx" /* workspace index */, "incoming" /* read container */, "outgoing" /* write container */,
           "aggrValuesContainer" /* workspace container */, UPDATE_AGGR_INSIDE, UPDATE_AGGR_OUTSIDE, UPDATE_AGGR_INSIDE);
 
+  private final GeneratorMapping PASS_THROUGH_KEYS =
+      GeneratorMapping.create("setupInterior" /* setup method */, "outputPassThroughKeys" /* eval method */,
+          "resetValues" /* reset */, "cleanup" /* cleanup */);
+
+  private final MappingSet PassThroughKeysMapping =
+      new MappingSet("incomingRowIdx" /* read index */, "outRowIdx" /* write index */,
+          "incoming" /* read container */, "outgoing" /* write container */, PASS_THROUGH_KEYS, PASS_THROUGH_KEYS);
+
   public int getOutputRowCount() {
     return hashAggMemoryManager.getOutputRowCount();
   }
@@ -382,6 +390,7 @@ public class HashAggBatch extends AbstractRecordBatch<HashAggregate> {
     aggrExprs = new LogicalExpression[numAggrExprs];
     groupByOutFieldIds = new TypedFieldId[numGroupByExprs];
     aggrOutFieldIds = new TypedFieldId[numAggrExprs];
+    LogicalExpression[] keyExprs = new LogicalExpression[numGroupByExprs];
 
     ErrorCollector collector = new ErrorCollectorImpl();
 
@@ -398,6 +407,7 @@ public class HashAggBatch extends AbstractRecordBatch<HashAggregate> {
 
       // add this group-by vector to the output container
       groupByOutFieldIds[i] = container.add(vv);
+      keyExprs[i] = new ValueVectorWriteExpression(groupByOutFieldIds[i], expr, true);
       columnMapping.put(outputField.getName(), ne.getExpr().toString().replace('`',' ').trim());
     }
 
@@ -459,6 +469,9 @@ public class HashAggBatch extends AbstractRecordBatch<HashAggregate> {
     }
 
     setupUpdateAggrValues(cgInner);
+    if (popConfig.getAggPhase().is1st()) {
+      setupPassThroughKeys(cgInner, keyExprs);
+    }
     setupGetIndex(cg);
     cg.getBlock("resetValues")._return(JExpr.TRUE);
 
@@ -496,6 +509,20 @@ public class HashAggBatch extends AbstractRecordBatch<HashAggregate> {
     }
   }
 
+  /**
+   * Generates the projection of the keys of an incoming row into the outgoing
+   * batch, used by the 1st phase in pass-through mode instead of the hash table.
+   */
+  private void setupPassThroughKeys(ClassGenerator<HashAggregator> cg, LogicalExpression[] keyExprs) {
+    cg.setMappingSet(PassThroughKeysMapping);
+
+    for (LogicalExpression key : keyExprs) {
+      if (key != null) {
+        cg.addExpr(key, ClassGenerator.BlkCreateMode.TRUE);
+      }
+    }
+  }
+
   private void setupGetIndex(ClassGenerator<HashAggregator> cg) {
     switch (incoming.getSchema().getSelectionVectorMode()) {
       case FOUR_BYTE: {
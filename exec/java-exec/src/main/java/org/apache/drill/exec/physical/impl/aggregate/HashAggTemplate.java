@@ -46,6 +46,7 @@ import org.apache.drill.exec.expr.ClassGenerator;
 import org.apache.drill.exec.expr.TypeHelper;
 import org.apache.drill.exec.memory.BaseAllocator;
 import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.MemoryArbiter;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.ops.MetricDef;
 import org.apache.drill.exec.ops.OperatorContext;
@@ -119,6 +120,18 @@ public abstract class HashAggTemplate implements HashAggregator {
   private int maxColumnWidth = VARIABLE_MIN_WIDTH_VALUE_SIZE; // to control memory allocation for varchars
   private long minBatchesPerPartition; // for tuning - num partitions and spill decision
   private long plannedBatches; // account for planned, but not yet allocated batches
+  private MemoryArbiter.Consumer memoryConsumer; // to get more memory from the Drillbit instead of spilling
+  private boolean canGrowMemory; // false when the memory limit was configured
+
+  // Fields for the 1st phase pass-through mode
+  private boolean passThroughEnabled; // whether the 1st phase may still switch to pass-through
+  private long passThroughMinBatches; // number of incoming batches read before deciding
+  private double passThroughGroupRatio; // ratio of groups to rows to switch at
+  private long passThroughBatches; // incoming batches read so far
+  private long passThroughRows; // rows put into the hash tables so far
+  private long passThroughGroups; // groups added to the hash tables so far
+  private boolean passThrough; // when the 1st phase returns each incoming row as a group of its own
+  private BatchHolder passThroughValues; // workspace of the one-row groups of an incoming batch
 
   private int underlyingIndex;
   private int currentIndex;
@@ -184,7 +197,9 @@ public abstract class HashAggTemplate implements HashAggregator {
     OUTPUT_BATCH_COUNT,
     AVG_OUTPUT_BATCH_BYTES,
     AVG_OUTPUT_ROW_BYTES,
-    OUTPUT_RECORD_COUNT;
+    OUTPUT_RECORD_COUNT,
+    SPILL_COMPRESSED_MB, // Number of MB written to spill files after compression (same as SPILL_MB when off)
+    PASS_THROUGH;      // 1st phase: 1 - switched to pass-through mode (input barely reduced), 0 - did not
 
     @Override
     public int metricId() {
@@ -297,6 +312,10 @@ public abstract class HashAggTemplate implements HashAggregator {
     @RuntimeOverridden
     public void outputRecordValues(@Named("htRowIdx") int htRowIdx, @Named("outRowIdx") int outRowIdx) throws SchemaChangeException{
     }
+
+    @RuntimeOverridden
+    public void outputPassThroughKeys(@Named("incomingRowIdx") int incomingRowIdx, @Named("outRowIdx") int outRowIdx) throws SchemaChangeException{
+    }
   }
 
   @Override
@@ -323,6 +342,10 @@ public abstract class HashAggTemplate implements HashAggregator {
     this.useMemoryPrediction = context.getOptions().getOption(ExecConstants.HASHAGG_USE_MEMORY_PREDICTION_VALIDATOR);
     this.phase = hashAggrConfig.getAggPhase();
     canSpill = phase.hasTwo(); // single phase can not spill
+    passThroughEnabled = phase.is1st() &&
+        context.getOptions().getOption(ExecConstants.HASHAGG_PASS_THROUGH_ENABLED_VALIDATOR);
+    passThroughMinBatches = context.getOptions().getOption(ExecConstants.HASHAGG_PASS_THROUGH_MIN_BATCHES_VALIDATOR);
+    passThroughGroupRatio = context.getOptions().getOption(ExecConstants.HASHAGG_PASS_THROUGH_GROUP_RATIO_VALIDATOR);
 
     // Typically for testing - force a spill after a partition has more than so many batches
     minBatchesPerPartition = context.getOptions().getOption(ExecConstants.HASHAGG_MIN_BATCHES_PER_PARTITION_VALIDATOR);
@@ -336,6 +359,8 @@ public abstract class HashAggTemplate implements HashAggregator {
       memoryLimit = Math.min(memoryLimit, configLimit);
       allocator.setLimit(memoryLimit); // enforce at the allocator
     }
+    memoryConsumer = context.getMemoryArbiter().register(allocator.getName(), allocator);
+    canGrowMemory = configLimit <= 0;
 
     // All the settings that require the number of partitions were moved into delayedSetup()
     // which would be called later, after the actuall data first arrives
@@ -593,6 +618,12 @@ public abstract class HashAggTemplate implements HashAggregator {
         outgoing.getRecordBatchMemoryManager().update(incoming);
       }
 
+      // In pass-through mode, return the rows of this batch without grouping them
+      if (passThrough && underlyingIndex < currentBatchRecordCount) {
+        outputPassThroughBatch();
+        return AggOutcome.RETURN_OUTCOME;
+      }
+
       //  loop through existing records in this batch, aggregating the values as necessary.
       if (EXTRA_DEBUG_1) {
         logger.debug("Starting outer loop of doWork()...");
@@ -667,6 +698,9 @@ public abstract class HashAggTemplate implements HashAggregator {
           // remember EMIT, but continue like handling OK
 
         case OK:
+          // The previous batch was fully processed - check if grouping is worth it
+          checkPassThrough();
+
           // NOTE - We pass the incoming record batch explicitly because it could be a spilled record (different
           //        from the instance owned by the HashAggBatch).
           outgoing.getRecordBatchMemoryManager().update(incoming);
@@ -721,6 +755,73 @@ public abstract class HashAggTemplate implements HashAggregator {
     }
   }
 
+  /**
+   * Decides, once enough incoming batches were read, whether the 1st phase
+   * should switch to the pass-through mode. When nearly every row read so far
+   * started a new group, the hash tables would grow as large as the input (and
+   * be returned early under memory pressure) while reducing almost nothing
+   * before the exchange. In the pass-through mode the next rows bypass the hash
+   * tables, leaving the grouping to the 2nd phase; the groups already in the
+   * hash tables are returned at the end of the input, as usual.
+   */
+  private void checkPassThrough() {
+    if (!passThroughEnabled || ++passThroughBatches < passThroughMinBatches) {
+      return;
+    }
+    passThroughEnabled = false; // decide only once
+    if (passThroughRows == 0 || passThroughGroups < passThroughGroupRatio * passThroughRows) {
+      return;
+    }
+    logger.debug("1st phase switching to pass-through after {} batches: {} groups out of {} rows",
+        passThroughBatches, passThroughGroups, passThroughRows);
+    passThrough = true;
+    stats.setLongStat(Metric.PASS_THROUGH, 1);
+  }
+
+  /**
+   * Returns the rows of the current incoming batch in one outgoing batch of
+   * the same size, each row as a group of its own: its keys are projected, and
+   * the partial aggregate values of a one-row group are computed in the row of
+   * the same index of a workspace sized for the batch.
+   */
+  private void outputPassThroughBatch() {
+    int records = currentBatchRecordCount;
+    if (passThroughValues == null || passThroughValues.getTargetBatchRowCount() < records) {
+      if (passThroughValues != null) {
+        passThroughValues.clear();
+      }
+      passThroughValues = newBatchHolder(records);
+    }
+    passThroughValues.setup(); // (re)initializes the workspace of every row
+
+    // The keys are not output from a hash table, so allocate them with the values
+    Iterator<VectorWrapper<?>> outgoingIter = outContainer.iterator();
+    for (int i = 0; i < numGroupByOutFields; i++) {
+      AllocationHelper.allocatePrecomputedChildCount(outgoingIter.next().getValueVector(), records, maxColumnWidth, 0);
+    }
+    allocateOutgoing(records);
+
+    try {
+      for (int i = 0; i < records; i++) {
+        int incomingRowIdx = getVectorIndex(i);
+        passThroughValues.updateAggrValuesInternal(incomingRowIdx, i);
+        passThroughValues.outputRecordValues(i, i);
+        passThroughValues.outputPassThroughKeys(incomingRowIdx, i);
+      }
+    } catch (SchemaChangeException sc) {
+      throw new UnsupportedOperationException(sc);
+    }
+    underlyingIndex = records; // the batch is fully processed
+    currentIndex = Integer.MAX_VALUE;
+
+    outgoing.getContainer().setValueCount(records);
+    outgoing.getRecordBatchMemoryManager().updateOutgoingStats(records);
+    RecordBatchStats.logRecordBatchStats(RecordBatchIOType.OUTPUT, outgoing, outgoing.getRecordBatchStatsContext());
+    rowsNotSpilled += records;
+    lastBatchOutputCount = records;
+    outcome = IterOutcome.OK;
+  }
+
   /**
    *   Use reserved values memory (if available) to try and preemp an OOM
    */
@@ -827,12 +928,25 @@ public abstract class HashAggTemplate implements HashAggregator {
     }
   }
 
+  private void updateSpillStats() {
+    stats.setLongStat(Metric.SPILL_MB, // update stats - total MB spilled
+        (int) Math.round(spillSet.getWriteBytes() / 1024.0D / 1024.0));
+    stats.setLongStat(Metric.SPILL_COMPRESSED_MB, // MB actually written to disk
+        (int) Math.round(spillSet.getCompressedWriteBytes() / 1024.0D / 1024.0));
+  }
+
   @Override
   public void cleanup() {
+    if (memoryConsumer != null) {
+      memoryConsumer.close();
+    }
     if (schema == null) { return; } // not set up; nothing to clean
+    if (passThroughValues != null) {
+      passThroughValues.clear();
+      passThroughValues = null;
+    }
     if (phase.is2nd() && spillSet.getWriteBytes() > 0) {
-      stats.setLongStat(Metric.SPILL_MB, // update stats - total MB spilled
-          (int) Math.round(spillSet.getWriteBytes() / 1024.0D / 1024.0));
+      updateSpillStats();
     }
     // clean (and deallocate) each partition
     for (int i = 0; i < spilledState.getNumPartitions(); i++) {
@@ -1133,8 +1247,7 @@ public abstract class HashAggTemplate implements HashAggregator {
           allFlushed = true;
           outcome = IterOutcome.NONE;
           if (phase.is2nd() && spillSet.getWriteBytes() > 0) {
-            stats.setLongStat(Metric.SPILL_MB, // update stats - total MB spilled
-                (int) Math.round(spillSet.getWriteBytes() / 1024.0D / 1024.0));
+            updateSpillStats();
           }
           return AggIterOutcome.AGG_NONE;  // then return NONE
         }
@@ -1348,6 +1461,11 @@ public abstract class HashAggTemplate implements HashAggregator {
     long allocatedBeforeAggCol = allocator.getAllocatedMemory();
     boolean needToCheckIfSpillIsNeeded = allocatedBeforeAggCol > allocatedBeforeHTput;
 
+    if (passThroughEnabled) { // still tracking the reduction of the 1st phase
+      passThroughRows++;
+      if (putStatus != HashTable.PutStatus.KEY_PRESENT) { passThroughGroups++; }
+    }
+
     // Add an Aggr batch if needed:
     //
     //       In case put() added a new batch (for the keys) inside the hash table,
@@ -1436,10 +1554,18 @@ public abstract class HashAggTemplate implements HashAggregator {
           allocator.getAllocatedMemory(), phase.getName(), currentPartition, batchHolders[currentPartition].size(), maxMemoryNeeded,
           estMaxBatchSize, allocator.getLimit());
     }
+    // The Drillbit may ask to spill to relieve memory pressure, even within the memory limit
+    boolean spillRequested = !forceSpill && memoryConsumer.shouldSpill();
     //
-    //   Spill if (forced, or) the allocated memory plus the memory needed exceed the memory limit.
+    //   Spill if (forced, or requested, or) the allocated memory plus the memory needed exceed the memory limit.
     //
-    if (forceSpill || allocator.getAllocatedMemory() + maxMemoryNeeded > allocator.getLimit()) {
+    if (forceSpill || spillRequested || allocator.getAllocatedMemory() + maxMemoryNeeded > allocator.getLimit()) {
+
+      // Rather than spilling, try to get the missing memory from the Drillbit
+      if (!forceSpill && !spillRequested && canGrowMemory &&
+          memoryConsumer.requestMemory(allocator.getAllocatedMemory() + maxMemoryNeeded - allocator.getLimit()) > 0) {
+        return;
+      }
 
       // Pick a "victim" partition to spill or return
       int victimPartition = chooseAPartitionToFlush(currentPartition, forceSpill);
@@ -1495,6 +1621,8 @@ public abstract class HashAggTemplate implements HashAggregator {
           logger.debug("picked partition {} for early output", victimPartition);
         }
       }
+      // give back the memory granted by the Drillbit, which is not used anymore
+      memoryConsumer.spilled();
     }
   }
 
@@ -28,6 +28,7 @@ import org.apache.drill.common.expression.ValueExpressions;
 import org.apache.drill.common.logical.data.NamedExpression;
 import org.apache.drill.common.types.TypeProtos;
 import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.compile.sig.GeneratorMapping;
 import org.apache.drill.exec.compile.sig.MappingSet;
 import org.apache.drill.exec.exception.ClassTransformationException;
@@ -241,8 +242,16 @@ public class ChainedHashTable {
     setupGetHash(cg /* use top level code generator for getHash */, GetHashIncomingBuildMapping, incomingBuild, keyExprsBuild);
     setupGetHash(cg /* use top level code generator for getHash */, GetHashIncomingProbeMapping, incomingProbe, keyExprsProbe);
 
+    // A single fixed-width key is looked up by value in an open addressing table instead of the hash chains
+    FixedWidthKeyTable keyTable = null;
+    if (context.getOptions().getOption(ExecConstants.HASHTABLE_FIXED_WIDTH_KEY_ENABLE_VALIDATOR)
+        && htConfig.getLoadFactor() < 1.0f) {
+      keyTable = FixedWidthKeyTable.create(keyExprsBuild, keyExprsProbe, htConfig.getComparators());
+    }
+
     HashTable ht = context.getImplementationClass(top);
-    ht.setup(htConfig, allocator, incomingBuild.getContainer(), incomingProbe, outgoing, htContainerOrig, context, cgInner);
+    ht.setup(htConfig, allocator, incomingBuild.getContainer(), incomingProbe, outgoing, htContainerOrig, context, cgInner,
+        keyTable);
 
     return ht;
   }
@@ -0,0 +1,419 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.common;
+
+import java.util.List;
+
+import io.netty.buffer.DrillBuf;
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.types.TypeProtos.DataMode;
+import org.apache.drill.common.types.TypeProtos.MajorType;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.expr.ValueVectorReadExpression;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.record.TypedFieldId;
+import org.apache.drill.exec.record.VectorAccessible;
+import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.vector.BaseDataValueVector;
+import org.apache.drill.exec.vector.NullableVector;
+import org.apache.drill.exec.vector.ValueVector;
+
+/**
+ * Open addressing (linear probing) replacement for the chained buckets of
+ * {@link HashTableTemplate}, used when the table has a single key which is a
+ * plain read of a fixed-width integral column (INT, BIGINT, DATE, ...) with
+ * the same type on the build and the probe side.
+ * <p>
+ * Each slot of a direct memory buffer holds the raw 4 or 8 byte key value
+ * followed by the composite index (batch holder and offset) of the key in the
+ * {@link HashTableTemplate.BatchHolder}s, or {@link #EMPTY} for a free slot.
+ * Keys are compared by value, read straight from the incoming vectors, so
+ * neither the generated key comparison nor the hash chains are needed. The
+ * keys are still copied into the batch holders by the generated code, which
+ * keeps the output, spilling and partitioning of the callers unchanged.
+ * <p>
+ * The slot position is derived from the key value alone, so that the table
+ * can be rehashed on resize without the hash values of the entries. The null
+ * key, if any, is kept out of the slots.
+ */
+public class FixedWidthKeyTable {
+
+  public static final int EMPTY = -1;
+
+  /**
+   * Slot returned by {@link #findSlot(int)} for a null build key.
+   */
+  public static final int NULL_SLOT = -2;
+
+  private final TypedFieldId buildFieldId;
+  private final TypedFieldId probeFieldId;
+  private final int keyWidth;
+  private final int slotWidth;
+  private final boolean nullsEqualOnProbe;
+
+  private BufferAllocator allocator;
+  private DrillBuf slots;
+  private int capacity;
+  private int mask;
+  private int nullIndex = EMPTY;
+
+  private BaseDataValueVector buildValues;
+  private BaseDataValueVector buildBits;
+  private BaseDataValueVector probeValues;
+  private BaseDataValueVector probeBits;
+
+  private FixedWidthKeyTable(TypedFieldId buildFieldId, TypedFieldId probeFieldId, int keyWidth,
+                             boolean nullsEqualOnProbe) {
+    this.buildFieldId = buildFieldId;
+    this.probeFieldId = probeFieldId;
+    this.keyWidth = keyWidth;
+    this.slotWidth = keyWidth + 4;
+    this.nullsEqualOnProbe = nullsEqualOnProbe;
+  }
+
+  /**
+   * Returns a table for the given materialized key expressions, or null if
+   * the keys do not qualify and the chained hash table must be used.
+   *
+   * @param keyExprsBuild build side key expressions
+   * @param keyExprsProbe probe side key expressions, null if there is no probe side
+   * @param comparators key comparators, used for the join null semantics
+   */
+  public static FixedWidthKeyTable create(LogicalExpression[] keyExprsBuild, LogicalExpression[] keyExprsProbe,
+                                          List<Comparator> comparators) {
+    if (keyExprsBuild.length != 1) {
+      return null;
+    }
+    TypedFieldId buildFieldId = getFieldId(keyExprsBuild[0]);
+    if (buildFieldId == null) {
+      return null;
+    }
+    int keyWidth = getKeyWidth(keyExprsBuild[0].getMajorType());
+    if (keyWidth == 0) {
+      return null;
+    }
+    TypedFieldId probeFieldId = null;
+    if (keyExprsProbe != null) {
+      if (keyExprsProbe.length != 1) {
+        return null;
+      }
+      probeFieldId = getFieldId(keyExprsProbe[0]);
+      if (probeFieldId == null
+          || keyExprsProbe[0].getMajorType().getMinorType() != keyExprsBuild[0].getMajorType().getMinorType()) {
+        return null;
+      }
+    }
+    boolean nullsEqualOnProbe = comparators != null && !comparators.isEmpty()
+        && comparators.get(0) == Comparator.IS_NOT_DISTINCT_FROM;
+    return new FixedWidthKeyTable(buildFieldId, probeFieldId, keyWidth, nullsEqualOnProbe);
+  }
+
+  private static TypedFieldId getFieldId(LogicalExpression expr) {
+    if (!(expr instanceof ValueVectorReadExpression)) {
+      return null;
+    }
+    TypedFieldId fieldId = ((ValueVectorReadExpression) expr).getFieldId();
+    if (fieldId.isHyperReader() || fieldId.getFieldIds().length != 1 || fieldId.hasRemainder()) {
+      return null;
+    }
+    return fieldId;
+  }
+
+  /**
+   * Types whose equality is equality of their raw bytes. Floating point types
+   * are excluded since -0.0 equals 0.0 but differs in its bits.
+   *
+   * @return the width of the key, or 0 if the type does not qualify
+   */
+  private static int getKeyWidth(MajorType type) {
+    if (type.getMode() == DataMode.REPEATED) {
+      return 0;
+    }
+    switch (type.getMinorType()) {
+      case INT:
+      case UINT4:
+      case TIME:
+        return 4;
+      case BIGINT:
+      case UINT8:
+      case DATE:
+      case TIMESTAMP:
+        return 8;
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Allocates the slots, discarding any entries.
+   *
+   * @param allocator allocator for the slots
+   * @param capacity number of slots, a power of 2
+   */
+  public void allocate(BufferAllocator allocator, int capacity) {
+    this.allocator = allocator;
+    DrillBuf newSlots = allocateSlots(capacity);
+    clear();
+    slots = newSlots;
+    this.capacity = capacity;
+    mask = capacity - 1;
+  }
+
+  private DrillBuf allocateSlots(int capacity) {
+    DrillBuf buffer = allocator.buffer(capacity * slotWidth);
+    for (int slot = 0; slot < capacity; slot++) {
+      buffer.setInt(slot * slotWidth + keyWidth, EMPTY);
+    }
+    return buffer;
+  }
+
+  /**
+   * Moves all entries to a new set of slots. The current slots are kept
+   * if the new ones cannot be allocated.
+   *
+   * @param newCapacity number of slots, a power of 2
+   */
+  public void resize(int newCapacity) {
+    DrillBuf newSlots = allocateSlots(newCapacity);
+    int newMask = newCapacity - 1;
+    for (int slot = 0; slot < capacity; slot++) {
+      int offset = slot * slotWidth;
+      int index = slots.getInt(offset + keyWidth);
+      if (index == EMPTY) {
+        continue;
+      }
+      long key = keyWidth == 4 ? slots.getInt(offset) : slots.getLong(offset);
+      int newSlot = hash(key) & newMask;
+      while (newSlots.getInt(newSlot * slotWidth + keyWidth) != EMPTY) {
+        newSlot = (newSlot + 1) & newMask;
+      }
+      setSlot(newSlots, newSlot, key, index);
+    }
+    slots.release();
+    slots = newSlots;
+    capacity = newCapacity;
+    mask = newMask;
+  }
+
+  /**
+   * Resolves the key vectors of the current incoming batches. Must be called
+   * whenever the vectors of either side are replaced.
+   */
+  public void setupIncoming(VectorAccessible incomingBuild, VectorAccessible incomingProbe)
+      throws SchemaChangeException {
+    ValueVector build = getVector(incomingBuild, buildFieldId);
+    buildValues = valuesOf(build);
+    buildBits = bitsOf(build);
+    if (probeFieldId != null && incomingProbe != null) {
+      ValueVector probe = getVector(incomingProbe, probeFieldId);
+      probeValues = valuesOf(probe);
+      probeBits = bitsOf(probe);
+    }
+  }
+
+  private static ValueVector getVector(VectorAccessible batch, TypedFieldId fieldId) throws SchemaChangeException {
+    VectorWrapper<?> wrapper = batch.getValueAccessorById(null, fieldId.getFieldIds());
+    if (wrapper == null) {
+      throw new SchemaChangeException("Failure while loading the hash table key vector " + fieldId);
+    }
+    return wrapper.getValueVector();
+  }
+
+  private static BaseDataValueVector valuesOf(ValueVector vector) {
+    return (BaseDataValueVector) (vector instanceof NullableVector
+        ? ((NullableVector) vector).getValuesVector()
+        : vector);
+  }
+
+  private static BaseDataValueVector bitsOf(ValueVector vector) {
+    return vector instanceof NullableVector
+        ? (BaseDataValueVector) ((NullableVector) vector).getBitsVector()
+        : null;
+  }
+
+  /**
+   * Finds the slot of the key of a build side row: either the slot holding
+   * the key, or the free slot where it is to be inserted.
+   *
+   * @param incomingRowIdx row of the build side batch
+   * @return the slot, or {@link #NULL_SLOT} if the key is null
+   */
+  public int findSlot(int incomingRowIdx) {
+    if (buildBits != null && buildBits.getBuffer().getByte(incomingRowIdx) == 0) {
+      return NULL_SLOT;
+    }
+    long key = readKey(buildValues.getBuffer(), incomingRowIdx);
+    int slot = hash(key) & mask;
+    while (true) {
+      int offset = slot * slotWidth;
+      if (slots.getInt(offset + keyWidth) == EMPTY || readSlotKey(offset) == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  /**
+   * @return the composite index of the key in the given slot, or {@link #EMPTY}
+   */
+  public int getIndex(int slot) {
+    return slot == NULL_SLOT ? nullIndex : slots.getInt(slot * slotWidth + keyWidth);
+  }
+
+  /**
+   * Inserts the key of a build side row into the slot returned for it by
+   * {@link #findSlot(int)}.
+   */
+  public void insert(int slot, int incomingRowIdx, int index) {
+    if (slot == NULL_SLOT) {
+      nullIndex = index;
+    } else {
+      setSlot(slots, slot, readKey(buildValues.getBuffer(), incomingRowIdx), index);
+    }
+  }
+
+  /**
+   * Frees a slot filled by the last {@link #insert(int, int, int)}; only the
+   * last inserted key may be removed, as no later key may have probed past it.
+   */
+  public void remove(int slot) {
+    if (slot == NULL_SLOT) {
+      nullIndex = EMPTY;
+    } else {
+      slots.setInt(slot * slotWidth + keyWidth, EMPTY);
+    }
+  }
+
+  /**
+   * @param incomingRowIdx row of the probe side batch
+   * @return the composite index of the matching key, or -1 if there is none
+   */
+  public int probe(int incomingRowIdx) {
+    if (probeBits != null && probeBits.getBuffer().getByte(incomingRowIdx) == 0) {
+      return nullsEqualOnProbe ? nullIndex : EMPTY;
+    }
+    long key = readKey(probeValues.getBuffer(), incomingRowIdx);
+    int slot = hash(key) & mask;
+    while (true) {
+      int offset = slot * slotWidth;
+      int index = slots.getInt(offset + keyWidth);
+      if (index == EMPTY || readSlotKey(offset) == key) {
+        return index;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  /**
+   * Probes for the keys of several probe side rows: the slots of all the keys
+   * are computed first, then the keys are compared.
+   *
+   * @param incomingRowIdxs rows of the probe side batch
+   * @param offset position of the first row in the arrays
+   * @param count number of rows
+   * @param result receives, at the same positions, the composite index of the
+   *          matching key of each row, or -1 if there is none
+   */
+  public void probe(int[] incomingRowIdxs, int offset, int count, int[] result) {
+    int end = offset + count;
+    DrillBuf values = probeValues.getBuffer();
+    DrillBuf bits = probeBits == null ? null : probeBits.getBuffer();
+    for (int i = offset; i < end; i++) {
+      int row = incomingRowIdxs[i];
+      result[i] = bits != null && bits.getByte(row) == 0 ? NULL_SLOT : hash(readKey(values, row)) & mask;
+    }
+    for (int i = offset; i < end; i++) {
+      int slot = result[i];
+      if (slot == NULL_SLOT) {
+        result[i] = nullsEqualOnProbe ? nullIndex : EMPTY;
+        continue;
+      }
+      long key = readKey(values, incomingRowIdxs[i]);
+      while (true) {
+        int offsetInSlots = slot * slotWidth;
+        int index = slots.getInt(offsetInSlots + keyWidth);
+        if (index == EMPTY || readSlotKey(offsetInSlots) == key) {
+          result[i] = index;
+          break;
+        }
+        slot = (slot + 1) & mask;
+      }
+    }
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @return the largest number of slots which fits in a single buffer
+   */
+  public int getMaxCapacity() {
+    return Integer.highestOneBit(Integer.MAX_VALUE / slotWidth);
+  }
+
+  /**
+   * @return size in bytes of a slot, for memory estimates
+   */
+  public int getSlotWidth() {
+    return slotWidth;
+  }
+
+  public long getActualSize() {
+    return slots == null ? 0 : slots.capacity();
+  }
+
+  public void clear() {
+    if (slots != null) {
+      slots.release();
+      slots = null;
+    }
+    capacity = 0;
+    mask = 0;
+    nullIndex = EMPTY;
+  }
+
+  private long readKey(DrillBuf buffer, int incomingRowIdx) {
+    return keyWidth == 4 ? buffer.getInt(incomingRowIdx * 4) : buffer.getLong(incomingRowIdx * 8);
+  }
+
+  private long readSlotKey(int offset) {
+    return keyWidth == 4 ? slots.getInt(offset) : slots.getLong(offset);
+  }
+
+  private void setSlot(DrillBuf buffer, int slot, long key, int index) {
+    int offset = slot * slotWidth;
+    if (keyWidth == 4) {
+      buffer.setInt(offset, (int) key);
+    } else {
+      buffer.setLong(offset, key);
+    }
+    buffer.setInt(offset + keyWidth, index);
+  }
+
+  // 64 bit finalizer of MurmurHash3; spreads sequential keys (ids, dates) over the slots
+  private static int hash(long key) {
+    long h = key;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return (int) h;
+  }
+}
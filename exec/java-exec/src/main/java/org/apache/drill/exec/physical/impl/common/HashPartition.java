@@ -391,6 +391,11 @@ public class HashPartition implements HashJoinMemoryCalculator.PartitionStat {
     return hashTable.probeForKey(recordsProcessed, hashCode);
   }
 
+  public void probeForKeys(int[] recordIndexes, int[] hashCodes, int offset, int count, int[] result)
+      throws SchemaChangeException {
+    hashTable.probeForKeys(recordIndexes, hashCodes, offset, count, result);
+  }
+
   public int getRecordNumForKey(int currentIndex) {
     return hashTable.getRecordNumForKey(currentIndex);
   }
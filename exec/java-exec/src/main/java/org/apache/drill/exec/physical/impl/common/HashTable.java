@@ -60,9 +60,11 @@ public interface HashTable {
    * @param htContainerOrig
    * @param context
    * @param cg
+   * @param keyTable open addressing table to use in place of the hash chains for a single fixed-width key,
+   *                 or null to use hash chains
    */
   void setup(HashTableConfig htConfig, BufferAllocator allocator, VectorContainer incomingBuild, RecordBatch incomingProbe, RecordBatch outgoing,
-             VectorContainer htContainerOrig, FragmentContext context, ClassGenerator<?> cg);
+             VectorContainer htContainerOrig, FragmentContext context, ClassGenerator<?> cg, FixedWidthKeyTable keyTable);
 
   /**
    * Updates the incoming (build and probe side) value vectors references in the {@link HashTableTemplate.BatchHolder}s.
@@ -98,6 +100,18 @@ public interface HashTable {
    */
   int probeForKey(int incomingRowIdx, int hashCode) throws SchemaChangeException;
 
+  /**
+   * Batch version of {@link #probeForKey(int, int)}. The buckets of all the keys are looked up before any of
+   * the keys is compared, so that the cache misses of the lookups, which do not depend on each other, overlap.
+   * @param incomingRowIdxs The indexes of the keys in the probe batch.
+   * @param hashCodes The hashCodes of the keys.
+   * @param offset The position of the first key in the arrays.
+   * @param count The number of keys.
+   * @param result Receives, at the same positions, the result of {@link #probeForKey(int, int)} for each key.
+   * @throws SchemaChangeException
+   */
+  void probeForKeys(int[] incomingRowIdxs, int[] hashCodes, int offset, int count, int[] result) throws SchemaChangeException;
+
   /**
    * @param currentIndex The composite index of the key in the hash table (index of BatchHolder and record in Batch Holder).
    * @return Returns -1 if the count of records for a specific key is not computed. Otherwise returns
@@ -67,6 +67,9 @@ public abstract class HashTableTemplate implements HashTable {
   // the offset/position (in the startIndices) of the beginning of the hash chain.
   private IntVector startIndices;
 
+  // Replaces the startIndices and the links when the table has a single fixed-width key (null otherwise)
+  private FixedWidthKeyTable keyTable;
+
   // Array of batch holders..each batch holder can hold up to BATCH_SIZE entries
   private ArrayList<BatchHolder> batchHolders;
 
@@ -176,8 +179,10 @@ public abstract class HashTableTemplate implements HashTable {
           }
         }
 
-        links = allocMetadataVector(newBatchHolderSize, EMPTY_SLOT);
-        hashValues = allocMetadataVector(newBatchHolderSize, 0);
+        if (keyTable == null) {
+          links = allocMetadataVector(newBatchHolderSize, EMPTY_SLOT);
+          hashValues = allocMetadataVector(newBatchHolderSize, 0);
+        }
         if (htConfig.isComputeKeyNum()) {
           nums = allocMetadataVector(newBatchHolderSize, 0);
         }
@@ -294,9 +299,11 @@ public abstract class HashTableTemplate implements HashTable {
       }
 
       // since this is the last entry in the hash chain, the links array at position currentIdx
-      // will point to a null (empty) slot
-      links.getMutator().set(currentIdxWithinBatch, EMPTY_SLOT);
-      hashValues.getMutator().set(currentIdxWithinBatch, hashValue);
+      // will point to a null (empty) slot (no chains, hence no links, with a fixed-width key table)
+      if (links != null) {
+        links.getMutator().set(currentIdxWithinBatch, EMPTY_SLOT);
+        hashValues.getMutator().set(currentIdxWithinBatch, hashValue);
+      }
       if (nums != null) {
         nums.getMutator().set(currentIdxWithinBatch, 1);
       }
@@ -494,8 +501,10 @@ public abstract class HashTableTemplate implements HashTable {
 
     public long getActualSize() {
       Set<AllocationManager.BufferLedger> ledgers = Sets.newHashSet();
-      links.collectLedgers(ledgers);
-      hashValues.collectLedgers(ledgers);
+      if (links != null) {
+        links.collectLedgers(ledgers);
+        hashValues.collectLedgers(ledgers);
+      }
 
       long size = 0L;
 
@@ -515,7 +524,7 @@ public abstract class HashTableTemplate implements HashTable {
   @Override
   public void setup(HashTableConfig htConfig, BufferAllocator allocator, VectorContainer incomingBuild,
                     RecordBatch incomingProbe, RecordBatch outgoing, VectorContainer htContainerOrig,
-                    FragmentContext context, ClassGenerator<?> cg) {
+                    FragmentContext context, ClassGenerator<?> cg, FixedWidthKeyTable keyTable) {
     float loadf = htConfig.getLoadFactor();
     int initialCap = htConfig.getInitialCapacity();
 
@@ -541,6 +550,7 @@ public abstract class HashTableTemplate implements HashTable {
     this.htContainerOrig = htContainerOrig;
     this.context = context;
     this.cg = cg;
+    this.keyTable = keyTable;
     this.allocationTracker = new HashTableAllocationTracker(htConfig);
 
     // round up the initial capacity to nearest highest power of 2
@@ -554,7 +564,7 @@ public abstract class HashTableTemplate implements HashTable {
 
     dummyIntField = MaterializedField.create("dummy", Types.required(MinorType.INT));
 
-    startIndices = allocMetadataVector(tableSize, EMPTY_SLOT);
+    allocateBuckets(tableSize);
 
     // Create the first batch holder
     batchHolders = new ArrayList<BatchHolder>();
@@ -566,6 +576,9 @@ public abstract class HashTableTemplate implements HashTable {
 
     try {
       doSetup(incomingBuild, incomingProbe);
+      if (keyTable != null) {
+        keyTable.setupIncoming(incomingBuild, incomingProbe);
+      }
     } catch (SchemaChangeException e) {
       throw new IllegalStateException("Unexpected schema change", e);
     }
@@ -582,13 +595,16 @@ public abstract class HashTableTemplate implements HashTable {
   @Override
   public void updateBatches() throws SchemaChangeException {
     doSetup(incomingBuild, incomingProbe);
+    if (keyTable != null) {
+      keyTable.setupIncoming(incomingBuild, incomingProbe);
+    }
     for (BatchHolder batchHolder : batchHolders) {
       batchHolder.setup();
     }
   }
 
   public int numBuckets() {
-    return startIndices.getAccessor().getValueCount();
+    return keyTable != null ? keyTable.getCapacity() : startIndices.getAccessor().getValueCount();
   }
 
   public int numResizing() {
@@ -635,11 +651,27 @@ public abstract class HashTableTemplate implements HashTable {
       currentIndexSize = 0;
       totalIndexSize = 0;
     }
-    startIndices.clear();
+    clearBuckets();
     // currentIdxHolder = null; // keep IndexPointer in case HT is reused
     numEntries = 0;
   }
 
+  private void allocateBuckets(int size) {
+    if (keyTable != null) {
+      keyTable.allocate(allocator, size);
+    } else {
+      startIndices = allocMetadataVector(size, EMPTY_SLOT);
+    }
+  }
+
+  private void clearBuckets() {
+    if (keyTable != null) {
+      keyTable.clear();
+    } else {
+      startIndices.clear();
+    }
+  }
+
   private int getBucketIndex(int hash, int numBuckets) {
     return hash & (numBuckets - 1);
   }
@@ -710,6 +742,9 @@ public abstract class HashTableTemplate implements HashTable {
    */
   @Override
   public PutStatus put(int incomingRowIdx, IndexPointer htIdxHolder, int hashCode, int targetBatchRowCount) throws SchemaChangeException, RetryAfterSpillException {
+    if (keyTable != null) {
+      return putFixedWidthKey(incomingRowIdx, htIdxHolder, hashCode, targetBatchRowCount);
+    }
 
     int bucketIndex = getBucketIndex(hashCode, numBuckets());
     int startIdx = startIndices.getAccessor().get(bucketIndex);
@@ -783,6 +818,56 @@ public abstract class HashTableTemplate implements HashTable {
         PutStatus.KEY_ADDED;     // otherwise
   }
 
+  /**
+   * put() for a table with a single fixed-width key: the key is looked up by
+   * value in the {@link FixedWidthKeyTable} instead of following a hash chain.
+   * The batch holders are filled the same way as for the chained table.
+   */
+  private PutStatus putFixedWidthKey(int incomingRowIdx, IndexPointer htIdxHolder, int hashCode, int targetBatchRowCount)
+      throws SchemaChangeException, RetryAfterSpillException {
+    int slot = keyTable.findSlot(incomingRowIdx);
+    int index = keyTable.getIndex(slot);
+    if (index != EMPTY_SLOT) {
+      htIdxHolder.value = index;
+      batchHolders.get((index >>> 16) & BATCH_MASK).increaseRecordNumForKey(index & BATCH_MASK);
+      return PutStatus.KEY_PRESENT;
+    }
+
+    int currentIdx = freeIndex++;
+    boolean addedBatch = false;
+    try {  // ADD A BATCH
+      addedBatch = addBatchIfNeeded(currentIdx, targetBatchRowCount);
+      if (addedBatch) {
+        currentIdx = (batchHolders.size() - 1) * BATCH_SIZE;
+        freeIndex = currentIdx + 1;
+      }
+    } catch (OutOfMemoryException OOME) {
+      retryAfterOOM( currentIdx < totalIndexSize);
+    }
+
+    try { // INSERT ENTRY
+      BatchHolder bh = batchHolders.get((currentIdx >>> 16) & BATCH_MASK);
+      bh.insertEntry(incomingRowIdx, currentIdx, hashCode, null, EMPTY_SLOT);
+      numEntries++;
+    } catch (OutOfMemoryException OOME) { retryAfterOOM( addedBatch ); }
+
+    // the slot is filled before resizing, so that the new entry is moved along with the others
+    keyTable.insert(slot, incomingRowIdx, currentIdx);
+    try {  // RESIZE HT
+      resizeAndRehashIfNeeded();
+    } catch (OutOfMemoryException OOME) {
+      numEntries--; // undo - insert entry
+      keyTable.remove(slot);
+      retryAfterOOM( addedBatch );
+    }
+
+    htIdxHolder.value = currentIdx;
+    return  addedBatch ? PutStatus.NEW_BATCH_ADDED :
+        (freeIndex + 1 > currentIndexSize) ?
+        PutStatus.KEY_ADDED_LAST : // the last key in the batch
+        PutStatus.KEY_ADDED;     // otherwise
+  }
+
   /**
    * Return -1 if Probe-side key is not found in the (build-side) hash table.
    * Otherwise, return the global index of the key
@@ -795,8 +880,34 @@ public abstract class HashTableTemplate implements HashTable {
    */
    @Override
   public int probeForKey(int incomingRowIdx, int hashCode) throws SchemaChangeException {
+     if (keyTable != null) {
+       return keyTable.probe(incomingRowIdx);
+     }
     int bucketIndex = getBucketIndex(hashCode, numBuckets());
-     int startIdx = startIndices.getAccessor().get(bucketIndex);
+     return probeChain(incomingRowIdx, startIndices.getAccessor().get(bucketIndex));
+   }
+
+  @Override
+  public void probeForKeys(int[] incomingRowIdxs, int[] hashCodes, int offset, int count, int[] result)
+      throws SchemaChangeException {
+    if (keyTable != null) {
+      keyTable.probe(incomingRowIdxs, offset, count, result);
+      return;
+    }
+    int end = offset + count;
+    int numBuckets = numBuckets();
+    IntVector.Accessor heads = startIndices.getAccessor();
+    // first read the start of the chain of every key, then follow the chains
+    for (int i = offset; i < end; i++) {
+      result[i] = heads.get(getBucketIndex(hashCodes[i], numBuckets));
+    }
+    for (int i = offset; i < end; i++) {
+      result[i] = probeChain(incomingRowIdxs[i], result[i]);
+    }
+  }
+
+  // Follow a hash chain, from its start index, looking for the key of the given probe row
+  private int probeChain(int incomingRowIdx, int startIdx) throws SchemaChangeException {
      BatchHolder lastEntryBatch = null;
 
      for ( int currentIndex = startIdx;
@@ -882,6 +993,11 @@ public abstract class HashTableTemplate implements HashTable {
     int newTableSize = 2 * tableSize;
     newTableSize = roundUpToPowerOf2(newTableSize);
 
+    if (keyTable != null) {
+      resizeKeyTable(newTableSize);
+      return;
+    }
+
     // if not enough memory available to allocate the new hash-table, plus the new links and
     // the new hash-values (to replace the existing ones - inside rehash() ), then OOM
     if ( 4 /* sizeof(int) */ * ( newTableSize + 2 * HashTable.BATCH_SIZE /* links + hashValues */)
@@ -924,6 +1040,22 @@ public abstract class HashTableTemplate implements HashTable {
     numResizing++;
   }
 
+  // Resize the slots of the fixed-width key table; unlike the chained table it cannot hold more
+  // entries than slots, so when it cannot grow the caller has to spill (or fail).
+  private void resizeKeyTable(int newTableSize) {
+    if (newTableSize > keyTable.getMaxCapacity() ||
+        (long) keyTable.getSlotWidth() * newTableSize >= allocator.getLimit() - allocator.getAllocatedMemory()) {
+      throw new OutOfMemoryException("Resize Hash Table");
+    }
+
+    long t0 = System.currentTimeMillis();
+    keyTable.resize(newTableSize);
+    tableSize = newTableSize;
+    threshold = (int) Math.ceil(tableSize * htConfig.getLoadFactor());
+    resizingTime += Math.toIntExact(System.currentTimeMillis() - t0);
+    numResizing++;
+  }
+
   /**
    *  Resize up the Hash Table if needed (to hold newNum entries)
    */
@@ -935,8 +1067,8 @@ public abstract class HashTableTemplate implements HashTable {
       tableSize *= 2;
       threshold = (int) Math.ceil(tableSize * htConfig.getLoadFactor());
     }
-    startIndices.clear();
-    startIndices = allocMetadataVector(tableSize, EMPTY_SLOT);
+    clearBuckets();
+    allocateBuckets(tableSize);
   }
 
 
@@ -954,7 +1086,7 @@ public abstract class HashTableTemplate implements HashTable {
     prevIndexSize = 0;
     currentIndexSize = 0;
     totalIndexSize = 0;
-    startIndices = allocMetadataVector(originalTableSize, EMPTY_SLOT);
+    allocateBuckets(originalTableSize);
   }
 
   @Override
@@ -1016,9 +1148,12 @@ public abstract class HashTableTemplate implements HashTable {
   @Override
   public long getActualSize() {
     Set<AllocationManager.BufferLedger> ledgers = Sets.newHashSet();
-    startIndices.collectLedgers(ledgers);
-
     long size = 0L;
+    if (keyTable != null) {
+      size += keyTable.getActualSize();
+    } else {
+      startIndices.collectLedgers(ledgers);
+    }
 
     for (AllocationManager.BufferLedger ledger: ledgers) {
       size += ledger.getAccountedSize();
@@ -320,7 +320,9 @@ public abstract class AbstractHashBinaryRecordBatch<T extends PhysicalOperator>
     LEFT_INPUT_BATCH_COUNT, LEFT_AVG_INPUT_BATCH_BYTES, LEFT_AVG_INPUT_ROW_BYTES,
     LEFT_INPUT_RECORD_COUNT, RIGHT_INPUT_BATCH_COUNT, RIGHT_AVG_INPUT_BATCH_BYTES,
     RIGHT_AVG_INPUT_ROW_BYTES, RIGHT_INPUT_RECORD_COUNT, OUTPUT_BATCH_COUNT,
-    AVG_OUTPUT_BATCH_BYTES, AVG_OUTPUT_ROW_BYTES, OUTPUT_RECORD_COUNT;
+    AVG_OUTPUT_BATCH_BYTES, AVG_OUTPUT_ROW_BYTES, OUTPUT_RECORD_COUNT,
+    SPILL_COMPRESSED_MB; // Number of MB written to spill files after compression
+                         // (same as SPILL_MB when compression is off)
 
     // duplicate for hash ag
 
@@ -1329,6 +1331,8 @@ public abstract class AbstractHashBinaryRecordBatch<T extends PhysicalOperator>
     if (spillSet.getWriteBytes() > 0) {
       stats.setLongStat(Metric.SPILL_MB, // update stats - total MB spilled
           (int) Math.round(spillSet.getWriteBytes() / 1024.0D / 1024.0));
+      stats.setLongStat(Metric.SPILL_COMPRESSED_MB,
+          (int) Math.round(spillSet.getCompressedWriteBytes() / 1024.0D / 1024.0));
     }
     // clean (and deallocate) each partition, and delete its spill file
     for (HashPartition partn : partitions) {
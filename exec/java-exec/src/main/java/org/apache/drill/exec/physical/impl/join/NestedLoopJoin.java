@@ -23,6 +23,7 @@ import org.apache.drill.exec.exception.SchemaChangeException;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.record.ExpandableHyperContainer;
 import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.VectorAccessible;
 import org.apache.drill.exec.record.VectorContainer;
 
 import java.util.LinkedList;
@@ -53,5 +54,5 @@ public interface NestedLoopJoin {
   public void emitRight(int batchIndex, int recordIndexWithinBatch, int outIndex);
 
   // Setup the input/output value vector references
-  public void doSetup(FragmentContext context, VectorContainer rightContainer, RecordBatch leftBatch, RecordBatch outgoing);
+  public void doSetup(FragmentContext context, VectorContainer rightContainer, VectorAccessible leftBatch, RecordBatch outgoing);
 }
@@ -17,8 +17,13 @@
  */
 package org.apache.drill.exec.physical.impl.join;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.ImmutableMap;
@@ -33,6 +38,7 @@ import org.apache.drill.common.expression.LogicalExpression;
 import org.apache.drill.common.types.TypeProtos;
 import org.apache.drill.common.types.Types;
 import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.cache.VectorSerializer;
 import org.apache.drill.exec.compile.sig.GeneratorMapping;
 import org.apache.drill.exec.compile.sig.MappingSet;
 import org.apache.drill.exec.exception.OutOfMemoryException;
@@ -42,9 +48,11 @@ import org.apache.drill.exec.expr.CodeGenerator;
 import org.apache.drill.exec.expr.BatchReference;
 import org.apache.drill.exec.expr.ExpressionTreeMaterializer;
 import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.ops.MetricDef;
 import org.apache.drill.exec.physical.config.NestedLoopJoinPOP;
 import org.apache.drill.exec.physical.impl.filter.ReturnValueExpression;
 import org.apache.drill.exec.physical.impl.sort.RecordBatchData;
+import org.apache.drill.exec.physical.impl.spill.SpillSet;
 import org.apache.drill.exec.record.AbstractBinaryRecordBatch;
 import org.apache.drill.exec.record.BatchSchema;
 import org.apache.drill.exec.record.ExpandableHyperContainer;
@@ -53,6 +61,7 @@ import org.apache.drill.exec.record.RecordBatch;
 import org.apache.drill.exec.record.TypedFieldId;
 import org.apache.drill.exec.record.VectorAccessible;
 import org.apache.drill.exec.record.VectorAccessibleUtilities;
+import org.apache.drill.exec.record.VectorContainer;
 import org.apache.drill.exec.record.VectorWrapper;
 import org.apache.drill.exec.util.record.RecordBatchStats;
 import org.apache.drill.exec.util.record.RecordBatchStats.RecordBatchIOType;
@@ -66,10 +75,39 @@ import org.apache.drill.exec.vector.complex.AbstractContainerVector;
 
 /*
  * RecordBatch implementation for the nested loop join operator
+ *
+ * When the right side exceeds the memory limit of the operator, it is split in blocks which fit in
+ * memory, and all but the last block are spilled to disk. The left side is joined with the last block
+ * while it is read from upstream, and is spilled too. It is then read back from disk once per spilled
+ * block, which is loaded in turn (block nested loop join).
  */
 public class NestedLoopJoinBatch extends AbstractBinaryRecordBatch<NestedLoopJoinPOP> {
   private static final Logger logger = LoggerFactory.getLogger(NestedLoopJoinBatch.class);
 
+  public enum Metric implements MetricDef {
+    // same as AbstractBinaryRecordBatch.Metric
+    LEFT_INPUT_BATCH_COUNT,
+    LEFT_AVG_INPUT_BATCH_BYTES,
+    LEFT_AVG_INPUT_ROW_BYTES,
+    LEFT_INPUT_RECORD_COUNT,
+    RIGHT_INPUT_BATCH_COUNT,
+    RIGHT_AVG_INPUT_BATCH_BYTES,
+    RIGHT_AVG_INPUT_ROW_BYTES,
+    RIGHT_INPUT_RECORD_COUNT,
+    OUTPUT_BATCH_COUNT,
+    AVG_OUTPUT_BATCH_BYTES,
+    AVG_OUTPUT_ROW_BYTES,
+    OUTPUT_RECORD_COUNT,
+    SPILLED_BLOCKS, // number of blocks of right batches spilled to disk
+    SPILL_MB,       // MB written to the spill files, by the right and the left side
+    READ_MB;        // MB read back from the spill files, the left side is read once per spilled block
+
+    @Override
+    public int metricId() {
+      return ordinal();
+    }
+  }
+
   // Input indexes to correctly update the stats
   protected static final int LEFT_INPUT = 0;
   protected static final int RIGHT_INPUT = 1;
@@ -92,6 +130,34 @@ public class NestedLoopJoinBatch extends AbstractBinaryRecordBatch<NestedLoopJoi
   // Record count of the individual batches in the right hyper container
   private final LinkedList<Integer> rightCounts = new LinkedList<>();
 
+  // Batches in the right hyper container
+  private final List<VectorContainer> rightBatches = new ArrayList<>();
+
+  private final boolean spillEnabled;
+  private final long memoryLimit;
+  private SpillSet spillSet;
+
+  // Memory of the batches in the right hyper container
+  private long rightBlockSize;
+  private long maxRightBatchSize;
+
+  // Blocks of right batches spilled to disk, and the next one to join with the left side
+  private final List<SpilledBlock> spilledBlocks = new ArrayList<>();
+  private int nextSpilledBlock;
+  private int spilledBlockCount;
+
+  // Left batches spilled to disk, when the right side was spilled
+  private String leftSpillFile;
+  private VectorSerializer.Writer leftWriter;
+  private int spilledLeftBatches;
+  private InputStream leftInput;
+  private VectorSerializer.Reader leftReader;
+  private int nextSpilledLeft;
+
+  // Left records matched by the blocks of right batches, per spilled left batch (LEFT join only)
+  private final List<BitSet> matchedLeftRecords = new ArrayList<>();
+  private BitSet currentMatchedLeftRecords;
+
 
   // Generator mapping for the right side
   private static final GeneratorMapping EMIT_RIGHT =
@@ -139,6 +205,15 @@ public class NestedLoopJoinBatch extends AbstractBinaryRecordBatch<NestedLoopJoi
 
     RecordBatchStats.printConfiguredBatchSize(getRecordBatchStatsContext(),
       configuredBatchSize);
+
+    spillEnabled = context.getOptions().getOption(ExecConstants.NESTEDLOOPJOIN_ENABLE_SPILL_VALIDATOR);
+    long limit = oContext.getAllocator().getLimit();
+    // Optional configured memory limit, typically used only for testing.
+    long configLimit = context.getOptions().getOption(ExecConstants.NESTEDLOOPJOIN_MAX_MEMORY_VALIDATOR);
+    if (configLimit > 0) {
+      limit = Math.min(limit, configLimit);
+    }
+    memoryLimit = limit;
   }
 
   /**
@@ -176,6 +251,7 @@ public class NestedLoopJoinBatch extends AbstractBinaryRecordBatch<NestedLoopJoi
             RecordBatchStats.logRecordBatchStats(RecordBatchIOType.INPUT_RIGHT,
               batchMemoryManager.getRecordBatchSizer(RIGHT_INDEX), getRecordBatchStatsContext());
             addBatchToHyperContainer(right);
+            spillRightIfNeeded();
             break;
           case NONE:
           case NOT_YET:
@@ -184,6 +260,17 @@ public class NestedLoopJoinBatch extends AbstractBinaryRecordBatch<NestedLoopJoi
           default:
         }
       }
+      if (isRightSpilled()) {
+        if (rightBatches.isEmpty()) {
+          // join the left side with the last spilled block first, while it is read from upstream
+          SpilledBlock block = spilledBlocks.remove(spilledBlocks.size() - 1);
+          loadRightBlock(block);
+          deleteSpillFile(block.path);
+        }
+        if (leftUpstream != IterOutcome.NONE) {
+          spillLeft(left);
+        }
+      }
       nljWorker.setupNestedLoopJoin(context, left, leftUpstream, rightContainer, rightCounts, this);
       state = BatchState.NOT_FIRST;
     }
@@ -412,6 +499,10 @@ public class NestedLoopJoinBatch extends AbstractBinaryRecordBatch<NestedLoopJoi
     try {
       rightCounts.addLast(inputBatch.getRecordCount());
       rightContainer.addBatch(batchCopy.getContainer());
+      rightBatches.add(batchCopy.getContainer());
+      long batchSize = getDataSize(batchCopy.getContainer());
+      rightBlockSize += batchSize;
+      maxRightBatchSize = Math.max(maxRightBatchSize, batchSize);
       success = true;
     } finally {
       if (!success) {
@@ -420,6 +511,188 @@ public class NestedLoopJoinBatch extends AbstractBinaryRecordBatch<NestedLoopJoi
     }
   }
 
+  private static long getDataSize(VectorAccessible batch) {
+    long size = 0;
+    for (VectorWrapper<?> vw : batch) {
+      size += vw.getValueVector().getAllocatedSize();
+    }
+    return size;
+  }
+
+  /**
+   * Spills the right batches in memory as a block when they exceed the memory limit of the operator.
+   * Room is kept for a left batch and the outgoing batch.
+   */
+  private void spillRightIfNeeded() {
+    if (!spillEnabled || rightBatches.isEmpty() || rightBlockSize + 2 * maxRightBatchSize <= memoryLimit) {
+      return;
+    }
+    if (spillSet == null) {
+      spillSet = new SpillSet(context, popConfig);
+    }
+    SpilledBlock block = new SpilledBlock(spillSet.getNextSpillFile("right"), new ArrayList<>(rightCounts));
+    try {
+      VectorSerializer.Writer writer = spillSet.writer(block.path);
+      try {
+        for (VectorContainer batch : rightBatches) {
+          writer.write(batch);
+        }
+      } finally {
+        spillSet.close(writer);
+      }
+    } catch (IOException e) {
+      throw UserException.dataWriteError(e)
+          .message("Nested loop join failed to spill the right side to disk")
+          .addContext("File", block.path)
+          .build(logger);
+    }
+    logger.debug("Spilled a block of {} right batches to {}", rightBatches.size(), block.path);
+    spilledBlocks.add(block);
+    spilledBlockCount++;
+    clearRightBlock();
+    updateSpillStats();
+  }
+
+  private void clearRightBlock() {
+    rightContainer.clear();
+    rightCounts.clear();
+    rightBatches.clear();
+    rightBlockSize = 0;
+  }
+
+  /**
+   * Reads a spilled block of right batches into the right hyper container.
+   */
+  private void loadRightBlock(SpilledBlock block) {
+    clearRightBlock();
+    try (InputStream inputStream = spillSet.openForInput(block.path)) {
+      VectorSerializer.Reader reader = VectorSerializer.reader(oContext.getAllocator(), inputStream);
+      for (int recordCount : block.recordCounts) {
+        VectorContainer batch = reader.read();
+        rightCounts.addLast(recordCount);
+        rightContainer.addBatch(batch);
+        rightBatches.add(batch);
+      }
+      spillSet.tallyReadBytes(spillSet.getPosition(inputStream));
+    } catch (IOException e) {
+      clearRightBlock();
+      throw UserException.dataReadError(e)
+          .message("Failure while reading spilled data")
+          .addContext("File", block.path)
+          .build(logger);
+    }
+    updateSpillStats();
+  }
+
+  /**
+   * @return true if the right side did not fit in memory, and is joined with the left side a block at a time
+   */
+  public boolean isRightSpilled() {
+    return !spilledBlocks.isEmpty();
+  }
+
+  /**
+   * @return true while the left side is joined with the last block of right batches
+   */
+  public boolean isLastRightBlock() {
+    return nextSpilledBlock == spilledBlocks.size();
+  }
+
+  /**
+   * @return the records of the current left batch matched so far, when they must be tracked
+   *         across blocks of right batches, null otherwise
+   */
+  public BitSet getMatchedLeftRecords() {
+    return currentMatchedLeftRecords;
+  }
+
+  /**
+   * Writes a left input batch to disk, to join it with the spilled blocks of right batches later.
+   * Does nothing unless the right side was spilled.
+   */
+  public void spillLeft(VectorAccessible batch) {
+    if (!isRightSpilled() || batch.getRecordCount() == 0) {
+      return;
+    }
+    try {
+      if (leftWriter == null) {
+        leftSpillFile = spillSet.getNextSpillFile("left");
+        leftWriter = spillSet.writer(leftSpillFile);
+      }
+      leftWriter.write(batch);
+    } catch (IOException e) {
+      throw UserException.dataWriteError(e)
+          .message("Nested loop join failed to spill the left side to disk")
+          .addContext("File", leftSpillFile)
+          .build(logger);
+    }
+    spilledLeftBatches++;
+    if (popConfig.getJoinType() == JoinRelType.LEFT) {
+      currentMatchedLeftRecords = new BitSet(batch.getRecordCount());
+      matchedLeftRecords.add(currentMatchedLeftRecords);
+    }
+  }
+
+  /**
+   * Reads back the next spilled left batch. Once all of them were joined with the current block of
+   * right batches, loads the next spilled block and starts over.
+   *
+   * @return the next left batch, or null when the left side was joined with all the blocks
+   */
+  public VectorAccessible nextSpilledLeft() {
+    try {
+      if (leftWriter != null) {
+        spillSet.close(leftWriter);
+        leftWriter = null;
+      }
+      if (leftReader == null || nextSpilledLeft == spilledLeftBatches) {
+        closeLeftInput();
+        if (spilledLeftBatches == 0 || nextSpilledBlock == spilledBlocks.size()) {
+          return null;
+        }
+        loadRightBlock(spilledBlocks.get(nextSpilledBlock++));
+        leftInput = spillSet.openForInput(leftSpillFile);
+        leftReader = VectorSerializer.reader(oContext.getAllocator(), leftInput);
+        nextSpilledLeft = 0;
+      }
+      VectorContainer batch = leftReader.read();
+      currentMatchedLeftRecords = popConfig.getJoinType() == JoinRelType.LEFT
+          ? matchedLeftRecords.get(nextSpilledLeft) : null;
+      nextSpilledLeft++;
+      return batch;
+    } catch (IOException e) {
+      throw UserException.dataReadError(e)
+          .message("Failure while reading spilled data")
+          .addContext("File", leftSpillFile)
+          .build(logger);
+    }
+  }
+
+  private void closeLeftInput() throws IOException {
+    if (leftInput != null) {
+      spillSet.tallyReadBytes(spillSet.getPosition(leftInput));
+      leftInput.close();
+      leftInput = null;
+      leftReader = null;
+      updateSpillStats();
+    }
+  }
+
+  private void deleteSpillFile(String path) {
+    try {
+      spillSet.delete(path);
+    } catch (IOException e) {
+      // the spill directory is removed when the operator is closed
+      logger.warn("Unable to delete spill file {}", path, e);
+    }
+  }
+
+  private void updateSpillStats() {
+    stats.setLongStat(Metric.SPILLED_BLOCKS, spilledBlockCount);
+    stats.setLongStat(Metric.SPILL_MB, spillSet.getWriteBytes() / 1024 / 1024);
+    stats.setLongStat(Metric.READ_MB, spillSet.getReadBytes() / 1024 / 1024);
+  }
+
   @Override
   public void close() {
     updateBatchMemoryManagerStats();
@@ -445,6 +718,19 @@ public class NestedLoopJoinBatch extends AbstractBinaryRecordBatch<NestedLoopJoi
 
     rightContainer.clear();
     rightCounts.clear();
+    rightBatches.clear();
+    if (spillSet != null) {
+      try {
+        if (leftWriter != null) {
+          spillSet.close(leftWriter);
+          leftWriter = null;
+        }
+        closeLeftInput();
+      } catch (IOException e) {
+        logger.warn("Unable to close the spill files of the left side", e);
+      }
+      spillSet.close();
+    }
     super.close();
   }
 
@@ -459,6 +745,19 @@ public class NestedLoopJoinBatch extends AbstractBinaryRecordBatch<NestedLoopJoi
     return outputRecords;
   }
 
+  /**
+   * Block of right batches written to a spill file.
+   */
+  private static class SpilledBlock {
+    private final String path;
+    private final List<Integer> recordCounts;
+
+    SpilledBlock(String path, List<Integer> recordCounts) {
+      this.path = path;
+      this.recordCounts = recordCounts;
+    }
+  }
+
   @Override
   public void dump() {
     logger.error("NestedLoopJoinBatch[container={}, left={}, right={}, leftOutcome={}, rightOutcome={}, "
@@ -23,12 +23,14 @@ import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.record.BatchSchema;
 import org.apache.drill.exec.record.ExpandableHyperContainer;
 import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.VectorAccessible;
 import org.apache.drill.exec.record.VectorContainer;
 import org.apache.drill.exec.record.VectorWrapper;
 import org.apache.drill.exec.util.record.RecordBatchStats;
 import org.apache.drill.exec.util.record.RecordBatchStats.RecordBatchIOType;
 
 import javax.inject.Named;
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -40,15 +42,29 @@ import static org.apache.drill.exec.record.JoinBatchMemoryManager.LEFT_INDEX;
  */
 public abstract class NestedLoopJoinTemplate implements NestedLoopJoin {
 
-  // Current left input batch being processed
-  private RecordBatch left;
+  private FragmentContext context;
+
+  // Left input
+  private RecordBatch leftIncoming;
+
+  // Current left batch being processed, either the left input or a left batch read back from disk
+  private VectorAccessible left;
 
   private BatchSchema leftSchema;
   private RecordBatch.IterOutcome leftOutcome;
 
+  // Hyper container holding the right batches, or the current block of them when the right side was spilled
+  private ExpandableHyperContainer rightContainer;
+
   // List of record counts per batch in the hyper container
   private List<Integer> rightCounts;
 
+  // Records of the current left batch matched by a block of right batches, null unless the right side was spilled
+  private BitSet matchedLeftRecords;
+
+  // False while joining with a block of right batches which is not the last one, as later blocks may match
+  private boolean emitUnmatchedLeft;
+
   // Output batch
   private NestedLoopJoinBatch outgoing;
 
@@ -75,11 +91,16 @@ public abstract class NestedLoopJoinTemplate implements NestedLoopJoin {
                                   ExpandableHyperContainer rightContainer,
                                   LinkedList<Integer> rightCounts,
                                   NestedLoopJoinBatch outgoing) {
+    this.context = context;
+    this.leftIncoming = left;
     this.left = left;
     this.leftSchema = left.getSchema();
     this.leftOutcome = leftOutcome;
+    this.rightContainer = rightContainer;
     this.rightCounts = rightCounts;
     this.outgoing = outgoing;
+    matchedLeftRecords = outgoing.getMatchedLeftRecords();
+    emitUnmatchedLeft = !outgoing.isRightSpilled();
     doSetup(context, rightContainer, left, outgoing);
   }
 
@@ -117,6 +138,8 @@ public abstract class NestedLoopJoinTemplate implements NestedLoopJoin {
    * from the list of right batches. Match is checked by calling {@link #doEval(int, int, int)} method.
    * If matching record is found both left and right records are written into output batch,
    * otherwise if join type is LEFT, than only left record is written, right batch record values will be null.
+   * When the right side was spilled, the left records are joined with a block of right batches at a time, and
+   * unmatched left records are written while joining with the last block only.
    *
    * @param joinType    join type (INNER or LEFT)
    * @param outputIndex index to start emitting records at
@@ -158,7 +181,14 @@ public abstract class NestedLoopJoinTemplate implements NestedLoopJoin {
         nextRightRecordToProcess = 0;
       }
       nextRightBatchToProcess = 0;
-      if (joinType == JoinRelType.LEFT && !rightRecordMatched) {
+      if (rightRecordMatched) {
+        if (matchedLeftRecords != null) {
+          matchedLeftRecords.set(nextLeftRecordToProcess);
+        }
+        // reset match indicator if matching record was found
+        rightRecordMatched = false;
+      } else if (joinType == JoinRelType.LEFT && emitUnmatchedLeft
+          && (matchedLeftRecords == null || !matchedLeftRecords.get(nextLeftRecordToProcess))) {
         // project records from the left side only, records from right will be null
         emitLeft(nextLeftRecordToProcess, outputIndex);
         outputIndex++;
@@ -168,9 +198,6 @@ public abstract class NestedLoopJoinTemplate implements NestedLoopJoin {
           // no more space left in the batch, stop processing
           break;
         }
-      } else {
-        // reset match indicator if matching record was found
-        rightRecordMatched = false;
       }
     }
 
@@ -182,7 +209,9 @@ public abstract class NestedLoopJoinTemplate implements NestedLoopJoin {
   /**
    * Utility method to clear the memory in the left input batch once we have completed processing it.
    * Resets some internal state which indicates the next records to process in the left and right batches,
-   * also fetches the next left input batch.
+   * also fetches the next left input batch. When the right side was spilled, the left input batches are
+   * spilled too, and read back once the left input is exhausted to be joined with the next block of right
+   * batches.
    */
   private void resetAndGetNextLeft(int outputIndex) throws SchemaChangeException {
     for (VectorWrapper<?> vw : left) {
@@ -190,28 +219,56 @@ public abstract class NestedLoopJoinTemplate implements NestedLoopJoin {
     }
     tracker.reset();
 
-    leftOutcome = outgoing.next(NestedLoopJoinBatch.LEFT_INPUT, left);
+    if (left != leftIncoming) {
+      nextSpilledLeft();
+      return;
+    }
+
+    leftOutcome = outgoing.next(NestedLoopJoinBatch.LEFT_INPUT, leftIncoming);
     switch (leftOutcome) {
       case OK_NEW_SCHEMA:
-        if (!left.getSchema().equals(leftSchema)) {
+        if (!leftIncoming.getSchema().equals(leftSchema)) {
           throw SchemaChangeException.schemaChanged("Nested loop join does not handle schema change. Schema change" +
-            " found on the left side of NLJ.", leftSchema, left.getSchema());
+            " found on the left side of NLJ.", leftSchema, leftIncoming.getSchema());
         }
       case OK:
-        outgoing.getBatchMemoryManager().update(left, LEFT_INDEX, outputIndex);
+        outgoing.getBatchMemoryManager().update(leftIncoming, LEFT_INDEX, outputIndex);
         setTargetOutputCount(outgoing.getBatchMemoryManager().getCurrentOutgoingMaxRowCount()); // calculated by update()
         RecordBatchStats.logRecordBatchStats(RecordBatchIOType.INPUT_LEFT,
           outgoing.getBatchMemoryManager().getRecordBatchSizer(LEFT_INDEX),
           outgoing.getRecordBatchStatsContext());
+        outgoing.spillLeft(leftIncoming);
+        matchedLeftRecords = outgoing.getMatchedLeftRecords();
+        break;
+      case NONE:
+        if (outgoing.isRightSpilled()) {
+          nextSpilledLeft();
+        }
         break;
       default:
     }
   }
 
+  /**
+   * Moves to the next spilled left batch, with the block of right batches it is joined with.
+   */
+  private void nextSpilledLeft() {
+    VectorAccessible batch = outgoing.nextSpilledLeft();
+    if (batch == null) {
+      leftOutcome = RecordBatch.IterOutcome.NONE;
+      return;
+    }
+    left = batch;
+    leftOutcome = RecordBatch.IterOutcome.OK;
+    matchedLeftRecords = outgoing.getMatchedLeftRecords();
+    emitUnmatchedLeft = outgoing.isLastRightBlock();
+    doSetup(context, rightContainer, left, outgoing);
+  }
+
   @Override
   public abstract void doSetup(@Named("context") FragmentContext context,
                                @Named("rightContainer") VectorContainer rightContainer,
-                               @Named("leftBatch") RecordBatch leftBatch,
+                               @Named("leftBatch") VectorAccessible leftBatch,
                                @Named("outgoing") RecordBatch outgoing);
 
   @Override
@@ -30,6 +30,7 @@ import org.apache.drill.exec.vector.IntVector;
 import org.apache.drill.exec.vector.ValueVector;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import static org.apache.drill.exec.record.JoinBatchMemoryManager.LEFT_INDEX;
 
@@ -80,6 +81,17 @@ public abstract class ProbeTemplate<T extends PhysicalOperator> implements Probe
   protected int targetOutputRecords;
   protected AbstractHashBinaryRecordBatch<T> outgoingBatch;
 
+  // The hash codes and probe results of the current probe batch are computed a batch at a time,
+  // see prepareProbeBatch()
+  private boolean probeBatchPrepared;
+  private int[] probeHashCodes = new int[0]; // hash code of each row, including the partition bits
+  private int[] probeIndexes = new int[0]; // result of the probe of each row (not set for spilled partitions)
+  // Scratch arrays, where the rows of the batch are grouped by partition
+  private int[] partitionStarts = new int[0];
+  private int[] groupedRows = new int[0];
+  private int[] groupedHashCodes = new int[0];
+  private int[] groupedProbeIndexes = new int[0];
+
   protected void setup(RecordBatch probeBatch, IterOutcome leftStartState,
     HashPartition[] partitions, int cycleNum,
     VectorContainer container, AbstractHashBinaryRecordBatch.SpilledPartition[] spilledInners,
@@ -99,6 +111,7 @@ public abstract class ProbeTemplate<T extends PhysicalOperator> implements Probe
     probeState = ProbeState.PROBE_PROJECT;
     this.recordsToProcess = 0;
     this.recordsProcessed = 0;
+    probeBatchPrepared = false;
 
     // A special case - if the left was an empty file
     if (leftStartState == IterOutcome.NONE){
@@ -252,6 +265,7 @@ public abstract class ProbeTemplate<T extends PhysicalOperator> implements Probe
             setTargetOutputCount(outgoingBatch.getBatchMemoryManager().getCurrentOutgoingMaxRowCount()); // calculated by update()
             recordsToProcess = probeBatch.getRecordCount();
             recordsProcessed = 0;
+            probeBatchPrepared = false;
             // If we received an empty batch do nothing
             if (recordsToProcess == 0) {
               continue;
@@ -268,9 +282,10 @@ public abstract class ProbeTemplate<T extends PhysicalOperator> implements Probe
       // Check if we need to drain the next row in the probe side
       if (getNextRecord) {
         if (!buildSideIsEmpty) {
-          int hashCode = (cycleNum == 0) ?
-            partitions[0].getProbeHashCode(recordsProcessed)
-            : read_left_HV_vector.getAccessor().get(recordsProcessed);
+          if (!probeBatchPrepared) {
+            prepareProbeBatch();
+          }
+          int hashCode = probeHashCodes[recordsProcessed];
           int currBuildPart = hashCode & partitionMask;
           hashCode >>>= bitsInMask;
 
@@ -288,7 +303,7 @@ public abstract class ProbeTemplate<T extends PhysicalOperator> implements Probe
             continue; // on to the next outer record
           }
 
-          probeIndex = currPartition.probeForKey(recordsProcessed, hashCode);
+          probeIndex = probeIndexes[recordsProcessed];
 
         }
 
@@ -312,6 +327,69 @@ public abstract class ProbeTemplate<T extends PhysicalOperator> implements Probe
     }
   }
 
+  /**
+   * Computes the hash codes of all the rows of the current probe batch, then probes the hash table
+   * of each (not spilled) partition with all of its rows at once. Working a batch at a time keeps
+   * these loops tight, and lets the hash tables overlap the cache misses of the lookups (see
+   * {@link org.apache.drill.exec.physical.impl.common.HashTable#probeForKeys}). The results stay
+   * valid for the whole batch, since the inner hash tables do not change during the probe phase.
+   * @throws SchemaChangeException SchemaChangeException
+   */
+  private void prepareProbeBatch() throws SchemaChangeException {
+    int count = recordsToProcess;
+    if (probeHashCodes.length < count) {
+      probeHashCodes = new int[count];
+      probeIndexes = new int[count];
+      groupedRows = new int[count];
+      groupedHashCodes = new int[count];
+      groupedProbeIndexes = new int[count];
+    }
+    if (partitionStarts.length < numPartitions + 1) {
+      partitionStarts = new int[numPartitions + 1];
+    }
+
+    if (cycleNum == 0) {
+      HashPartition firstPartition = partitions[0];
+      for (int row = 0; row < count; row++) {
+        probeHashCodes[row] = firstPartition.getProbeHashCode(row);
+      }
+    } else {
+      IntVector.Accessor hashValues = read_left_HV_vector.getAccessor();
+      for (int row = 0; row < count; row++) {
+        probeHashCodes[row] = hashValues.get(row);
+      }
+    }
+
+    // Group the rows by partition (a counting sort), keeping their order within each partition
+    Arrays.fill(partitionStarts, 0, numPartitions + 1, 0);
+    for (int row = 0; row < count; row++) {
+      partitionStarts[(probeHashCodes[row] & partitionMask) + 1]++;
+    }
+    for (int part = 0; part < numPartitions; part++) {
+      partitionStarts[part + 1] += partitionStarts[part];
+    }
+    for (int row = 0; row < count; row++) {
+      int hashCode = probeHashCodes[row];
+      int position = partitionStarts[hashCode & partitionMask]++;
+      groupedRows[position] = row;
+      groupedHashCodes[position] = hashCode >>> bitsInMask;
+    }
+    // the starts have been moved to the ends of the partitions; the start of each partition is the previous end
+
+    int start = 0;
+    for (int part = 0; part < numPartitions; part++) {
+      int end = partitionStarts[part];
+      if (end > start && !outgoingBatch.isSpilledInner(part)) {
+        partitions[part].probeForKeys(groupedRows, groupedHashCodes, start, end - start, groupedProbeIndexes);
+        for (int position = start; position < end; position++) {
+          probeIndexes[groupedRows[position]] = groupedProbeIndexes[position];
+        }
+      }
+      start = end;
+    }
+    probeBatchPrepared = true;
+  }
+
   /**
    *  Perform the probe, till the outgoing is full, or no more rows to probe.
    *  Performs the inner or left-outer join while there are left rows,
@@ -111,7 +111,8 @@ public class MergingRecordBatch extends AbstractRecordBatch<MergingReceiverPOP>
   public enum Metric implements MetricDef {
     BYTES_RECEIVED,
     NUM_SENDERS,
-    NEXT_WAIT_NANOS;
+    NEXT_WAIT_NANOS,
+    WIRE_BYTES_RECEIVED;
 
     @Override
     public int metricId() {
@@ -150,6 +151,7 @@ public class MergingRecordBatch extends AbstractRecordBatch<MergingReceiverPOP>
       }
       if (b != null) {
         stats.addLongStat(Metric.BYTES_RECEIVED, b.getByteCount());
+        stats.addLongStat(Metric.WIRE_BYTES_RECEIVED, b.getWireByteCount());
         stats.batchReceived(0, b.getHeader().getDef().getRecordCount(), false);
         inputCounts[providerIndex] += b.getHeader().getDef().getRecordCount();
       }
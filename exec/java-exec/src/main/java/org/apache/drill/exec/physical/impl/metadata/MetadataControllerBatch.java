@@ -235,6 +235,8 @@ public class MetadataControllerBatch extends AbstractBinaryRecordBatch<MetadataC
 
     modify.overwrite(metadataUnits)
         .execute();
+    // the last modified time of the table may not change when it is analyzed again
+    context.getMetastoreMetadataCache().invalidate(tableInfo);
   }
 
   private void createSummary() {
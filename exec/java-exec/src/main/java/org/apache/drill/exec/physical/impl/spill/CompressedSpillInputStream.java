@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.spill;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import io.airlift.compress.Decompressor;
+import org.apache.drill.exec.util.BlockCodec;
+
+/**
+ * Reads the block format written by {@link CompressedSpillOutputStream}.
+ * <p>
+ * Readers of spill files (see {@code VectorAccessibleSerializable}) fill
+ * buffers with a single {@code read()} call, so, unlike most streams, this
+ * one always returns as many bytes as requested unless the end of the data
+ * is reached, reading across block boundaries as needed.
+ */
+public class CompressedSpillInputStream extends InputStream {
+
+  private final InputStream in;
+  private final Decompressor decompressor;
+  private final byte[] header = new byte[CompressedSpillOutputStream.HEADER_SIZE];
+  private byte[] block = new byte[0];
+  private byte[] compressed = new byte[0];
+  private int blockLength;
+  private int blockPosition;
+  private boolean eof;
+
+  public CompressedSpillInputStream(InputStream in, BlockCodec codec) {
+    this.in = in;
+    this.decompressor = codec.newDecompressor();
+  }
+
+  /**
+   * @return the stream over the spill file, used to report the bytes
+   * actually read from disk
+   */
+  public InputStream getRawStream() { return in; }
+
+  @Override
+  public int read() throws IOException {
+    if (!ensureData()) {
+      return -1;
+    }
+    return block[blockPosition++] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    int total = 0;
+    while (total < len && ensureData()) {
+      int n = Math.min(len - total, blockLength - blockPosition);
+      System.arraycopy(block, blockPosition, b, off + total, n);
+      blockPosition += n;
+      total += n;
+    }
+    return total == 0 ? -1 : total;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = 0;
+    while (skipped < n && ensureData()) {
+      int step = (int) Math.min(n - skipped, blockLength - blockPosition);
+      blockPosition += step;
+      skipped += step;
+    }
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return blockLength - blockPosition;
+  }
+
+  /**
+   * Loads the next block if the current one is exhausted.
+   *
+   * @return false at the end of the data
+   */
+  private boolean ensureData() throws IOException {
+    if (blockPosition < blockLength) {
+      return true;
+    }
+    if (eof) {
+      return false;
+    }
+    if (!readHeader()) {
+      eof = true;
+      return false;
+    }
+    byte flag = header[0];
+    int rawLength = getInt(1);
+    int storedLength = getInt(5);
+    if (block.length < rawLength) {
+      block = new byte[rawLength];
+    }
+    if (flag == CompressedSpillOutputStream.STORED_BLOCK) {
+      readFully(block, 0, storedLength);
+    } else if (flag == CompressedSpillOutputStream.COMPRESSED_BLOCK) {
+      if (compressed.length < storedLength) {
+        compressed = new byte[storedLength];
+      }
+      readFully(compressed, 0, storedLength);
+      int length = decompressor.decompress(compressed, 0, storedLength, block, 0, rawLength);
+      if (length != rawLength) {
+        throw new IOException(String.format(
+            "Corrupt spill block: expected %d bytes, decompressed %d", rawLength, length));
+      }
+    } else {
+      throw new IOException("Corrupt spill block: unknown block type " + flag);
+    }
+    blockLength = rawLength;
+    blockPosition = 0;
+    return blockLength > 0 || ensureData();
+  }
+
+  /**
+   * Reads a block header.
+   *
+   * @return false if the data ends cleanly before the header
+   */
+  private boolean readHeader() throws IOException {
+    int first = in.read();
+    if (first < 0) {
+      return false;
+    }
+    header[0] = (byte) first;
+    readFully(header, 1, header.length - 1);
+    return true;
+  }
+
+  private void readFully(byte[] buf, int offset, int length) throws IOException {
+    int end = offset + length;
+    while (offset < end) {
+      int n = in.read(buf, offset, end - offset);
+      if (n < 0) {
+        throw new EOFException("Unexpected end of spill file");
+      }
+      offset += n;
+    }
+  }
+
+  private int getInt(int offset) {
+    return ((header[offset] & 0xFF) << 24)
+        | ((header[offset + 1] & 0xFF) << 16)
+        | ((header[offset + 2] & 0xFF) << 8)
+        | (header[offset + 3] & 0xFF);
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
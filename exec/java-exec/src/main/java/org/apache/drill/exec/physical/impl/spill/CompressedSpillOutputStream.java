@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.spill;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+import io.airlift.compress.Compressor;
+import org.apache.drill.exec.util.BlockCodec;
+
+/**
+ * Output stream which compresses spilled data in independent blocks.
+ * Data is accumulated in a block buffer; each full block (and the final
+ * partial block on close) is written as:
+ * <pre>
+ * flag (1 byte) | raw length (4 bytes) | stored length (4 bytes) | data
+ * </pre>
+ * where the flag tells whether the data is compressed. Blocks which do not
+ * shrink are stored uncompressed, so incompressible data costs only the
+ * header. Read back with {@link CompressedSpillInputStream}.
+ */
+public class CompressedSpillOutputStream extends OutputStream {
+
+  public static final byte STORED_BLOCK = 0;
+  public static final byte COMPRESSED_BLOCK = 1;
+  public static final int HEADER_SIZE = 9;
+
+  private final OutputStream out;
+  private final Compressor compressor;
+  private final LongConsumer closeListener;
+  private final byte[] block;
+  private final byte[] compressed;
+  private final byte[] header = new byte[HEADER_SIZE];
+  private int blockLength;
+  private long rawBytes;
+  private long storedBytes;
+  private boolean closed;
+
+  /**
+   * @param out stream over the spill file
+   * @param codec compression codec, other than {@link BlockCodec#NONE}
+   * @param blockSize uncompressed size of a block
+   * @param closeListener receives the number of bytes written to the
+   * underlying stream when this stream is closed
+   */
+  public CompressedSpillOutputStream(OutputStream out, BlockCodec codec,
+                                     int blockSize, LongConsumer closeListener) {
+    this.out = out;
+    this.compressor = codec.newCompressor();
+    this.closeListener = closeListener;
+    block = new byte[blockSize];
+    compressed = new byte[compressor.maxCompressedLength(blockSize)];
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (blockLength == block.length) {
+      writeBlock();
+    }
+    block[blockLength++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    while (len > 0) {
+      if (blockLength == block.length) {
+        writeBlock();
+      }
+      int n = Math.min(len, block.length - blockLength);
+      System.arraycopy(b, off, block, blockLength, n);
+      blockLength += n;
+      off += n;
+      len -= n;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    writeBlock();
+    out.flush();
+  }
+
+  private void writeBlock() throws IOException {
+    if (blockLength == 0) {
+      return;
+    }
+    int compressedLength = compressor.compress(block, 0, blockLength, compressed, 0, compressed.length);
+    if (compressedLength < blockLength) {
+      writeHeader(COMPRESSED_BLOCK, blockLength, compressedLength);
+      out.write(compressed, 0, compressedLength);
+      storedBytes += compressedLength;
+    } else {
+      writeHeader(STORED_BLOCK, blockLength, blockLength);
+      out.write(block, 0, blockLength);
+      storedBytes += blockLength;
+    }
+    rawBytes += blockLength;
+    blockLength = 0;
+  }
+
+  private void writeHeader(byte flag, int rawLength, int storedLength) throws IOException {
+    header[0] = flag;
+    putInt(rawLength, 1);
+    putInt(storedLength, 5);
+    out.write(header, 0, HEADER_SIZE);
+    storedBytes += HEADER_SIZE;
+  }
+
+  private void putInt(int value, int offset) {
+    header[offset] = (byte) (value >>> 24);
+    header[offset + 1] = (byte) (value >>> 16);
+    header[offset + 2] = (byte) (value >>> 8);
+    header[offset + 3] = (byte) value;
+  }
+
+  /**
+   * @return uncompressed bytes written so far, excluding buffered data
+   */
+  public long getRawBytes() { return rawBytes; }
+
+  /**
+   * @return bytes, including block headers, written to the underlying stream
+   */
+  public long getStoredBytes() { return storedBytes; }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      writeBlock();
+    } finally {
+      out.close();
+      if (closeListener != null) {
+        closeListener.accept(storedBytes);
+      }
+    }
+  }
+}
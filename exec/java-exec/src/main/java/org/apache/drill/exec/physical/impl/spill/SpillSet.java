@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.StandardOpenOption;
@@ -39,9 +40,13 @@ import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.physical.config.HashAggregate;
 import org.apache.drill.exec.physical.config.HashJoinPOP;
+import org.apache.drill.exec.physical.config.NestedLoopJoinPOP;
 import org.apache.drill.exec.physical.config.Sort;
+import org.apache.drill.exec.physical.config.WindowPOP;
+import org.apache.drill.exec.server.options.OptionSet;
 import org.apache.drill.exec.proto.ExecProtos.FragmentHandle;
 import org.apache.drill.exec.proto.helper.QueryIdHelper;
+import org.apache.drill.exec.util.BlockCodec;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FSDataOutputStream;
@@ -59,6 +64,14 @@ import com.google.common.collect.Sets;
 public class SpillSet {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SpillSet.class);
 
+  /**
+   * Uncompressed size of the blocks of a compressed spill file. Large enough
+   * for the codecs to find redundancy across value vectors, small enough to
+   * keep the per-file buffers modest when many partitions spill at once.
+   */
+
+  public static final int COMPRESSION_BLOCK_SIZE = 256 * 1024;
+
   /**
    * Spilling on the Mac using the HDFS file system is very inefficient,
    * affects performance numbers. This interface allows using HDFS in
@@ -412,11 +425,27 @@ public class SpillSet {
 
   private long writeBytes;
 
+  /**
+   * Bytes written to spill files after compression, including the block
+   * headers. Same as {@link #writeBytes} when spill files are not compressed.
+   */
+
+  private long compressedWriteBytes;
+
+  private final BlockCodec codec;
+
   public SpillSet(FragmentContext context, PhysicalOperator popConfig) {
-    this(context.getConfig(), context.getHandle(), popConfig);
+    this(context.getConfig(), context.getHandle(), popConfig,
+        spillCodec(context.getOptions(), popConfig));
   }
 
   public SpillSet(DrillConfig config, FragmentHandle handle, PhysicalOperator popConfig) {
+    this(config, handle, popConfig, BlockCodec.NONE);
+  }
+
+  public SpillSet(DrillConfig config, FragmentHandle handle, PhysicalOperator popConfig,
+                  BlockCodec codec) {
+    this.codec = codec;
     String operName;
 
     // Set the spill options from the configuration
@@ -438,6 +467,14 @@ public class SpillSet {
       operName = "HashJoin";
       spillFs = config.getString(ExecConstants.HASHJOIN_SPILL_FILESYSTEM);
       dirList = config.getStringList(ExecConstants.HASHJOIN_SPILL_DIRS);
+    } else if (popConfig instanceof NestedLoopJoinPOP) {
+      operName = "NestedLoopJoin";
+      spillFs = config.getString(ExecConstants.NESTEDLOOPJOIN_SPILL_FILESYSTEM);
+      dirList = config.getStringList(ExecConstants.NESTEDLOOPJOIN_SPILL_DIRS);
+    } else if (popConfig instanceof WindowPOP) {
+      operName = "Window";
+      spillFs = config.getString(ExecConstants.WINDOW_SPILL_FILESYSTEM);
+      dirList = config.getStringList(ExecConstants.WINDOW_SPILL_DIRS);
     } else {
         // just use the common ones
         operName = "Unknown";
@@ -477,6 +514,27 @@ public class SpillSet {
         operName, handle.getMajorFragmentId(), popConfig.getOperatorId(), handle.getMinorFragmentId());
   }
 
+  /**
+   * Returns the spill compression codec selected by the session options
+   * for the given operator. Only operators which spill have an option.
+   */
+
+  public static BlockCodec spillCodec(OptionSet options, PhysicalOperator popConfig) {
+    String optionName;
+    if (popConfig instanceof Sort) {
+      optionName = ExecConstants.EXTERNAL_SORT_SPILL_COMPRESSION;
+    } else if (popConfig instanceof HashAggregate) {
+      optionName = ExecConstants.HASHAGG_SPILL_COMPRESSION;
+    } else if (popConfig instanceof HashJoinPOP) {
+      optionName = ExecConstants.HASHJOIN_SPILL_COMPRESSION;
+    } else {
+      return BlockCodec.NONE;
+    }
+    return BlockCodec.fromName(options.getString(optionName));
+  }
+
+  public BlockCodec getCodec() { return codec; }
+
   public String getNextSpillFile() {
     return getNextSpillFile(null);
   }
@@ -512,7 +570,11 @@ public class SpillSet {
   public int getFileCount() { return fileCount; }
 
   public InputStream openForInput(String fileName) throws IOException {
-    return fileManager.openForInput(fileName);
+    InputStream in = fileManager.openForInput(fileName);
+    if (codec == BlockCodec.NONE) {
+      return in;
+    }
+    return new CompressedSpillInputStream(in, codec);
   }
 
   public WritableByteChannel openForOutput(String fileName) throws IOException {
@@ -524,6 +586,7 @@ public class SpillSet {
   }
 
   public long getWriteBytes() { return writeBytes; }
+  public long getCompressedWriteBytes() { return compressedWriteBytes; }
   public long getReadBytes() { return readBytes; }
 
   public void close() {
@@ -539,6 +602,9 @@ public class SpillSet {
   }
 
   public long getPosition(InputStream inputStream) {
+    if (inputStream instanceof CompressedSpillInputStream) {
+      inputStream = ((CompressedSpillInputStream) inputStream).getRawStream();
+    }
     return fileManager.getReadBytes(inputStream);
   }
 
@@ -554,12 +620,31 @@ public class SpillSet {
     writeBytes += writeLength;
   }
 
+  public void tallyCompressedWriteBytes(long writeLength) {
+    compressedWriteBytes += writeLength;
+  }
+
+  /**
+   * Creates a writer for a spill file. When a codec is set, the data is
+   * compressed in blocks; the writer then counts the uncompressed bytes
+   * while the compressed size is tallied when the file is closed.
+   */
+
   public VectorSerializer.Writer writer(String fileName) throws IOException {
-    return VectorSerializer.writer(openForOutput(fileName));
+    WritableByteChannel channel = openForOutput(fileName);
+    if (codec != BlockCodec.NONE) {
+      channel = Channels.newChannel(new CompressedSpillOutputStream(
+          Channels.newOutputStream(channel), codec, COMPRESSION_BLOCK_SIZE,
+          this::tallyCompressedWriteBytes));
+    }
+    return VectorSerializer.writer(channel);
   }
 
   public void close(VectorSerializer.Writer writer) throws IOException {
     tallyWriteBytes(writer.getBytesWritten());
+    if (codec == BlockCodec.NONE) {
+      tallyCompressedWriteBytes(writer.getBytesWritten());
+    }
     writer.close();
   }
 }
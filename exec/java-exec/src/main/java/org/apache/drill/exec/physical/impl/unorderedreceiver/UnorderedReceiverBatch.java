@@ -72,7 +72,8 @@ public class UnorderedReceiverBatch implements CloseableRecordBatch {
 
   public enum Metric implements MetricDef {
     BYTES_RECEIVED,
-    NUM_SENDERS;
+    NUM_SENDERS,
+    WIRE_BYTES_RECEIVED;
 
     @Override
     public int metricId() {
@@ -204,6 +205,7 @@ public class UnorderedReceiverBatch implements CloseableRecordBatch {
       RecordBatchDef rbd = batch.getHeader().getDef();
       boolean schemaChanged = batchLoader.load(rbd, batch.getBody());
       stats.addLongStat(Metric.BYTES_RECEIVED, batch.getByteCount());
+      stats.addLongStat(Metric.WIRE_BYTES_RECEIVED, batch.getWireByteCount());
 
       batch.release();
       if (schemaChanged) {
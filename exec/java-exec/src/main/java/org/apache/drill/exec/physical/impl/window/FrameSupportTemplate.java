@@ -52,6 +52,7 @@ public abstract class FrameSupportTemplate implements WindowFramer {
   private WindowDataBatch current;
 
   private int frameLastRow;
+  private WindowDataBatch frameLastBatch; // batch holding frameLastRow
 
   // true when at least one window function needs to process all batches of a partition before passing any batch downstream
   private boolean requireFullPartition;
@@ -222,10 +223,14 @@ public abstract class FrameSupportTemplate implements WindowFramer {
       // check first container from start row, and subsequent containers from first row
       for (; row < recordCount; row++, length++) {
         if (!isSamePartition(start, current, row, batch)) {
+          batch.release();
           break outer;
         }
       }
 
+      // free the batch again if it was read back from a spill file
+      batch.release();
+
       if (!requireFullPartition) {
         // we are only interested in the first batch's records
         break;
@@ -257,11 +262,12 @@ public abstract class FrameSupportTemplate implements WindowFramer {
     logger.trace("aggregating rows starting from {}", start);
 
     final boolean unboundedFollowing = popConfig.getEnd().isUnbounded();
-    VectorAccessible last = current;
+    WindowDataBatch last = current;
     long length = 0;
 
     // a single frame can include rows from multiple batches
     // start processing first batch and, if necessary, move to next batches
+    outer:
     for (WindowDataBatch batch : batches) {
       try {
         setupEvaluatePeer(batch, container);
@@ -272,13 +278,16 @@ public abstract class FrameSupportTemplate implements WindowFramer {
 
       // for every remaining row in the partition, count it if it's a peer row
       for (int row = (batch == current) ? start : 0; row < recordCount; row++, length++) {
+        // rows are sorted, so no later batch holds a row of the frame
         if (unboundedFollowing) {
           if (length >= remainingRows) {
-            break;
+            releaseUnlessLast(batch, last);
+            break outer;
           }
         } else {
           if (!isPeer(start, current, row, batch)) {
-            break;
+            releaseUnlessLast(batch, last);
+            break outer;
           }
         }
 
@@ -286,7 +295,14 @@ public abstract class FrameSupportTemplate implements WindowFramer {
         last = batch;
         frameLastRow = row;
       }
+      releaseUnlessLast(batch, last);
+    }
+
+    // the last value of the frame is read from its last batch while the peer rows are written
+    if (frameLastBatch != null) {
+      releaseUnlessLast(frameLastBatch, last);
     }
+    frameLastBatch = last;
 
     try {
       setupReadLastValue(last, container);
@@ -297,6 +313,12 @@ public abstract class FrameSupportTemplate implements WindowFramer {
     return length;
   }
 
+  private static void releaseUnlessLast(WindowDataBatch batch, VectorAccessible last) {
+    if (batch != last) {
+      batch.release();
+    }
+  }
+
   @Override
   public int getOutputCount() {
     return outputCount;
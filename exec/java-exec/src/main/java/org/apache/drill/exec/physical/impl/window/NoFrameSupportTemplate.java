@@ -242,6 +242,7 @@ public abstract class NoFrameSupportTemplate implements WindowFramer {
       for (; row < recordCount; row++, length++) {
         try {
           if (!isSamePartition(start, current, row, batch)) {
+            batch.release();
             break outer;
           }
         } catch (SchemaChangeException e) {
@@ -249,6 +250,9 @@ public abstract class NoFrameSupportTemplate implements WindowFramer {
         }
       }
 
+      // free the batch again if it was read back from a spill file
+      batch.release();
+
       if (!requireFullPartition) {
         // we are only interested in the first batch's records
         break;
@@ -282,15 +286,19 @@ public abstract class NoFrameSupportTemplate implements WindowFramer {
 
     // a single frame can include rows from multiple batches
     // start processing first batch and, if necessary, move to next batches
+    outer:
     for (WindowDataBatch batch : batches) {
       int recordCount = batch.getRecordCount();
 
       // for every remaining row in the partition, count it if it's a peer row
       for (int row = (batch == current) ? start : 0; row < recordCount; row++, length++) {
         if (!isPeer(start, current, row, batch)) {
-          break;
+          // rows are sorted, so no later batch holds a peer row
+          batch.release();
+          break outer;
         }
       }
+      batch.release();
     }
 
     return length;
@@ -18,8 +18,11 @@
 package org.apache.drill.exec.physical.impl.window;
 
 import com.google.common.collect.Lists;
+import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.exec.cache.VectorSerializer;
 import org.apache.drill.exec.ops.OperatorContext;
+import org.apache.drill.exec.physical.impl.spill.SpillSet;
 import org.apache.drill.exec.record.BatchSchema;
 import org.apache.drill.exec.record.TransferPair;
 import org.apache.drill.exec.record.TypedFieldId;
@@ -29,15 +32,33 @@ import org.apache.drill.exec.record.VectorWrapper;
 import org.apache.drill.exec.record.selection.SelectionVector2;
 import org.apache.drill.exec.record.selection.SelectionVector4;
 import org.apache.drill.exec.vector.ValueVector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Iterator;
 import java.util.List;
 
+/**
+ * Batch buffered by the Window operator. The data of the batch can be
+ * spilled to disk, and is then read back whenever it is accessed, for
+ * instance while the framers look for the end of a partition or of a frame,
+ * until {@link #release()} frees it again. The vectors of the batch are kept
+ * as the data goes to disk and back, so the generated code which already
+ * holds them stays valid.
+ */
 public class WindowDataBatch implements VectorAccessible {
+  private static final Logger logger = LoggerFactory.getLogger(WindowDataBatch.class);
 
   private final OperatorContext oContext;
   private final VectorContainer container;
   private final int recordCount;
+  private final long dataSize;
+
+  private SpillSet spillSet;
+  private String spillFile; // set while the data of the batch is held by a spill file
+  private boolean loaded = true; // true when the data is in memory
 
   public WindowDataBatch(final VectorAccessible batch, final OperatorContext oContext) {
     this.oContext = oContext;
@@ -58,6 +79,12 @@ public class WindowDataBatch implements VectorAccessible {
     container.addCollection(vectors);
     container.setRecordCount(recordCount);
     container.buildSchema(batch.getSchema().getSelectionVectorMode());
+
+    long size = 0;
+    for (ValueVector vector : vectors) {
+      size += vector.getAllocatedSize();
+    }
+    dataSize = size;
   }
 
   public OperatorContext getContext() {
@@ -65,9 +92,115 @@ public class WindowDataBatch implements VectorAccessible {
   }
 
   public VectorContainer getContainer() {
+    load();
     return container;
   }
 
+  /**
+   * @return memory used by the data of the batch
+   */
+  public long getDataSize() {
+    return dataSize;
+  }
+
+  /**
+   * @return true if the data of the batch is held by a spill file
+   */
+  public boolean isSpilled() {
+    return spillFile != null;
+  }
+
+  /**
+   * Writes the data of the batch to a spill file and frees its memory.
+   *
+   * @param spillSet spill files of the operator
+   */
+  public void spill(SpillSet spillSet) {
+    if (isSpilled()) {
+      return;
+    }
+    String fileName = spillSet.getNextSpillFile();
+    try {
+      VectorSerializer.Writer writer = spillSet.writer(fileName);
+      try {
+        writer.write(container);
+      } finally {
+        spillSet.close(writer);
+      }
+    } catch (IOException e) {
+      throw UserException.dataWriteError(e)
+          .message("Window operator failed to spill a batch to disk")
+          .addContext("File", fileName)
+          .build(logger);
+    }
+    this.spillSet = spillSet;
+    spillFile = fileName;
+    container.zeroVectors();
+    loaded = false;
+    logger.trace("Spilled {} records to {}", recordCount, fileName);
+  }
+
+  /**
+   * Reads the data of a spilled batch back into its vectors, if it is not in
+   * memory yet.
+   */
+  private void load() {
+    if (loaded) {
+      return;
+    }
+    try (InputStream inputStream = spillSet.openForInput(spillFile)) {
+      VectorContainer spilled = VectorSerializer.reader(oContext.getAllocator(), inputStream).read();
+      spillSet.tallyReadBytes(spillSet.getPosition(inputStream));
+      Iterator<VectorWrapper<?>> wrapperIterator = spilled.iterator();
+      for (VectorWrapper<?> w : container) {
+        TransferPair pair = wrapperIterator.next().getValueVector().makeTransferPair(w.getValueVector());
+        pair.transfer();
+      }
+      container.setRecordCount(recordCount);
+      spilled.zeroVectors();
+    } catch (IOException e) {
+      container.zeroVectors();
+      throw UserException.dataReadError(e)
+          .message("Failure while reading spilled data")
+          .addContext("File", spillFile)
+          .build(logger);
+    }
+    loaded = true;
+  }
+
+  /**
+   * Frees the memory of a spilled batch which was read back. Does nothing
+   * when the batch is not spilled, as its data is then only held in memory.
+   */
+  public void release() {
+    if (isSpilled() && loaded) {
+      container.zeroVectors();
+      loaded = false;
+    }
+  }
+
+  /**
+   * Reads the data of a spilled batch back, and deletes its spill file, so the
+   * batch stays in memory from now on.
+   */
+  public void unspill() {
+    if (!isSpilled()) {
+      return;
+    }
+    load();
+    deleteSpillFile();
+  }
+
+  private void deleteSpillFile() {
+    try {
+      spillSet.delete(spillFile);
+    } catch (IOException e) {
+      // the spill directory is removed when the operator is closed
+      logger.warn("Unable to delete spill file {}", spillFile, e);
+    }
+    spillFile = null;
+  }
+
   @Override
   public int getRecordCount() {
     return recordCount;
@@ -75,6 +208,7 @@ public class WindowDataBatch implements VectorAccessible {
 
   @Override
   public VectorWrapper<?> getValueAccessorById(Class<?> clazz, int... fieldIds) {
+    load();
     return container.getValueAccessorById(clazz, fieldIds);
   }
 
@@ -90,6 +224,7 @@ public class WindowDataBatch implements VectorAccessible {
 
   @Override
   public Iterator<VectorWrapper<?>> iterator() {
+    load();
     return container.iterator();
   }
 
@@ -105,10 +240,15 @@ public class WindowDataBatch implements VectorAccessible {
 
   public void clear() {
     container.clear();
+    loaded = true;
+    if (isSpilled()) {
+      deleteSpillFile();
+    }
   }
 
   @Override
   public String toString() {
-    return "WindowDataBatch[container=" + container + ", recordCount=" + recordCount + "]";
+    return "WindowDataBatch[container=" + container + ", recordCount=" + recordCount
+        + ", spillFile=" + spillFile + ", loaded=" + loaded + "]";
   }
 }
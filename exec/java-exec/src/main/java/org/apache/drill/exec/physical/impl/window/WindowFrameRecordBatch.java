@@ -26,6 +26,7 @@ import org.apache.drill.common.expression.FunctionCall;
 import org.apache.drill.common.expression.LogicalExpression;
 import org.apache.drill.common.logical.data.NamedExpression;
 import org.apache.drill.common.logical.data.Order;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.compile.TemplateClassDefinition;
 import org.apache.drill.exec.compile.sig.GeneratorMapping;
 import org.apache.drill.exec.compile.sig.MappingSet;
@@ -36,7 +37,9 @@ import org.apache.drill.exec.expr.CodeGenerator;
 import org.apache.drill.exec.expr.ExpressionTreeMaterializer;
 import org.apache.drill.exec.expr.fn.FunctionGenerationHelper;
 import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.ops.MetricDef;
 import org.apache.drill.exec.physical.config.WindowPOP;
+import org.apache.drill.exec.physical.impl.spill.SpillSet;
 import org.apache.drill.exec.record.AbstractRecordBatch;
 import org.apache.drill.exec.record.BatchSchema;
 import org.apache.drill.exec.record.RecordBatch;
@@ -52,11 +55,28 @@ import com.sun.codemodel.JExpr;
 
 /**
  * support for OVER(PARTITION BY expression1,expression2,... [ORDER BY expressionA, expressionB,...])
- *
+ * <p>
+ * The incoming batches are buffered until the window functions can process
+ * the first of them, which may take a whole partition. When the buffered
+ * batches exceed the memory limit of the operator, the batches in the middle
+ * of the buffer are spilled to disk, latest first, and read back while the
+ * framers go over them. The first two and the last buffered batches are
+ * compared by every call to the framers, so they stay in memory.
  */
 public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
   static final Logger logger = LoggerFactory.getLogger(WindowFrameRecordBatch.class);
 
+  public enum Metric implements MetricDef {
+    SPILLED_BATCHES, // number of buffered batches written to disk
+    SPILL_MB,        // MB written to the spill files
+    READ_MB;         // MB read back from the spill files, a batch can be read several times
+
+    @Override
+    public int metricId() {
+      return ordinal();
+    }
+  }
+
   private final RecordBatch incoming;
   private List<WindowDataBatch> batches;
 
@@ -66,11 +86,27 @@ public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
   private boolean noMoreBatches; // true when downstream returns NONE
   private BatchSchema schema;
 
+  private final boolean spillEnabled;
+  private final long memoryLimit;
+  private SpillSet spillSet;
+  private long bufferedSize; // memory of the buffered batches held in memory
+  private long maxBatchSize;
+  private int spilledBatches;
+
   public WindowFrameRecordBatch(WindowPOP popConfig, FragmentContext context,
       RecordBatch incoming) throws OutOfMemoryException {
     super(popConfig, context);
     this.incoming = incoming;
     batches = new ArrayList<>();
+
+    spillEnabled = context.getOptions().getOption(ExecConstants.WINDOW_ENABLE_SPILL_VALIDATOR);
+    long limit = oContext.getAllocator().getLimit();
+    // Optional configured memory limit, typically used only for testing.
+    long configLimit = context.getOptions().getOption(ExecConstants.WINDOW_MAX_MEMORY_VALIDATOR);
+    if (configLimit > 0) {
+      limit = Math.min(limit, configLimit);
+    }
+    memoryLimit = limit;
   }
 
   /**
@@ -109,7 +145,7 @@ public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
           }
         case OK:
           if (incoming.getRecordCount() > 0) {
-            batches.add(new WindowDataBatch(incoming, oContext));
+            addBatch(new WindowDataBatch(incoming, oContext));
           }
           break;
         default:
@@ -135,6 +171,9 @@ public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
 
   private void doWork() {
 
+    // the framers read the first two batches without going through the other ones
+    unspill(2);
+
     WindowDataBatch current = batches.get(0);
     int recordCount = current.getRecordCount();
 
@@ -161,8 +200,10 @@ public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
     container.setValueCount(recordCount);
 
     // we can safely free the current batch
+    bufferedSize -= current.getDataSize();
     current.clear();
     batches.remove(0);
+    updateStats();
 
     logger.trace("doWork() END");
   }
@@ -220,10 +261,64 @@ public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
     }
 
     if (incoming.getRecordCount() > 0) {
-      batches.add(new WindowDataBatch(incoming, oContext));
+      addBatch(new WindowDataBatch(incoming, oContext));
     }
   }
 
+  private void addBatch(WindowDataBatch batch) {
+    batches.add(batch);
+    bufferedSize += batch.getDataSize();
+    maxBatchSize = Math.max(maxBatchSize, batch.getDataSize());
+    spillIfNeeded();
+  }
+
+  /**
+   * Spills the buffered batches, starting with the latest, until the ones left
+   * in memory fit in the memory limit of the operator. Room is kept for the
+   * outgoing batch and a batch read back from disk.
+   */
+  private void spillIfNeeded() {
+    if (!spillEnabled) {
+      return;
+    }
+    long reserve = 2 * maxBatchSize;
+    for (int i = batches.size() - 2; i >= 2 && bufferedSize + reserve > memoryLimit; i--) {
+      WindowDataBatch batch = batches.get(i);
+      if (batch.isSpilled()) {
+        continue;
+      }
+      if (spillSet == null) {
+        spillSet = new SpillSet(context, popConfig);
+      }
+      batch.spill(spillSet);
+      bufferedSize -= batch.getDataSize();
+      spilledBatches++;
+    }
+    updateStats();
+  }
+
+  /**
+   * Reads back the batches which the framers use directly, for good.
+   */
+  private void unspill(int count) {
+    for (int i = 0; i < Math.min(count, batches.size()); i++) {
+      WindowDataBatch batch = batches.get(i);
+      if (batch.isSpilled()) {
+        batch.unspill();
+        bufferedSize += batch.getDataSize();
+      }
+    }
+  }
+
+  private void updateStats() {
+    if (spillSet == null) {
+      return;
+    }
+    stats.setLongStat(Metric.SPILLED_BATCHES, spilledBatches);
+    stats.setLongStat(Metric.SPILL_MB, spillSet.getWriteBytes() / 1024 / 1024);
+    stats.setLongStat(Metric.READ_MB, spillSet.getReadBytes() / 1024 / 1024);
+  }
+
   private void createFramers(VectorAccessible batch) throws SchemaChangeException {
     assert framers == null : "createFramer should only be called once";
 
@@ -374,6 +469,12 @@ public class WindowFrameRecordBatch extends AbstractRecordBatch<WindowPOP> {
       }
       batches = null;
     }
+
+    if (spillSet != null) {
+      updateStats();
+      spillSet.close();
+      spillSet = null;
+    }
   }
 
   @Override
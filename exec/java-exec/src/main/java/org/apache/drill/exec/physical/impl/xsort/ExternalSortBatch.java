@@ -210,7 +210,14 @@ public class ExternalSortBatch extends AbstractRecordBatch<ExternalSort> {
      * amount is first written, then later re-read.
      * So, disk I/O is twice this amount.
      */
-    SPILL_MB;
+    SPILL_MB,
+
+    /**
+     * The number of MB actually written to spill files, after
+     * compression. Same as {@link #SPILL_MB} if spill files
+     * are not compressed.
+     */
+    SPILL_COMPRESSED_MB;
 
     @Override
     public int metricId() {
@@ -687,7 +694,7 @@ public class ExternalSortBatch extends AbstractRecordBatch<ExternalSort> {
    * @return SortImpl
    */
   private SortImpl createNewSortImpl() {
-    SpillSet spillSet = new SpillSet(context.getConfig(), context.getHandle(), popConfig);
+    SpillSet spillSet = new SpillSet(context, popConfig);
     PriorityQueueCopierWrapper copierHolder = new PriorityQueueCopierWrapper(oContext);
     SpilledRuns spilledRuns = new SpilledRuns(oContext, spillSet, copierHolder);
     return new SortImpl(oContext, sortConfig, spilledRuns, outputWrapperContainer);
@@ -22,6 +22,7 @@ import java.util.List;
 
 import org.apache.drill.exec.expr.TypeHelper;
 import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.MemoryArbiter;
 import org.apache.drill.exec.ops.OperatorContext;
 import org.apache.drill.exec.physical.impl.xsort.SortMemoryManager.MergeTask;
 import org.apache.drill.exec.record.MaterializedField;
@@ -228,20 +229,37 @@ public class SortImpl {
 
   private final BufferedBatches bufferedBatches;
 
+  private final MemoryArbiter.Consumer memoryConsumer;
+
   private RecordBatchSizer sizer;
 
   private VectorInitializer allocHelper;
 
+  /**
+   * Creates a sort which keeps its memory under the limit of the operator's
+   * allocator.
+   */
   public SortImpl(OperatorContext opContext, SortConfig sortConfig,
                   SpilledRuns spilledRuns, VectorContainer batch) {
+    this(opContext, sortConfig, spilledRuns, batch, opContext.getAllocator().getLimit());
+  }
+
+  /**
+   * Creates a sort which keeps its memory under the given limit, rather than
+   * the limit of the operator's allocator. Used by operators which sort as
+   * a fallback, and have memory of their own to account for.
+   */
+  public SortImpl(OperatorContext opContext, SortConfig sortConfig,
+                  SpilledRuns spilledRuns, VectorContainer batch, long memoryLimit) {
     this.context = opContext;
     outputBatch = batch;
     this.spilledRuns = spilledRuns;
     allocator = opContext.getAllocator();
     config = sortConfig;
-    memManager = new SortMemoryManager(config, allocator.getLimit());
+    memManager = new SortMemoryManager(config, memoryLimit);
     metrics = new SortMetrics(opContext.getStats());
     bufferedBatches = new BufferedBatches(opContext);
+    memoryConsumer = opContext.getFragmentContext().getMemoryArbiter().register(allocator.getName(), allocator);
 
     // Request leniency from the allocator. Leniency
     // will reduce the probability that random chance causes the allocator
@@ -299,7 +317,7 @@ public class SortImpl {
     // during the transfer, we immediately follow the transfer with an SV2
     // allocation that will fail if we are over the allocation limit.
 
-    if (isSpillNeeded(sizer.getActualSize())) {
+    if (isSpillNeeded(sizer.getActualSize()) || isSpillRequested()) {
       spillFromMemory();
     }
 
@@ -376,9 +394,42 @@ public class SortImpl {
       return false;
     }
 
+    if (spillNeeded && growMemory(incomingSize)) {
+      return memManager.isSpillNeeded(allocator.getAllocatedMemory(), incomingSize);
+    }
     return spillNeeded;
   }
 
+  /**
+   * Asks the memory arbiter for memory beyond the budget of the operator,
+   * instead of spilling, unless the memory limit is configured for testing.
+   * Memory is asked for in chunks of a quarter of the current limit, or
+   * more for large batches.
+   *
+   * @return true if memory was granted
+   */
+
+  private boolean growMemory(long incomingSize) {
+    if (memManager.hasConfiguredLimit()) {
+      return false;
+    }
+    long granted = memoryConsumer.requestMemory(Math.max(incomingSize, memManager.getMemoryLimit() / 4));
+    if (granted == 0) {
+      return false;
+    }
+    memManager.adjustMemoryLimit(granted);
+    return true;
+  }
+
+  /**
+   * Determine if the memory arbiter asked the operator to spill, to relieve
+   * memory pressure on the Drillbit.
+   */
+
+  private boolean isSpillRequested() {
+    return bufferedBatches.size() >= 2 && memoryConsumer.shouldSpill();
+  }
+
   private void validateBatchSize(long actualBatchSize, long memoryDelta) {
     if (actualBatchSize != memoryDelta) {
       logger.debug("Memory delta: {}, actual batch size: {}, Diff: {}",
@@ -409,6 +460,12 @@ public class SortImpl {
     int spillBatchRowCount = memManager.getSpillBatchRowCount();
     spilledRuns.mergeAndSpill(batchesToSpill, spillBatchRowCount, allocHelper());
     metrics.incrSpillCount();
+
+    // Give back the memory granted beyond the budget, now unused
+    long revoked = memoryConsumer.spilled();
+    if (revoked > 0) {
+      memManager.adjustMemoryLimit(-revoked);
+    }
   }
 
   private VectorInitializer allocHelper() {
@@ -573,6 +630,7 @@ public class SortImpl {
 
   public void close() {
     metrics.updateWriteBytes(spilledRuns.getWriteBytes());
+    metrics.updateCompressedWriteBytes(spilledRuns.getCompressedWriteBytes());
     RuntimeException ex = null;
     try {
       spilledRuns.close();
@@ -584,6 +642,7 @@ public class SortImpl {
     } catch (RuntimeException e) {
       ex = ex == null ? e : ex;
     }
+    memoryConsumer.close();
 
     // Note: don't close the operator context here. It must
     // remain open until all containers are cleared, which
@@ -180,10 +180,11 @@ public class SortMemoryManager {
   /**
    * Maximum memory this operator may use. Usually comes from the
    * operator definition, but may be overridden by a configuration
-   * parameter for unit testing.
+   * parameter for unit testing. Changes when the memory arbiter grants
+   * memory beyond the budget of the operator, or takes it back.
    */
 
-  private final long memoryLimit;
+  private long memoryLimit;
 
   /**
    * Estimated size of the records for this query, updated on each
@@ -753,6 +754,38 @@ public class SortMemoryManager {
     return (int) Math.floor(byteSize * multiplier);
   }
 
+  /**
+   * Adjusts the memory limit, and the memory set aside for buffering and
+   * merging batches, to memory granted to or taken back from the operator.
+   *
+   * @param delta memory added to the limit, negative if memory is taken back
+   */
+
+  public void adjustMemoryLimit(long delta) {
+    memoryLimit += delta;
+    if (estimatedRowWidth == 0) {
+      // No batch received yet, as in the constructor
+      bufferMemoryLimit = (memoryLimit - config.spillBatchSize()) / 2;
+      if (bufferMemoryLimit < 0) {
+        bufferMemoryLimit = memoryLimit / 2;
+      }
+      return;
+    }
+    updateSpillSettings();
+    updateMergeSettings();
+    adjustForLowMemory();
+    logger.debug("Memory limit adjusted by {} to {}", delta, memoryLimit);
+  }
+
+  /**
+   * @return true if the memory limit is configured, typically for testing,
+   * rather than given by the operator's allocator
+   */
+
+  public boolean hasConfiguredLimit() {
+    return config.maxMemory() != 0;
+  }
+
   // Must spill if we are below the spill point (the amount of memory
   // needed to do the minimal spill.)
 
@@ -771,11 +804,10 @@ public class SortMemoryManager {
   public long getMergeMemoryLimit() { return mergeMemoryLimit; }
   public int getSpillBatchRowCount() { return spillBatchRowCount; }
   public int getMergeBatchRowCount() { return mergeBatchRowCount; }
+  public long getMemoryLimit() { return memoryLimit; }
 
   // Primarily for testing
 
-  @VisibleForTesting
-  public long getMemoryLimit() { return memoryLimit; }
   @VisibleForTesting
   public int getRowWidth() { return estimatedRowWidth; }
   @VisibleForTesting
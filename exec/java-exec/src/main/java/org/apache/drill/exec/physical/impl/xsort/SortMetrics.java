@@ -91,6 +91,11 @@ public class SortMetrics {
     this.writeBytes = writeBytes;
   }
 
+  public void updateCompressedWriteBytes(long compressedWriteBytes) {
+    stats.setDoubleStat(ExternalSortBatch.Metric.SPILL_COMPRESSED_MB,
+        compressedWriteBytes / 1024.0D / 1024.0);
+  }
+
   public int getSpillCount() { return spillCount; }
   public int getMergeCount() { return mergeCount; }
   public long getWriteBytes() { return writeBytes; }
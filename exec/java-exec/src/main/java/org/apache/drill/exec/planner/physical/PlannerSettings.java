@@ -241,6 +241,12 @@ public class PlannerSettings implements Context{
 
   public static final RangeDoubleValidator STATISTICS_MULTICOL_NDV_ADJUST_FACTOR = new RangeDoubleValidator("planner.statistics.multicol_ndv_adjustment_factor", 0.0, 1.0, null);
 
+  public static final String PLAN_CACHE_ENABLED_KEY = "planner.plan_cache.enabled";
+  public static final BooleanValidator PLAN_CACHE_ENABLED = new BooleanValidator(PLAN_CACHE_ENABLED_KEY,
+      new OptionDescription("Reuses the physical plans of SELECT queries which were planned before with the same text, " +
+          "user, default schema and options, for up to drill.exec.plan_cache.ttl seconds. " +
+          "Plans may then miss files added to a table since they were cached."));
+
   public OptionManager options = null;
   public FunctionImplementationRegistry functionImplementationRegistry = null;
   private final String queryUser;
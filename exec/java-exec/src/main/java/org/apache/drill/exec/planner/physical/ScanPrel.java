@@ -42,7 +42,7 @@ import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class ScanPrel extends DrillScanRelBase implements LeafPrel, HasDistributionAffinity {
+public class ScanPrel extends DrillScanRelBase implements LeafPrel, DrillScanPrel {
   private static final Logger logger = LoggerFactory.getLogger(ScanPrel.class);
 
   private final RelDataType rowType;
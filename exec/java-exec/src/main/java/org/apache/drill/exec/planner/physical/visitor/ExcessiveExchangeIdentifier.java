@@ -20,6 +20,7 @@ package org.apache.drill.exec.planner.physical.visitor;
 import java.util.Collections;
 import java.util.List;
 import org.apache.drill.exec.planner.fragment.DistributionAffinity;
+import org.apache.drill.exec.planner.physical.DrillScanPrel;
 import org.apache.drill.exec.planner.physical.LateralJoinPrel;
 import org.apache.drill.exec.planner.physical.ExchangePrel;
 import org.apache.drill.exec.planner.physical.Prel;
@@ -139,6 +140,10 @@ public class ExcessiveExchangeIdentifier extends BasePrelVisitor<Prel, Excessive
   @Override
   public Prel visitPrel(Prel prel, MajorFragmentStat s) throws RuntimeException {
     List<RelNode> children = Lists.newArrayList();
+    if (prel instanceof DrillScanPrel) {
+      // Scans of storage plugins with Prels of their own
+      s.addScan((DrillScanPrel) prel);
+    }
     s.add(prel);
 
     // Add all children to MajorFragmentStat, before we visit each child.
@@ -183,7 +188,7 @@ public class ExcessiveExchangeIdentifier extends BasePrelVisitor<Prel, Excessive
       distributionAffinity = screenPrel.getDistributionAffinity();
     }
 
-    public void addScan(ScanPrel prel) {
+    public void addScan(DrillScanPrel prel) {
       maxWidth = Math.min(maxWidth, prel.getGroupScan().getMaxParallelizationWidth());
       isMultiSubScan = prel.getGroupScan().getMinParallelizationWidth() > 1;
       distributionAffinity = prel.getDistributionAffinity();
@@ -27,6 +27,7 @@ import org.apache.drill.exec.physical.config.Screen;
 import org.apache.drill.exec.planner.sql.handlers.DefaultSqlHandler;
 import org.apache.drill.exec.planner.sql.handlers.SimpleCommandResult;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
+import org.apache.drill.exec.store.RecordReader;
 import org.apache.drill.exec.store.direct.DirectGroupScan;
 import org.apache.drill.exec.store.pojo.PojoRecordReader;
 
@@ -48,7 +49,10 @@ public class DirectPlan {
   }
 
   public static <T> PhysicalPlan createDirectPlan(DrillbitEndpoint endpoint, List<T> records, Class<T> clazz){
-    PojoRecordReader<T> reader = new PojoRecordReader<>(clazz, records);
+    return createDirectPlan(endpoint, new PojoRecordReader<>(clazz, records));
+  }
+
+  public static PhysicalPlan createDirectPlan(DrillbitEndpoint endpoint, RecordReader reader){
     DirectGroupScan scan = new DirectGroupScan(reader);
     Screen screen = new Screen(scan, endpoint);
 
@@ -287,6 +287,8 @@ public class DrillSqlWorker {
         context.setSQLStatementType(SqlStatementType.OTHER);
     }
 
+    context.setPlanCacheUsage(PlanCache.usageOf(sqlNode, handler, context.getDrillOperatorTable()));
+
     // Determines whether result set should be returned for the query based on return result set option and sql node kind.
     // Overrides the option on a query level if it differs from the current value.
     boolean currentReturnResultValue = context.getOptions().getBoolean(ExecConstants.RETURN_RESULT_SET_FOR_DDL);
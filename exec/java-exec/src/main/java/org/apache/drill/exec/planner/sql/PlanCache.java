@@ -0,0 +1,481 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.sql;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.calcite.sql.SqlCall;
+import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlOperator;
+import org.apache.calcite.sql.util.SqlBasicVisitor;
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.metrics.DrillMetrics;
+import org.apache.drill.exec.ops.QueryContext;
+import org.apache.drill.exec.ops.QueryContext.SqlStatementType;
+import org.apache.drill.exec.physical.PhysicalPlan;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.exec.planner.sql.handlers.AbstractSqlHandler;
+import org.apache.drill.exec.planner.sql.handlers.DefaultSqlHandler;
+import org.apache.drill.exec.planner.sql.handlers.DescribeSchemaHandler;
+import org.apache.drill.exec.planner.sql.handlers.DescribeTableHandler;
+import org.apache.drill.exec.planner.sql.handlers.ExplainHandler;
+import org.apache.drill.exec.planner.sql.handlers.ResetOptionHandler;
+import org.apache.drill.exec.planner.sql.handlers.SchemaHandler;
+import org.apache.drill.exec.planner.sql.handlers.SetOptionHandler;
+import org.apache.drill.exec.planner.sql.handlers.ShowFilesHandler;
+import org.apache.drill.exec.planner.sql.handlers.ShowSchemasHandler;
+import org.apache.drill.exec.planner.sql.handlers.ShowTablesHandler;
+import org.apache.drill.exec.planner.sql.handlers.UseSchemaHandler;
+import org.apache.drill.exec.server.options.OptionList;
+import org.apache.drill.exec.server.options.OptionValue;
+import org.apache.drill.exec.server.options.OptionValue.OptionScope;
+import org.apache.drill.exec.util.Pointer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Per-Drillbit cache of the physical plans of SQL queries, consulted by the
+ * Foreman before planning a query. It spares the parse, validate and optimize
+ * steps for the statements that clients such as BI tools send over and over.
+ * <p>
+ * Only queries (SELECT, UNION, VALUES...) are cached. A plan is reused for
+ * the same statement (compared after collapsing white space outside of
+ * literals and comments) issued by the same user, with the same default
+ * schema, the same options set at system, session or query level, the same
+ * function registry and the same number of Drillbits. Statements calling
+ * non-deterministic or context dependent functions such as {@code NOW()} are
+ * not cached, since their values are folded into the plan. Neither are the
+ * statements of sessions which have temporary tables.
+ * <p>
+ * Plans are kept in their JSON form and read back on each hit, as the
+ * operators of a plan are modified while the plan is parallelized.
+ * <p>
+ * A plan captures the file lists and metadata of its tables, so the whole
+ * cache is invalidated when the local Drillbit changes a storage plugin or
+ * runs a statement which may change tables, views or metadata (CTAS, views,
+ * ANALYZE, REFRESH METADATA...). Changes made through other Drillbits or
+ * outside of Drill are only picked up once a plan expires, after
+ * {@code drill.exec.plan_cache.ttl} seconds.
+ */
+public class PlanCache {
+  private static final Logger logger = LoggerFactory.getLogger(PlanCache.class);
+
+  private static final String METRICS_PREFIX = "drill.planner.plan_cache.";
+
+  /**
+   * How the plan of a statement relates to the cache.
+   */
+  public enum Usage {
+    /** The plan may be cached and reused. */
+    REUSABLE,
+    /** The plan must not be cached, the statement does not change anything cached plans depend on. */
+    NOT_REUSABLE,
+    /** The statement may change tables, views or metadata, cached plans must be discarded. */
+    INVALIDATES
+  }
+
+  // Handlers of the statements which do not change tables, views or metadata
+  private static final Set<Class<? extends AbstractSqlHandler>> READ_ONLY_HANDLERS = ImmutableSet.of(
+      DefaultSqlHandler.class,
+      ExplainHandler.class,
+      DescribeTableHandler.class,
+      DescribeSchemaHandler.class,
+      SchemaHandler.Describe.class,
+      SetOptionHandler.class,
+      ResetOptionHandler.class,
+      UseSchemaHandler.class,
+      ShowFilesHandler.class,
+      ShowSchemasHandler.class,
+      ShowTablesHandler.class);
+
+  private final Cache<Key, CachedPlan> cache;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong invalidations = new AtomicLong();
+  private final List<Runnable> invalidationListeners = new CopyOnWriteArrayList<>();
+
+  public PlanCache(DrillConfig config) {
+    cache = CacheBuilder.newBuilder()
+        .maximumSize(config.getLong(ExecConstants.PLAN_CACHE_MAX_ENTRIES))
+        .expireAfterWrite(config.getLong(ExecConstants.PLAN_CACHE_TTL), TimeUnit.SECONDS)
+        .removalListener((RemovalListener<Key, CachedPlan>) notification -> {
+          if (notification.wasEvicted()) {
+            evictions.incrementAndGet();
+          }
+        })
+        .build();
+    DrillMetrics.register(METRICS_PREFIX + "entries", (Gauge<Long>) this::getEntryCount);
+    DrillMetrics.register(METRICS_PREFIX + "hits", (Gauge<Long>) hits::get);
+    DrillMetrics.register(METRICS_PREFIX + "misses", (Gauge<Long>) misses::get);
+    DrillMetrics.register(METRICS_PREFIX + "evictions", (Gauge<Long>) evictions::get);
+    DrillMetrics.register(METRICS_PREFIX + "invalidations", (Gauge<Long>) invalidations::get);
+  }
+
+  /**
+   * Builds the cache key of a SQL statement.
+   *
+   * @param context query context
+   * @param sql SQL statement
+   * @return cache key, or null if the plan of the statement must not be looked
+   * up nor cached
+   */
+  public Key newKey(QueryContext context, String sql) {
+    if (!context.getOptions().getOption(PlannerSettings.PLAN_CACHE_ENABLED) ||
+        context.getSession().hasTemporaryTables()) {
+      return null;
+    }
+    return keyOf(context, sql);
+  }
+
+  /**
+   * Builds the key identifying a SQL statement and the context it is planned
+   * in, whether the plan cache is enabled or not.
+   *
+   * @param context query context
+   * @param sql SQL statement
+   * @return key of the statement
+   */
+  public static Key keyOf(QueryContext context, String sql) {
+    // Options set at lower levels come first, and are replaced by those set at higher levels
+    Map<String, Object> options = new TreeMap<>();
+    for (OptionValue option : context.getOptions()) {
+      if (option.scope != OptionScope.BOOT) {
+        options.put(option.name, option.getValue());
+      }
+    }
+    return new Key(normalize(sql), context.getQueryUserName(), context.getSession().getDefaultSchemaPath(),
+        context.getDrillOperatorTable().getFunctionRegistryVersion(),
+        context.getPlannerSettings().numEndPoints(), options);
+  }
+
+  /**
+   * Looks up the plan of a statement. On a hit, the query options set while the
+   * plan was created are set again in the query context.
+   *
+   * @param key cache key of the statement
+   * @param context query context
+   * @param textPlan receives the text plan of the cached plan
+   * @return the plan, or null if the plan is not cached
+   */
+  public PhysicalPlan get(Key key, QueryContext context, Pointer<String> textPlan) {
+    CachedPlan cached = cache.getIfPresent(key);
+    if (cached == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+    PhysicalPlan plan;
+    try {
+      plan = context.getDrillbitContext().getPlanReader().readPhysicalPlan(cached.json);
+    } catch (Exception e) {
+      logger.warn("Failed to read cached plan, the query will be planned again.", e);
+      cache.invalidate(key);
+      misses.incrementAndGet();
+      return null;
+    }
+    for (OptionValue option : cached.queryOptions) {
+      if (!option.equals(context.getOptions().getOption(option.name))) {
+        context.getOptions().setLocalOption(option.name, option.getValue());
+      }
+    }
+    context.setSQLStatementType(cached.statementType);
+    context.setPlanCacheUsage(Usage.REUSABLE);
+    textPlan.value = cached.textPlan;
+    hits.incrementAndGet();
+    return plan;
+  }
+
+  /**
+   * Called once a statement was planned: caches its plan if it may be reused,
+   * or invalidates the cache if the statement may change tables or metadata.
+   *
+   * @param key cache key of the statement, may be null
+   * @param context query context
+   * @param plan physical plan of the statement
+   * @param textPlan text plan of the statement
+   */
+  public void planned(Key key, QueryContext context, PhysicalPlan plan, String textPlan) {
+    Usage usage = context.getPlanCacheUsage();
+    if (usage == Usage.INVALIDATES) {
+      invalidateAll();
+      return;
+    }
+    if (key == null || usage != Usage.REUSABLE) {
+      return;
+    }
+    String json;
+    try {
+      json = plan.unparse(context.getLpPersistence().getMapper().writer());
+    } catch (Exception e) {
+      logger.debug("Plan can not be serialized, it will not be cached.", e);
+      return;
+    }
+    OptionList queryOptions = new OptionList();
+    for (OptionValue option : context.getOptions().getOptionList()) {
+      if (option.scope == OptionScope.QUERY) {
+        queryOptions.add(option);
+      }
+    }
+    cache.put(key, new CachedPlan(json, textPlan, context.getSQLStatementType(), queryOptions));
+  }
+
+  /**
+   * Discards all the cached plans.
+   */
+  public void invalidateAll() {
+    invalidations.incrementAndGet();
+    cache.invalidateAll();
+    invalidationListeners.forEach(Runnable::run);
+  }
+
+  /**
+   * Registers a listener called whenever the cached plans are discarded, for
+   * the caches depending on the same tables, views and metadata.
+   *
+   * @param listener listener to call
+   */
+  public void addInvalidationListener(Runnable listener) {
+    invalidationListeners.add(listener);
+  }
+
+  public long getEntryCount() {
+    return cache.size();
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  public long getInvalidationCount() {
+    return invalidations.get();
+  }
+
+  /**
+   * Tells whether a statement of the given type writes to tables while it
+   * runs, so that the plans cached meanwhile may be stale once it is done.
+   *
+   * @param statementType statement type, null for queries which are not SQL
+   * @return true if cached plans must be invalidated
+   */
+  public static boolean writesTables(SqlStatementType statementType) {
+    return statementType == SqlStatementType.CTAS ||
+        statementType == SqlStatementType.INSERT ||
+        statementType == SqlStatementType.ANALYZE;
+  }
+
+  /**
+   * Tells how the plan of a parsed statement relates to the cache. The plans
+   * of queries may be reused unless they call functions whose value is
+   * computed while planning but may differ from one query to the next, such
+   * as {@code NOW()} or {@code RANDOM()}. Statements handled by other handlers
+   * than the read-only ones may change tables, views or metadata.
+   *
+   * @param sqlNode parsed statement
+   * @param handler handler of the statement
+   * @param operatorTable operator table of the query
+   * @return usage of the plan cache for the statement
+   */
+  public static Usage usageOf(SqlNode sqlNode, AbstractSqlHandler handler, DrillOperatorTable operatorTable) {
+    if (!READ_ONLY_HANDLERS.contains(handler.getClass())) {
+      return Usage.INVALIDATES;
+    }
+    if (handler.getClass() != DefaultSqlHandler.class || !sqlNode.getKind().belongsTo(SqlKind.QUERY)) {
+      return Usage.NOT_REUSABLE;
+    }
+    CacheabilityChecker checker = new CacheabilityChecker(operatorTable);
+    sqlNode.accept(checker);
+    return checker.cacheable ? Usage.REUSABLE : Usage.NOT_REUSABLE;
+  }
+
+  /**
+   * Collapses runs of white space outside of quoted literals, identifiers and
+   * comments into single spaces, and trims the statement.
+   */
+  static String normalize(String sql) {
+    int length = sql.length();
+    StringBuilder builder = new StringBuilder(length);
+    boolean pendingSpace = false;
+    int i = 0;
+    while (i < length) {
+      char c = sql.charAt(i);
+      if (Character.isWhitespace(c)) {
+        pendingSpace = true;
+        i++;
+        continue;
+      }
+      if (pendingSpace && builder.length() > 0) {
+        builder.append(' ');
+      }
+      pendingSpace = false;
+      int end;
+      if (c == '\'' || c == '"' || c == '`') {
+        end = endOf(sql, i + 1, String.valueOf(c));
+      } else if (c == '[') {
+        end = endOf(sql, i + 1, "]");
+      } else if (sql.startsWith("--", i)) {
+        end = endOf(sql, i + 2, "\n");
+      } else if (sql.startsWith("/*", i)) {
+        end = endOf(sql, i + 2, "*/");
+      } else {
+        end = i + 1;
+      }
+      builder.append(sql, i, end);
+      i = end;
+    }
+    return builder.toString();
+  }
+
+  private static int endOf(String sql, int from, String terminator) {
+    int index = sql.indexOf(terminator, from);
+    return index < 0 ? sql.length() : index + terminator.length();
+  }
+
+  /**
+   * Looks for calls to non-deterministic, dynamic or niladic functions. Drill
+   * niladic functions may be called without parenthesis, so simple identifiers
+   * are checked as well, which may reject a few statements needlessly.
+   */
+  private static class CacheabilityChecker extends SqlBasicVisitor<Void> {
+    private final DrillOperatorTable operatorTable;
+    private boolean cacheable = true;
+
+    CacheabilityChecker(DrillOperatorTable operatorTable) {
+      this.operatorTable = operatorTable;
+    }
+
+    @Override
+    public Void visit(SqlCall call) {
+      SqlOperator operator = call.getOperator();
+      if (!isReusable(operator) || (operator.getName() != null && !isReusable(operator.getName()))) {
+        cacheable = false;
+        return null;
+      }
+      return super.visit(call);
+    }
+
+    @Override
+    public Void visit(SqlIdentifier id) {
+      if (id.isSimple() && !isReusable(id.getSimple())) {
+        cacheable = false;
+      }
+      return null;
+    }
+
+    private boolean isReusable(String name) {
+      List<SqlOperator> operators = operatorTable.getSqlOperator(name);
+      if (operators == null) {
+        return true;
+      }
+      for (SqlOperator operator : operators) {
+        if (!isReusable(operator)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean isReusable(SqlOperator operator) {
+      return operator.isDeterministic() && !operator.isDynamicFunction() &&
+          !(operator instanceof DrillSqlOperator && ((DrillSqlOperator) operator).isNiladic());
+    }
+  }
+
+  /**
+   * Cache key: the normalized statement, and everything else which the plan of
+   * a statement depends on.
+   */
+  public static class Key {
+    private final String sql;
+    private final String userName;
+    private final String defaultSchema;
+    private final int functionRegistryVersion;
+    private final int endpointCount;
+    private final Map<String, Object> options;
+
+    Key(String sql, String userName, String defaultSchema, int functionRegistryVersion,
+        int endpointCount, Map<String, Object> options) {
+      this.sql = sql;
+      this.userName = userName;
+      this.defaultSchema = defaultSchema;
+      this.functionRegistryVersion = functionRegistryVersion;
+      this.endpointCount = endpointCount;
+      this.options = options;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key other = (Key) o;
+      return functionRegistryVersion == other.functionRegistryVersion &&
+          endpointCount == other.endpointCount &&
+          sql.equals(other.sql) &&
+          Objects.equals(userName, other.userName) &&
+          Objects.equals(defaultSchema, other.defaultSchema) &&
+          options.equals(other.options);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sql, userName, defaultSchema, functionRegistryVersion, endpointCount, options);
+    }
+  }
+
+  private static class CachedPlan {
+    private final String json;
+    private final String textPlan;
+    private final SqlStatementType statementType;
+    // Query level options, some of which are set while planning
+    private final OptionList queryOptions;
+
+    CachedPlan(String json, String textPlan, SqlStatementType statementType, OptionList queryOptions) {
+      this.json = json;
+      this.textPlan = textPlan;
+      this.statementType = statementType;
+      this.queryOptions = queryOptions;
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.sql.handlers;
+
+import static org.apache.drill.exec.planner.sql.SchemaUtilities.findSchema;
+
+import org.apache.calcite.schema.SchemaPlus;
+import org.apache.calcite.schema.Table;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.drill.common.logical.FormatPluginConfig;
+import org.apache.drill.exec.cache.TableCache;
+import org.apache.drill.exec.physical.PhysicalPlan;
+import org.apache.drill.exec.planner.logical.DrillTable;
+import org.apache.drill.exec.planner.sql.DirectPlan;
+import org.apache.drill.exec.planner.sql.SchemaUtilities;
+import org.apache.drill.exec.planner.sql.parser.SqlCacheTable;
+import org.apache.drill.exec.store.dfs.FormatSelection;
+import org.apache.drill.exec.store.dfs.NamedFormatPluginConfig;
+import org.apache.drill.exec.store.parquet.ParquetFormatConfig;
+import org.apache.drill.exec.work.foreman.ForemanSetupException;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handles {@code CACHE TABLE} and {@code UNCACHE TABLE}, which mark a Parquet
+ * table to be kept, or not, in the {@link TableCache} of the Drillbits which
+ * scan it.
+ */
+public class CacheTableHandler extends DefaultSqlHandler {
+  private static final Logger logger = LoggerFactory.getLogger(CacheTableHandler.class);
+
+  public CacheTableHandler(SqlHandlerConfig config) {
+    super(config);
+  }
+
+  private PhysicalPlan direct(boolean outcome, String message, Object... values) {
+    return DirectPlan.createDirectPlan(context, outcome, String.format(message, values));
+  }
+
+  private PhysicalPlan notSupported(String tbl) {
+    return direct(false, "Table %s does not support caching. Support is currently limited to Parquet tables.", tbl);
+  }
+
+  @Override
+  public PhysicalPlan getPlan(SqlNode sqlNode) throws ForemanSetupException {
+    SqlCacheTable cacheTable = unwrap(sqlNode, SqlCacheTable.class);
+    TableCache tableCache = context.getDrillbitContext().getTableCache();
+
+    try {
+      if (cacheTable.isCache() && !tableCache.isEnabled()) {
+        return direct(false, "The table cache is disabled. Set drill.exec.table_cache.max_size to enable it.");
+      }
+
+      SchemaPlus schema = findSchema(config.getConverter().getDefaultSchema(),
+          cacheTable.getSchemaPath());
+
+      if (schema == null) {
+        return direct(false, "Storage plugin or workspace does not exist [%s]",
+            SchemaUtilities.SCHEMA_PATH_JOINER.join(cacheTable.getSchemaPath()));
+      }
+
+      String tableName = cacheTable.getName();
+      Table table = schema.getTable(tableName);
+
+      if (table == null) {
+        return direct(false, "Table %s does not exist.", tableName);
+      }
+
+      if (!(table instanceof DrillTable) || !(((DrillTable) table).getSelection() instanceof FormatSelection)) {
+        return notSupported(tableName);
+      }
+
+      FormatSelection formatSelection = (FormatSelection) ((DrillTable) table).getSelection();
+      FormatPluginConfig formatConfig = formatSelection.getFormat();
+      if (!((formatConfig instanceof ParquetFormatConfig) ||
+          ((formatConfig instanceof NamedFormatPluginConfig) &&
+            ((NamedFormatPluginConfig) formatConfig).getName().equals("parquet")))) {
+        return notSupported(tableName);
+      }
+
+      Path selectionRoot = formatSelection.getSelection().getSelectionRoot();
+      if (cacheTable.isCache()) {
+        tableCache.register(selectionRoot);
+        return direct(true, "Table %s will be cached by the Drillbits which scan it.", tableName);
+      }
+      if (tableCache.unregister(selectionRoot)) {
+        return direct(true, "Table %s is no longer cached.", tableName);
+      }
+      return direct(false, "Table %s is not cached.", tableName);
+
+    } catch (Exception e) {
+      logger.error("Failed to update the cache of table '{}'", cacheTable.getName(), e);
+      return DirectPlan.createDirectPlan(context, false, String.format("Error: %s", e.getMessage()));
+    }
+  }
+}
@@ -91,6 +91,7 @@ public class MetastoreDropTableMetadataHandler extends DefaultSqlHandler {
           .filter(tableInfo.toFilter())
           .build())
         .execute();
+      context.getMetastoreMetadataCache().invalidate(tableInfo);
     } catch (MetastoreException e) {
       logger.error("Error when dropping metadata for table {}", dropTableMetadata.getName(), e);
       return DirectPlan.createDirectPlan(context, false, e.getMessage());
@@ -78,6 +78,7 @@ public class CompoundIdentifierConverter extends SqlShuttle {
         .put(SqlOrderBy.class, arrayOf(D, E, D, D))
         .put(SqlDropTable.class, arrayOf(D, D))
         .put(SqlRefreshMetadata.class, arrayOf(D, D, E))
+        .put(SqlCacheTable.class, arrayOf(D, D))
         .put(DrillSqlSetOption.class, arrayOf(D, D, D))
         .put(DrillSqlResetOption.class, arrayOf(D, D))
         .put(SqlCreateFunction.class, arrayOf(D))
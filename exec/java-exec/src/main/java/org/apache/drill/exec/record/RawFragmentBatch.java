@@ -30,12 +30,22 @@ public class RawFragmentBatch {
   private final FragmentRecordBatch header;
   private final DrillBuf body;
   private final AckSender sender;
+  private final long wireByteCount;
   private final AtomicBoolean ackSent = new AtomicBoolean(false);
 
   public RawFragmentBatch(FragmentRecordBatch header, DrillBuf body, AckSender sender) {
+    this(header, body, sender, body == null ? 0 : body.readableBytes());
+  }
+
+  /**
+   * @param wireByteCount size of the body as received over the network,
+   *          smaller than the body if it was sent compressed
+   */
+  public RawFragmentBatch(FragmentRecordBatch header, DrillBuf body, AckSender sender, long wireByteCount) {
     this.header = header;
     this.sender = sender;
     this.body = body;
+    this.wireByteCount = wireByteCount;
     if (body != null) {
       body.retain(1);
     }
@@ -80,6 +90,10 @@ public class RawFragmentBatch {
     return body == null ? 0 : body.readableBytes();
   }
 
+  public long getWireByteCount() {
+    return wireByteCount;
+  }
+
   public boolean isAckSent() {
     return ackSent.get();
   }
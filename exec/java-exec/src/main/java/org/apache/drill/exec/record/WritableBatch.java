@@ -181,6 +181,41 @@ public class WritableBatch implements AutoCloseable {
     return getBatchNoHVWrap(batch.getRecordCount(), batch, sv2);
   }
 
+  /**
+   * Like {@link #get(VectorAccessible)}, but leaves the vectors of the batch
+   * untouched, for batches which are written out and then used further. The
+   * buffers are shared with the vectors, and released when the returned batch
+   * is cleared.
+   *
+   * @param batch batch without selection vector
+   * @return writable batch sharing the buffers of the batch
+   */
+  public static WritableBatch getRetained(VectorAccessible batch) {
+    Preconditions.checkArgument(batch.getSchema().getSelectionVectorMode() == SelectionVectorMode.NONE,
+        "Only batches without selection vectors can be retained.");
+    int recordCount = batch.getRecordCount();
+    List<DrillBuf> buffers = new ArrayList<>();
+    List<SerializedField> metadata = new ArrayList<>();
+    for (VectorWrapper<?> vw : batch) {
+      ValueVector vv = vw.getValueVector();
+      metadata.add(vv.getMetadata());
+      if (recordCount == 0) {
+        continue;
+      }
+      for (DrillBuf b : vv.getBuffers(false)) {
+        b.retain(1);
+        buffers.add(b);
+      }
+    }
+
+    RecordBatchDef batchDef = RecordBatchDef.newBuilder()
+        .addAllField(metadata)
+        .setRecordCount(recordCount)
+        .setCarriesTwoByteSelectionVector(false)
+        .build();
+    return new WritableBatch(batchDef, buffers);
+  }
+
   public void retainBuffers(final int increment) {
     for (final DrillBuf buf : buffers) {
       buf.retain(increment);
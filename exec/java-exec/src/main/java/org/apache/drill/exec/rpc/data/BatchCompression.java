@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.rpc.data;
+
+import java.nio.ByteBuffer;
+
+import io.airlift.compress.Compressor;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DrillBuf;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.rpc.RpcException;
+import org.apache.drill.exec.util.BlockCodec;
+
+/**
+ * Compression of the bodies of record batches sent between drillbits, with
+ * the codec negotiated in the data channel handshake. The codec name sent in
+ * the handshake is the {@link BlockCodec#getName() name} of the codec.
+ */
+final class BatchCompression {
+
+  private BatchCompression() {
+  }
+
+  /**
+   * Resolves a codec name from a handshake.
+   *
+   * @param name codec name, case insensitive
+   * @return the codec, or {@link BlockCodec#NONE} for a name unknown to this drillbit
+   */
+  static BlockCodec fromHandshake(String name) {
+    try {
+      return BlockCodec.fromName(name);
+    } catch (IllegalArgumentException e) {
+      return BlockCodec.NONE;
+    }
+  }
+
+  /**
+   * Compresses the readable bytes of the given buffers into a single new buffer.
+   * The input buffers are not released.
+   *
+   * @param codec codec, other than {@link BlockCodec#NONE}
+   * @param allocator allocator for the compressed buffer
+   * @param buffers buffers making up a batch body
+   * @param length total readable bytes of the buffers
+   * @return the compressed body, or null if compression does not make the body smaller
+   */
+  static DrillBuf compress(BlockCodec codec, BufferAllocator allocator, ByteBuf[] buffers, int length) {
+    DrillBuf input = null;
+    ByteBuffer source;
+    if (buffers.length == 1) {
+      source = buffers[0].nioBuffer();
+    } else {
+      input = allocator.buffer(length);
+      for (ByteBuf buffer : buffers) {
+        input.writeBytes(buffer, buffer.readerIndex(), buffer.readableBytes());
+      }
+      source = input.nioBuffer(0, length);
+    }
+    Compressor compressor = codec.newCompressor();
+    int maxLength = compressor.maxCompressedLength(length);
+    DrillBuf output = allocator.buffer(maxLength);
+    try {
+      ByteBuffer target = output.nioBuffer(0, maxLength);
+      compressor.compress(source, target);
+      int compressedLength = target.position();
+      if (compressedLength >= length) {
+        output.release();
+        return null;
+      }
+      output.writerIndex(compressedLength);
+      return output;
+    } catch (RuntimeException e) {
+      output.release();
+      throw e;
+    } finally {
+      if (input != null) {
+        input.release();
+      }
+    }
+  }
+
+  /**
+   * Decompresses a batch body into a new buffer. The compressed body is
+   * not released.
+   *
+   * @param codec codec, other than {@link BlockCodec#NONE}
+   * @param allocator allocator for the decompressed buffer
+   * @param body compressed body
+   * @param uncompressedLength size of the body before compression
+   * @return the decompressed body
+   * @throws RpcException if the body cannot be decompressed
+   */
+  static DrillBuf decompress(BlockCodec codec, BufferAllocator allocator, DrillBuf body, int uncompressedLength)
+      throws RpcException {
+    DrillBuf output = allocator.buffer(uncompressedLength);
+    try {
+      ByteBuffer target = output.nioBuffer(0, uncompressedLength);
+      codec.newDecompressor().decompress(body.nioBuffer(), target);
+      if (target.position() != uncompressedLength) {
+        throw new RpcException(String.format(
+            "Decompressed %d bytes of a batch body, expected %d", target.position(), uncompressedLength));
+      }
+      output.writerIndex(uncompressedLength);
+      return output;
+    } catch (RpcException e) {
+      output.release();
+      throw e;
+    } catch (RuntimeException e) {
+      output.release();
+      throw new RpcException(String.format("Failure decompressing a %s batch body", codec.getName()), e);
+    }
+  }
+}
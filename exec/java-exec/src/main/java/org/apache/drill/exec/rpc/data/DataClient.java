@@ -34,6 +34,7 @@ import org.apache.drill.exec.rpc.ProtobufLengthDecoder;
 import org.apache.drill.exec.rpc.ResponseSender;
 import org.apache.drill.exec.rpc.RpcConnectionHandler;
 import org.apache.drill.exec.rpc.RpcException;
+import org.apache.drill.exec.util.BlockCodec;
 
 import java.util.List;
 
@@ -94,6 +95,10 @@ public class DataClient extends BasicClient<RpcType, DataClientConnection, BitCl
     return config.getAllocator();
   }
 
+  int getCompressionThreshold() {
+    return config.getCompressionThreshold();
+  }
+
   @Override
   protected void prepareSaslHandshake(final RpcConnectionHandler<DataClientConnection> connectionHandler, List<String> serverAuthMechanisms) {
     BitRpcUtility.prepareSaslHandshake(connectionHandler, serverAuthMechanisms, connection, config, remoteEndpoint,
@@ -102,8 +107,17 @@ public class DataClient extends BasicClient<RpcType, DataClientConnection, BitCl
 
     @Override
     protected List<String> validateHandshake(BitServerHandshake handshake) throws RpcException {
-      return BitRpcUtility.validateHandshake(handshake.getRpcVersion(), handshake.getAuthenticationMechanismsList(),
-        DataRpcConfig.RPC_VERSION, connection, config, this);
+      List<String> mechanisms = BitRpcUtility.validateHandshake(handshake.getRpcVersion(),
+        handshake.getAuthenticationMechanismsList(), DataRpcConfig.RPC_VERSION, connection, config, this);
+      if (handshake.hasCompressionCodec()) {
+        BlockCodec codec = BatchCompression.fromHandshake(handshake.getCompressionCodec());
+        if (codec != config.getCompressionCodec()) {
+          throw new RpcException(String.format("Server accepted compression codec %s, but %s was requested.",
+            handshake.getCompressionCodec(), config.getCompressionCodec()));
+        }
+        connection.setCompressionCodec(codec);
+      }
+      return mechanisms;
     }
 
   @Override
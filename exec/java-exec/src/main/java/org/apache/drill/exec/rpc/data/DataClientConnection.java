@@ -18,15 +18,20 @@
 package org.apache.drill.exec.rpc.data;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DrillBuf;
 import io.netty.channel.socket.SocketChannel;
 
 import java.util.UUID;
 
 import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.proto.BitData.AckWithCredit;
+import org.apache.drill.exec.proto.BitData.FragmentRecordBatch;
 import org.apache.drill.exec.proto.BitData.RpcType;
+import org.apache.drill.exec.record.FragmentWritableBatch;
 import org.apache.drill.exec.rpc.AbstractClientConnection;
 import org.apache.drill.exec.rpc.EncryptionContext;
 import org.apache.drill.exec.rpc.RpcOutcomeListener;
+import org.apache.drill.exec.util.BlockCodec;
 
 import com.google.protobuf.MessageLite;
 import org.slf4j.Logger;
@@ -38,6 +43,9 @@ public class DataClientConnection extends AbstractClientConnection {
   private final DataClient client;
   private final UUID id;
 
+  // codec accepted by the server in the handshake, NONE if batches go uncompressed
+  private volatile BlockCodec compressionCodec = BlockCodec.NONE;
+
   public DataClientConnection(SocketChannel channel, DataClient client,
                               EncryptionContext encryptionContextImpl) {
     super(channel, "data client", encryptionContextImpl);
@@ -56,6 +64,44 @@ public class DataClientConnection extends AbstractClientConnection {
     client.send(outcomeListener, this, rpcType, protobufBody, clazz, dataBodies);
   }
 
+  void setCompressionCodec(BlockCodec compressionCodec) {
+    this.compressionCodec = compressionCodec;
+  }
+
+  public BlockCodec getCompressionCodec() {
+    return compressionCodec;
+  }
+
+  /**
+   * Sends a record batch. If compression was negotiated with the server and
+   * the body is at least the configured threshold, the body is sent compressed
+   * and the batch buffers are released right away, as the RPC layer would do
+   * after sending them.
+   */
+  public void sendRecordBatch(RpcOutcomeListener<AckWithCredit> outcomeListener, FragmentWritableBatch batch) {
+    BlockCodec codec = compressionCodec;
+    long length = batch.getByteCount();
+    if (codec == BlockCodec.NONE || length < client.getCompressionThreshold() || length > Integer.MAX_VALUE) {
+      send(outcomeListener, RpcType.REQ_RECORD_BATCH, batch.getHeader(), AckWithCredit.class, batch.getBuffers());
+      return;
+    }
+
+    DrillBuf compressed = BatchCompression.compress(codec, getAllocator(), batch.getBuffers(), (int) length);
+    if (compressed == null) {
+      // Not compressible, send as is
+      send(outcomeListener, RpcType.REQ_RECORD_BATCH, batch.getHeader(), AckWithCredit.class, batch.getBuffers());
+      return;
+    }
+    for (ByteBuf buffer : batch.getBuffers()) {
+      buffer.release();
+    }
+    DataRpcMetrics.getInstance().addCompressedBytes(length, compressed.readableBytes());
+    FragmentRecordBatch header = batch.getHeader().toBuilder()
+        .setUncompressedSize((int) length)
+        .build();
+    send(outcomeListener, RpcType.REQ_RECORD_BATCH, header, AckWithCredit.class, compressed);
+  }
+
   @Override
   public int hashCode() {
     final int prime = 31;
@@ -17,10 +17,13 @@
  */
 package org.apache.drill.exec.rpc.data;
 
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.DrillbitStartupException;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.rpc.BitConnectionConfig;
 import org.apache.drill.exec.server.BootStrapContext;
+import org.apache.drill.exec.util.BlockCodec;
 
 // config for bit to bit data connection
 // package private
@@ -28,11 +31,23 @@ class DataConnectionConfig extends BitConnectionConfig {
 //  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(DataConnectionConfig.class);
 
   private final DataServerRequestHandler handler;
+  private final BlockCodec compressionCodec;
+  private final int compressionThreshold;
 
   DataConnectionConfig(BufferAllocator allocator, BootStrapContext context, DataServerRequestHandler handler)
       throws DrillbitStartupException {
     super(allocator, context);
     this.handler = handler;
+
+    DrillConfig config = context.getConfig();
+    String codecName = config.getString(ExecConstants.BIT_DATA_COMPRESSION_CODEC);
+    try {
+      compressionCodec = BlockCodec.fromName(codecName);
+    } catch (IllegalArgumentException e) {
+      throw new DrillbitStartupException(String.format("Unknown data channel compression codec '%s' in %s",
+          codecName, ExecConstants.BIT_DATA_COMPRESSION_CODEC), e);
+    }
+    compressionThreshold = config.getInt(ExecConstants.BIT_DATA_COMPRESSION_THRESHOLD);
   }
 
   @Override
@@ -43,4 +58,19 @@ class DataConnectionConfig extends BitConnectionConfig {
   DataServerRequestHandler getMessageHandler() {
     return handler;
   }
+
+  /**
+   * @return codec this drillbit asks for when connecting to other drillbits,
+   * {@link BlockCodec#NONE} if batches are sent uncompressed
+   */
+  BlockCodec getCompressionCodec() {
+    return compressionCodec;
+  }
+
+  /**
+   * @return minimum body size, in bytes, of a batch to be compressed
+   */
+  int getCompressionThreshold() {
+    return compressionThreshold;
+  }
 }
@@ -21,6 +21,7 @@ import org.apache.drill.exec.proto.BitData.BitClientHandshake;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.proto.UserBitShared.RpcChannel;
 import org.apache.drill.exec.rpc.ReconnectingConnection;
+import org.apache.drill.exec.util.BlockCodec;
 
 public class DataConnectionManager extends ReconnectingConnection<DataClientConnection, BitClientHandshake>{
 //  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(DataConnectionManager.class);
@@ -28,18 +29,22 @@ public class DataConnectionManager extends ReconnectingConnection<DataClientConn
   private final DrillbitEndpoint remoteEndpoint;
   private final DataConnectionConfig config;
 
-  private final static BitClientHandshake HANDSHAKE = BitClientHandshake //
-      .newBuilder() //
-      .setRpcVersion(DataRpcConfig.RPC_VERSION) //
-      .setChannel(RpcChannel.BIT_DATA) //
-      .build();
-
   public DataConnectionManager(DrillbitEndpoint remoteEndpoint, DataConnectionConfig config) {
-    super(HANDSHAKE, remoteEndpoint.getAddress(), remoteEndpoint.getDataPort());
+    super(handshake(config), remoteEndpoint.getAddress(), remoteEndpoint.getDataPort());
     this.remoteEndpoint = remoteEndpoint;
     this.config = config;
   }
 
+  private static BitClientHandshake handshake(DataConnectionConfig config) {
+    BitClientHandshake.Builder builder = BitClientHandshake.newBuilder()
+        .setRpcVersion(DataRpcConfig.RPC_VERSION)
+        .setChannel(RpcChannel.BIT_DATA);
+    if (config.getCompressionCodec() != BlockCodec.NONE) {
+      builder.setCompressionCodec(config.getCompressionCodec().getName());
+    }
+    return builder.build();
+  }
+
   @Override
   protected DataClient getNewClient() {
     return new DataClient(remoteEndpoint, config, new CloseHandlerCreator());
@@ -37,6 +37,13 @@ public class DataRpcMetrics extends AbstractRpcMetrics {
   private static final Counter unencryptedConnection = DrillMetrics.getRegistry()
       .counter(CONNECTION_COUNTER_PREFIX + "data.unencrypted");
 
+  // Record batch bytes sent compressed, before and after compression.
+  private static final Counter uncompressedBytes = DrillMetrics.getRegistry()
+      .counter(CONNECTION_COUNTER_PREFIX + "data.compression.uncompressed_bytes");
+
+  private static final Counter compressedBytes = DrillMetrics.getRegistry()
+      .counter(CONNECTION_COUNTER_PREFIX + "data.compression.compressed_bytes");
+
   private static final RpcMetrics INSTANCE = new DataRpcMetrics();
 
   // prevent instantiation
@@ -89,6 +96,22 @@ public class DataRpcMetrics extends AbstractRpcMetrics {
     return unencryptedConnection.getCount();
   }
 
+  @Override
+  public void addCompressedBytes(long uncompressed, long compressed) {
+    uncompressedBytes.inc(uncompressed);
+    compressedBytes.inc(compressed);
+  }
+
+  @Override
+  public long getUncompressedBytes() {
+    return uncompressedBytes.getCount();
+  }
+
+  @Override
+  public long getCompressedBytes() {
+    return compressedBytes.getCount();
+  }
+
   private void registerAllocatorMetrics(final BufferAllocator allocator) {
     registerAllocatorMetrics(allocator, ALLOCATOR_METRICS_PREFIX + "bit.data.");
   }
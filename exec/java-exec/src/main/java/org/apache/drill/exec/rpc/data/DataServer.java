@@ -30,6 +30,7 @@ import org.apache.drill.exec.rpc.BasicServer;
 import org.apache.drill.exec.rpc.OutOfMemoryHandler;
 import org.apache.drill.exec.rpc.ProtobufLengthDecoder;
 import org.apache.drill.exec.rpc.RpcException;
+import org.apache.drill.exec.util.BlockCodec;
 
 public class DataServer extends BasicServer<RpcType, DataServerConnection> {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(DataServer.class);
@@ -89,6 +90,18 @@ public class DataServer extends BasicServer<RpcType, DataServerConnection> {
           builder.addAllAuthenticationMechanisms(config.getAuthProvider().getAllFactoryNames());
         }
 
+        // The server only decompresses, so accept any codec it knows of.
+        if (inbound.hasCompressionCodec()) {
+          BlockCodec codec = BatchCompression.fromHandshake(inbound.getCompressionCodec());
+          if (codec != BlockCodec.NONE) {
+            builder.setCompressionCodec(codec.getName());
+            connection.setCompressionCodec(codec);
+          } else {
+            logger.warn("Unsupported data channel compression codec {}, batches will be sent uncompressed.",
+                inbound.getCompressionCodec());
+          }
+        }
+
         return builder.build();
       }
 
@@ -21,12 +21,16 @@ import io.netty.channel.socket.SocketChannel;
 import org.apache.drill.exec.proto.BitData.RpcType;
 import org.apache.drill.exec.rpc.security.ServerAuthenticationHandler;
 import org.apache.drill.exec.rpc.AbstractServerConnection;
+import org.apache.drill.exec.util.BlockCodec;
 import org.slf4j.Logger;
 
 // data connection on server-side (i.e. bit handling request or receiving data)
 public class DataServerConnection extends AbstractServerConnection<DataServerConnection> {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(DataServerConnection.class);
 
+  // codec agreed on in the handshake, NONE if the client sends uncompressed batches
+  private volatile BlockCodec compressionCodec = BlockCodec.NONE;
+
   DataServerConnection(SocketChannel channel, DataConnectionConfig config) {
     super(channel, config, config.getAuthMechanismToUse() == null
         ? config.getMessageHandler()
@@ -34,6 +38,14 @@ public class DataServerConnection extends AbstractServerConnection<DataServerCon
         RpcType.SASL_MESSAGE_VALUE, RpcType.SASL_MESSAGE));
   }
 
+  void setCompressionCodec(BlockCodec compressionCodec) {
+    this.compressionCodec = compressionCodec;
+  }
+
+  BlockCodec getCompressionCodec() {
+    return compressionCodec;
+  }
+
   @Override
   protected Logger getLogger() {
     return logger;
@@ -30,6 +30,7 @@ import org.apache.drill.exec.rpc.ResponseSender;
 import org.apache.drill.exec.rpc.RpcBus;
 import org.apache.drill.exec.rpc.RpcException;
 import org.apache.drill.exec.rpc.control.WorkEventBus;
+import org.apache.drill.exec.util.BlockCodec;
 import org.apache.drill.exec.work.WorkManager;
 import org.apache.drill.exec.work.filter.RuntimeFilterWritable;
 import org.apache.drill.exec.work.fragment.FragmentManager;
@@ -60,7 +61,7 @@ class DataServerRequestHandler implements RequestHandler<DataServerConnection> {
       }
 
       case RpcType.REQ_RECORD_BATCH_VALUE : {
-        handleRecordBatchRequest(pBody, dBody, sender);
+        handleRecordBatchRequest(connection, pBody, dBody, sender);
         break;
       }
 
@@ -69,15 +70,20 @@ class DataServerRequestHandler implements RequestHandler<DataServerConnection> {
     }
   }
 
-  private void handleRecordBatchRequest(ByteBuf pBody, ByteBuf dBody, ResponseSender sender) throws RpcException {
+  private void handleRecordBatchRequest(DataServerConnection connection, ByteBuf pBody, ByteBuf dBody,
+                                        ResponseSender sender) throws RpcException {
     final FragmentRecordBatch fragmentBatch = RpcBus.get(pBody, FragmentRecordBatch.PARSER);
+    final DrillBuf body = decompress(connection, fragmentBatch, (DrillBuf) dBody);
     final AckSender ack = new AckSender(sender);
 
     // increment so we don't get false returns.
     ack.increment();
 
     try {
-      final IncomingDataBatch batch = new IncomingDataBatch(fragmentBatch, (DrillBuf) dBody, ack);
+      final IncomingDataBatch batch = body == dBody
+          ? new IncomingDataBatch(fragmentBatch, body, ack)
+          : new IncomingDataBatch(fragmentBatch.toBuilder().clearUncompressedSize().build(), body, ack,
+              dBody.readableBytes());
       final int targetCount = fragmentBatch.getReceivingMinorFragmentIdCount();
 
       // randomize who gets first transfer (and thus ownership) so memory usage is balanced when we're sharing amongst
@@ -95,11 +101,32 @@ class DataServerRequestHandler implements RequestHandler<DataServerConnection> {
       ack.sendFail();
     } finally {
 
+      // the receivers retained the decompressed body if they kept the batch
+      if (body != dBody) {
+        body.release();
+      }
+
       // decrement the extra reference we grabbed at the top.
       ack.sendOk();
     }
   }
 
+  /**
+   * Returns the body of a record batch, decompressed into a new buffer if it
+   * was sent compressed, otherwise the body as received.
+   */
+  private DrillBuf decompress(DataServerConnection connection, FragmentRecordBatch fragmentBatch, DrillBuf dBody)
+      throws RpcException {
+    if (!fragmentBatch.hasUncompressedSize() || dBody == null) {
+      return dBody;
+    }
+    final BlockCodec codec = connection.getCompressionCodec();
+    if (codec == BlockCodec.NONE) {
+      throw new RpcException("Received a compressed record batch on a connection without a negotiated codec.");
+    }
+    return BatchCompression.decompress(codec, connection.getAllocator(), dBody, fragmentBatch.getUncompressedSize());
+  }
+
   private void handleRuntimeFilterRequest(ByteBuf pBody, ByteBuf dBody, ResponseSender sender) throws RpcException {
     BitData.RuntimeFilterBDef runtimeFilterBDef = RpcBus.get(pBody, BitData.RuntimeFilterBDef.PARSER);
     if (dBody == null) {
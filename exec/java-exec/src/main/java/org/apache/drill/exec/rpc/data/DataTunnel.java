@@ -29,6 +29,7 @@ import org.apache.drill.exec.rpc.RpcOutcomeListener;
 import org.apache.drill.exec.testing.ControlsInjector;
 import org.apache.drill.exec.testing.ExecutionControls;
 import org.apache.drill.exec.work.filter.RuntimeFilterWritable;
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
 
 
 public class DataTunnel {
@@ -75,7 +76,13 @@ public class DataTunnel {
         testInjector.injectInterruptiblePause(testControls, "data-tunnel-send-batch-wait-for-interrupt", testLogger);
       }
 
-      sendingSemaphore.acquire();
+      // Let the fragment scheduler run other fragments while this one waits for credit
+      FragmentScheduler.beginBlocking();
+      try {
+        sendingSemaphore.acquire();
+      } finally {
+        FragmentScheduler.endBlocking();
+      }
       manager.runCommand(b);
     } catch (final InterruptedException e) {
       // Release the buffers first before informing the listener about the interrupt.
@@ -158,8 +165,7 @@ public class DataTunnel {
 
     @Override
     public void doRpcCall(RpcOutcomeListener<BitData.AckWithCredit> outcomeListener, DataClientConnection connection) {
-      connection.send(new ThrottlingOutcomeListener(outcomeListener), getRpcType(), batch.getHeader(),
-        BitData.AckWithCredit.class, batch.getBuffers());
+      connection.sendRecordBatch(new ThrottlingOutcomeListener(outcomeListener), batch);
     }
 
     @Override
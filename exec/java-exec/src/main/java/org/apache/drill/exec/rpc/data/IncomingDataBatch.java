@@ -34,6 +34,7 @@ public class IncomingDataBatch {
   private final FragmentRecordBatch header;
   private final DrillBuf body;
   private final AckSender sender;
+  private final long wireByteCount;
 
   /**
    * Create a new batch. Does not impact reference counts of body.
@@ -46,11 +47,28 @@ public class IncomingDataBatch {
    *          AckSender to use for underlying RawFragmentBatches.
    */
   public IncomingDataBatch(FragmentRecordBatch header, DrillBuf body, AckSender sender) {
+    this(header, body, sender, body == null ? 0 : body.readableBytes());
+  }
+
+  /**
+   * Create a new batch whose body was received compressed. Does not impact reference counts of body.
+   *
+   * @param header
+   *          Batch header
+   * @param body
+   *          Decompressed data body. Could be null.
+   * @param sender
+   *          AckSender to use for underlying RawFragmentBatches.
+   * @param wireByteCount
+   *          Size of the body as received over the network.
+   */
+  public IncomingDataBatch(FragmentRecordBatch header, DrillBuf body, AckSender sender, long wireByteCount) {
     Preconditions.checkNotNull(header);
     Preconditions.checkNotNull(sender);
     this.header = header;
     this.body = body;
     this.sender = sender;
+    this.wireByteCount = wireByteCount;
   }
 
   /**
@@ -64,7 +82,7 @@ public class IncomingDataBatch {
   public RawFragmentBatch newRawFragmentBatch(final BufferAllocator allocator) {
     final DrillBuf transferredBuffer = body == null ? null : body.transferOwnership(allocator).buffer;
     sender.increment();
-    return new RawFragmentBatch(header, transferredBuffer, sender);
+    return new RawFragmentBatch(header, transferredBuffer, sender, wireByteCount);
   }
 
   public FragmentRecordBatch getHeader() {
@@ -29,11 +29,14 @@ import org.apache.drill.exec.coord.ClusterCoordinator;
 import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
 import org.apache.drill.exec.expr.fn.registry.RemoteFunctionRegistry;
 import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.MemoryArbiter;
+import org.apache.drill.exec.metastore.store.MetastoreMetadataCache;
 import org.apache.drill.exec.metrics.DrillCounters;
 import org.apache.drill.exec.oauth.OAuthTokenProvider;
 import org.apache.drill.exec.physical.impl.OperatorCreatorRegistry;
 import org.apache.drill.exec.planner.PhysicalPlanReader;
 import org.apache.drill.exec.planner.sql.DrillOperatorTable;
+import org.apache.drill.exec.planner.sql.PlanCache;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.rpc.control.Controller;
 import org.apache.drill.exec.rpc.control.WorkEventBus;
@@ -45,6 +48,9 @@ import org.apache.drill.exec.rpc.user.UserServer.BitToUserConnectionConfig;
 import org.apache.drill.exec.server.options.SystemOptionManager;
 import org.apache.drill.exec.store.SchemaFactory;
 import org.apache.drill.exec.store.StoragePluginRegistry;
+import org.apache.drill.exec.cache.TableCache;
+import org.apache.drill.exec.store.parquet.ParquetFooterCache;
+import org.apache.drill.exec.store.resultcache.ResultCache;
 import org.apache.drill.exec.store.sys.PersistentStoreProvider;
 import org.apache.drill.exec.work.foreman.rm.ResourceManager;
 import org.apache.drill.exec.work.foreman.rm.ResourceManagerBuilder;
@@ -81,7 +87,12 @@ public class DrillbitContext implements AutoCloseable {
   private final QueryProfileStoreContext profileStoreContext;
   private ResourceManager resourceManager;
   private final MetastoreRegistry metastoreRegistry;
+  private final MetastoreMetadataCache metastoreMetadataCache;
   private final DrillCounters counters;
+  private final PlanCache planCache;
+  private final ResultCache resultCache;
+  private final TableCache tableCache;
+  private final MemoryArbiter memoryArbiter;
 
   public DrillbitContext(
       DrillbitEndpoint endpoint,
@@ -114,6 +125,14 @@ public class DrillbitContext implements AutoCloseable {
     this.provider = provider;
     DrillConfig config = context.getConfig();
     lpPersistence = new LogicalPlanPersistence(config, classpathScan);
+    // Created before the storage plugin registry, which invalidates it when plugins change
+    planCache = new PlanCache(config);
+    resultCache = new ResultCache(config);
+    planCache.addInvalidationListener(resultCache::invalidateAll);
+    ParquetFooterCache.initialize(config);
+    metastoreMetadataCache = new MetastoreMetadataCache(config);
+    tableCache = new TableCache(config, context.getAllocator(), provider, lpPersistence.getMapper());
+    memoryArbiter = new MemoryArbiter(config, context.getAllocator());
 
     storagePlugins = config.getInstance(
         ExecConstants.STORAGE_PLUGIN_REGISTRY_IMPL, StoragePluginRegistry.class, this);
@@ -318,6 +337,8 @@ public class DrillbitContext implements AutoCloseable {
     getMetastoreRegistry().close();
     getAliasRegistryProvider().close();
     getOauthTokenProvider().close();
+    getResultCache().close();
+    getTableCache().close();
   }
 
   public ResourceManager getResourceManager() {
@@ -328,7 +349,27 @@ public class DrillbitContext implements AutoCloseable {
     return metastoreRegistry;
   }
 
+  public MetastoreMetadataCache getMetastoreMetadataCache() {
+    return metastoreMetadataCache;
+  }
+
   public DrillCounters getCounters() {
     return counters;
   }
+
+  public PlanCache getPlanCache() {
+    return planCache;
+  }
+
+  public ResultCache getResultCache() {
+    return resultCache;
+  }
+
+  public TableCache getTableCache() {
+    return tableCache;
+  }
+
+  public MemoryArbiter getMemoryArbiter() {
+    return memoryArbiter;
+  }
 }
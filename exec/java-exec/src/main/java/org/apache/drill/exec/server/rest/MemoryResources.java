@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.server.rest;
+
+import java.util.List;
+
+import javax.annotation.security.RolesAllowed;
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.SecurityContext;
+
+import org.apache.drill.exec.memory.AllocationSampler;
+import org.apache.drill.exec.server.rest.DrillRestServer.UserAuthEnabled;
+import org.apache.drill.exec.server.rest.auth.DrillUserPrincipal;
+import org.apache.drill.exec.work.WorkManager;
+import org.glassfish.jersey.server.mvc.Viewable;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Shows the sites allocating the most direct memory on this Drillbit, as
+ * sampled when {@code drill.memory.sampling.rate} is set.
+ */
+@Path("/")
+@RolesAllowed(DrillUserPrincipal.ADMIN_ROLE)
+public class MemoryResources {
+
+  private static final int MAX_SITES = 100;
+
+  @Inject UserAuthEnabled authEnabled;
+  @Inject SecurityContext sc;
+  @Inject WorkManager work;
+
+  @GET
+  @Path("/memory")
+  @Produces(MediaType.TEXT_HTML)
+  public Viewable getAllocationSites() {
+    return ViewableWithPermissions.create(authEnabled.get(), "/rest/memory/memory.ftl", sc, getAllocationSitesJSON());
+  }
+
+  @GET
+  @Path("/memory.json")
+  @Produces(MediaType.APPLICATION_JSON)
+  public AllocationSites getAllocationSitesJSON() {
+    return new AllocationSites(work.getContext().getAllocator().getAllocationSampler());
+  }
+
+  public static class AllocationSites {
+    private final boolean enabled;
+    private final int rate;
+    private final long droppedSamples;
+    private final List<AllocationSampler.Site> sites;
+
+    public AllocationSites(AllocationSampler sampler) {
+      this.enabled = sampler.isEnabled();
+      this.rate = sampler.getRate();
+      this.droppedSamples = sampler.getDroppedSampleCount();
+      this.sites = sampler.getTopSites(MAX_SITES);
+    }
+
+    @JsonProperty
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    @JsonProperty
+    public int getRate() {
+      return rate;
+    }
+
+    @JsonProperty
+    public long getDroppedSamples() {
+      return droppedSamples;
+    }
+
+    @JsonProperty
+    public List<AllocationSampler.Site> getSites() {
+      return sites;
+    }
+  }
+}
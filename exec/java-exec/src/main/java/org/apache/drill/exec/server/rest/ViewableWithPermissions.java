@@ -86,6 +86,7 @@ public class ViewableWithPermissions extends Viewable {
         .put("showCredentials", showCredentials)
         .put("showOptions", isAdmin)
         .put("showThreads", isAdmin)
+        .put("showMemory", isAdmin)
         .put("showLogs", isAdmin)
         .put("showLogin", authEnabled && showControls && !isUserLoggedIn)
         .put("showLogout", authEnabled && showControls && isUserLoggedIn)
@@ -71,7 +71,10 @@ public abstract class CommonParquetRecordReader extends AbstractRecordReader {
     TIME_DISK_SCAN,                // Time in nanos spent in reading data from disk.
     TIME_FIXEDCOLUMN_READ,         // Time in nanos spent in converting fixed width data to value vectors
     TIME_VARCOLUMN_READ,           // Time in nanos spent in converting varwidth data to value vectors
-    TIME_PROCESS;                  // Time in nanos spent in processing
+    TIME_PROCESS,                  // Time in nanos spent in processing
+    NUM_DATA_PAGES_SKIPPED,        // Number of data pages skipped using the page index
+    NUM_FLAT_DICTIONARY_VALUES,    // Number of dictionary encoded values read from a flat dictionary
+    NUM_FLAT_DICTIONARY_LARGE_VALUES; // Number of these values too large for the bulk buffer, read in place
 
     @Override public int metricId() {
       return ordinal();
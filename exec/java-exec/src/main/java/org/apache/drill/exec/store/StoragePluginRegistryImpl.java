@@ -37,6 +37,7 @@ import org.apache.drill.common.logical.StoragePluginConfig.AuthMode;
 import org.apache.drill.common.logical.FormatPluginConfig;
 import org.apache.drill.common.logical.StoragePluginConfig;
 import org.apache.drill.exec.planner.logical.StoragePlugins;
+import org.apache.drill.exec.planner.sql.PlanCache;
 import org.apache.drill.exec.server.DrillbitContext;
 import org.apache.drill.exec.store.PluginHandle.PluginType;
 import org.apache.drill.exec.store.dfs.FileSystemConfig;
@@ -396,6 +397,16 @@ public class StoragePluginRegistryImpl implements StoragePluginRegistry {
     // on the cache refresh mechanism to kick in when the Drillbit asks
     // for the plugin instance.
     pluginStore.put(name, config);
+    invalidatePlans();
+  }
+
+  // Cached query plans may refer to the previous config of a plugin
+  private void invalidatePlans() {
+    DrillbitContext drillbitContext = context.drillbitContext();
+    PlanCache planCache = drillbitContext == null ? null : drillbitContext.getPlanCache();
+    if (planCache != null) {
+      planCache.invalidateAll();
+    }
   }
 
   private String validateName(String name) throws PluginException {
@@ -452,6 +463,7 @@ public class StoragePluginRegistryImpl implements StoragePluginRegistry {
     }
     moveToEphemeral(oldEntry);
     pluginStore.put(name, config);
+    invalidatePlans();
 
     if (lifecycleException != null) {
       throw new PluginException(
@@ -628,6 +640,7 @@ public class StoragePluginRegistryImpl implements StoragePluginRegistry {
       try {
         if (pluginCache.remove(entry.name()) == entry) {
           moveToEphemeral(entry);
+          invalidatePlans();
         }
         return null;
       } catch (PluginException e) {
@@ -646,6 +659,7 @@ public class StoragePluginRegistryImpl implements StoragePluginRegistry {
     try {
       if (pluginCache.replace(entry, newEntry)) {
         moveToEphemeral(entry);
+        invalidatePlans();
         return newEntry;
       } else {
         return pluginCache.get(entry.name());
@@ -722,6 +736,7 @@ public class StoragePluginRegistryImpl implements StoragePluginRegistry {
     // Must tell store to delete even if not known locally because
     // the store might hold a disabled version
     pluginStore.delete(name);
+    invalidatePlans();
   }
 
   /**
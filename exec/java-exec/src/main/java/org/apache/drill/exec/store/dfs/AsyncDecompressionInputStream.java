@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.dfs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.server.options.OptionSet;
+import org.apache.hadoop.fs.Seekable;
+import org.apache.hadoop.io.compress.CompressionInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decompresses a compressed file ahead of its reader. Chunks of decompressed
+ * data are produced by tasks run on the scan decode executor into a bounded
+ * queue, and consumed by the reader from the queue, so that decompression and
+ * parsing of the file run in parallel.
+ * <p>
+ * A task decompresses until the queue is full and then ends, rather than
+ * blocking, so that a reader which stops consuming (after a limit is reached,
+ * or while its fragment waits downstream) does not hold a decode thread. The
+ * reader submits a new task when it takes a chunk and none is running.
+ * <p>
+ * The source is either a compressed stream over a whole file, or a
+ * {@link FrameSplitInputStream} over a split of a file compressed in frames.
+ * As for those, the position of the stream is the number of decompressed bytes
+ * read, and it cannot be moved.
+ */
+public class AsyncDecompressionInputStream extends InputStream implements Seekable {
+  private static final Logger logger = LoggerFactory.getLogger(AsyncDecompressionInputStream.class);
+
+  static final int CHUNK_SIZE = 1024 * 1024;
+
+  private static final Chunk EOF = new Chunk(new byte[0], 0, null);
+
+  private final InputStream source;
+  private final ExecutorService executor;
+  private final BlockingQueue<Chunk> chunks;
+  private final BlockingQueue<byte[]> freeBuffers;
+  private final AtomicBoolean fillRunning = new AtomicBoolean();
+  private volatile boolean closed;
+  private Future<?> fillTask;
+
+  // Set by the fill tasks, which run one at a time
+  private volatile boolean endQueued;
+
+  // Accessed by the reader only
+  private Chunk current;
+  private int currentOffset;
+  private boolean eof;
+  private long pos;
+
+  public AsyncDecompressionInputStream(InputStream source, ExecutorService executor, int queueSize) {
+    this.source = source;
+    this.executor = executor;
+    this.chunks = new ArrayBlockingQueue<>(queueSize);
+    this.freeBuffers = new ArrayBlockingQueue<>(queueSize + 1);
+    scheduleFill();
+  }
+
+  /**
+   * Wraps the given stream if it is a compressed stream, or a split of a file
+   * compressed in frames, and asynchronous decompression is enabled.
+   *
+   * @param in stream opened on a file, possibly compressed
+   * @param options options of the query
+   * @param executor executor on which to decompress, the scan decode executor
+   * @return the stream to read the file from
+   */
+  public static InputStream wrapIfCompressed(InputStream in, OptionSet options,
+      ExecutorService executor) {
+    boolean compressed = in instanceof CompressionInputStream || in instanceof FrameSplitInputStream;
+    if (!compressed || !options.getBoolean(ExecConstants.DECOMPRESSION_ASYNC)) {
+      return in;
+    }
+    int queueSize = (int) options.getLong(ExecConstants.DECOMPRESSION_ASYNC_QUEUE_SIZE);
+    return new AsyncDecompressionInputStream(in, executor, queueSize);
+  }
+
+  private synchronized void scheduleFill() {
+    if (!closed && !endQueued && fillRunning.compareAndSet(false, true)) {
+      fillTask = executor.submit(this::fill);
+    }
+  }
+
+  private void fill() {
+    try {
+      while (!closed && !endQueued && chunks.remainingCapacity() > 0) {
+        Chunk chunk = readChunk();
+        // Only this task adds to the queue, so there is room for the chunk
+        chunks.add(chunk);
+        endQueued = chunk == EOF || chunk.error != null;
+      }
+    } finally {
+      fillRunning.set(false);
+    }
+    // The reader may have made room after the last check
+    if (chunks.remainingCapacity() > 0) {
+      scheduleFill();
+    }
+  }
+
+  /**
+   * Reads a full chunk, unless the end of the data is reached.
+   *
+   * @return the chunk read, {@link #EOF} at the end of the data
+   */
+  private Chunk readChunk() {
+    byte[] buffer = freeBuffers.poll();
+    if (buffer == null) {
+      buffer = new byte[CHUNK_SIZE];
+    }
+    int length = 0;
+    try {
+      while (length < buffer.length) {
+        int n = source.read(buffer, length, buffer.length - length);
+        if (n < 0) {
+          break;
+        }
+        length += n;
+      }
+    } catch (IOException | RuntimeException e) {
+      return new Chunk(null, 0, e);
+    }
+    if (length == 0) {
+      return EOF;
+    }
+    return new Chunk(buffer, length, null);
+  }
+
+  /**
+   * Moves to the next chunk once the current one is consumed.
+   *
+   * @return false at the end of the data
+   */
+  private boolean nextChunk() throws IOException {
+    if (current != null && currentOffset < current.length) {
+      return true;
+    }
+    if (eof) {
+      return false;
+    }
+    if (current != null && current.data != null && current != EOF) {
+      freeBuffers.offer(current.data);
+    }
+    current = chunks.poll();
+    if (current == null) {
+      scheduleFill();
+      try {
+        current = chunks.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for decompressed data");
+      }
+    }
+    scheduleFill();
+    currentOffset = 0;
+    if (current.error != null) {
+      eof = true;
+      throw current.error instanceof IOException
+          ? (IOException) current.error
+          : new IOException(current.error);
+    }
+    if (current == EOF) {
+      eof = true;
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!nextChunk()) {
+      return -1;
+    }
+    pos++;
+    return current.data[currentOffset++] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!nextChunk()) {
+      return -1;
+    }
+    int n = Math.min(len, current.length - currentOffset);
+    System.arraycopy(current.data, currentOffset, b, off, n);
+    currentOffset += n;
+    pos += n;
+    return n;
+  }
+
+  @Override
+  public long getPos() {
+    return pos;
+  }
+
+  @Override
+  public void seek(long newPos) throws IOException {
+    if (newPos != pos) {
+      throw new IOException("Cannot seek in an asynchronous decompression stream");
+    }
+  }
+
+  @Override
+  public boolean seekToNewSource(long targetPos) {
+    return false;
+  }
+
+  @Override
+  public void close() throws IOException {
+    Future<?> task;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      task = fillTask;
+    }
+    // Wait for the last task, so that the source is not closed under it
+    if (task != null) {
+      try {
+        task.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        logger.warn("Asynchronous decompression failed", e.getCause());
+      }
+    }
+    chunks.clear();
+    freeBuffers.clear();
+    source.close();
+  }
+
+  private static class Chunk {
+    private final byte[] data;
+    private final int length;
+    private final Exception error;
+
+    private Chunk(byte[] data, int length, Exception error) {
+      this.data = data;
+      this.length = length;
+      this.error = error;
+    }
+  }
+}
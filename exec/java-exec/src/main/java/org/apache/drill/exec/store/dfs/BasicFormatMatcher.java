@@ -93,7 +93,7 @@ public class BasicFormatMatcher extends FormatMatcher {
     }
     String fileName = status.getPath().toString();
     String fileNameHacked = null;
-    if (codec != null) {
+    if (codec != null || (compressible && FrameFormat.of(status.getPath()) != null)) {
         fileNameHacked = fileName.substring(0, fileName.lastIndexOf('.'));
     }
 
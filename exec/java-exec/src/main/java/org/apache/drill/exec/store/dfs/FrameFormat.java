@@ -0,0 +1,374 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.dfs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.Path;
+
+import com.google.common.io.ByteStreams;
+
+import io.airlift.compress.zstd.ZstdInputStream;
+
+/**
+ * Compression formats made of independent frames, each of which can be
+ * decompressed without the ones before it: BGZF (blocked gzip, {@code .bgz})
+ * and zstd ({@code .zst}). A file in one of these formats can be split at its
+ * frame boundaries, which are found by scanning for the magic bytes starting a
+ * frame. A candidate frame is accepted if its headers are valid and it ends
+ * at the end of the file or where another frame starts, so that compressed
+ * data which happens to hold the magic bytes is not taken for a frame.
+ */
+public enum FrameFormat {
+
+  /**
+   * Blocked gzip: a series of gzip members of at most 64 KB, each of which
+   * records its size in an extra header field.
+   */
+  BGZF(".bgz", 2 * FrameFormat.BGZF_MAX_BLOCK_SIZE) {
+    @Override
+    boolean startsFrame(byte[] b, int off) {
+      return b[off] == 0x1f && b[off + 1] == (byte) 0x8b && b[off + 2] == 8 && b[off + 3] == 4;
+    }
+
+    @Override
+    boolean followsFrame(byte[] b, int off) {
+      return startsFrame(b, off);
+    }
+
+    @Override
+    long frameEnd(FSDataInputStream in, long pos, long fileLength) throws IOException {
+      byte[] header = new byte[BGZF_HEADER_LENGTH];
+      if (readAt(in, pos, header, header.length) < header.length || !isBgzfHeader(header)) {
+        return -1;
+      }
+      long end = pos + bgzfBlockSize(header);
+      return end <= fileLength ? end : -1;
+    }
+
+    @Override
+    public InputStream decompress(InputStream in) {
+      return new BgzfInputStream(in);
+    }
+  },
+
+  /**
+   * Zstandard: a series of frames, each made of blocks of at most 128 KB with
+   * a 3 byte header recording their size. Files written by multi-threaded or
+   * seekable zstd writers hold many frames; files written in a single frame
+   * have no boundary to split at.
+   */
+  ZSTD(".zst", 4 * 1024 * 1024) {
+    @Override
+    boolean startsFrame(byte[] b, int off) {
+      return readIntLE(b, off) == ZSTD_MAGIC;
+    }
+
+    @Override
+    boolean followsFrame(byte[] b, int off) {
+      return startsFrame(b, off) || (readIntLE(b, off) & 0xFFFFFFF0) == ZSTD_SKIPPABLE_MAGIC;
+    }
+
+    @Override
+    long frameEnd(FSDataInputStream in, long pos, long fileLength) throws IOException {
+      byte[] header = new byte[ZSTD_MAX_HEADER_LENGTH];
+      if (readAt(in, pos, header, header.length) < MAGIC_LENGTH + 1 || !startsFrame(header, 0)) {
+        return -1;
+      }
+      int descriptor = header[MAGIC_LENGTH] & 0xFF;
+      if ((descriptor & 0x08) != 0) {
+        // Reserved bit
+        return -1;
+      }
+      boolean singleSegment = (descriptor & 0x20) != 0;
+      int contentSizeFlag = descriptor >>> 6;
+      int contentSizeLength = contentSizeFlag == 0 ? (singleSegment ? 1 : 0) : 1 << contentSizeFlag;
+      long end = pos + MAGIC_LENGTH + 1 + (singleSegment ? 0 : 1)
+          + ZSTD_DICTIONARY_ID_LENGTHS[descriptor & 0x03] + contentSizeLength;
+
+      byte[] blockHeader = new byte[3];
+      boolean lastBlock;
+      do {
+        if (readAt(in, end, blockHeader, blockHeader.length) < blockHeader.length) {
+          return -1;
+        }
+        int value = (blockHeader[0] & 0xFF) | (blockHeader[1] & 0xFF) << 8 | (blockHeader[2] & 0xFF) << 16;
+        lastBlock = (value & 1) != 0;
+        int type = (value >>> 1) & 0x03;
+        int size = value >>> 3;
+        if (type == ZSTD_RESERVED_BLOCK || size > ZSTD_MAX_BLOCK_SIZE) {
+          return -1;
+        }
+        // An RLE block holds a single byte, repeated size times
+        end += blockHeader.length + (type == ZSTD_RLE_BLOCK ? 1 : size);
+        if (end > fileLength) {
+          return -1;
+        }
+      } while (!lastBlock);
+
+      if ((descriptor & 0x04) != 0) {
+        // Content checksum
+        end += 4;
+      }
+      return end <= fileLength ? end : -1;
+    }
+
+    @Override
+    public InputStream decompress(InputStream in) throws IOException {
+      return new ZstdInputStream(in);
+    }
+  };
+
+  private static final int MAGIC_LENGTH = 4;
+  private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+  private static final int BGZF_HEADER_LENGTH = 18;
+  private static final int BGZF_MAX_BLOCK_SIZE = 64 * 1024;
+
+  private static final int ZSTD_MAGIC = 0xFD2FB528;
+  private static final int ZSTD_SKIPPABLE_MAGIC = 0x184D2A50;
+  private static final int ZSTD_MAX_HEADER_LENGTH = 18;
+  private static final int ZSTD_MAX_BLOCK_SIZE = 128 * 1024;
+  private static final int ZSTD_RLE_BLOCK = 1;
+  private static final int ZSTD_RESERVED_BLOCK = 3;
+  private static final int[] ZSTD_DICTIONARY_ID_LENGTHS = {0, 1, 2, 4};
+
+  private final String extension;
+  private final int maxScanLength;
+
+  FrameFormat(String extension, int maxScanLength) {
+    this.extension = extension;
+    this.maxScanLength = maxScanLength;
+  }
+
+  /**
+   * Returns the frame format of a file, from its extension.
+   *
+   * @param path path of the file
+   * @return format of the file, or null if it is not compressed in frames
+   */
+  public static FrameFormat of(Path path) {
+    String name = path.getName();
+    for (FrameFormat format : values()) {
+      if (name.endsWith(format.extension)) {
+        return format;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Finds the first frame starting at or after a position of the file. Only
+   * a limited range is scanned: a whole BGZF block for BGZF, which so always
+   * finds the next block, and a few MB for zstd, whose frames are not
+   * bounded in size.
+   *
+   * @param in stream opened on the file
+   * @param from position from which to look for a frame
+   * @param fileLength length of the file
+   * @return position of the frame found, or -1 if none was found
+   */
+  public long nextFrameStart(FSDataInputStream in, long from, long fileLength) throws IOException {
+    long limit = Math.min(fileLength, from + maxScanLength);
+    byte[] buffer = new byte[SCAN_BUFFER_SIZE];
+    long pos = from;
+    while (pos < limit) {
+      int n = readAt(in, pos, buffer, (int) Math.min(buffer.length, fileLength - pos));
+      for (int i = 0; i + MAGIC_LENGTH <= n && pos + i < limit; i++) {
+        if (startsFrame(buffer, i) && isFrameStart(in, pos + i, fileLength)) {
+          return pos + i;
+        }
+      }
+      if (pos + n >= fileLength) {
+        break;
+      }
+      // Keep the bytes of a magic which may span two reads
+      pos += n - MAGIC_LENGTH + 1;
+    }
+    return -1;
+  }
+
+  private boolean isFrameStart(FSDataInputStream in, long pos, long fileLength) throws IOException {
+    long end = frameEnd(in, pos, fileLength);
+    if (end < 0) {
+      return false;
+    }
+    if (end == fileLength) {
+      return true;
+    }
+    byte[] next = new byte[MAGIC_LENGTH];
+    return readAt(in, end, next, next.length) == next.length && followsFrame(next, 0);
+  }
+
+  /**
+   * @return whether the bytes at the given offset are the magic bytes of a frame
+   */
+  abstract boolean startsFrame(byte[] b, int off);
+
+  /**
+   * @return whether the bytes at the given offset may follow a frame
+   */
+  abstract boolean followsFrame(byte[] b, int off);
+
+  /**
+   * Reads the headers of the frame starting at a position.
+   *
+   * @return position just past the end of the frame, or -1 if there is no
+   * valid frame at the position
+   */
+  abstract long frameEnd(FSDataInputStream in, long pos, long fileLength) throws IOException;
+
+  /**
+   * Returns a stream decompressing the frames read from the given stream,
+   * which must be positioned at the start of a frame. Only whole frames are
+   * read from the stream, so that a stream limited to a range of frames can
+   * be decompressed.
+   */
+  public abstract InputStream decompress(InputStream in) throws IOException;
+
+  /**
+   * Reads bytes at a position of the file, up to the given length unless the
+   * end of the file is reached first.
+   *
+   * @return number of bytes read
+   */
+  private static int readAt(FSDataInputStream in, long pos, byte[] buffer, int length) throws IOException {
+    int total = 0;
+    while (total < length) {
+      int n = in.read(pos + total, buffer, total, length - total);
+      if (n < 0) {
+        break;
+      }
+      total += n;
+    }
+    return total;
+  }
+
+  private static int readIntLE(byte[] b, int off) {
+    return (b[off] & 0xFF) | (b[off + 1] & 0xFF) << 8 | (b[off + 2] & 0xFF) << 16 | (b[off + 3] & 0xFF) << 24;
+  }
+
+  private static int readShortLE(byte[] b, int off) {
+    return (b[off] & 0xFF) | (b[off + 1] & 0xFF) << 8;
+  }
+
+  /**
+   * Checks the gzip header of a BGZF block: the FEXTRA flag set, and a single
+   * "BC" extra field holding the size of the block, which must have room for
+   * the header and the 8 byte trailer.
+   */
+  private static boolean isBgzfHeader(byte[] b) {
+    return BGZF.startsFrame(b, 0)
+        && readShortLE(b, 10) == 6
+        && b[12] == 'B' && b[13] == 'C'
+        && readShortLE(b, 14) == 2
+        && bgzfBlockSize(b) >= BGZF_HEADER_LENGTH + 8;
+  }
+
+  private static int bgzfBlockSize(byte[] header) {
+    return readShortLE(header, 16) + 1;
+  }
+
+  /**
+   * Decompresses BGZF blocks one at a time. Each block is read whole, its
+   * size being known from its header, and inflated into a buffer of the
+   * decompressed size recorded in its trailer.
+   */
+  private static class BgzfInputStream extends InputStream {
+    private final InputStream in;
+    private final Inflater inflater = new Inflater(true);
+    private final byte[] block = new byte[BGZF_MAX_BLOCK_SIZE];
+    private final byte[] data = new byte[BGZF_MAX_BLOCK_SIZE];
+    private int offset;
+    private int length;
+    private boolean eof;
+
+    private BgzfInputStream(InputStream in) {
+      this.in = in;
+    }
+
+    /**
+     * Inflates blocks until one holding data is found.
+     *
+     * @return false at the end of the stream
+     */
+    private boolean nextBlock() throws IOException {
+      while (offset >= length) {
+        if (eof) {
+          return false;
+        }
+        int n = ByteStreams.read(in, block, 0, BGZF_HEADER_LENGTH);
+        if (n == 0) {
+          eof = true;
+          return false;
+        }
+        if (n < BGZF_HEADER_LENGTH || !isBgzfHeader(block)) {
+          throw new IOException("Invalid BGZF block header");
+        }
+        int blockSize = bgzfBlockSize(block);
+        ByteStreams.readFully(in, block, BGZF_HEADER_LENGTH, blockSize - BGZF_HEADER_LENGTH);
+        // The trailer holds the CRC and the size of the data
+        int dataLength = readIntLE(block, blockSize - 4);
+        if (dataLength < 0 || dataLength > data.length) {
+          throw new IOException("Invalid BGZF block size: " + dataLength);
+        }
+        inflater.reset();
+        inflater.setInput(block, BGZF_HEADER_LENGTH, blockSize - BGZF_HEADER_LENGTH - 8);
+        try {
+          length = inflater.inflate(data, 0, dataLength);
+        } catch (DataFormatException e) {
+          throw new IOException("Invalid BGZF block data", e);
+        }
+        if (length != dataLength) {
+          throw new IOException("Truncated BGZF block data");
+        }
+        offset = 0;
+      }
+      return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+      return nextBlock() ? data[offset++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (!nextBlock()) {
+        return -1;
+      }
+      int n = Math.min(len, length - offset);
+      System.arraycopy(data, offset, b, off, n);
+      offset += n;
+      return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+      inflater.end();
+      in.close();
+    }
+  }
+}
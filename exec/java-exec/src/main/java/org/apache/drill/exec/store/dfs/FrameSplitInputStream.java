@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.dfs;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.Seekable;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Input stream over the decompressed lines of a block split of a file
+ * compressed in independent frames (see {@link FrameFormat}). The split is a
+ * range of whole frames, as built by the block map builder. Lines are
+ * assigned to splits the way the text reader assigns them for uncompressed
+ * files, but in decompressed data: a split which does not start at the
+ * beginning of the file skips the line in progress at its start, and every
+ * split reads past the data of its frames, decompressing the next ones, up
+ * to the end of the line in progress there.
+ * <p>
+ * The position of the stream is the number of decompressed bytes read; it
+ * cannot be moved.
+ */
+public class FrameSplitInputStream extends InputStream implements Seekable {
+
+  private final FSDataInputStream in;
+  private final FrameFormat format;
+  private final byte[] lineDelimiter;
+  private InputStream frames;
+
+  // Set once the frames of the split are read, while reading the next ones
+  private boolean pastEnd;
+  private boolean endFound;
+  private int delimiterMatched;
+  private long pos;
+
+  /**
+   * @param in stream over the whole file
+   * @param format compression format of the file
+   * @param start position of the first frame of the split
+   * @param end position just past the last frame of the split
+   * @param lineDelimiter bytes ending a line
+   */
+  public FrameSplitInputStream(FSDataInputStream in, FrameFormat format, long start, long end,
+      byte[] lineDelimiter) throws IOException {
+    this.in = in;
+    this.format = format;
+    this.lineDelimiter = lineDelimiter;
+    in.seek(start);
+    // Closing the decompressor of the frames of the split leaves the file open
+    frames = format.decompress(new FilterInputStream(ByteStreams.limit(in, end - start)) {
+      @Override
+      public void close() { }
+    });
+    if (start > 0) {
+      skipLine();
+    }
+  }
+
+  /**
+   * Opens a block split of a file compressed in frames.
+   *
+   * @param fs file system of the file
+   * @param format compression format of the file
+   * @param path path of the file
+   * @param start position of the first frame of the split
+   * @param length length of the split, from its start to the end of its last frame
+   * @param lineDelimiter bytes ending a line
+   */
+  public static FrameSplitInputStream open(DrillFileSystem fs, FrameFormat format, Path path,
+      long start, long length, byte[] lineDelimiter) throws IOException {
+    FSDataInputStream in = fs.open(path);
+    try {
+      return new FrameSplitInputStream(in, format, start, start + length, lineDelimiter);
+    } catch (IOException | RuntimeException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Reads decompressed bytes, from the frames of the split, then from the
+   * frames after it. A single read does not return bytes of both.
+   */
+  private int readFrames(byte[] b, int off, int len) throws IOException {
+    int n = frames.read(b, off, len);
+    if (n < 0 && !pastEnd) {
+      // The limited stream stopped at the end of the split: continue on the file
+      pastEnd = true;
+      delimiterMatched = 0;
+      frames.close();
+      frames = format.decompress(in);
+      n = frames.read(b, off, len);
+    }
+    return n;
+  }
+
+  private boolean matchDelimiter(byte b) {
+    if (b == lineDelimiter[delimiterMatched]) {
+      delimiterMatched++;
+    } else {
+      delimiterMatched = b == lineDelimiter[0] ? 1 : 0;
+    }
+    if (delimiterMatched == lineDelimiter.length) {
+      delimiterMatched = 0;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Moves past the first line delimiter found, leaving the stream at the
+   * start of the next line.
+   */
+  private void skipLine() throws IOException {
+    byte[] b = new byte[1];
+    while (readFrames(b, 0, 1) > 0) {
+      if (matchDelimiter(b[0])) {
+        // A line starting past the split belongs to the next one
+        endFound = pastEnd;
+        return;
+      }
+    }
+    endFound = true;
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] b = new byte[1];
+    int n = read(b, 0, 1);
+    return n <= 0 ? -1 : b[0] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (endFound) {
+      return -1;
+    }
+    int n = readFrames(b, off, len);
+    if (n < 0) {
+      endFound = true;
+      return -1;
+    }
+    if (pastEnd) {
+      // Stop at the end of the line in progress at the end of the split
+      for (int i = 0; i < n; i++) {
+        if (matchDelimiter(b[off + i])) {
+          n = i + 1;
+          endFound = true;
+          break;
+        }
+      }
+    }
+    pos += n;
+    return n;
+  }
+
+  @Override
+  public long getPos() {
+    return pos;
+  }
+
+  @Override
+  public void seek(long newPos) throws IOException {
+    if (newPos != pos) {
+      throw new IOException("Cannot seek in a split of a compressed file");
+    }
+  }
+
+  @Override
+  public boolean seekToNewSource(long targetPos) {
+    return false;
+  }
+
+  @Override
+  public void close() throws IOException {
+    frames.close();
+    in.close();
+  }
+}
@@ -731,7 +731,8 @@ public class WorkspaceSchemaFactory {
                 .basicRequests()
                 .metastoreTableInfo(tableInfo);
             if (metastoreTableInfo.isExists()) {
-              providerManager = new MetastoreMetadataProviderManager(metastoreRegistry, tableInfo,
+              providerManager = new MetastoreMetadataProviderManager(metastoreRegistry,
+                  plugin.getContext().getMetastoreMetadataCache(), tableInfo,
                   new MetastoreMetadataProviderConfig(schemaConfig.getOption(ExecConstants.METASTORE_USE_SCHEMA_METADATA).bool_val,
                       schemaConfig.getOption(ExecConstants.METASTORE_USE_STATISTICS_METADATA).bool_val,
                       schemaConfig.getOption(ExecConstants.METASTORE_FALLBACK_TO_FILE_METADATA).bool_val));
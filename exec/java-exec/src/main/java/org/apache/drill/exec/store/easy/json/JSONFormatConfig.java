@@ -40,6 +40,12 @@ public class JSONFormatConfig implements FormatPluginConfig {
   private final Boolean skipMalformedJSONRecords;
   private final Boolean escapeAnyChar;
   private final Boolean nanInf;
+  private final Boolean lineDelimited;
+
+  public JSONFormatConfig(List<String> extensions, Boolean allTextMode, Boolean readNumbersAsDouble,
+      Boolean skipMalformedJSONRecords, Boolean escapeAnyChar, Boolean nanInf) {
+    this(extensions, allTextMode, readNumbersAsDouble, skipMalformedJSONRecords, escapeAnyChar, nanInf, null);
+  }
 
   @JsonCreator
   public JSONFormatConfig(
@@ -48,13 +54,15 @@ public class JSONFormatConfig implements FormatPluginConfig {
       @JsonProperty("readNumbersAsDouble") Boolean readNumbersAsDouble,
       @JsonProperty("skipMalformedJSONRecords") Boolean skipMalformedJSONRecords,
       @JsonProperty("escapeAnyChar") Boolean escapeAnyChar,
-      @JsonProperty("nanInf") Boolean nanInf) {
+      @JsonProperty("nanInf") Boolean nanInf,
+      @JsonProperty("lineDelimited") Boolean lineDelimited) {
     this.extensions = extensions == null ? DEFAULT_EXTS : ImmutableList.copyOf(extensions);
     this.allTextMode = allTextMode;
     this.readNumbersAsDouble = readNumbersAsDouble;
     this.skipMalformedJSONRecords = skipMalformedJSONRecords;
     this.escapeAnyChar = escapeAnyChar;
     this.nanInf = nanInf;
+    this.lineDelimited = lineDelimited;
   }
 
   @JsonInclude(JsonInclude.Include.NON_DEFAULT)
@@ -87,9 +95,20 @@ public class JSONFormatConfig implements FormatPluginConfig {
     return nanInf;
   }
 
+  /**
+   * Whether the files hold one JSON record per line (NDJSON). Such uncompressed
+   * files are split on block boundaries, so that several minor fragments can
+   * scan a single large file.
+   */
+  @JsonInclude(JsonInclude.Include.NON_ABSENT)
+  public Boolean getLineDelimited() {
+    return lineDelimited;
+  }
+
   @Override
   public int hashCode() {
-    return Objects.hash(extensions, allTextMode, readNumbersAsDouble, skipMalformedJSONRecords, escapeAnyChar, nanInf);
+    return Objects.hash(extensions, allTextMode, readNumbersAsDouble, skipMalformedJSONRecords, escapeAnyChar, nanInf,
+      lineDelimited);
   }
 
   @Override
@@ -106,7 +125,8 @@ public class JSONFormatConfig implements FormatPluginConfig {
       Objects.equals(readNumbersAsDouble, other.readNumbersAsDouble) &&
       Objects.equals(skipMalformedJSONRecords, other.skipMalformedJSONRecords) &&
       Objects.equals(escapeAnyChar, other.escapeAnyChar) &&
-      Objects.equals(nanInf, other.nanInf);
+      Objects.equals(nanInf, other.nanInf) &&
+      Objects.equals(lineDelimited, other.lineDelimited);
   }
 
   @Override
@@ -118,6 +138,7 @@ public class JSONFormatConfig implements FormatPluginConfig {
       .field("skipMalformedRecords", skipMalformedJSONRecords)
       .field("escapeAnyChar", escapeAnyChar)
       .field("nanInf", nanInf)
+      .field("lineDelimited", lineDelimited)
       .toString();
   }
 }
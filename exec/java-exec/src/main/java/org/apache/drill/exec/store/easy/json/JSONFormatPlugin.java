@@ -81,7 +81,7 @@ public class JSONFormatPlugin extends EasyFormatPlugin<JSONFormatConfig> {
     return EasyFormatConfig.builder()
       .readable(true)
       .writable(true)
-      .blockSplittable(false)
+      .blockSplittable(isLineDelimited(pluginConfig))
       .compressible(IS_COMPRESSIBLE)
       .supportsProjectPushdown(true)
       .extensions(pluginConfig.getExtensions())
@@ -95,12 +95,19 @@ public class JSONFormatPlugin extends EasyFormatPlugin<JSONFormatConfig> {
       .build();
   }
 
+  private static boolean isLineDelimited(JSONFormatConfig pluginConfig) {
+    return Boolean.TRUE.equals(pluginConfig.getLineDelimited());
+  }
+
   @Override
   public RecordReader getRecordReader(FragmentContext context,
                                       DrillFileSystem dfs,
                                       FileWork fileWork,
                                       List<SchemaPath> columns,
                                       String userName) {
+    if (isLineDelimited(formatConfig)) {
+      return new JSONRecordReader(context, fileWork, dfs, columns, formatConfig);
+    }
     return new JSONRecordReader(context, fileWork.getPath(), dfs, columns, formatConfig);
   }
 
@@ -205,10 +212,11 @@ public class JSONFormatPlugin extends EasyFormatPlugin<JSONFormatConfig> {
   protected FileScanBuilder frameworkBuilder(EasySubScan scan, OptionSet options) throws ExecutionSetupException {
     FileScanBuilder builder = new FileScanBuilder();
     initScanBuilder(builder, scan);
+    boolean lineDelimited = isLineDelimited(formatConfig);
     builder.setReaderFactory(new FileReaderFactory() {
       @Override
       public ManagedReader<? extends FileSchemaNegotiator> newReader() {
-        return new JsonBatchReader();
+        return new JsonBatchReader(lineDelimited);
       }
     });
 
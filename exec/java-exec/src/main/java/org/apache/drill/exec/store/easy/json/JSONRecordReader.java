@@ -33,7 +33,11 @@ import org.apache.drill.exec.physical.impl.OutputMutator;
 import org.apache.drill.exec.server.options.OptionManager;
 import org.apache.drill.exec.server.options.OptionValue.OptionScope;
 import org.apache.drill.exec.store.AbstractRecordReader;
+import org.apache.drill.exec.store.dfs.AsyncDecompressionInputStream;
 import org.apache.drill.exec.store.dfs.DrillFileSystem;
+import org.apache.drill.exec.store.dfs.FrameFormat;
+import org.apache.drill.exec.store.dfs.FrameSplitInputStream;
+import org.apache.drill.exec.store.dfs.easy.FileWork;
 import org.apache.drill.exec.store.easy.json.JsonProcessor.ReadState;
 import org.apache.drill.exec.store.easy.json.reader.CountingJsonReader;
 import org.apache.drill.exec.vector.BaseValueVector;
@@ -41,6 +45,7 @@ import org.apache.drill.exec.vector.complex.fn.JsonReader;
 import org.apache.drill.exec.vector.complex.impl.VectorContainerWriter;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,6 +89,7 @@ public class JSONRecordReader extends AbstractRecordReader {
   private final JSONFormatConfig config;
   private ReadState write;
   private InputStream inputStream;
+  private FileWork fileWork;
 
   /**
    * Create a JSON Record Reader that uses a file based input stream.
@@ -99,6 +105,22 @@ public class JSONRecordReader extends AbstractRecordReader {
     this(fragmentContext, inputPath, null, fileSystem, columns, false, config);
   }
 
+  /**
+   * Create a JSON Record Reader that reads only the lines of a block split of
+   * a newline-delimited JSON file.
+   * @param fragmentContext the Drill fragment
+   * @param fileWork the file and the block split of it to read
+   * @param fileSystem a Drill file system wrapper around the file system implementation
+   * @param columns path names of columns/subfields to read
+   * @param config The JSONFormatConfig for the storage plugin
+   * @throws OutOfMemoryException If there is insufficient memory, Drill will throw an Out of Memory Exception
+   */
+  public JSONRecordReader(FragmentContext fragmentContext, FileWork fileWork, DrillFileSystem fileSystem,
+      List<SchemaPath> columns, JSONFormatConfig config) throws OutOfMemoryException {
+    this(fragmentContext, fileWork.getPath(), null, fileSystem, columns, false, config);
+    this.fileWork = fileWork;
+  }
+
   /**
    * Create a new JSON Record Reader that uses an in memory materialized JSON stream.
    * @param fragmentContext the Drill fragment
@@ -244,7 +266,18 @@ public class JSONRecordReader extends AbstractRecordReader {
   public void setup(OperatorContext context, OutputMutator output) throws ExecutionSetupException {
     try{
       if (hadoopPath != null) {
-        stream = fileSystem.openPossiblyCompressedStream(hadoopPath);
+        FrameFormat frameFormat = FrameFormat.of(hadoopPath);
+        stream = AsyncDecompressionInputStream.wrapIfCompressed(frameFormat == null
+                ? fileSystem.openPossiblyCompressedStream(hadoopPath)
+                : FrameSplitInputStream.open(fileSystem, frameFormat, hadoopPath,
+                    fileWork == null ? 0 : fileWork.getStart(),
+                    fileWork == null ? Long.MAX_VALUE : fileWork.getLength(), JsonBatchReader.NEWLINE),
+            fragmentContext.getOptions(), fragmentContext.getScanDecodeExecutor());
+        // Other compressed files are never split
+        if (fileWork != null && stream instanceof FSDataInputStream) {
+          stream = new LineSplitInputStream((FSDataInputStream) stream,
+              fileWork.getStart(), fileWork.getStart() + fileWork.getLength());
+        }
       }
 
       writer = new VectorContainerWriter(output, unionEnabled);
@@ -25,9 +25,13 @@ import org.apache.drill.common.exceptions.CustomErrorContext;
 import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.exec.physical.impl.scan.file.FileScanFramework.FileSchemaNegotiator;
 import org.apache.drill.exec.physical.impl.scan.framework.ManagedReader;
+import org.apache.drill.exec.store.dfs.AsyncDecompressionInputStream;
 import org.apache.drill.exec.store.dfs.DrillFileSystem;
+import org.apache.drill.exec.store.dfs.FrameFormat;
+import org.apache.drill.exec.store.dfs.FrameSplitInputStream;
 import org.apache.drill.exec.store.easy.json.loader.JsonLoader;
 import org.apache.drill.exec.store.easy.json.loader.JsonLoaderImpl.JsonLoaderBuilder;
+import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.mapred.FileSplit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,8 +43,19 @@ import org.slf4j.LoggerFactory;
 public class JsonBatchReader implements ManagedReader<FileSchemaNegotiator> {
   private static final Logger logger = LoggerFactory.getLogger(JsonBatchReader.class);
 
+  static final byte[] NEWLINE = {'\n'};
+
+  private final boolean lineDelimited;
   private JsonLoader jsonLoader;
 
+  /**
+   * @param lineDelimited whether the file holds one record per line, in which
+   * case only the lines of the block split given to the reader are read
+   */
+  public JsonBatchReader(boolean lineDelimited) {
+    this.lineDelimited = lineDelimited;
+  }
+
   @Override
   public boolean open(FileSchemaNegotiator negotiator) {
     DrillFileSystem fileSystem = negotiator.fileSystem();
@@ -48,7 +63,17 @@ public class JsonBatchReader implements ManagedReader<FileSchemaNegotiator> {
 
     InputStream stream;
     try {
-      stream = fileSystem.openPossiblyCompressedStream(split.getPath());
+      FrameFormat frameFormat = FrameFormat.of(split.getPath());
+      stream = AsyncDecompressionInputStream.wrapIfCompressed(frameFormat == null
+              ? fileSystem.openPossiblyCompressedStream(split.getPath())
+              : FrameSplitInputStream.open(fileSystem, frameFormat, split.getPath(),
+                  split.getStart(), split.getLength(), NEWLINE),
+          negotiator.queryOptions(), negotiator.context().getScanDecodeExecutor());
+      // Other compressed files are never split
+      if (lineDelimited && stream instanceof FSDataInputStream) {
+        stream = new LineSplitInputStream((FSDataInputStream) stream,
+            split.getStart(), split.getStart() + split.getLength());
+      }
     } catch (IOException e) {
       throw UserException
           .dataReadError(e)
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.easy.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+
+/**
+ * Input stream over the lines of a block split of an uncompressed,
+ * newline-delimited file. Splits are handled the way the text reader handles
+ * them: a split which does not start at the beginning of the file skips the
+ * line in progress at its start, and every split reads past its end up to the
+ * end of the line in progress there. Each line of the file is so read by
+ * exactly one split: the one in which the line starts, or the previous one if
+ * the line starts exactly on the split boundary.
+ */
+class LineSplitInputStream extends InputStream {
+
+  private static final int SKIP_BUFFER_SIZE = 8192;
+
+  private final FSDataInputStream in;
+  private final long end;
+  private long pos;
+  private boolean endFound;
+
+  /**
+   * @param in stream over the whole file
+   * @param start position of the first byte of the split
+   * @param end position just past the last byte of the split
+   */
+  LineSplitInputStream(FSDataInputStream in, long start, long end) throws IOException {
+    this.in = in;
+    this.end = end;
+    if (start > 0) {
+      in.seek(start);
+      pos = start;
+      skipLine();
+    }
+  }
+
+  /**
+   * Moves past the first newline found, leaving the stream at the start of
+   * the next line.
+   */
+  private void skipLine() throws IOException {
+    byte[] buffer = new byte[SKIP_BUFFER_SIZE];
+    while (true) {
+      int n = in.read(buffer, 0, buffer.length);
+      if (n < 0) {
+        endFound = true;
+        return;
+      }
+      for (int i = 0; i < n; i++) {
+        if (buffer[i] == '\n') {
+          pos += i + 1;
+          in.seek(pos);
+          // The next line starts past the split, so it belongs to the next one
+          endFound = pos > end;
+          return;
+        }
+      }
+      pos += n;
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] b = new byte[1];
+    int n = read(b, 0, 1);
+    return n <= 0 ? -1 : b[0] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (endFound) {
+      return -1;
+    }
+    int n = in.read(b, off, len);
+    if (n <= 0) {
+      return n;
+    }
+    if (pos + n > end) {
+      // Stop at the end of the line in progress at the end of the split
+      for (int i = (int) Math.max(0, end - pos); i < n; i++) {
+        if (b[off + i] == '\n') {
+          n = i + 1;
+          endFound = true;
+          break;
+        }
+      }
+    }
+    pos += n;
+    return n;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
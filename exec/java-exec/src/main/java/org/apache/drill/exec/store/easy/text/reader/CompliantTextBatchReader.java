@@ -36,6 +36,9 @@ import org.apache.drill.exec.record.metadata.MetadataUtils;
 import org.apache.drill.exec.record.metadata.SchemaBuilder;
 import org.apache.drill.exec.record.metadata.TupleMetadata;
 import org.apache.drill.exec.record.metadata.TupleSchema;
+import org.apache.drill.exec.store.dfs.AsyncDecompressionInputStream;
+import org.apache.drill.exec.store.dfs.FrameFormat;
+import org.apache.drill.exec.store.dfs.FrameSplitInputStream;
 import org.apache.drill.exec.store.easy.text.TextFormatPlugin;
 import org.apache.drill.exec.vector.accessor.ValueWriter;
 import org.apache.hadoop.mapred.FileSplit;
@@ -281,9 +284,26 @@ public class CompliantTextBatchReader implements ManagedReader {
   private TextReader openReader(FileSchemaNegotiator schemaNegotiator, TextOutput output) throws IOException {
     FileSplit split = schemaNegotiator.file().split();
     logger.trace("Opening file {}", split.getPath());
-    final InputStream stream = schemaNegotiator.file().open();
-    final TextInput input = new TextInput(settings, stream, readBuffer,
-        split.getStart(), split.getStart() + split.getLength());
+    final OperatorContext context = schemaNegotiator.context();
+    final FrameFormat frameFormat = FrameFormat.of(split.getPath());
+    final TextInput input;
+    if (frameFormat == null) {
+      final InputStream stream = AsyncDecompressionInputStream.wrapIfCompressed(schemaNegotiator.file().open(),
+          context.getFragmentContext().getOptions(), context.getScanDecodeExecutor());
+      input = new TextInput(settings, stream, readBuffer,
+          split.getStart(), split.getStart() + split.getLength());
+    } else {
+      // The split stream skips the line in progress at the start of the split
+      // and stops after the one in progress at its end, in decompressed data
+      if (split.getStart() > 0) {
+        settings.setSkipFirstLine(false);
+      }
+      final InputStream stream = AsyncDecompressionInputStream.wrapIfCompressed(
+          FrameSplitInputStream.open(schemaNegotiator.file().fileSystem(), frameFormat, split.getPath(),
+              split.getStart(), split.getLength(), settings.getNewLineDelimiter()),
+          context.getFragmentContext().getOptions(), context.getScanDecodeExecutor());
+      input = new TextInput(settings, stream, readBuffer, 0, Long.MAX_VALUE);
+    }
 
     // setup Reader using Input and Output
     TextReader reader = new TextReader(settings, input, output, whitespaceBuffer);
@@ -311,7 +331,11 @@ public class CompliantTextBatchReader implements ManagedReader {
 
     FileSplit split = schemaNegotiator.file().split();
     logger.trace("Opening file {}", split.getPath());
-    final InputStream hStream = schemaNegotiator.file().open();
+    final FrameFormat frameFormat = FrameFormat.of(split.getPath());
+    final InputStream hStream = frameFormat == null
+        ? schemaNegotiator.file().open()
+        : FrameSplitInputStream.open(schemaNegotiator.file().fileSystem(), frameFormat, split.getPath(),
+            0, Long.MAX_VALUE, settings.getNewLineDelimiter());
     final HeaderBuilder hOutput = new HeaderBuilder(split.getPath());
 
     // we should read file header irrespective of split given given to this reader
@@ -25,6 +25,8 @@ import java.io.InputStream;
 import java.nio.ByteBuffer;
 
 import com.google.common.base.Preconditions;
+import org.apache.drill.exec.store.dfs.AsyncDecompressionInputStream;
+import org.apache.drill.exec.store.dfs.FrameSplitInputStream;
 import org.apache.hadoop.fs.ByteBufferReadable;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.Seekable;
@@ -97,7 +99,9 @@ final class TextInput {
     this.lineSeparator = settings.getNewLineDelimiter();
     byte normalizedLineSeparator = settings.getNormalizedNewLine();
     Preconditions.checkArgument(input instanceof Seekable, "Text input only supports an InputStream that supports Seekable.");
-    boolean isCompressed = input instanceof CompressionInputStream;
+    boolean isCompressed = input instanceof CompressionInputStream
+        || input instanceof AsyncDecompressionInputStream
+        || input instanceof FrameSplitInputStream;
     Preconditions.checkArgument(!isCompressed || startPos == 0, "Cannot use split on compressed stream.");
 
     // splits aren't allowed with compressed data.  The split length will be the
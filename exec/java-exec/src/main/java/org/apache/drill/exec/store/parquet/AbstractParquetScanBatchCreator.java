@@ -23,6 +23,7 @@ import org.apache.drill.common.expression.SchemaPath;
 import org.apache.drill.common.expression.ValueExpressions;
 import org.apache.drill.common.types.TypeProtos;
 import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.cache.TableCache;
 import org.apache.drill.exec.expr.FilterPredicate;
 import org.apache.drill.exec.expr.stat.RowsMatch;
 import org.apache.drill.exec.ops.ExecutorFragmentContext;
@@ -59,6 +60,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -85,6 +87,7 @@ public abstract class AbstractParquetScanBatchCreator {
 
     // keep footers in a map to avoid re-reading them
     Map<Path, ParquetMetadata> footers = new HashMap<>();
+    Map<Path, FileStatus> fileStatuses = new HashMap<>();
     List<CommonParquetRecordReader> readers = new LinkedList<>();
     List<Map<String, String>> implicitColumns = new ArrayList<>();
     Map<String, String> mapWithMaxColumns = new LinkedHashMap<>();
@@ -92,6 +95,8 @@ public abstract class AbstractParquetScanBatchCreator {
     RowGroupReadEntry firstRowGroup = null; // to be scanned in case ALL row groups are pruned out
     ParquetMetadata firstFooter = null;
     long rowGroupsPruned = 0; // for stats
+    TableCache tableCache = getTableCache(context, rowGroupScan);
+    long metastoreVersion = tableCache == null ? -1 : getMetastoreVersion(context);
 
     try {
       LogicalExpression filterExpr = rowGroupScan.getFilter();
@@ -130,6 +135,10 @@ public abstract class AbstractParquetScanBatchCreator {
         }
         doRuntimePruning = ! columnsInExpr.isEmpty(); // just in case: if no columns - cancel pruning
       }
+      // Skipping pages is only supported by the reader of flat data
+      boolean skipPages = doRuntimePruning
+          && context.getOptions().getBoolean(ExecConstants.PARQUET_PAGEREADER_PAGE_INDEX_FILTER)
+          && !context.getOptions().getBoolean(ExecConstants.PARQUET_NEW_RECORD_READER);
 
       for (RowGroupReadEntry rowGroup : rowGroupScan.getRowGroupReadEntries()) {
         /*
@@ -147,7 +156,9 @@ public abstract class AbstractParquetScanBatchCreator {
             timer.start();
           }
 
-          ParquetMetadata footer = readFooter(fs.getConf(), rowGroup.getPath(), readerConfig);
+          FileStatus fileStatus = fs.getFileStatus(rowGroup.getPath());
+          fileStatuses.put(rowGroup.getPath(), fileStatus);
+          ParquetMetadata footer = readFooter(fs, fileStatus, readerConfig);
           if (timer != null) {
             long timeToRead = timer.elapsed(TimeUnit.MICROSECONDS);
             logger.trace("ParquetTrace,Read Footer,{},{},{},{},{},{},{}", "", rowGroup.getPath(), "", 0, 0, 0, timeToRead);
@@ -155,6 +166,7 @@ public abstract class AbstractParquetScanBatchCreator {
           footers.put(rowGroup.getPath(), footer);
         }
         ParquetMetadata footer = footers.get(rowGroup.getPath());
+        SkippedPages skippedPages = SkippedPages.NONE;
 
         //
         //   If a filter is given (and it is not just "TRUE") - then use it to perform run-time pruning
@@ -181,7 +193,7 @@ public abstract class AbstractParquetScanBatchCreator {
               tableMetadataV4 = new Metadata_V4.ParquetTableMetadata_v4();
 
               // The file status for this file
-              FileStatus fileStatus = fs.getFileStatus(rowGroup.getPath());
+              FileStatus fileStatus = fileStatuses.get(rowGroup.getPath());
 
               // The file metadata (only for the columns used in the filter)
               fileMetadataV4 = Metadata.getParquetFileMetadata_v4(tableMetadataV4, footer, fileStatus, fs, false, true, columnsInExpr, readerConfig);
@@ -212,6 +224,13 @@ public abstract class AbstractParquetScanBatchCreator {
 
               matchResult = FilterEvaluatorUtils.matches(filterPredicate, columnsStatistics, footerRowCount, rowGroupSchema, schemaPathsInExpr, context);
 
+              // Some rows may match - look for the pages of the row group which cannot match
+              if (skipPages && matchResult == RowsMatch.SOME) {
+                skippedPages = PageIndexFilter.getSkippedPages(fs, fileStatuses.get(rowGroup.getPath()), footer, rowGroupIndex,
+                    rowGroupScan.getColumns(), rowGroupMetadata, tableMetadataV4, filterPredicate, rowGroupSchema,
+                    schemaPathsInExpr, readerConfig, context);
+              }
+
               // collect logging info
               long timeToRead = pruneTimer.elapsed(TimeUnit.MICROSECONDS);
               totalPruneTime += timeToRead;
@@ -238,14 +257,18 @@ public abstract class AbstractParquetScanBatchCreator {
           }
         }
 
-        mapWithMaxColumns = createReaderAndImplicitColumns(context, rowGroupScan, oContext, columnExplorer, readers, implicitColumns, mapWithMaxColumns, rowGroup, fs, footer, false);
+        mapWithMaxColumns = createReaderAndImplicitColumns(context, rowGroupScan, oContext, columnExplorer, readers, implicitColumns, mapWithMaxColumns, rowGroup, fs, footer, skippedPages, false);
+        if (tableCache != null) {
+          cacheReader(context, rowGroupScan, readers, rowGroup, footer, fileStatuses.get(rowGroup.getPath()),
+              skippedPages, tableCache, metastoreVersion);
+        }
       }
 
       // in case all row groups were pruned out - create a single reader for the first one (so that the schema could be returned)
       if (readers.isEmpty() && firstRowGroup != null) {
         DrillFileSystem fs = fsManager.get(rowGroupScan.getFsConf(firstRowGroup), firstRowGroup.getPath());
         mapWithMaxColumns = createReaderAndImplicitColumns(context, rowGroupScan, oContext, columnExplorer, readers, implicitColumns, mapWithMaxColumns, firstRowGroup, fs,
-          firstFooter, true);
+          firstFooter, SkippedPages.NONE, true);
       }
       // do some logging, if relevant
       if (totalPruneTime > 0)  {
@@ -284,6 +307,7 @@ public abstract class AbstractParquetScanBatchCreator {
    * @param rowGroup create a reader for this specific row group
    * @param fs file system
    * @param footer this file's footer
+   * @param skippedPages data pages of the row group to skip
    * @param readSchemaOnly if true sets the number of rows to read to be zero
    * @return the (possibly modified) input mapWithMaxColumns
    */
@@ -297,6 +321,7 @@ public abstract class AbstractParquetScanBatchCreator {
                                                              RowGroupReadEntry rowGroup,
                                                              DrillFileSystem fs,
                                                              ParquetMetadata footer,
+                                                             SkippedPages skippedPages,
                                                              boolean readSchemaOnly) {
     ParquetReaderConfig readerConfig = rowGroupScan.getReaderConfig();
     ParquetReaderUtility.DateCorruptionStatus containsCorruptDates = ParquetReaderUtility.detectCorruptDates(footer,
@@ -335,13 +360,14 @@ public abstract class AbstractParquetScanBatchCreator {
         ccf,
         footer,
         rowGroupScan.getColumns(),
-        containsCorruptDates);
+        containsCorruptDates,
+        skippedPages);
     }
 
     logger.debug("Query {} uses {}",
         QueryIdHelper.getQueryId(oContext.getFragmentContext().getHandle().getQueryId()),
         reader.getClass().getSimpleName());
-    readers.add(reader);
+    readers.add(wrapReader(context, rowGroupScan, rowGroup, footer, reader));
 
     Map<String, String> implicitValues = getImplicitValues(rowGroupScan, columnExplorer, rowGroup, fs);
     implicitColumns.add(implicitValues);
@@ -351,6 +377,78 @@ public abstract class AbstractParquetScanBatchCreator {
     return mapWithMaxColumns;
   }
 
+  /**
+   * Replaces the last reader with a reader of the {@link TableCache}, if the
+   * row group is read whole.
+   */
+  private void cacheReader(ExecutorFragmentContext context,
+                           AbstractParquetRowGroupScan rowGroupScan,
+                           List<CommonParquetRecordReader> readers,
+                           RowGroupReadEntry rowGroup,
+                           ParquetMetadata footer,
+                           FileStatus fileStatus,
+                           SkippedPages skippedPages,
+                           TableCache tableCache,
+                           long metastoreVersion) {
+    List<SchemaPath> columns = rowGroupScan.getColumns();
+    long rowCount = footer.getBlocks().get(rowGroup.getRowGroupIndex()).getRowCount();
+    long recordsToRead = rowGroup.getNumRecordsToRead();
+    if (columns.isEmpty() || rowCount == 0 ||
+        (recordsToRead != CommonParquetRecordReader.NUM_RECORDS_TO_READ_NOT_SPECIFIED && recordsToRead < rowCount)) {
+      return;
+    }
+    CommonParquetRecordReader reader = readers.remove(readers.size() - 1);
+    OptionManager options = context.getOptions();
+    // The settings which change the vectors the readers return
+    List<Object> readerSignature = Arrays.asList(
+        rowGroupScan.getReaderConfig(),
+        reader.getClass(),
+        options.getBoolean(ExecConstants.PARQUET_READER_INT96_AS_TIMESTAMP),
+        options.getBoolean(ExecConstants.PARQUET_READER_TIME_MICROS_AS_INT64),
+        options.getBoolean(ExecConstants.PARQUET_READER_TIMESTAMP_MICROS_AS_INT64),
+        options.getBoolean(ExecConstants.PARQUET_READER_ENABLE_MAP_SUPPORT));
+    TableCache.Key key = new TableCache.Key(rowGroup.getPath(), rowGroup.getRowGroupIndex(), readerSignature);
+    // The pages skipped by the filter are missing from the batches of the reader
+    boolean cacheable = skippedPages.isEmpty();
+    readers.add(new CachedParquetRecordReader(context, footer, reader, tableCache, key, fileStatus,
+        metastoreVersion, columns, cacheable));
+  }
+
+  /**
+   * @return the table cache of the Drillbit if the table is marked with
+   * {@code CACHE TABLE}, or null
+   */
+  private TableCache getTableCache(ExecutorFragmentContext context, AbstractParquetRowGroupScan rowGroupScan) {
+    TableCache tableCache = context.getTableCache();
+    return tableCache != null && tableCache.isCached(rowGroupScan.getSelectionRoot()) ? tableCache : null;
+  }
+
+  private long getMetastoreVersion(ExecutorFragmentContext context) {
+    if (!context.getOptions().getBoolean(ExecConstants.METASTORE_ENABLED)) {
+      return -1;
+    }
+    return context.getMetastoreRegistry().get().tables().metadata().version();
+  }
+
+  /**
+   * Allows a format to post-process the batches of the reader of a row group,
+   * for example to drop the rows deleted by the table format.
+   *
+   * @param context the fragment context
+   * @param rowGroupScan the row group scan
+   * @param rowGroup the row group read by the reader
+   * @param footer the footer of the file of the row group
+   * @param reader the reader of the row group
+   * @return the reader to use for the row group
+   */
+  protected CommonParquetRecordReader wrapReader(ExecutorFragmentContext context,
+                                                 AbstractParquetRowGroupScan rowGroupScan,
+                                                 RowGroupReadEntry rowGroup,
+                                                 ParquetMetadata footer,
+                                                 CommonParquetRecordReader reader) {
+    return reader;
+  }
+
   protected Map<String, String> getImplicitValues(AbstractParquetRowGroupScan rowGroupScan, ColumnExplorer columnExplorer, RowGroupReadEntry rowGroup, DrillFileSystem fs) {
     List<String> partitionValues = rowGroupScan.getPartitionValues(rowGroup);
     return columnExplorer.populateColumns(rowGroup.getPath(), partitionValues,
@@ -359,11 +457,15 @@ public abstract class AbstractParquetScanBatchCreator {
 
   protected abstract AbstractDrillFileSystemManager getDrillFileSystemCreator(OperatorContext operatorContext, OptionManager optionManager);
 
-  private ParquetMetadata readFooter(Configuration conf, Path path, ParquetReaderConfig readerConfig) throws IOException {
-    try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path,
-      readerConfig.addCountersToConf(conf)), readerConfig.toReadOptions())) {
-      return reader.getFooter();
-    }
+  private ParquetMetadata readFooter(DrillFileSystem fs, FileStatus status, ParquetReaderConfig readerConfig)
+      throws IOException, InterruptedException {
+    Configuration conf = readerConfig.addCountersToConf(fs.getConf());
+    return ParquetFooterCache.getInstance().get(status, readerConfig, () -> {
+      try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromStatus(status, conf),
+        readerConfig.toReadOptions())) {
+        return reader.getFooter();
+      }
+    });
   }
 
   /**
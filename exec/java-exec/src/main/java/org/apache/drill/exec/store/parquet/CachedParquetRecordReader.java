@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.drill.common.exceptions.ExecutionSetupException;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.types.TypeProtos.MajorType;
+import org.apache.drill.exec.cache.TableCache;
+import org.apache.drill.exec.exception.OutOfMemoryException;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.expr.TypeHelper;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.ops.OperatorContext;
+import org.apache.drill.exec.physical.impl.OutputMutator;
+import org.apache.drill.exec.physical.impl.RecordingOutputMutator;
+import org.apache.drill.exec.proto.UserBitShared.SerializedField;
+import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.store.CommonParquetRecordReader;
+import org.apache.drill.exec.util.Utilities;
+import org.apache.drill.exec.vector.ValueVector;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.buffer.DrillBuf;
+
+/**
+ * Reads a row group of a table marked with {@code CACHE TABLE} from the
+ * {@link TableCache} of the Drillbit, or with the given reader when it is not
+ * cached. The batches returned by the given reader are then copied to the
+ * cache, once the whole row group has been read.
+ * <p>
+ * Cached batches are loaded in the vectors of the scan without copying nor
+ * decoding: the vectors share the cached buffers, as the vectors of an
+ * exchange share the buffers of the incoming batches.
+ */
+public class CachedParquetRecordReader extends CommonParquetRecordReader {
+  private static final Logger logger = LoggerFactory.getLogger(CachedParquetRecordReader.class);
+
+  private final CommonParquetRecordReader delegate;
+  private final TableCache cache;
+  private final TableCache.Key key;
+  private final FileStatus status;
+  private final long metastoreVersion;
+  private final List<SchemaPath> columns;
+  private final boolean cacheable;
+  // Lower case names of the projected top level columns, or null for all the columns
+  private final Set<String> projectedNames;
+
+  private TableCache.Entry entry;
+  private int batchIndex;
+  private OutputMutator output;
+  private RecordingOutputMutator recorder;
+  private List<TableCache.CachedBatch> recorded;
+  private long recordedSize;
+  private boolean complete;
+
+  /**
+   * @param fragmentContext fragment context
+   * @param footer footer of the file
+   * @param delegate reader of the row group, used when it is not cached
+   * @param cache cache of the Drillbit
+   * @param key cached row group
+   * @param status status of the file
+   * @param metastoreVersion version of the Metastore, or -1 if it is disabled
+   * @param columns columns to read
+   * @param cacheable whether the delegate reads the whole row group, so that
+   * its batches may be cached
+   */
+  public CachedParquetRecordReader(FragmentContext fragmentContext, ParquetMetadata footer,
+                                   CommonParquetRecordReader delegate, TableCache cache, TableCache.Key key,
+                                   FileStatus status, long metastoreVersion, List<SchemaPath> columns,
+                                   boolean cacheable) {
+    super(footer, fragmentContext);
+    this.delegate = delegate;
+    this.cache = cache;
+    this.key = key;
+    this.status = status;
+    this.metastoreVersion = metastoreVersion;
+    this.columns = columns;
+    this.cacheable = cacheable;
+    if (Utilities.isStarQuery(columns)) {
+      projectedNames = null;
+    } else {
+      projectedNames = new HashSet<>();
+      columns.forEach(column -> projectedNames.add(column.getRootSegmentPath().toLowerCase()));
+    }
+  }
+
+  @Override
+  public void setup(OperatorContext context, OutputMutator output) throws ExecutionSetupException {
+    this.operatorContext = context;
+    entry = cache.get(key, status, metastoreVersion, columns);
+    if (entry != null) {
+      logger.trace("Reading {} from the table cache", key);
+      this.output = output;
+      return;
+    }
+    if (cacheable) {
+      recorder = new RecordingOutputMutator(output);
+      recorded = new ArrayList<>();
+      delegate.setup(context, recorder);
+    } else {
+      delegate.setup(context, output);
+    }
+  }
+
+  @Override
+  public void allocate(Map<String, ValueVector> vectorMap) throws OutOfMemoryException {
+    // Cached batches are loaded in the vectors
+    if (entry == null) {
+      delegate.allocate(vectorMap);
+    }
+  }
+
+  @Override
+  public int next() {
+    if (entry != null) {
+      return nextCached();
+    }
+    int recordCount = delegate.next();
+    if (recorded != null) {
+      if (recordCount > 0) {
+        record(recordCount);
+      } else {
+        complete = true;
+      }
+    }
+    return recordCount;
+  }
+
+  private int nextCached() {
+    List<TableCache.CachedBatch> batches = entry.getBatches();
+    if (batchIndex == batches.size()) {
+      return 0;
+    }
+    TableCache.CachedBatch batch = batches.get(batchIndex++);
+    // Accounts the shared buffer to the scan, as long as its vectors hold it
+    DrillBuf body = batch.getBody().retain(operatorContext.getAllocator());
+    try {
+      int offset = 0;
+      for (SerializedField field : batch.getDef().getFieldList()) {
+        int length = field.getBufferLength();
+        if (projectedNames == null || projectedNames.contains(field.getNamePart().getName().toLowerCase())) {
+          MaterializedField materializedField = MaterializedField.create(field);
+          MajorType type = materializedField.getType();
+          ValueVector vector = output.addField(materializedField,
+              TypeHelper.getValueVectorClass(type.getMinorType(), type.getMode()));
+          vector.load(field, body.slice(offset, length));
+        }
+        offset += length;
+      }
+    } catch (SchemaChangeException e) {
+      throw handleAndRaise("Failure loading a cached batch of " + key, e);
+    } finally {
+      body.release();
+    }
+    return batch.getRecordCount();
+  }
+
+  /**
+   * Copies the batch returned by the delegate, unless the copies of the row
+   * group would not fit in the cache.
+   */
+  private void record(int recordCount) {
+    try {
+      TableCache.CachedBatch batch = TableCache.CachedBatch.copyOf(cache.getAllocator(),
+          recorder.getVectors(), recordCount);
+      recorded.add(batch);
+      recordedSize += batch.getSize();
+      if (recordedSize <= cache.getMaxSize()) {
+        return;
+      }
+      logger.debug("Row group {} does not fit in the table cache", key);
+    } catch (OutOfMemoryException e) {
+      logger.debug("No memory left in the table cache for row group {}", key);
+    }
+    discardRecorded();
+  }
+
+  private void discardRecorded() {
+    recorded.forEach(TableCache.CachedBatch::release);
+    recorded = null;
+  }
+
+  @Override
+  public void updateRowGroupsStats(long numRowGroups, long rowGroupsPruned) {
+    delegate.updateRowGroupsStats(numRowGroups, rowGroupsPruned);
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (entry != null) {
+      entry.release();
+      entry = null;
+    }
+    try {
+      delegate.close();
+    } finally {
+      if (recorded != null) {
+        // A row group read partly, because of a limit or of a failure, is not cached
+        if (complete && !recorded.isEmpty()) {
+          cache.put(key, new TableCache.Entry(status, metastoreVersion, columns, recorded));
+          recorded = null;
+        } else {
+          discardRecorded();
+        }
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CachedParquetRecordReader[Row group=" + key
+        + ", Cached=" + (entry != null)
+        + ", Reader=" + delegate + "]";
+  }
+}
@@ -19,6 +19,7 @@ package org.apache.drill.exec.store.parquet;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -136,13 +137,24 @@ public class FooterGatherer {
 
   /**
    * An updated footer reader that tries to read the entire footer without knowing the length.
-   * This should reduce the amount of seek/read roundtrips in most workloads.
+   * This should reduce the amount of seek/read roundtrips in most workloads. Footers already
+   * read are taken from the {@link ParquetFooterCache}.
    * @param config configuration for file system
    * @param status file status
    * @return Footer
    * @throws IOException
    */
   public static Footer readFooter(final Configuration config, final FileStatus status) throws IOException {
+    try {
+      ParquetMetadata metadata = ParquetFooterCache.getInstance().get(status, false, () -> readMetadata(config, status));
+      return new Footer(status.getPath(), metadata);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(e.getMessage());
+    }
+  }
+
+  private static ParquetMetadata readMetadata(final Configuration config, final FileStatus status) throws IOException {
     final FileSystem fs = status.getPath().getFileSystem(config);
     try(FSDataInputStream file = fs.open(status.getPath())) {
 
@@ -171,9 +183,7 @@ public class FooterGatherer {
       }
 
       final ByteArrayInputStream from = new ByteArrayInputStream(footerBytes);
-      ParquetMetadata metadata = ParquetFormatPlugin.parquetMetadataConverter.readParquetMetadata(from, NO_FILTER);
-      Footer footer = new Footer(status.getPath(), metadata);
-      return footer;
+      return ParquetFormatPlugin.parquetMetadataConverter.readParquetMetadata(from, NO_FILTER);
     }
   }
 }
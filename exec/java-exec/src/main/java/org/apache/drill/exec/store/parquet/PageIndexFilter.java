@@ -0,0 +1,347 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.exec.expr.FilterPredicate;
+import org.apache.drill.exec.expr.stat.RowsMatch;
+import org.apache.drill.exec.ops.UdfUtilities;
+import org.apache.drill.exec.record.metadata.TupleMetadata;
+import org.apache.drill.exec.store.dfs.DrillFileSystem;
+import org.apache.drill.exec.store.parquet.metadata.FileMetadataCollector;
+import org.apache.drill.exec.store.parquet.metadata.MetadataBase;
+import org.apache.drill.exec.store.parquet.metadata.Metadata_V4;
+import org.apache.drill.exec.util.Utilities;
+import org.apache.drill.metastore.statistics.ColumnStatistics;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.format.Util;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.internal.hadoop.metadata.IndexReference;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds the data pages of a row group which cannot match the filter of a query,
+ * using the column indexes and offset indexes of the Parquet file: the min/max
+ * and null counts of each page, and the rows it holds.
+ * <p>
+ * The readers of the columns of a row group go through their pages in step and
+ * cannot skip rows inside a page, so the row group is split at the rows where
+ * a page of every column read, and of every column of the filter, starts. The
+ * statistics of the filter columns over each of these row ranges are evaluated
+ * with the filter, the same way as those of whole row groups, and the pages
+ * of the ranges which match no rows are skipped by all the columns read.
+ * Nothing is skipped when the file has no page index, or when a column read
+ * is nested or repeated.
+ * <p>
+ * The indexes are read through the {@link ParquetFooterCache}, so the file is
+ * opened only for the indexes not cached yet.
+ */
+public class PageIndexFilter {
+
+  private static final Logger logger = LoggerFactory.getLogger(PageIndexFilter.class);
+
+  /**
+   * Finds the data pages of a row group to skip. Any failure is logged and
+   * results in all the pages being read.
+   *
+   * @param fs file system of the file
+   * @param status status of the file
+   * @param footer footer of the file
+   * @param rowGroupIndex index of the row group in the file
+   * @param columns columns read
+   * @param rowGroupMetadata metadata of the row group, with the statistics of the filter columns
+   * @param tableMetadata metadata of the table the row group metadata belongs to
+   * @param filterPredicate filter of the query
+   * @param rowGroupSchema schema of the row group
+   * @param schemaPathsInExpr columns of the filter
+   * @param readerConfig Parquet reader configuration
+   * @param udfUtilities UDF utilities used to evaluate the filter
+   * @return data pages of the column chunks to skip
+   */
+  public static SkippedPages getSkippedPages(DrillFileSystem fs,
+                                             FileStatus status,
+                                             ParquetMetadata footer,
+                                             int rowGroupIndex,
+                                             List<SchemaPath> columns,
+                                             MetadataBase.RowGroupMetadata rowGroupMetadata,
+                                             Metadata_V4.ParquetTableMetadata_v4 tableMetadata,
+                                             FilterPredicate<?> filterPredicate,
+                                             TupleMetadata rowGroupSchema,
+                                             Set<SchemaPath> schemaPathsInExpr,
+                                             ParquetReaderConfig readerConfig,
+                                             UdfUtilities udfUtilities) {
+    try {
+      return findSkippedPages(fs, status, footer, rowGroupIndex, columns, rowGroupMetadata, tableMetadata,
+          filterPredicate, rowGroupSchema, schemaPathsInExpr, readerConfig, udfUtilities);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return SkippedPages.NONE;
+    } catch (Exception e) {
+      logger.warn("Page index filtering failed - {}. Reading all the pages of row group {} of {}",
+          e.getMessage(), rowGroupIndex, status.getPath());
+      logger.debug("Failure during page index filtering: {}", e.getMessage(), e);
+      return SkippedPages.NONE;
+    }
+  }
+
+  private static SkippedPages findSkippedPages(DrillFileSystem fs,
+                                               FileStatus status,
+                                               ParquetMetadata footer,
+                                               int rowGroupIndex,
+                                               List<SchemaPath> columns,
+                                               MetadataBase.RowGroupMetadata rowGroupMetadata,
+                                               Metadata_V4.ParquetTableMetadata_v4 tableMetadata,
+                                               FilterPredicate<?> filterPredicate,
+                                               TupleMetadata rowGroupSchema,
+                                               Set<SchemaPath> schemaPathsInExpr,
+                                               ParquetReaderConfig readerConfig,
+                                               UdfUtilities udfUtilities)
+      throws IOException, InterruptedException {
+    BlockMetaData block = footer.getBlocks().get(rowGroupIndex);
+    MessageType schema = footer.getFileMetaData().getSchema();
+    long rowCount = block.getRowCount();
+
+    Map<ColumnPath, ColumnChunkMetaData> chunks = new HashMap<>();
+    for (ColumnChunkMetaData chunk : block.getColumns()) {
+      chunks.put(chunk.getPath(), chunk);
+    }
+
+    // The columns read by the Parquet reader are among those matching the root of a projected column
+    Set<ColumnPath> readColumns = new HashSet<>();
+    boolean starQuery = Utilities.isStarQuery(columns);
+    for (ColumnChunkMetaData chunk : block.getColumns()) {
+      if (starQuery || isProjected(chunk.getPath(), columns)) {
+        readColumns.add(chunk.getPath());
+      }
+    }
+    Set<ColumnPath> filterColumns = new HashSet<>();
+    for (MetadataBase.ColumnMetadata column : rowGroupMetadata.getColumns()) {
+      filterColumns.add(ColumnPath.get(column.getName()));
+    }
+    if (readColumns.isEmpty() || !chunks.keySet().containsAll(filterColumns)) {
+      return SkippedPages.NONE;
+    }
+    Set<ColumnPath> indexedColumns = new HashSet<>(readColumns);
+    indexedColumns.addAll(filterColumns);
+    for (ColumnPath column : indexedColumns) {
+      // Nested and repeated columns are not read by the reader of flat data
+      if (column.toArray().length > 1
+          || schema.getColumnDescription(column.toArray()).getMaxRepetitionLevel() > 0) {
+        return SkippedPages.NONE;
+      }
+    }
+
+    Map<ColumnPath, OffsetIndex> offsetIndexes = new HashMap<>();
+    Map<ColumnPath, ColumnIndex> columnIndexes = new HashMap<>();
+    ParquetFooterCache cache = ParquetFooterCache.getInstance();
+    try (IndexInput in = new IndexInput(fs, status.getPath())) {
+      for (ColumnPath column : indexedColumns) {
+        OffsetIndex offsetIndex = cache.getOffsetIndex(status, chunks.get(column), in::readOffsetIndex);
+        if (offsetIndex == null) {
+          return SkippedPages.NONE;
+        }
+        offsetIndexes.put(column, offsetIndex);
+      }
+      for (ColumnPath column : filterColumns) {
+        ColumnChunkMetaData chunk = chunks.get(column);
+        ColumnIndex columnIndex = cache.getColumnIndex(status, chunk,
+            reference -> in.readColumnIndex(reference, chunk.getPrimitiveType()));
+        if (columnIndex == null || columnIndex.getNullCounts() == null) {
+          return SkippedPages.NONE;
+        }
+        columnIndexes.put(column, columnIndex);
+      }
+    }
+
+    // Rows where a page of every column starts
+    TreeSet<Long> boundaries = null;
+    for (OffsetIndex offsetIndex : offsetIndexes.values()) {
+      Set<Long> firstRows = new HashSet<>();
+      for (int i = 0; i < offsetIndex.getPageCount(); i++) {
+        firstRows.add(offsetIndex.getFirstRowIndex(i));
+      }
+      if (boundaries == null) {
+        boundaries = new TreeSet<>(firstRows);
+      } else {
+        boundaries.retainAll(firstRows);
+      }
+    }
+    if (boundaries == null || boundaries.size() < 2) {
+      return SkippedPages.NONE;
+    }
+    long[] rangeStarts = boundaries.stream().mapToLong(Long::longValue).toArray();
+
+    // Statistics of the filter columns for each row range
+    Map<ColumnPath, Statistics<?>[]> rangeStatistics = new HashMap<>();
+    for (ColumnPath column : filterColumns) {
+      PrimitiveType type = chunks.get(column).getPrimitiveType();
+      rangeStatistics.put(column, getRangeStatistics(type, columnIndexes.get(column), offsetIndexes.get(column), rangeStarts));
+    }
+
+    ParquetReaderUtility.DateCorruptionStatus containsCorruptDates = ParquetReaderUtility.detectCorruptDates(footer,
+        Collections.singletonList(SchemaPath.STAR_COLUMN), readerConfig.autoCorrectCorruptedDates());
+    BitSet skippedRanges = new BitSet(rangeStarts.length);
+    long skippedRows = 0;
+    for (int range = 0; range < rangeStarts.length; range++) {
+      long rangeRowCount = (range + 1 < rangeStarts.length ? rangeStarts[range + 1] : rowCount) - rangeStarts[range];
+      List<Metadata_V4.ColumnMetadata_v4> rangeColumns = new ArrayList<>();
+      for (Map.Entry<ColumnPath, Statistics<?>[]> entry : rangeStatistics.entrySet()) {
+        PrimitiveType type = chunks.get(entry.getKey()).getPrimitiveType();
+        rangeColumns.add(FileMetadataCollector.getColumnMetadata(entry.getKey().toArray(),
+            type.getPrimitiveTypeName(), type.getOriginalType(), entry.getValue()[range], containsCorruptDates,
+            !readerConfig.readTimeMicrosAsInt64(), !readerConfig.readTimestampMicrosAsInt64()));
+      }
+      Metadata_V4.RowGroupMetadata_v4 rangeMetadata = new Metadata_V4.RowGroupMetadata_v4(rowGroupMetadata.getStart(),
+          rowGroupMetadata.getLength(), rangeRowCount, rowGroupMetadata.getHostAffinity(), rangeColumns);
+      Map<SchemaPath, ColumnStatistics<?>> columnsStatistics =
+          ParquetTableMetadataUtils.getRowGroupColumnStatistics(tableMetadata, rangeMetadata);
+      if (FilterEvaluatorUtils.matches(filterPredicate, columnsStatistics, rangeRowCount, rowGroupSchema,
+          schemaPathsInExpr, udfUtilities) == RowsMatch.NONE) {
+        skippedRanges.set(range);
+        skippedRows += rangeRowCount;
+      }
+    }
+    if (skippedRows == 0) {
+      return SkippedPages.NONE;
+    }
+
+    Map<ColumnPath, BitSet> pages = new HashMap<>();
+    for (ColumnPath column : readColumns) {
+      OffsetIndex offsetIndex = offsetIndexes.get(column);
+      BitSet columnPages = new BitSet(offsetIndex.getPageCount());
+      for (int i = 0; i < offsetIndex.getPageCount(); i++) {
+        if (skippedRanges.get(getRange(rangeStarts, offsetIndex.getFirstRowIndex(i)))) {
+          columnPages.set(i);
+        }
+      }
+      pages.put(column, columnPages);
+    }
+    logger.debug("Skipping {} of {} rows of row group {} of {} using the page index",
+        skippedRows, rowCount, rowGroupIndex, status.getPath());
+    return new SkippedPages(pages, skippedRows);
+  }
+
+  private static boolean isProjected(ColumnPath column, List<SchemaPath> columns) {
+    String root = column.toArray()[0];
+    for (SchemaPath projected : columns) {
+      if (projected.getRootSegmentPath().equalsIgnoreCase(root)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Reads the indexes of a file, opening it for the first index read.
+   */
+  private static class IndexInput implements Closeable {
+    private final DrillFileSystem fs;
+    private final Path path;
+    private FSDataInputStream in;
+
+    IndexInput(DrillFileSystem fs, Path path) {
+      this.fs = fs;
+      this.path = path;
+    }
+
+    private FSDataInputStream seek(IndexReference reference) throws IOException {
+      if (in == null) {
+        in = fs.open(path);
+      }
+      in.seek(reference.getOffset());
+      return in;
+    }
+
+    OffsetIndex readOffsetIndex(IndexReference reference) throws IOException {
+      return ParquetMetadataConverter.fromParquetOffsetIndex(Util.readOffsetIndex(seek(reference)));
+    }
+
+    ColumnIndex readColumnIndex(IndexReference reference, PrimitiveType type) throws IOException {
+      return ParquetMetadataConverter.fromParquetColumnIndex(type, Util.readColumnIndex(seek(reference)));
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (in != null) {
+        in.close();
+      }
+    }
+  }
+
+  /**
+   * Merges the statistics of the pages of a column chunk over each row range.
+   * The pages do not overlap the ranges, which start with pages of every column.
+   */
+  private static Statistics<?>[] getRangeStatistics(PrimitiveType type, ColumnIndex columnIndex,
+                                                    OffsetIndex offsetIndex, long[] rangeStarts) {
+    Statistics<?>[] statistics = new Statistics<?>[rangeStarts.length];
+    for (int range = 0; range < rangeStarts.length; range++) {
+      statistics[range] = Statistics.createStats(type);
+    }
+    for (int i = 0; i < offsetIndex.getPageCount(); i++) {
+      Statistics.Builder builder = Statistics.getBuilderForReading(type)
+          .withNumNulls(columnIndex.getNullCounts().get(i));
+      if (!columnIndex.getNullPages().get(i)) {
+        builder.withMin(toBytes(columnIndex.getMinValues().get(i)))
+            .withMax(toBytes(columnIndex.getMaxValues().get(i)));
+      }
+      statistics[getRange(rangeStarts, offsetIndex.getFirstRowIndex(i))].mergeStatistics(builder.build());
+    }
+    return statistics;
+  }
+
+  /**
+   * Returns the index of the row range holding a row.
+   */
+  private static int getRange(long[] rangeStarts, long row) {
+    int range = Arrays.binarySearch(rangeStarts, row);
+    return range >= 0 ? range : -range - 2;
+  }
+
+  private static byte[] toBytes(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+}
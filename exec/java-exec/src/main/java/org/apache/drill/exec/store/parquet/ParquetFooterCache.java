@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.cache.SizeBoundedCache;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.internal.hadoop.metadata.IndexReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Cache of the parsed footers of Parquet files, shared by all the queries
+ * planned and executed by the Drillbit. Footers are read both while planning
+ * a query which does not use a metadata cache file, and again by the scan
+ * operators, which is a round trip to the file system per file and query
+ * that dominates the latency of short queries on object stores.
+ * <p>
+ * A footer is cached for a file path, length and modification time, so a
+ * rewritten file is read again. Footers are also keyed by whether signed
+ * min/max of strings are enabled, since that changes the statistics read.
+ * The total size of the cached footers, estimated from their number of row
+ * groups and column chunks, is bounded by
+ * {@code drill.exec.parquet_footer_cache.max_size}; a size of 0 disables the
+ * cache.
+ * <p>
+ * The column indexes and offset indexes of the column chunks, read by the
+ * scans filtering the pages of the row groups, are cached the same way, for
+ * the file and the offset of the index in the file.
+ * <p>
+ * The metadata reading code is static and called from several format and
+ * storage plugins, so the cache is reached through {@link #getInstance()},
+ * which the Drillbit sets up when it starts. Until then footers are not
+ * cached.
+ */
+public class ParquetFooterCache {
+  private static final Logger logger = LoggerFactory.getLogger(ParquetFooterCache.class);
+
+  private static final String METRICS_PREFIX = "drill.exec.parquet.footer_cache.";
+
+  // Rough heap usage of the parsed footer objects
+  private static final int FOOTER_SIZE = 1024;
+  private static final int BLOCK_SIZE = 256;
+  private static final int COLUMN_CHUNK_SIZE = 512;
+  private static final int INDEX_SIZE = 128;
+  private static final int OFFSET_INDEX_PAGE_SIZE = 32;
+  private static final int COLUMN_INDEX_PAGE_SIZE = 96;
+
+  private static volatile ParquetFooterCache instance = new ParquetFooterCache(0, 0);
+
+  private final SizeBoundedCache<Key, Object> cache;
+
+  private enum Kind {
+    FOOTER, OFFSET_INDEX, COLUMN_INDEX
+  }
+
+  /**
+   * Reads a footer, when it is not cached.
+   */
+  @FunctionalInterface
+  public interface FooterReader extends Callable<ParquetMetadata> {
+  }
+
+  /**
+   * Reads the column index or offset index of a column chunk, when it is not
+   * cached.
+   */
+  @FunctionalInterface
+  public interface IndexReader<T> {
+    T read(IndexReference reference) throws IOException;
+  }
+
+  public ParquetFooterCache(long maxSize, long ttl) {
+    cache = new SizeBoundedCache<>(maxSize, ttl, ParquetFooterCache::estimateSize);
+  }
+
+  /**
+   * Sets up the cache shared by the queries of the Drillbit, and registers its
+   * metrics.
+   *
+   * @param config Drillbit configuration
+   */
+  public static synchronized void initialize(DrillConfig config) {
+    ParquetFooterCache footerCache = new ParquetFooterCache(
+        config.getBytes(ExecConstants.PARQUET_FOOTER_CACHE_MAX_SIZE),
+        config.getLong(ExecConstants.PARQUET_FOOTER_CACHE_TTL));
+    footerCache.cache.registerMetrics(METRICS_PREFIX);
+    instance = footerCache;
+  }
+
+  /**
+   * @return the cache shared by the queries of the Drillbit
+   */
+  public static ParquetFooterCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * Returns the footer of a file, reading it if it is not cached. Concurrent
+   * calls for the same file read its footer once.
+   *
+   * @param status status of the file
+   * @param readerConfig Parquet reader configuration the footer is read with
+   * @param reader reads the footer of the file
+   * @return footer of the file
+   */
+  public ParquetMetadata get(FileStatus status, ParquetReaderConfig readerConfig, FooterReader reader)
+      throws IOException, InterruptedException {
+    return get(status, readerConfig.enableStringsSignedMinMax(), reader);
+  }
+
+  /**
+   * Returns the footer of a file, reading it if it is not cached.
+   *
+   * @param status status of the file
+   * @param signedStringMinMax whether the footer is read with signed min/max of strings
+   * @param reader reads the footer of the file
+   * @return footer of the file
+   */
+  public ParquetMetadata get(FileStatus status, boolean signedStringMinMax, FooterReader reader)
+      throws IOException, InterruptedException {
+    return (ParquetMetadata) get(new Key(status, Kind.FOOTER, signedStringMinMax ? 1 : 0), () -> {
+      logger.trace("Reading the footer of {}", status.getPath());
+      return reader.call();
+    });
+  }
+
+  /**
+   * Returns the offset index of a column chunk, reading it if it is not cached.
+   *
+   * @param status status of the file
+   * @param chunk metadata of the column chunk
+   * @param reader reads the offset index of the column chunk
+   * @return offset index of the column chunk, or null if the file has none
+   */
+  public OffsetIndex getOffsetIndex(FileStatus status, ColumnChunkMetaData chunk, IndexReader<OffsetIndex> reader)
+      throws IOException, InterruptedException {
+    return (OffsetIndex) getIndex(status, Kind.OFFSET_INDEX, chunk.getOffsetIndexReference(), reader);
+  }
+
+  /**
+   * Returns the column index of a column chunk, reading it if it is not cached.
+   *
+   * @param status status of the file
+   * @param chunk metadata of the column chunk
+   * @param reader reads the column index of the column chunk
+   * @return column index of the column chunk, or null if the file has none
+   */
+  public ColumnIndex getColumnIndex(FileStatus status, ColumnChunkMetaData chunk, IndexReader<ColumnIndex> reader)
+      throws IOException, InterruptedException {
+    return (ColumnIndex) getIndex(status, Kind.COLUMN_INDEX, chunk.getColumnIndexReference(), reader);
+  }
+
+  private Object getIndex(FileStatus status, Kind kind, IndexReference reference, IndexReader<?> reader)
+      throws IOException, InterruptedException {
+    if (reference == null) {
+      return null;
+    }
+    return get(new Key(status, kind, reference.getOffset()), () -> {
+      Object index = reader.read(reference);
+      if (index == null) {
+        throw new IOException(String.format("No %s at offset %d of %s",
+            kind.name().toLowerCase().replace('_', ' '), reference.getOffset(), status.getPath()));
+      }
+      return index;
+    });
+  }
+
+  private Object get(Key key, Callable<?> loader) throws IOException, InterruptedException {
+    try {
+      return cache.get(key, loader);
+    } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof InterruptedException) {
+        throw (InterruptedException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  private static int estimateSize(Object value) {
+    long estimate;
+    if (value instanceof ParquetMetadata) {
+      estimate = FOOTER_SIZE;
+      for (BlockMetaData block : ((ParquetMetadata) value).getBlocks()) {
+        estimate += BLOCK_SIZE + (long) COLUMN_CHUNK_SIZE * block.getColumns().size();
+      }
+    } else if (value instanceof OffsetIndex) {
+      estimate = INDEX_SIZE + (long) OFFSET_INDEX_PAGE_SIZE * ((OffsetIndex) value).getPageCount();
+    } else {
+      ColumnIndex columnIndex = (ColumnIndex) value;
+      estimate = INDEX_SIZE;
+      for (int i = 0; i < columnIndex.getMinValues().size(); i++) {
+        estimate += COLUMN_INDEX_PAGE_SIZE + columnIndex.getMinValues().get(i).remaining()
+            + columnIndex.getMaxValues().get(i).remaining();
+      }
+    }
+    return (int) Math.min(estimate, Integer.MAX_VALUE);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public boolean isEnabled() {
+    return cache.isEnabled();
+  }
+
+  public long getEntryCount() {
+    return cache.getEntryCount();
+  }
+
+  public long getHitCount() {
+    return cache.getHitCount();
+  }
+
+  public long getMissCount() {
+    return cache.getMissCount();
+  }
+
+  public double getHitRatio() {
+    return cache.getHitRatio();
+  }
+
+  private static class Key {
+    private final String path;
+    private final long length;
+    private final long modificationTime;
+    private final Kind kind;
+    // whether a footer is read with signed min/max of strings, the offset of an index
+    private final long detail;
+
+    Key(FileStatus status, Kind kind, long detail) {
+      this.path = status.getPath().toUri().toString();
+      this.length = status.getLen();
+      this.modificationTime = status.getModificationTime();
+      this.kind = kind;
+      this.detail = detail;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return length == key.length
+          && modificationTime == key.modificationTime
+          && kind == key.kind
+          && detail == key.detail
+          && path.equals(key.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, length, modificationTime, kind, detail);
+    }
+  }
+}
@@ -33,6 +33,9 @@ public class ParquetReaderStats {
   public AtomicLong numDataPagesDecoded = new AtomicLong();
   public AtomicLong numDictPagesDecompressed = new AtomicLong();
   public AtomicLong numDataPagesDecompressed = new AtomicLong();
+  public AtomicLong numDataPagesSkipped = new AtomicLong();
+  public AtomicLong numFlatDictionaryValues = new AtomicLong();
+  public AtomicLong numFlatDictionaryLargeValues = new AtomicLong();
 
   public AtomicLong totalDictPageReadBytes = new AtomicLong();
   public AtomicLong totalDataPageReadBytes = new AtomicLong();
@@ -122,5 +125,8 @@ public class ParquetReaderStats {
     stats.addLongStat(Metric.TIME_FIXEDCOLUMN_READ, timeFixedColumnRead.longValue());
     stats.addLongStat(Metric.TIME_VARCOLUMN_READ, timeVarColumnRead.longValue());
     stats.addLongStat(Metric.TIME_PROCESS, timeProcess.longValue());
+    stats.addLongStat(Metric.NUM_DATA_PAGES_SKIPPED, numDataPagesSkipped.longValue());
+    stats.addLongStat(Metric.NUM_FLAT_DICTIONARY_VALUES, numFlatDictionaryValues.longValue());
+    stats.addLongStat(Metric.NUM_FLAT_DICTIONARY_LARGE_VALUES, numFlatDictionaryLargeValues.longValue());
   }
 }
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+
+/**
+ * The data pages of the column chunks of a row group which the Parquet reader
+ * skips, as found by {@link PageIndexFilter}. The pages are identified by their
+ * position among the data pages of their column chunk, dictionary pages aside.
+ * The skipped pages of all the columns read cover the same rows, so the
+ * readers of the columns stay in step.
+ */
+public class SkippedPages {
+
+  public static final SkippedPages NONE = new SkippedPages(Collections.emptyMap(), 0);
+
+  private final Map<ColumnPath, BitSet> pages;
+  private final long rowCount;
+
+  public SkippedPages(Map<ColumnPath, BitSet> pages, long rowCount) {
+    this.pages = pages;
+    this.rowCount = rowCount;
+  }
+
+  /**
+   * @param column path of the column
+   * @return positions of the skipped data pages of the column chunk
+   */
+  public BitSet get(ColumnPath column) {
+    BitSet columnPages = pages.get(column);
+    return columnPages == null ? new BitSet() : columnPages;
+  }
+
+  /**
+   * @return number of rows of the row group in the skipped pages
+   */
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  public boolean isEmpty() {
+    return rowCount == 0;
+  }
+
+  @Override
+  public String toString() {
+    return "SkippedPages[rowCount=" + rowCount + ", pages=" + pages + "]";
+  }
+}
@@ -281,7 +281,7 @@ class AsyncPageReader extends PageReader {
     if (readStatus.isDictionaryPage) {
       stats.numDictPageLoads.incrementAndGet();
       stats.timeDictPageLoads.addAndGet(timeBlocked + readStatus.getDiskScanTime());
-    } else {
+    } else if (!readStatus.isSkipped()) {
       stats.numDataPageLoads.incrementAndGet();
       stats.timeDataPageLoads.addAndGet(timeBlocked + readStatus.getDiskScanTime());
     }
@@ -299,6 +299,11 @@ class AsyncPageReader extends PageReader {
       ReadStatus readStatus = nextPageFromQueue();
       pageHeader = readStatus.getPageHeader();
 
+      if (readStatus.isSkipped()) {
+        pageSkipped = true;
+        return;
+      }
+
       if (pageHeader.uncompressed_page_size == 0) {
         logger.info(
           "skipping a {} of size {} because its uncompressed size is 0 bytes.",
@@ -395,6 +400,7 @@ class AsyncPageReader extends PageReader {
     private PageHeader pageHeader;
     private DrillBuf pageData;
     private boolean isDictionaryPage = false;
+    private boolean isSkipped = false;
     private long bytesRead = 0;
     private long valuesRead = 0;
     private long diskScanTime = 0;
@@ -425,6 +431,14 @@ class AsyncPageReader extends PageReader {
       this.isDictionaryPage = isDictionaryPage;
     }
 
+    public synchronized boolean isSkipped() {
+      return isSkipped;
+    }
+
+    public synchronized void setIsSkipped(boolean isSkipped) {
+      this.isSkipped = isSkipped;
+    }
+
     public synchronized long getBytesRead() {
       return bytesRead;
     }
@@ -497,11 +511,18 @@ class AsyncPageReader extends PageReader {
         PageHeader pageHeader = Util.readPageHeader(parent.dataReader);
         int compressedSize = pageHeader.getCompressed_page_size();
         if ( parent.parentColumnReader.isShuttingDown ) { return null; } //Opportunity to skip expensive Parquet processing
-        pageData = parent.dataReader.getNext(compressedSize);
-        bytesRead = compressedSize;
+        PageType type = pageHeader.getType() == null ? PageType.DATA_PAGE : pageHeader.getType();
+        // Data pages excluded by the page index are passed over without being read
+        boolean skipped = (type == PageType.DATA_PAGE || type == PageType.DATA_PAGE_V2)
+            && parent.nextDataPageSkipped();
+        if (skipped) {
+          parent.skip(compressedSize);
+        } else {
+          pageData = parent.dataReader.getNext(compressedSize);
+          bytesRead = compressedSize;
+        }
 
         synchronized (parent) {
-          PageType type = pageHeader.getType() == null ? PageType.DATA_PAGE : pageHeader.getType();
           switch (type) {
             case DICTIONARY_PAGE:
               readStatus.setIsDictionaryPage(true);
@@ -523,6 +544,7 @@ class AsyncPageReader extends PageReader {
           long timeToRead = timer.elapsed(TimeUnit.NANOSECONDS);
           readStatus.setPageHeader(pageHeader);
           readStatus.setPageData(pageData);
+          readStatus.setIsSkipped(skipped);
           readStatus.setBytesRead(bytesRead);
           readStatus.setValuesRead(valuesRead);
           readStatus.setDiskScanTime(timeToRead);
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet.columnreaders;
+
+import java.nio.ByteBuffer;
+
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.io.api.Binary;
+
+/**
+ * The values of a binary Parquet dictionary, decoded once per column chunk and
+ * laid out one after the other in a single array. Dictionary encoded values
+ * are then read as their dictionary codes, and copied from this array, instead
+ * of being decoded into a new {@link Binary}, and copied out of it, one by one.
+ */
+final class FlatBinaryDictionary {
+  /** Values of the dictionary */
+  private final byte[] data;
+  /** Start of each value within the data, and end of the last one */
+  private final int[] offsets;
+
+  private FlatBinaryDictionary(byte[] data, int[] offsets) {
+    this.data = data;
+    this.offsets = offsets;
+  }
+
+  /**
+   * @param dictionary dictionary of binary values
+   * @return the flattened dictionary, or null if its values do not fit in an
+   * array
+   */
+  static FlatBinaryDictionary of(Dictionary dictionary) {
+    final int numValues = dictionary.getMaxId() + 1;
+    final int[] offsets = new int[numValues + 1];
+    long totalLength = 0;
+    for (int id = 0; id < numValues; id++) {
+      offsets[id] = (int) totalLength;
+      totalLength += dictionary.decodeToBinary(id).length();
+      if (totalLength > Integer.MAX_VALUE) {
+        return null;
+      }
+    }
+    offsets[numValues] = (int) totalLength;
+
+    final byte[] data = new byte[(int) totalLength];
+    for (int id = 0; id < numValues; id++) {
+      // Wraps the bytes of the value, without copying them
+      final ByteBuffer value = dictionary.decodeToBinary(id).toByteBuffer();
+      value.get(data, offsets[id], offsets[id + 1] - offsets[id]);
+    }
+    return new FlatBinaryDictionary(data, offsets);
+  }
+
+  /**
+   * @return the values of the dictionary
+   */
+  byte[] getData() {
+    return data;
+  }
+
+  /**
+   * @param id dictionary code
+   * @return start of the value within {@link #getData()}
+   */
+  int getOffset(int id) {
+    return offsets[id];
+  }
+
+  /**
+   * @param id dictionary code
+   * @return length of the value
+   */
+  int getLength(int id) {
+    return offsets[id + 1] - offsets[id];
+  }
+
+  /**
+   * Copies a value.
+   *
+   * @param id dictionary code
+   * @param target target array
+   * @param targetPos position of the value within the target array
+   */
+  void copy(int id, byte[] target, int targetPos) {
+    final int offset = offsets[id];
+    System.arraycopy(data, offset, target, targetPos, offsets[id + 1] - offset);
+  }
+}
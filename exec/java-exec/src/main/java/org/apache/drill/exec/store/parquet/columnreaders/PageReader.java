@@ -59,6 +59,7 @@ import org.slf4j.LoggerFactory;
 import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.BitSet;
 import java.util.concurrent.TimeUnit;
 
 import static org.apache.parquet.column.Encoding.valueOf;
@@ -101,6 +102,9 @@ class PageReader {
   private ValuesReader dictionaryLengthDeterminingReader;
   private ValuesReader dictionaryValueReader;
   Dictionary dictionary;
+  // Binary dictionary decoded once, and the dictionary it was decoded from
+  private FlatBinaryDictionary flatDictionary;
+  private Dictionary flattenedDictionary;
   PageHeader pageHeader;
 
   int pageValueCount = -1;
@@ -126,6 +130,15 @@ class PageReader {
   protected final String debugName;
   private DataPageHeaderInfoProvider dataPageInfo;
 
+  // data pages of the column chunk which are not read, see PageIndexFilter
+  private final BitSet skippedPages;
+  // number of data pages met in the backing input stream
+  private int dataPageCount;
+  // number of values of the data pages returned or skipped by next()
+  private long dataPageValueCount;
+  // true if the last page met by nextInternal() was skipped
+  boolean pageSkipped;
+
   PageReader(ColumnReader<?> columnReader, FileSystem fs, Path path)
     throws ExecutionSetupException {
     this.parentColumnReader = columnReader;
@@ -136,6 +149,7 @@ class PageReader {
     this.allocator = parentColumnReader.parentReader.getOperatorContext().getAllocator();
     this.stats = parentColumnReader.parentReader.parquetReaderStats;
     this.fileName = path.toString();
+    this.skippedPages = parentColumnReader.parentReader.getSkippedPages().get(columnChunkMetaData.getPath());
     debugName = new StringBuilder()
        .append(this.parentColumnReader.parentReader.getFragmentContext().getFragIdString())
        .append(":")
@@ -217,6 +231,19 @@ class PageReader {
     }
   }
 
+  /**
+   * Counts a data page met in the backing input stream, and tells whether it is
+   * skipped rather than read.
+   * @return true if the data page is skipped
+   */
+  protected boolean nextDataPageSkipped() {
+    return skippedPages.get(dataPageCount++);
+  }
+
+  protected static boolean isDataPage(PageHeader pageHeader) {
+    return pageHeader.getType() == PageType.DATA_PAGE || pageHeader.getType() == PageType.DATA_PAGE_V2;
+  }
+
   /**
    * Reads and stores this column chunk's dictionary.
    * @throws IOException
@@ -425,6 +452,12 @@ class PageReader {
   protected void nextInternal() throws IOException {
     readPageHeader();
 
+    if (isDataPage(pageHeader) && nextDataPageSkipped()) {
+      skip(pageHeader.compressed_page_size);
+      pageSkipped = true;
+      return;
+    }
+
     if (pageHeader.uncompressed_page_size == 0) {
       logger.info(
         "skipping a {} of size {} because its uncompressed size is 0 bytes.",
@@ -536,12 +569,13 @@ class PageReader {
     this.parentColumnReader.currDefLevel = -1;
     long totalValueCount = columnChunkMetaData.getValueCount();
 
-    if (parentColumnReader.totalValuesRead >= totalValueCount) {
+    if (parentColumnReader.totalValuesRead >= totalValueCount || dataPageValueCount >= totalValueCount) {
       return false;
     }
 
     clearDataBufferAndReaders();
     do {
+      pageSkipped = false;
       nextInternal();
 
       if (pageHeader == null) {
@@ -552,9 +586,23 @@ class PageReader {
           totalValueCount
         ));
       }
+
+      if (isDataPage(pageHeader)) {
+        int numValues = DataPageHeaderInfoProvider.builder(pageHeader).getNumValues();
+        dataPageValueCount += numValues;
+        if (pageSkipped) {
+          // The values of the page are read as far as the column reader is concerned
+          parentColumnReader.totalValuesRead += numValues;
+          stats.numDataPagesSkipped.incrementAndGet();
+          if (dataPageValueCount >= totalValueCount) {
+            return false;
+          }
+        }
+      }
     } while (
-      // Continue until we hit a non-empty data page
-      pageHeader.uncompressed_page_size == 0
+      // Continue until we hit a non-empty data page which is not skipped
+      pageSkipped
+      || pageHeader.uncompressed_page_size == 0
       || (pageHeader.getType() != PageType.DATA_PAGE
       && pageHeader.getType() != PageType.DATA_PAGE_V2)
     );
@@ -630,6 +678,18 @@ class PageReader {
     return dictionaryLengthDeterminingReader;
   }
 
+  /**
+   * Lazily decodes the binary dictionary of this column chunk in a single array.
+   * @return the decoded dictionary, or null if it is too large
+   */
+  FlatBinaryDictionary getFlatDictionary() {
+    if (flattenedDictionary != dictionary) {
+      flatDictionary = FlatBinaryDictionary.of(dictionary);
+      flattenedDictionary = dictionary;
+    }
+    return flatDictionary;
+  }
+
   /**
    * Lazily creates a dictionary ValuesReader for when use when this column chunk is dictionary encoded.
    * @return an existing or new ValuesReader
@@ -31,6 +31,7 @@ import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.ops.OperatorContext;
 import org.apache.drill.exec.physical.impl.OutputMutator;
 import org.apache.drill.exec.store.parquet.ParquetReaderUtility;
+import org.apache.drill.exec.store.parquet.SkippedPages;
 import org.apache.drill.exec.store.parquet.columnreaders.batchsizing.RecordBatchSizerManager;
 import org.apache.drill.exec.util.record.RecordBatchStats.RecordBatchStatsContext;
 import org.apache.drill.exec.vector.ValueVector;
@@ -55,6 +56,7 @@ public class ParquetRecordReader extends CommonParquetRecordReader {
   private final CompressionCodecFactory codecFactory;
   private final int rowGroupIndex;
   private final ParquetReaderUtility.DateCorruptionStatus dateCorruptionStatus;
+  private final SkippedPages skippedPages;
 
   /** Container object for holding Parquet columnar readers state */
   private ReadState readState;
@@ -71,6 +73,7 @@ public class ParquetRecordReader extends CommonParquetRecordReader {
   final long readQueueSize;
 
   private final boolean useBulkReader;
+  private final boolean useFlatDictionary;
 
   public ParquetRecordReader(FragmentContext fragmentContext,
       Path path,
@@ -81,7 +84,22 @@ public class ParquetRecordReader extends CommonParquetRecordReader {
       ParquetMetadata footer,
       List<SchemaPath> columns,
       ParquetReaderUtility.DateCorruptionStatus dateCorruptionStatus) {
-    this(fragmentContext, numRecordsToRead, path, rowGroupIndex, fs, codecFactory, footer, columns, dateCorruptionStatus);
+    this(fragmentContext, numRecordsToRead, path, rowGroupIndex, fs, codecFactory, footer, columns, dateCorruptionStatus,
+        SkippedPages.NONE);
+  }
+
+  public ParquetRecordReader(FragmentContext fragmentContext,
+      Path path,
+      int rowGroupIndex,
+      long numRecordsToRead,
+      FileSystem fs,
+      CompressionCodecFactory codecFactory,
+      ParquetMetadata footer,
+      List<SchemaPath> columns,
+      ParquetReaderUtility.DateCorruptionStatus dateCorruptionStatus,
+      SkippedPages skippedPages) {
+    this(fragmentContext, numRecordsToRead, path, rowGroupIndex, fs, codecFactory, footer, columns, dateCorruptionStatus,
+        skippedPages);
   }
 
   public ParquetRecordReader(FragmentContext fragmentContext,
@@ -93,7 +111,7 @@ public class ParquetRecordReader extends CommonParquetRecordReader {
       List<SchemaPath> columns,
       ParquetReaderUtility.DateCorruptionStatus dateCorruptionStatus) {
     this(fragmentContext, footer.getBlocks().get(rowGroupIndex).getRowCount(), path, rowGroupIndex, fs, codecFactory,
-        footer, columns, dateCorruptionStatus);
+        footer, columns, dateCorruptionStatus, SkippedPages.NONE);
   }
 
   public ParquetRecordReader(
@@ -105,14 +123,18 @@ public class ParquetRecordReader extends CommonParquetRecordReader {
       CompressionCodecFactory codecFactory,
       ParquetMetadata footer,
       List<SchemaPath> columns,
-      ParquetReaderUtility.DateCorruptionStatus dateCorruptionStatus) {
+      ParquetReaderUtility.DateCorruptionStatus dateCorruptionStatus,
+      SkippedPages skippedPages) {
     super(footer, fragmentContext);
     this.hadoopPath = path;
     this.fileSystem = fs;
     this.codecFactory = codecFactory;
     this.rowGroupIndex = rowGroupIndex;
     this.dateCorruptionStatus = dateCorruptionStatus;
-    this.numRecordsToRead = initNumRecordsToRead(numRecordsToRead, rowGroupIndex, footer);
+    this.skippedPages = skippedPages;
+    // The rows of the skipped pages are not read
+    this.numRecordsToRead = Math.min(initNumRecordsToRead(numRecordsToRead, rowGroupIndex, footer),
+        footer.getBlocks().get(rowGroupIndex).getRowCount() - skippedPages.getRowCount());
     this.useAsyncColReader = fragmentContext.getOptions().getOption(ExecConstants.PARQUET_COLUMNREADER_ASYNC).bool_val;
     this.useAsyncPageReader = fragmentContext.getOptions().getOption(ExecConstants.PARQUET_PAGEREADER_ASYNC).bool_val;
     this.useBufferedReader = fragmentContext.getOptions().getOption(ExecConstants.PARQUET_PAGEREADER_USE_BUFFERED_READ).bool_val;
@@ -121,6 +143,7 @@ public class ParquetRecordReader extends CommonParquetRecordReader {
     this.readQueueSize = fragmentContext.getOptions().getOption(ExecConstants.PARQUET_PAGEREADER_QUEUE_SIZE).num_val;
     this.enforceTotalSize = fragmentContext.getOptions().getOption(ExecConstants.PARQUET_PAGEREADER_ENFORCETOTALSIZE).bool_val;
     this.useBulkReader = fragmentContext.getOptions().getOption(ExecConstants.PARQUET_FLAT_READER_BULK).bool_val;
+    this.useFlatDictionary = fragmentContext.getOptions().getOption(ExecConstants.PARQUET_FLAT_READER_FLAT_DICTIONARY).bool_val;
 
     setColumns(columns);
   }
@@ -151,6 +174,13 @@ public class ParquetRecordReader extends CommonParquetRecordReader {
     return rowGroupIndex;
   }
 
+  /**
+   * @return data pages of the row group which are not read
+   */
+  public SkippedPages getSkippedPages() {
+    return skippedPages;
+  }
+
   public RecordBatchSizerManager getBatchSizesMgr() {
     return batchSizerMgr;
   }
@@ -170,6 +200,14 @@ public class ParquetRecordReader extends CommonParquetRecordReader {
     return useBulkReader;
   }
 
+  /**
+   * @return true if the bulk reader copies dictionary encoded strings from
+   * their dictionary decoded into a {@link FlatBinaryDictionary}; false otherwise
+   */
+  public boolean useFlatDictionary() {
+    return useFlatDictionary;
+  }
+
   public ReadState getReadState() {
     return readState;
   }
@@ -20,6 +20,7 @@ package org.apache.drill.exec.store.parquet.columnreaders;
 import io.netty.buffer.DrillBuf;
 import java.nio.ByteBuffer;
 
+import org.apache.drill.exec.store.parquet.ParquetReaderStats;
 import org.apache.drill.exec.store.parquet.columnreaders.VarLenColumnBulkInput.VarLenColumnBulkInputCallback;
 
 /** Abstract class for sub-classes implementing several algorithms for loading a Bulk Entry */
@@ -64,6 +65,13 @@ abstract class VarLenAbstractEntryReader {
     return containerCallback.batchMemoryConstraintsReached(newBitsMemory, newOffsetsMemory, newDataMemory);
   }
 
+  /**
+   * @return the statistics of the Parquet reader
+   */
+  protected ParquetReaderStats readerStats() {
+    return containerCallback.getReaderStats();
+  }
+
   /**
    * @param buff source buffer
    * @param pos start position
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import org.apache.drill.common.exceptions.DrillRuntimeException;
+import org.apache.drill.exec.store.parquet.ParquetReaderStats;
 import org.apache.drill.exec.store.parquet.columnreaders.VarLenOverflowReader.FieldOverflowStateImpl;
 import org.apache.drill.exec.store.parquet.columnreaders.batchsizing.BatchSizingMemoryUtil;
 import org.apache.drill.exec.store.parquet.columnreaders.batchsizing.BatchSizingMemoryUtil.ColumnMemoryUsageInfo;
@@ -239,7 +240,10 @@ public final class VarLenColumnBulkInput<V extends ValueVector> implements VarLe
       if (parentInst.recordsRequireDecoding()) {
         custValuesReader.set(parentInst.usingDictionary
           ? pageReader.getDictionaryValueReader()
-          : pageReader.getValueReader()
+          : pageReader.getValueReader(),
+          parentInst.usingDictionary && parentInst.parentReader.useFlatDictionary()
+          ? pageReader.getFlatDictionary()
+          : null
         );
       } else {
         custValuesReader.set(null);
@@ -621,6 +625,13 @@ public final class VarLenColumnBulkInput<V extends ValueVector> implements VarLe
     void deinitOverflowData() {
       parentInst.deinitOverflowData();
     }
+
+    /**
+     * @return the statistics of the Parquet reader
+     */
+    ParquetReaderStats getReaderStats() {
+      return pageReader.stats;
+    }
   }
 
   /** A wrapper value reader with the ability to control when to read the next value */
@@ -712,6 +723,10 @@ public final class VarLenColumnBulkInput<V extends ValueVector> implements VarLe
     private ValuesReader valuesReader;
     /** Pushed back value     */
     private Binary pushedBackValue;
+    /** Decoded dictionary, when the values are read as dictionary codes */
+    private FlatBinaryDictionary dictionary;
+    /** Pushed back dictionary code */
+    private int pushedBackId = -1;
 
     /**
      * @return true if the current page uses an encoded values reader for the data
@@ -726,8 +741,47 @@ public final class VarLenColumnBulkInput<V extends ValueVector> implements VarLe
      * @param _rawReader {@link ValuesReader} object
      */
     void set(ValuesReader _rawReader) {
+      set(_rawReader, null);
+    }
+
+    /**
+     * Set the ValuesReader object, and the decoded dictionary of the page if its values
+     * are to be read as dictionary codes.
+     * @param _rawReader {@link ValuesReader} object
+     * @param _dictionary decoded dictionary, or null
+     */
+    void set(ValuesReader _rawReader, FlatBinaryDictionary _dictionary) {
       this.valuesReader    = _rawReader;
       this.pushedBackValue = null;
+      this.dictionary      = _dictionary;
+      this.pushedBackId    = -1;
+    }
+
+    /**
+     * @return the decoded dictionary, if the values are read as dictionary codes; null otherwise
+     */
+    FlatBinaryDictionary getDictionary() {
+      return dictionary;
+    }
+
+    /**
+     * @return the dictionary code of the current entry from the page
+     */
+    int getDictionaryId() {
+      if (pushedBackId >= 0) {
+        final int id = pushedBackId;
+        pushedBackId = -1;
+        return id;
+      }
+      try {
+        return valuesReader.readValueDictionaryId();
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    void pushBackDictionaryId(int id) {
+      pushedBackId = id;
     }
 
     /**
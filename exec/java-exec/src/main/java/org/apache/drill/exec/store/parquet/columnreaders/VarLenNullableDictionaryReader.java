@@ -48,11 +48,108 @@ final class VarLenNullableDictionaryReader extends VarLenAbstractPageEntryReader
   final VarLenColumnBulkEntry getEntry(int valuesToRead) {
     assert valuesToRead > 0;
 
+    final FlatBinaryDictionary dictionary = pageInfo.encodedValueReader.getDictionary();
+
     // Bulk processing is effecting for smaller precisions
     if (bulkProcess()) {
-      return getEntryBulk(valuesToRead);
+      return dictionary != null ? getEntryBulk(valuesToRead, dictionary) : getEntryBulk(valuesToRead);
+    }
+    return dictionary != null ? getEntrySingle(dictionary) : getEntrySingle();
+  }
+
+  private VarLenColumnBulkEntry getEntryBulk(int valuesToRead, FlatBinaryDictionary dictionary) {
+    final ValuesReaderWrapper valueReader = pageInfo.encodedValueReader;
+    final int[] valueLengths = entry.getValuesLength();
+    final int readBatch = Math.min(entry.getMaxEntries(), valuesToRead);
+    Preconditions.checkState(readBatch > 0, "Read batch count [%s] should be greater than zero", readBatch);
+
+    final byte[] tgtBuff = entry.getInternalDataArray();
+    final int tgtLen = tgtBuff.length;
+
+    // Counters
+    int numValues = 0;
+    int numNulls = 0;
+    int tgtPos = 0;
+
+    // Initialize the reader if needed
+    pageInfo.definitionLevels.readFirstIntegerIfNeeded();
+
+    for (int idx = 0; idx < readBatch; ++idx) {
+      if (pageInfo.definitionLevels.readCurrInteger() == 1) {
+        final int id = valueReader.getDictionaryId();
+        final int dataLen = dictionary.getLength(id);
+
+        if (tgtLen < (tgtPos + dataLen)) {
+          valueReader.pushBackDictionaryId(id); // push back this value since we're exiting from the loop
+          break;
+        }
+
+        valueLengths[numValues++] = dataLen;
+
+        if (dataLen > 0) {
+          dictionary.copy(id, tgtBuff, tgtPos);
+
+          // Update the counters
+          tgtPos += dataLen;
+        }
+
+      } else {
+        valueLengths[numValues++] = -1;
+        ++numNulls;
+      }
+
+      // read the next definition-level value since we know the current entry has been processed
+      pageInfo.definitionLevels.nextIntegerIfNotEOF();
+    }
+
+    // The first value being processed ended up to be too long for the buffer
+    if (numValues == 0) {
+      return getEntrySingle(dictionary);
+    }
+    readerStats().numFlatDictionaryValues.addAndGet(numValues - numNulls);
+
+    entry.set(0, tgtPos, numValues, numValues - numNulls);
+
+    return entry;
+  }
+
+  private VarLenColumnBulkEntry getEntrySingle(FlatBinaryDictionary dictionary) {
+    final int[] valueLengths = entry.getValuesLength();
+    final ValuesReaderWrapper valueReader = pageInfo.encodedValueReader;
+
+    // Initialize the reader if needed
+    pageInfo.definitionLevels.readFirstIntegerIfNeeded();
+
+    if (pageInfo.definitionLevels.readCurrInteger() == 1) {
+      final int id = valueReader.getDictionaryId();
+      final int dataLen = dictionary.getLength(id);
+
+      // Is there enough memory to handle this large value?
+      if (batchMemoryConstraintsReached(1, 4, dataLen)) {
+        valueReader.pushBackDictionaryId(id);
+        entry.set(0, 0, 0, 0); // no data to be consumed
+        return entry;
+      }
+
+      // Set the value length
+      valueLengths[0] = dataLen;
+
+      // Now set the bulk entry, pointing to the value within the dictionary
+      entry.set(dictionary.getOffset(id), dataLen, 1, 1, dictionary.getData());
+      readerStats().numFlatDictionaryValues.incrementAndGet();
+      readerStats().numFlatDictionaryLargeValues.incrementAndGet();
+
+    } else {
+      valueLengths[0] = -1;
+
+      // Now set the bulk entry
+      entry.set(0, 0, 1, 0);
     }
-    return getEntrySingle();
+
+    // read the next definition-level value since we know the current entry has been processed
+    pageInfo.definitionLevels.nextIntegerIfNotEOF();
+
+    return entry;
   }
 
   private final VarLenColumnBulkEntry getEntryBulk(int valuesToRead) {
@@ -203,36 +203,52 @@ public class FileMetadataCollector {
     }
     if (thisColumnIsInteresting) {
       // Save the column schema info. We'll merge it into one list
-      Object minValue = null;
-      Object maxValue = null;
-      if (!stats.isEmpty() && stats.hasNonNullValue()) {
-        minValue = stats.genericGetMin();
-        maxValue = stats.genericGetMax();
-        if (containsCorruptDates == ParquetReaderUtility.DateCorruptionStatus.META_SHOWS_CORRUPTION
-          && columnTypeMetadata.originalType == OriginalType.DATE) {
-          minValue = ParquetReaderUtility.autoCorrectCorruptedDate((Integer) minValue);
-          maxValue = ParquetReaderUtility.autoCorrectCorruptedDate((Integer) maxValue);
-        }
-        if (shouldTruncateMicros(columnTypeMetadata)) {
-          // DRILL-8241: truncate the min/max of microsecond columns to milliseconds, otherwise the
-          // initial scanning of files when filtering will compare to the wrong values.
-          minValue = truncateMicros(minValue);
-          maxValue = truncateMicros(maxValue);
-        }
-      }
-      long numNulls = stats.getNumNulls();
-      Metadata_V4.ColumnMetadata_v4 columnMetadata = new Metadata_V4.ColumnMetadata_v4(columnTypeMetadata.name,
-          primitiveTypeName, minValue, maxValue, numNulls);
-      columnMetadataList.add(columnMetadata);
+      columnMetadataList.add(getColumnMetadata(columnTypeMetadata.name, primitiveTypeName,
+          columnTypeMetadata.originalType, stats, containsCorruptDates, truncateTimeMicros, truncateTimestampMicros));
       columnTypeMetadata.isInteresting = true;
     }
     columnTypeInfo.put(columnTypeMetadataKey, columnTypeMetadata);
   }
 
-  private boolean shouldTruncateMicros(Metadata_V4.ColumnTypeMetadata_v4 columnTypeMetadata) {
-    return (truncateTimeMicros && columnTypeMetadata.originalType == OriginalType.TIME_MICROS)
-           ||
-           (truncateTimestampMicros && columnTypeMetadata.originalType == OriginalType.TIMESTAMP_MICROS);
+  /**
+   * Creates the metadata of a column from the statistics of a part of a column chunk, with its
+   * min and max values corrected the same way as those of the column chunks of the files.
+   *
+   * @param columnName name of the column
+   * @param primitiveTypeName physical type of the column
+   * @param originalType logical type of the column
+   * @param stats statistics of the column
+   * @param containsCorruptDates whether the dates of the file need to be corrected
+   * @param truncateTimeMicros whether the TIME_MICROS values are read as milliseconds
+   * @param truncateTimestampMicros whether the TIMESTAMP_MICROS values are read as milliseconds
+   * @return metadata of the column
+   */
+  public static Metadata_V4.ColumnMetadata_v4 getColumnMetadata(String[] columnName,
+                                                                PrimitiveType.PrimitiveTypeName primitiveTypeName,
+                                                                OriginalType originalType,
+                                                                Statistics<?> stats,
+                                                                ParquetReaderUtility.DateCorruptionStatus containsCorruptDates,
+                                                                boolean truncateTimeMicros,
+                                                                boolean truncateTimestampMicros) {
+    Object minValue = null;
+    Object maxValue = null;
+    if (!stats.isEmpty() && stats.hasNonNullValue()) {
+      minValue = stats.genericGetMin();
+      maxValue = stats.genericGetMax();
+      if (containsCorruptDates == ParquetReaderUtility.DateCorruptionStatus.META_SHOWS_CORRUPTION
+        && originalType == OriginalType.DATE) {
+        minValue = ParquetReaderUtility.autoCorrectCorruptedDate((Integer) minValue);
+        maxValue = ParquetReaderUtility.autoCorrectCorruptedDate((Integer) maxValue);
+      }
+      if ((truncateTimeMicros && originalType == OriginalType.TIME_MICROS)
+          || (truncateTimestampMicros && originalType == OriginalType.TIMESTAMP_MICROS)) {
+        // DRILL-8241: truncate the min/max of microsecond columns to milliseconds, otherwise the
+        // initial scanning of files when filtering will compare to the wrong values.
+        minValue = truncateMicros(minValue);
+        maxValue = truncateMicros(maxValue);
+      }
+    }
+    return new Metadata_V4.ColumnMetadata_v4(columnName, primitiveTypeName, minValue, maxValue, stats.getNumNulls());
   }
 
   private static Object truncateMicros(Object microSeconds) {
@@ -33,6 +33,7 @@ import org.apache.drill.common.util.JacksonUtils;
 import org.apache.drill.exec.serialization.PathSerDe;
 import org.apache.drill.exec.store.TimedCallable;
 import org.apache.drill.exec.store.dfs.MetadataContext;
+import org.apache.drill.exec.store.parquet.ParquetFooterCache;
 import org.apache.drill.exec.store.parquet.ParquetReaderConfig;
 import org.apache.drill.exec.util.DrillFileSystemUtil;
 import org.apache.drill.exec.util.ImpersonationUtil;
@@ -501,11 +502,12 @@ public class Metadata {
       UserGroupInformation processUserUgi = ImpersonationUtil.getProcessUserUGI();
       Configuration conf = new Configuration(fs.getConf());
       try {
-        metadata = processUserUgi.doAs((PrivilegedExceptionAction<ParquetMetadata>) () -> {
-          try (ParquetFileReader parquetFileReader = ParquetFileReader.open(HadoopInputFile.fromStatus(file, conf), readerConfig.toReadOptions())) {
-            return parquetFileReader.getFooter();
-          }
-        });
+        metadata = ParquetFooterCache.getInstance().get(file, readerConfig, () ->
+          processUserUgi.doAs((PrivilegedExceptionAction<ParquetMetadata>) () -> {
+            try (ParquetFileReader parquetFileReader = ParquetFileReader.open(HadoopInputFile.fromStatus(file, conf), readerConfig.toReadOptions())) {
+              return parquetFileReader.getFooter();
+            }
+          }));
       } catch (Exception e) {
         logger.error("Exception while reading footer of parquet file [Details - path: {}, owner: {}] as process user {}",
           file.getPath(), file.getOwner(), processUserUgi.getShortUserName(), e);
@@ -0,0 +1,488 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.resultcache;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.common.logical.StoragePluginConfig;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.cache.VectorSerializer;
+import org.apache.drill.exec.metrics.DrillMetrics;
+import org.apache.drill.exec.ops.QueryContext;
+import org.apache.drill.exec.physical.PhysicalPlan;
+import org.apache.drill.exec.physical.base.GroupScan;
+import org.apache.drill.exec.physical.base.PhysicalOperator;
+import org.apache.drill.exec.planner.sql.DirectPlan;
+import org.apache.drill.exec.planner.sql.PlanCache;
+import org.apache.drill.exec.proto.UserBitShared.QueryId;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.drill.exec.record.VectorAccessible;
+import org.apache.drill.exec.record.WritableBatch;
+import org.apache.drill.exec.store.StoragePlugin;
+import org.apache.drill.exec.store.dfs.FileSystemPlugin;
+import org.apache.drill.exec.store.dfs.easy.EasyGroupScan;
+import org.apache.drill.exec.store.parquet.ParquetGroupScan;
+import org.apache.drill.exec.util.ImpersonationUtil;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.Weigher;
+
+/**
+ * Per-Drillbit cache of the results of SQL queries, for dashboards which run
+ * the same queries over and over on data which seldom changes.
+ * <p>
+ * The batches a query returns are written by its Screen operator to a file of
+ * the result cache directory, in the format of
+ * {@link org.apache.drill.exec.cache.VectorAccessibleSerializable}. Once the
+ * query completes, the file is kept along with the modification times of the
+ * files and directories the query scanned, and the version of the Metastore
+ * if it is enabled. An identical query (see {@link PlanCache#keyOf}) issued
+ * while they are unchanged is neither planned nor executed: its results are
+ * streamed from the file by a direct scan.
+ * <p>
+ * Only the queries whose plan could be cached by the {@link PlanCache}, and
+ * which scan only Parquet or Easy format files, are cached. Files pruned while
+ * planning are not tracked, so files modified in place without changing their
+ * directory, among the ones pruned by their statistics, are not noticed: the
+ * cached results are bounded in time by {@code drill.exec.result_cache.ttl}.
+ */
+public class ResultCache implements AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(ResultCache.class);
+
+  private static final String METRICS_PREFIX = "drill.exec.result_cache.";
+
+  private final FileSystem fs;
+  private final Path directory;
+  private final long maxEntrySize;
+  private final Cache<PlanCache.Key, Entry> cache;
+  private final ConcurrentMap<QueryId, Writer> writers = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong invalidations = new AtomicLong();
+
+  public ResultCache(DrillConfig config) {
+    Configuration conf = new Configuration();
+    conf.set(FileSystem.FS_DEFAULT_NAME_KEY, config.getString(ExecConstants.RESULT_CACHE_FILESYSTEM));
+    try {
+      fs = FileSystem.get(conf);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to get the file system of the result cache", e);
+    }
+    // Several Drillbits may share the directory
+    directory = new Path(config.getString(ExecConstants.RESULT_CACHE_DIRECTORY), UUID.randomUUID().toString());
+    maxEntrySize = config.getLong(ExecConstants.RESULT_CACHE_MAX_ENTRY_SIZE);
+    cache = CacheBuilder.newBuilder()
+        .maximumWeight(config.getLong(ExecConstants.RESULT_CACHE_MAX_SIZE))
+        .weigher((Weigher<PlanCache.Key, Entry>) (key, entry) -> (int) Math.min(Integer.MAX_VALUE, entry.size))
+        .expireAfterWrite(config.getLong(ExecConstants.RESULT_CACHE_TTL), TimeUnit.SECONDS)
+        .removalListener((RemovalListener<PlanCache.Key, Entry>) notification -> delete(notification.getValue().file))
+        .build();
+    DrillMetrics.register(METRICS_PREFIX + "entries", (Gauge<Long>) cache::size);
+    DrillMetrics.register(METRICS_PREFIX + "hits", (Gauge<Long>) hits::get);
+    DrillMetrics.register(METRICS_PREFIX + "misses", (Gauge<Long>) misses::get);
+    DrillMetrics.register(METRICS_PREFIX + "invalidations", (Gauge<Long>) invalidations::get);
+  }
+
+  /**
+   * Builds the cache key of a SQL statement.
+   *
+   * @param context query context
+   * @param sql SQL statement
+   * @return cache key, or null if the results of the statement must not be
+   * looked up nor cached
+   */
+  public PlanCache.Key newKey(QueryContext context, String sql) {
+    if (!context.getOptions().getOption(ExecConstants.RESULT_CACHE_ENABLED_VALIDATOR) ||
+        context.getSession().hasTemporaryTables()) {
+      return null;
+    }
+    return PlanCache.keyOf(context, sql);
+  }
+
+  /**
+   * Looks up the results of a statement.
+   *
+   * @param key cache key of the statement
+   * @param context query context
+   * @return plan streaming the cached results, or null if the results are not
+   * cached or the files they were computed from changed
+   */
+  public PhysicalPlan get(PlanCache.Key key, QueryContext context) {
+    Entry entry = cache.getIfPresent(key);
+    if (entry == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+    if (!entry.isValid(context)) {
+      logger.debug("Scanned files changed since the results were cached, the query will be executed.");
+      cache.invalidate(key);
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return DirectPlan.createDirectPlan(context.getCurrentEndpoint(),
+        new ResultCacheRecordReader(this, entry.file, entry.batchCount));
+  }
+
+  /**
+   * Called once a statement was planned: prepares the recording of its results
+   * if they may be cached. The results are recorded by the Screen operator,
+   * through the writer returned by {@link #writerFor(QueryId)}.
+   *
+   * @param key cache key of the statement, may be null
+   * @param context query context
+   * @param plan physical plan of the statement
+   */
+  public void planned(PlanCache.Key key, QueryContext context, PhysicalPlan plan) {
+    if (key == null || context.getPlanCacheUsage() != PlanCache.Usage.REUSABLE) {
+      return;
+    }
+    Entry entry;
+    try {
+      entry = newEntry(context, plan);
+    } catch (Exception e) {
+      logger.debug("Failed to get the modification times of the scanned files, results will not be cached.", e);
+      return;
+    }
+    if (entry != null) {
+      writers.put(context.getQueryId(), new Writer(key, entry));
+    }
+  }
+
+  /**
+   * Returns the writer recording the results of a query.
+   *
+   * @param queryId query id
+   * @return writer, or null if the results of the query are not cached
+   */
+  public Writer writerFor(QueryId queryId) {
+    return writers.get(queryId);
+  }
+
+  /**
+   * Called once a query is done: caches its results if they were recorded and
+   * the query completed.
+   *
+   * @param queryId query id
+   * @param completed whether the query completed successfully
+   */
+  public void finished(QueryId queryId, boolean completed) {
+    Writer writer = writers.remove(queryId);
+    if (writer == null) {
+      return;
+    }
+    Entry entry = writer.finish(completed);
+    if (entry != null) {
+      cache.put(writer.key, entry);
+    }
+  }
+
+  /**
+   * Discards all the cached results.
+   */
+  public void invalidateAll() {
+    invalidations.incrementAndGet();
+    cache.invalidateAll();
+  }
+
+  public long getEntryCount() {
+    return cache.size();
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public long getInvalidationCount() {
+    return invalidations.get();
+  }
+
+  InputStream open(Path file) throws IOException {
+    return fs.open(file);
+  }
+
+  @Override
+  public void close() {
+    writers.values().forEach(writer -> writer.finish(false));
+    writers.clear();
+    cache.invalidateAll();
+    try {
+      fs.delete(directory, true);
+    } catch (IOException e) {
+      logger.warn("Failed to delete the result cache directory {}", directory, e);
+    }
+  }
+
+  private void delete(Path file) {
+    try {
+      fs.delete(file, false);
+    } catch (IOException e) {
+      logger.warn("Failed to delete cached results {}", file, e);
+    }
+  }
+
+  /**
+   * Collects the modification times the results of a plan depend on.
+   *
+   * @return entry without results, or null if the results of the plan can not
+   * be cached
+   */
+  private Entry newEntry(QueryContext context, PhysicalPlan plan) throws Exception {
+    List<FileStamps> stamps = new ArrayList<>();
+    for (PhysicalOperator operator : plan.getSortedOperators(false)) {
+      if (!(operator instanceof GroupScan)) {
+        continue;
+      }
+      GroupScan scan = (GroupScan) operator;
+      StoragePluginConfig storageConfig = storageConfigOf(scan);
+      if (storageConfig == null || !scan.hasFiles() || scan.getFiles() == null) {
+        return null;
+      }
+      StoragePlugin plugin = context.getStorage().getPluginByConfig(storageConfig);
+      if (!(plugin instanceof FileSystemPlugin)) {
+        return null;
+      }
+      Configuration fsConf = ((FileSystemPlugin) plugin).getFsConf();
+      FileSystem scanFs = ImpersonationUtil.createFileSystem(context.getQueryUserName(), fsConf);
+      Map<Path, Long> modificationTimes = new HashMap<>();
+      Path root = scan.getSelectionRoot();
+      for (Path file : scan.getFiles()) {
+        // Files added to or removed from the scanned directories change their modification times
+        for (Path path = file; path != null; path = path.getParent()) {
+          if (modificationTimes.containsKey(path)) {
+            break;
+          }
+          modificationTimes.put(path, scanFs.getFileStatus(path).getModificationTime());
+          // Stop at the selection root, or at the directory of the file if there is none
+          boolean last = root == null
+              ? !path.equals(file)
+              : Path.getPathWithoutSchemeAndAuthority(path).equals(Path.getPathWithoutSchemeAndAuthority(root));
+          if (last) {
+            break;
+          }
+        }
+      }
+      stamps.add(new FileStamps(fsConf, modificationTimes));
+    }
+    if (stamps.isEmpty()) {
+      return null;
+    }
+    return new Entry(stamps, metastoreVersion(context));
+  }
+
+  private static StoragePluginConfig storageConfigOf(GroupScan scan) {
+    if (scan instanceof ParquetGroupScan) {
+      return ((ParquetGroupScan) scan).getEngineConfig();
+    } else if (scan instanceof EasyGroupScan) {
+      return ((EasyGroupScan) scan).getStorageConfig();
+    }
+    return null;
+  }
+
+  private static Long metastoreVersion(QueryContext context) {
+    if (!context.getOptions().getBoolean(ExecConstants.METASTORE_ENABLED)) {
+      return null;
+    }
+    return context.getDrillbitContext().getMetastoreRegistry().get().tables().metadata().version();
+  }
+
+  /**
+   * Modification times of the files and directories scanned through a file
+   * system.
+   */
+  private static class FileStamps {
+    private final Configuration fsConf;
+    private final Map<Path, Long> modificationTimes;
+
+    FileStamps(Configuration fsConf, Map<Path, Long> modificationTimes) {
+      this.fsConf = fsConf;
+      this.modificationTimes = modificationTimes;
+    }
+
+    boolean isValid(String userName) throws IOException {
+      FileSystem scanFs = ImpersonationUtil.createFileSystem(userName, fsConf);
+      for (Map.Entry<Path, Long> stamp : modificationTimes.entrySet()) {
+        try {
+          if (scanFs.getFileStatus(stamp.getKey()).getModificationTime() != stamp.getValue()) {
+            return false;
+          }
+        } catch (FileNotFoundException e) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Cached results of a query, and what they depend on.
+   */
+  private static class Entry {
+    private final List<FileStamps> stamps;
+    private final Long metastoreVersion;
+    private Path file;
+    private int batchCount;
+    private long size;
+
+    Entry(List<FileStamps> stamps, Long metastoreVersion) {
+      this.stamps = stamps;
+      this.metastoreVersion = metastoreVersion;
+    }
+
+    boolean isValid(QueryContext context) {
+      try {
+        if (metastoreVersion != null && !metastoreVersion.equals(metastoreVersion(context))) {
+          return false;
+        }
+        for (FileStamps fileStamps : stamps) {
+          if (!fileStamps.isValid(context.getQueryUserName())) {
+            return false;
+          }
+        }
+        return true;
+      } catch (Exception e) {
+        logger.debug("Failed to check the modification times of the scanned files.", e);
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Records the batches returned by a query. Results larger than
+   * {@code drill.exec.result_cache.max_entry_size} are dropped, as are the
+   * results of queries returning batches of different schemas. Failures are
+   * logged and only cause the results not to be cached.
+   */
+  public class Writer {
+    private final PlanCache.Key key;
+    private final Entry entry;
+    private FSDataOutputStream output;
+    private VectorSerializer.Writer serializer;
+    private boolean dropped;
+    private boolean schemaSeen;
+
+    Writer(PlanCache.Key key, Entry entry) {
+      this.key = key;
+      this.entry = entry;
+    }
+
+    /**
+     * Records a batch about to be sent to the client. The batch is left
+     * untouched.
+     *
+     * @param batch batch without selection vector
+     * @param newSchema whether the batch starts a new schema
+     */
+    public synchronized void write(VectorAccessible batch, boolean newSchema) {
+      if (dropped) {
+        return;
+      }
+      if (newSchema && schemaSeen) {
+        drop("the query returned several schemas");
+        return;
+      }
+      if (batch.getSchema().getSelectionVectorMode() != SelectionVectorMode.NONE) {
+        drop("the query returned batches with selection vectors");
+        return;
+      }
+      schemaSeen |= newSchema;
+      // Only the first batch may be empty, it carries the schema of empty results
+      if (batch.getRecordCount() == 0 && entry.batchCount > 0) {
+        return;
+      }
+      WritableBatch writable = WritableBatch.getRetained(batch);
+      try {
+        if (serializer == null) {
+          entry.file = new Path(directory, key.hashCode() + "_" + UUID.randomUUID());
+          output = fs.create(entry.file);
+          serializer = VectorSerializer.writer(Channels.newChannel(output));
+        }
+        entry.size += serializer.write(writable, null);
+        entry.batchCount++;
+      } catch (IOException e) {
+        logger.warn("Failed to write results to the result cache.", e);
+        drop(null);
+        return;
+      } finally {
+        writable.clear();
+      }
+      if (entry.size > maxEntrySize) {
+        drop("the results are too large");
+      }
+    }
+
+    private synchronized Entry finish(boolean completed) {
+      if (dropped) {
+        return null;
+      }
+      if (!completed || serializer == null) {
+        drop(null);
+        return null;
+      }
+      try {
+        serializer.close();
+      } catch (IOException e) {
+        logger.warn("Failed to write results to the result cache.", e);
+        drop(null);
+        return null;
+      }
+      return entry;
+    }
+
+    private void drop(String reason) {
+      if (reason != null) {
+        logger.debug("Results will not be cached, {}.", reason);
+      }
+      dropped = true;
+      if (serializer != null) {
+        try {
+          serializer.close();
+        } catch (IOException e) {
+          logger.debug("Failed to close cached results {}", entry.file, e);
+        }
+        delete(entry.file);
+      }
+    }
+  }
+}
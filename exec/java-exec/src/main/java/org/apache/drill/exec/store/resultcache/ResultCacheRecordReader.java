@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.resultcache;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.drill.common.exceptions.ExecutionSetupException;
+import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.exec.cache.VectorSerializer;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.ops.OperatorContext;
+import org.apache.drill.exec.physical.impl.OutputMutator;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.store.AbstractRecordReader;
+import org.apache.drill.exec.vector.ValueVector;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+/**
+ * Streams the batches of cached query results, written by
+ * {@link ResultCache.Writer}, transferring the vectors of each batch read
+ * to the output of the scan.
+ */
+@JsonTypeName("result-cache-record-reader")
+public class ResultCacheRecordReader extends AbstractRecordReader {
+  private static final Logger logger = LoggerFactory.getLogger(ResultCacheRecordReader.class);
+
+  @JsonIgnore
+  private final ResultCache resultCache;
+  private final Path file;
+  private final int batchCount;
+  private InputStream input;
+  private VectorSerializer.Reader reader;
+  private OutputMutator output;
+  private int batchesRead;
+
+  public ResultCacheRecordReader(ResultCache resultCache, Path file, int batchCount) {
+    this.resultCache = resultCache;
+    this.file = file;
+    this.batchCount = batchCount;
+  }
+
+  @JsonProperty
+  public Path getFile() {
+    return file;
+  }
+
+  @JsonProperty
+  public int getBatchCount() {
+    return batchCount;
+  }
+
+  @Override
+  public void setup(OperatorContext context, OutputMutator output) throws ExecutionSetupException {
+    this.output = output;
+    try {
+      input = resultCache.open(file);
+    } catch (IOException e) {
+      throw UserException.dataReadError(e)
+          .message("Failed to open cached query results, they may have been evicted; please run the query again")
+          .addContext("File", file.toString())
+          .build(logger);
+    }
+    reader = VectorSerializer.reader(context.getAllocator(), input);
+  }
+
+  @Override
+  public int next() {
+    // Only the first batch may be empty, read on to add its columns to the output
+    while (batchesRead < batchCount) {
+      VectorContainer batch;
+      try {
+        batch = reader.read();
+      } catch (IOException e) {
+        throw UserException.dataReadError(e)
+            .message("Failed to read cached query results")
+            .addContext("File", file.toString())
+            .build(logger);
+      }
+      batchesRead++;
+      int recordCount = batch.getRecordCount();
+      try {
+        for (VectorWrapper<?> wrapper : batch) {
+          ValueVector vector = wrapper.getValueVector();
+          ValueVector target = output.addField(vector.getField(), vector.getClass());
+          vector.makeTransferPair(target).transfer();
+        }
+      } catch (SchemaChangeException e) {
+        throw UserException.dataReadError(e)
+            .message("Cached query results have an unexpected schema")
+            .addContext("File", file.toString())
+            .build(logger);
+      } finally {
+        batch.clear();
+      }
+      if (recordCount > 0) {
+        return recordCount;
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (input != null) {
+      input.close();
+      input = null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ResultCacheRecordReader[file=" + file + ", batchCount=" + batchCount + "]";
+  }
+}
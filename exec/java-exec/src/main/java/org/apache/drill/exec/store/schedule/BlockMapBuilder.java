@@ -33,8 +33,10 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.drill.exec.metrics.DrillMetrics;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.store.TimedCallable;
+import org.apache.drill.exec.store.dfs.FrameFormat;
 import org.apache.drill.exec.store.dfs.easy.FileWork;
 import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -95,7 +97,8 @@ public class BlockMapBuilder {
     // For examples, for CSV, it is set as true
     // because each row in a CSV file can be considered as an independent record;
     // for json, it is set as false
-    // because each row in a json file cannot be determined as a record or not simply by that row alone
+    // because each row in a json file cannot be determined as a record or not simply by that row alone,
+    // unless the files are declared to hold one record per line
     final boolean blockify;
 
     public BlockMapReader(FileStatus status, boolean blockify) {
@@ -112,7 +115,15 @@ public class BlockMapBuilder {
       final Set<String> noDrillbitHosts = logger.isDebugEnabled() ? new HashSet<>() : null;
 
       boolean error = false;
-      if (blockify && !compressed(status)) {
+      FrameFormat frameFormat = blockify ? FrameFormat.of(status.getPath()) : null;
+      if (frameFormat != null) {
+        try {
+          work.addAll(getFrameWork(status, frameFormat, noDrillbitHosts));
+        } catch (IOException e) {
+          logger.warn("failure while generating file work.", e);
+          error = true;
+        }
+      } else if (blockify && !compressed(status)) {
         try {
           ImmutableRangeMap<Long, BlockLocation> rangeMap = getBlockMap(status);
           for (Entry<Range<Long>, BlockLocation> l : rangeMap.asMapOfRanges().entrySet()) {
@@ -126,7 +137,7 @@ public class BlockMapBuilder {
       }
 
 
-      if (!blockify || error || compressed(status)) {
+      if (!blockify || error || (frameFormat == null && compressed(status))) {
         work.add(new CompleteFileWork(getEndpointByteMap(noDrillbitHosts, new FileStatusWork(status)), 0,
             status.getLen(), status.getPath()));
       }
@@ -155,6 +166,37 @@ public class BlockMapBuilder {
     }
   }
 
+  /**
+   * Splits a file compressed in independent frames on the first frame
+   * boundary following each block boundary. A block in which no frame starts
+   * is read by the split of the previous block.
+   */
+  private List<CompleteFileWork> getFrameWork(FileStatus status, FrameFormat frameFormat,
+      Set<String> noDrillbitHosts) throws IOException {
+    List<Long> starts = new ArrayList<>();
+    starts.add(0L);
+    try (FSDataInputStream in = fs.open(status.getPath())) {
+      for (Range<Long> block : getBlockMap(status).asMapOfRanges().keySet()) {
+        long last = starts.get(starts.size() - 1);
+        if (block.lowerEndpoint() <= last) {
+          continue;
+        }
+        long frameStart = frameFormat.nextFrameStart(in, block.lowerEndpoint(), status.getLen());
+        if (frameStart > last) {
+          starts.add(frameStart);
+        }
+      }
+    }
+    List<CompleteFileWork> work = new ArrayList<>(starts.size());
+    for (int i = 0; i < starts.size(); i++) {
+      long start = starts.get(i);
+      long end = i + 1 < starts.size() ? starts.get(i + 1) : status.getLen();
+      work.add(new CompleteFileWork(getEndpointByteMap(noDrillbitHosts, new FileStatusWork(status)),
+          start, end - start, status.getPath()));
+    }
+    return work;
+  }
+
   private class FileStatusWork implements FileWork{
     private FileStatus status;
 
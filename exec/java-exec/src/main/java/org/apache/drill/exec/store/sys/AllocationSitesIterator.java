@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.sys;
+
+import java.util.Iterator;
+
+import org.apache.drill.exec.memory.AllocationSampler;
+import org.apache.drill.exec.ops.ExecutorFragmentContext;
+import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
+import org.apache.drill.exec.store.pojo.NonNullable;
+
+/**
+ * Lists the sites allocating direct memory sampled on the Drillbit, the
+ * sites holding the most memory first. Empty unless
+ * {@code drill.memory.sampling.rate} is set.
+ */
+public class AllocationSitesIterator implements Iterator<Object> {
+
+  private final DrillbitEndpoint endpoint;
+  private final Iterator<AllocationSampler.Site> sites;
+
+  public AllocationSitesIterator(final ExecutorFragmentContext context, final int maxRecords) {
+    this.endpoint = context.getEndpoint();
+    this.sites = context.getRootAllocator().getAllocationSampler().getTopSites(maxRecords).iterator();
+  }
+
+  @Override
+  public boolean hasNext() {
+    return sites.hasNext();
+  }
+
+  @Override
+  public Object next() {
+    final AllocationSampler.Site site = sites.next();
+    final AllocationSiteInfo info = new AllocationSiteInfo();
+    info.hostname = endpoint.getAddress();
+    info.user_port = endpoint.getUserPort();
+    info.operator = site.getOperator();
+    info.allocator = site.getAllocatorPath();
+    info.stack = site.getStack();
+    info.samples = site.getSampleCount();
+    info.allocated_bytes = site.getAllocatedBytes();
+    info.held_bytes = site.getHeldBytes();
+    return info;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static class AllocationSiteInfo {
+    @NonNullable
+    public String hostname;
+    public long user_port;
+    public String operator;
+    public String allocator;
+    public String stack;
+    public long samples;
+    public long allocated_bytes;
+    public long held_bytes;
+  }
+}
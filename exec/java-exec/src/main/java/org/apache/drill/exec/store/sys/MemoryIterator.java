@@ -25,6 +25,7 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.memory.Accountant;
 import org.apache.drill.exec.ops.ExecutorFragmentContext;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.store.pojo.NonNullable;
@@ -65,6 +66,11 @@ public class MemoryIterator implements Iterator<Object> {
     // We need the memory used by the root allocator for the Drillbit
     memoryInfo.direct_current = context.getRootAllocator().getAllocatedMemory();
     memoryInfo.direct_max = DrillConfig.getMaxDirectMemory();
+
+    // Allocators reserving memory from their parent in chunks
+    memoryInfo.chunk_reserved = Accountant.getChunkReservedMemory();
+    memoryInfo.chunk_reservations = Accountant.getParentReservationCount();
+    memoryInfo.chunk_local_allocations = Accountant.getLocalAllocationCount();
     return memoryInfo;
   }
 
@@ -92,5 +98,8 @@ public class MemoryIterator implements Iterator<Object> {
     public long direct_current;
     public long jvm_direct_current;
     public long direct_max;
+    public long chunk_reserved;
+    public long chunk_reservations;
+    public long chunk_local_allocations;
   }
 }
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.sys;
+
+import java.util.Iterator;
+
+import org.apache.drill.exec.ops.ExecutorFragmentContext;
+import org.apache.drill.exec.planner.sql.PlanCache;
+import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
+import org.apache.drill.exec.store.pojo.NonNullable;
+
+/**
+ * Lists the statistics of the query plan cache of the Drillbit.
+ */
+public class PlanCacheIterator implements Iterator<Object> {
+
+  private boolean beforeFirst = true;
+  private final ExecutorFragmentContext context;
+
+  public PlanCacheIterator(final ExecutorFragmentContext context) {
+    this.context = context;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return beforeFirst;
+  }
+
+  @Override
+  public Object next() {
+    if (!beforeFirst) {
+      throw new IllegalStateException();
+    }
+    beforeFirst = false;
+    final PlanCacheInfo info = new PlanCacheInfo();
+
+    final DrillbitEndpoint endpoint = context.getEndpoint();
+    info.hostname = endpoint.getAddress();
+    info.user_port = endpoint.getUserPort();
+
+    final PlanCache planCache = context.getPlanCache();
+    info.entries = planCache.getEntryCount();
+    info.hits = planCache.getHitCount();
+    info.misses = planCache.getMissCount();
+    info.evictions = planCache.getEvictionCount();
+    info.invalidations = planCache.getInvalidationCount();
+    return info;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static class PlanCacheInfo {
+    @NonNullable
+    public String hostname;
+    public long user_port;
+    public long entries;
+    public long hits;
+    public long misses;
+    public long evictions;
+    public long invalidations;
+  }
+}
@@ -28,7 +28,7 @@ import org.apache.drill.exec.store.sys.OptionIterator.OptionValueWrapper;
  * An enumeration of all tables in Drill's system ("sys") schema.
  * <p>
  *   OPTION, DRILLBITS and VERSION are local tables available on every Drillbit.
- *   MEMORY and THREADS are distributed tables with one record on every Drillbit.
+ *   MEMORY, PLAN_CACHE and THREADS are distributed tables with one record on every Drillbit.
  *   PROFILES and PROFILES_JSON are stored in local / distributed storage.
  * </p>
  */
@@ -91,6 +91,13 @@ public enum SystemTable implements DrillTableSelection {
     }
   },
 
+  PLAN_CACHE("plan_cache", true, PlanCacheIterator.PlanCacheInfo.class) {
+    @Override
+    public Iterator<Object> getIterator(final ExecutorFragmentContext context, final int maxRecords) {
+      return new PlanCacheIterator(context);
+    }
+  },
+
   CONNECTIONS("connections", true, BitToUserConnectionIterator.ConnectionInfo.class) {
     @Override
     public Iterator<Object> getIterator(final ExecutorFragmentContext context, final int maxRecords) {
@@ -112,6 +119,13 @@ public enum SystemTable implements DrillTableSelection {
     }
   },
 
+  ALLOCATION_SITES("allocation_sites", true, AllocationSitesIterator.AllocationSiteInfo.class) {
+    @Override
+    public Iterator<Object> getIterator(final ExecutorFragmentContext context, final int maxRecords) {
+      return new AllocationSitesIterator(context, maxRecords);
+    }
+  },
+
   THREADS("threads", true, ThreadsIterator.ThreadsInfo.class) {
     @Override
     public Iterator<Object> getIterator(final ExecutorFragmentContext context, final int maxRecords) {
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.util;
+
+import java.util.Locale;
+
+import io.airlift.compress.Compressor;
+import io.airlift.compress.Decompressor;
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
+import io.airlift.compress.snappy.SnappyCompressor;
+import io.airlift.compress.snappy.SnappyDecompressor;
+import io.airlift.compress.zstd.ZstdCompressor;
+import io.airlift.compress.zstd.ZstdDecompressor;
+
+/**
+ * Block compression codecs, provided by aircompressor, which is also used for
+ * Parquet (de)compression. They compress spill files, with the codec chosen
+ * per operator with the {@code exec.*.spill.compression} options, and the
+ * record batches sent between drillbits, with the codec negotiated in the
+ * data channel handshake.
+ * <p>
+ * The (de)compressors are not thread safe: each user creates its own.
+ */
+public enum BlockCodec {
+  NONE,
+  LZ4,
+  SNAPPY,
+  ZSTD;
+
+  public Compressor newCompressor() {
+    switch (this) {
+      case LZ4:
+        return new Lz4Compressor();
+      case SNAPPY:
+        return new SnappyCompressor();
+      case ZSTD:
+        return new ZstdCompressor();
+      default:
+        throw new UnsupportedOperationException("No compressor for codec " + this);
+    }
+  }
+
+  public Decompressor newDecompressor() {
+    switch (this) {
+      case LZ4:
+        return new Lz4Decompressor();
+      case SNAPPY:
+        return new SnappyDecompressor();
+      case ZSTD:
+        return new ZstdDecompressor();
+      default:
+        throw new UnsupportedOperationException("No decompressor for codec " + this);
+    }
+  }
+
+  /**
+   * @return the lower case name, as found in the options and handshakes
+   */
+  public String getName() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Resolves a codec from its case insensitive name.
+   *
+   * @param name none, lz4, snappy or zstd
+   * @return the codec
+   * @throws IllegalArgumentException if the codec is unknown
+   */
+  public static BlockCodec fromName(String name) {
+    return valueOf(name.trim().toUpperCase(Locale.ROOT));
+  }
+}
@@ -24,7 +24,9 @@ import com.google.common.collect.Maps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.drill.common.SelfCleaningRunnable;
+import org.apache.drill.common.config.DrillConfig;
 import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.coord.ClusterCoordinator;
 import org.apache.drill.exec.metrics.DrillMetrics;
 import org.apache.drill.exec.proto.BitControl.FragmentStatus;
@@ -49,6 +51,7 @@ import org.apache.drill.exec.work.filter.RuntimeFilterWritable;
 import org.apache.drill.exec.work.foreman.Foreman;
 import org.apache.drill.exec.work.fragment.FragmentExecutor;
 import org.apache.drill.exec.work.fragment.FragmentManager;
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
 import org.apache.drill.exec.work.user.UserWorker;
 
 import java.util.HashMap;
@@ -87,6 +90,8 @@ public class WorkManager implements AutoCloseable {
   private final WorkerBee bee;
   private final WorkEventBus workBus;
   private final Executor executor;
+  // Runs the fragments in time slices if enabled, null if each fragment has a thread of the executor
+  private final FragmentScheduler fragmentScheduler;
   private final StatusThread statusThread;
   private final Lock isEmptyLock = new ReentrantLock();
   private Condition isEmptyCondition;
@@ -101,6 +106,7 @@ public class WorkManager implements AutoCloseable {
     bee = new WorkerBee(); // TODO should this just be an interface?
     workBus = new WorkEventBus(); // TODO should this just be an interface?
     executor = context.getExecutor();
+    fragmentScheduler = createFragmentScheduler(context.getConfig());
 
     // TODO references to this escape here (via WorkerBee) before construction is done
     controlMessageWorker = new ControlMessageHandler(bee); // TODO getFragmentRunner(), getForemanForQueryId()
@@ -108,6 +114,19 @@ public class WorkManager implements AutoCloseable {
     statusThread = new StatusThread();
   }
 
+  private static FragmentScheduler createFragmentScheduler(DrillConfig config) {
+    if (!config.getBoolean(ExecConstants.FRAGMENT_SCHEDULER_ENABLED)) {
+      return null;
+    }
+    int threads = config.getInt(ExecConstants.FRAGMENT_SCHEDULER_THREADS);
+    if (threads <= 0) {
+      threads = Runtime.getRuntime().availableProcessors();
+    }
+    final long quantumMillis = config.getLong(ExecConstants.FRAGMENT_SCHEDULER_QUANTUM_MS);
+    logger.info("Running fragments in slices of {} ms on {} threads.", quantumMillis, threads);
+    return new FragmentScheduler(threads, quantumMillis);
+  }
+
   public void start(
       final DrillbitEndpoint endpoint,
       final Controller controller,
@@ -156,6 +175,10 @@ public class WorkManager implements AutoCloseable {
       }
     }
 
+    if (fragmentScheduler != null) {
+      fragmentScheduler.close();
+    }
+
     if (getContext() != null) {
       getContext().close();
     }
@@ -332,12 +355,9 @@ public class WorkManager implements AutoCloseable {
     public void addFragmentRunner(final FragmentExecutor fragmentExecutor) {
       final FragmentHandle fragmentHandle = fragmentExecutor.getContext().getHandle();
       runningFragments.put(fragmentHandle, fragmentExecutor);
-      executor.execute(new SelfCleaningRunnable(fragmentExecutor) {
-        @Override
-        protected void cleanup() {
-          runningFragments.remove(fragmentHandle);
-          indicateIfSafeToExit();
-        }
+      runFragment(fragmentExecutor, () -> {
+        runningFragments.remove(fragmentHandle);
+        indicateIfSafeToExit();
       });
     }
 
@@ -355,14 +375,30 @@ public class WorkManager implements AutoCloseable {
         return;
       }
       runningFragments.put(fragmentHandle, fragmentExecutor);
+      runFragment(fragmentExecutor, () -> {
+        runningFragments.remove(fragmentHandle);
+        if (!fragmentManager.isCancelled()) {
+          workBus.removeFragmentManager(fragmentHandle, false);
+        }
+        indicateIfSafeToExit();
+      });
+    }
+
+    /**
+     * Runs a fragment on the fragment scheduler if enabled, else on a thread of its own.
+     *
+     * @param fragmentExecutor the fragment to run
+     * @param cleanup run once the fragment is done
+     */
+    private void runFragment(final FragmentExecutor fragmentExecutor, final Runnable cleanup) {
+      if (fragmentScheduler != null) {
+        fragmentScheduler.submit(fragmentExecutor, cleanup);
+        return;
+      }
       executor.execute(new SelfCleaningRunnable(fragmentExecutor) {
         @Override
         protected void cleanup() {
-          runningFragments.remove(fragmentHandle);
-          if (!fragmentManager.isCancelled()) {
-            workBus.removeFragmentManager(fragmentHandle, false);
-          }
-          indicateIfSafeToExit();
+          cleanup.run();
         }
       });
     }
@@ -48,6 +48,7 @@ public class IncomingBuffers implements AutoCloseable {
   private final AtomicInteger remainingRequired;
   private final Map<Integer, DataCollector> collectorMap;
   private final FragmentContext context;
+  private volatile Runnable batchListener;
 
   /**
    * Lock used to manage close and data acceptance. We should only create a local reference to incoming data in the case
@@ -107,20 +108,56 @@ public class IncomingBuffers implements AutoCloseable {
       // Use the Data Collector's buffer allocator if set, otherwise the fragment's one
       BufferAllocator ownerAllocator = collector.getAllocator();
 
+      boolean decrementedToZero;
       synchronized (collector) {
         final RawFragmentBatch newRawFragmentBatch = incomingBatch.newRawFragmentBatch(ownerAllocator);
-        boolean decrementedToZero = collector
+        decrementedToZero = collector
             .batchArrived(incomingBatch.getHeader().getSendingMinorFragmentId(), newRawFragmentBatch);
         newRawFragmentBatch.release();
+      }
 
-        // we should only return true if remaining required has been decremented and is currently equal to zero.
-        return decrementedToZero;
+      final Runnable listener = batchListener;
+      if (listener != null) {
+        listener.run();
       }
 
+      // we should only return true if remaining required has been decremented and is currently equal to zero.
+      return decrementedToZero;
     }
 
   }
 
+  /**
+   * Sets the listener told of every batch accepted, which the fragment scheduler uses to wake up the fragment when
+   * it waits for input.
+   *
+   * @param listener the listener, run on the thread which received the batch
+   */
+  public void setBatchListener(Runnable listener) {
+    batchListener = listener;
+  }
+
+  /**
+   * Whether one of the receivers of the fragment can take its next batch without waiting. This is a hint for the
+   * fragment scheduler: a receiver which merges its incoming streams may still have to wait for a batch of another
+   * stream.
+   *
+   * @return true if a batch is available to a receiver, or no more batches are to come
+   */
+  public boolean isInputReady() {
+    if (closed || collectorMap.isEmpty()) {
+      return true;
+    }
+    for (DataCollector collector : collectorMap.values()) {
+      for (RawBatchBuffer buffer : collector.getBuffers()) {
+        if (buffer.isReady()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   public int getRemainingRequired() {
     int rem = remainingRequired.get();
     if (rem < 0) {
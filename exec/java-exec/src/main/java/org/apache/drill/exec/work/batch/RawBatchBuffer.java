@@ -38,4 +38,12 @@ public interface RawBatchBuffer extends RawFragmentBatchProvider {
    * @return Whether response should be returned.
    */
   public void enqueue(RawFragmentBatch batch) throws IOException;
+
+  /**
+   * Whether {@link #getNext()} can return without waiting for a batch to
+   * arrive: a batch is queued, or all the incoming streams have finished.
+   *
+   * @return true if the next batch is available
+   */
+  public boolean isReady();
 }
@@ -41,6 +41,7 @@ import org.apache.drill.exec.planner.fragment.Fragment;
 import org.apache.drill.exec.planner.fragment.MakeFragmentsVisitor;
 import org.apache.drill.exec.planner.sql.DirectPlan;
 import org.apache.drill.exec.planner.sql.DrillSqlWorker;
+import org.apache.drill.exec.planner.sql.PlanCache;
 import org.apache.drill.exec.proto.BitControl.PlanFragment;
 import org.apache.drill.exec.proto.ExecProtos.FragmentHandle;
 import org.apache.drill.exec.proto.ExecProtos.ServerPreparedStatementState;
@@ -57,6 +58,7 @@ import org.apache.drill.exec.rpc.UserClientConnection;
 import org.apache.drill.exec.server.DrillbitContext;
 import org.apache.drill.exec.server.FailureUtils;
 import org.apache.drill.exec.server.options.OptionSet;
+import org.apache.drill.exec.store.resultcache.ResultCache;
 import org.apache.drill.exec.testing.ControlsInjector;
 import org.apache.drill.exec.testing.ControlsInjectorFactory;
 import org.apache.drill.exec.util.Pointer;
@@ -590,8 +592,26 @@ public class Foreman implements Runnable {
   }
 
   private void runSQL(final String sql) throws ExecutionSetupException {
+    final ResultCache resultCache = drillbitContext.getResultCache();
+    final PlanCache.Key resultKey = resultCache.newKey(queryContext, sql);
+    final PhysicalPlan cachedResults = resultKey == null ? null : resultCache.get(resultKey, queryContext);
+    if (cachedResults != null) {
+      logger.debug("Returning cached results for query {}", queryIdString);
+      runPhysicalPlan(cachedResults);
+      return;
+    }
+
     final Pointer<String> textPlan = new Pointer<>();
-    final PhysicalPlan plan = DrillSqlWorker.getPlan(queryContext, sql, textPlan);
+    final PlanCache planCache = drillbitContext.getPlanCache();
+    final PlanCache.Key cacheKey = planCache.newKey(queryContext, sql);
+    PhysicalPlan plan = cacheKey == null ? null : planCache.get(cacheKey, queryContext, textPlan);
+    if (plan == null) {
+      plan = DrillSqlWorker.getPlan(queryContext, sql, textPlan);
+      planCache.planned(cacheKey, queryContext, plan, textPlan.value);
+    } else {
+      logger.debug("Reusing cached plan for query {}", queryIdString);
+    }
+    resultCache.planned(resultKey, queryContext, plan);
     runPhysicalPlan(plan, textPlan);
   }
 
@@ -759,6 +779,14 @@ public class Foreman implements Runnable {
       drillbitContext.getWorkBus().removeFragmentStatusListener(queryId);
       drillbitContext.getClusterCoordinator().removeDrillbitStatusListener(queryManager.getDrillbitStatusListener());
 
+      // Caches the results recorded while the query ran, if it completed
+      drillbitContext.getResultCache().finished(queryId, resultState == QueryState.COMPLETED);
+
+      // The statement may have changed tables or metadata captured in cached plans
+      if (PlanCache.writesTables(queryContext.getSQLStatementType())) {
+        drillbitContext.getPlanCache().invalidateAll();
+      }
+
       suppressingClose(queryContext);
 
       /*
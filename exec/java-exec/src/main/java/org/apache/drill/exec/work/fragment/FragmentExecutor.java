@@ -47,6 +47,7 @@ import org.apache.drill.exec.server.FailureUtils;
 import org.apache.drill.exec.testing.ControlsInjector;
 import org.apache.drill.exec.testing.ControlsInjectorFactory;
 import org.apache.drill.exec.util.ImpersonationUtil;
+import org.apache.drill.exec.work.batch.IncomingBuffers;
 import org.apache.drill.exec.work.foreman.DrillbitStatusListener;
 import org.apache.hadoop.security.UserGroupInformation;
 import org.slf4j.Logger;
@@ -152,6 +153,21 @@ public class FragmentExecutor implements Runnable {
   // Thread that is currently executing the Fragment. Value is null if the fragment hasn't started running or finished
   private final AtomicReference<Thread> myThreadRef = new AtomicReference<>(null);
 
+  /**
+   * Stands for the thread of a fragment run by the {@link FragmentScheduler} between two slices, when no thread runs
+   * it. It is never started, so interrupting it does nothing.
+   */
+  private static final Thread NOT_RUNNING = new Thread("fragment-not-running");
+
+  /**
+   * Guards the hand-off of the fragment between the threads of the {@link FragmentScheduler}, so that a cancellation
+   * does not interrupt a thread which has moved on to another fragment.
+   */
+  private final Object threadLock = new Object();
+
+  private final DrillbitStatusListener drillbitStatusListener = new FragmentDrillbitStatusListener();
+  private UserGroupInformation queryUserUgi;
+
   /**
    * Create a FragmentExecutor where we need to parse and materialize the root operator.
    *
@@ -274,42 +290,103 @@ public class FragmentExecutor implements Runnable {
       return;
     }
 
+    execute(0);
+  }
+
+  /**
+   * Runs the fragment on the current thread for a slice of time, for the {@link FragmentScheduler}. The fragment
+   * yields once the slice has expired or its input is not ready, between two batches of its root.
+   *
+   * @param sliceNanos length of the slice
+   * @return true if the fragment yielded and is to be run again, false once it is done
+   */
+  public boolean runSlice(long sliceNanos) {
+    final Thread myThread = Thread.currentThread();
+    synchronized (threadLock) {
+      final Thread current = myThreadRef.get();
+      if (current == null || current == NOT_RUNNING) {
+        myThreadRef.set(myThread);
+      } else {
+        // cancelled before it started, and cleaned up by the cancelling thread
+        return false;
+      }
+    }
+
+    final boolean more = execute(sliceNanos);
+    if (more) {
+      synchronized (threadLock) {
+        myThreadRef.set(NOT_RUNNING);
+        // An interruption meant for this fragment must not reach the next one run by the thread.
+        // The cancellation itself is kept in the fragment state.
+        Thread.interrupted();
+      }
+    }
+    return more;
+  }
+
+  /**
+   * Whether the fragment can make progress without waiting for incoming batches, for the {@link FragmentScheduler}.
+   *
+   * @return true if the fragment is to be run
+   */
+  public boolean isInputReady() {
+    if (!shouldContinue() || !receiverFinishedQueue.isEmpty()) {
+      return true;
+    }
+    final IncomingBuffers buffers = fragmentContext.getBuffers();
+    return buffers == null || buffers.isInputReady();
+  }
+
+  /**
+   * Runs the fragment, setting it up first if this is its first run.
+   *
+   * @param sliceNanos length of the slice, 0 to run the fragment until it is done
+   * @return true if the fragment yielded before it was done
+   */
+  private boolean execute(final long sliceNanos) {
+    final Thread myThread = Thread.currentThread();
+    final long start = System.nanoTime();
     final String originalThreadName = myThread.getName();
     final FragmentHandle fragmentHandle = fragmentContext.getHandle();
     final ClusterCoordinator clusterCoordinator = fragmentContext.getClusterCoordinator();
-    final DrillbitStatusListener drillbitStatusListener = new FragmentDrillbitStatusListener();
     final String newThreadName = QueryIdHelper.getExecutorThreadName(fragmentHandle);
+    boolean more = false;
 
     try {
       myThread.setName(newThreadName);
 
-      // if we didn't get the root operator when the executor was created, create it now.
-      final FragmentRoot rootOperator = this.rootOperator != null ? this.rootOperator :
-          fragmentContext.getPlanReader().readFragmentRoot(fragment.getFragmentJson());
-
-      root = ImplCreator.getExec(fragmentContext, rootOperator);
       if (root == null) {
-        return;
-      }
+        // if we didn't get the root operator when the executor was created, create it now.
+        final FragmentRoot rootOperator = this.rootOperator != null ? this.rootOperator :
+            fragmentContext.getPlanReader().readFragmentRoot(fragment.getFragmentJson());
 
-      clusterCoordinator.addDrillbitStatusListener(drillbitStatusListener);
-      updateState(FragmentState.RUNNING);
+        root = ImplCreator.getExec(fragmentContext, rootOperator);
+        if (root == null) {
+          return false;
+        }
+
+        clusterCoordinator.addDrillbitStatusListener(drillbitStatusListener);
+        updateState(FragmentState.RUNNING);
 
-      eventProcessor.start();
-      injector.injectPause(fragmentContext.getExecutionControls(), "fragment-running", logger);
+        eventProcessor.start();
+        injector.injectPause(fragmentContext.getExecutionControls(), "fragment-running", logger);
 
-      final DrillbitEndpoint endpoint = fragmentContext.getEndpoint();
-      logger.debug("Starting fragment {}:{} on {}:{}",
-          fragmentHandle.getMajorFragmentId(), fragmentHandle.getMinorFragmentId(),
-          endpoint.getAddress(), endpoint.getUserPort());
+        final DrillbitEndpoint endpoint = fragmentContext.getEndpoint();
+        logger.debug("Starting fragment {}:{} on {}:{}",
+            fragmentHandle.getMajorFragmentId(), fragmentHandle.getMinorFragmentId(),
+            endpoint.getAddress(), endpoint.getUserPort());
 
-      final UserGroupInformation queryUserUgi = fragmentContext.isImpersonationEnabled() ?
-          ImpersonationUtil.createProxyUgi(fragmentContext.getQueryUserName()) :
-          ImpersonationUtil.getProcessUserUGI();
+        queryUserUgi = fragmentContext.isImpersonationEnabled() ?
+            ImpersonationUtil.createProxyUgi(fragmentContext.getQueryUserName()) :
+            ImpersonationUtil.getProcessUserUGI();
 
-      queryUserUgi.doAs((PrivilegedExceptionAction<Void>) () -> {
-        injector.injectChecked(fragmentContext.getExecutionControls(), "fragment-execution", IOException.class);
+        queryUserUgi.doAs((PrivilegedExceptionAction<Void>) () -> {
+          injector.injectChecked(fragmentContext.getExecutionControls(), "fragment-execution", IOException.class);
+          return null;
+        });
+      }
 
+      more = queryUserUgi.doAs((PrivilegedExceptionAction<Boolean>) () -> {
         while (shouldContinue()) {
           // Fragment is not cancelled
 
@@ -320,11 +397,16 @@ public class FragmentExecutor implements Runnable {
 
           if (!root.next()) {
             // Fragment has processed all of its data
-            break;
+            return false;
+          }
+
+          if (sliceNanos > 0 && (System.nanoTime() - start >= sliceNanos || !isInputReady())) {
+            // Give the thread to another fragment
+            return true;
           }
         }
 
-        return null;
+        return false;
       });
 
     } catch (QueryCancelledException e) {
@@ -346,22 +428,24 @@ public class FragmentExecutor implements Runnable {
       }
       fail(t);
     } finally {
-
-      // Don't process any more termination requests, we are done.
-      eventProcessor.terminate();
-      // Clear the interrupt flag if it is set.
-      Thread.interrupted();
-
-      // here we could be in FAILED, RUNNING, or CANCELLATION_REQUESTED
-      // FAILED state will be because of any Exception in execution loop root.next()
-      // CANCELLATION_REQUESTED because of a CANCEL request received by Foreman.
-      // ELSE will be in FINISHED state.
-      cleanup(FragmentState.FINISHED);
-
-      clusterCoordinator.removeDrillbitStatusListener(drillbitStatusListener);
+      if (!more) {
+        // Don't process any more termination requests, we are done.
+        eventProcessor.terminate();
+        // Clear the interrupt flag if it is set.
+        Thread.interrupted();
+
+        // here we could be in FAILED, RUNNING, or CANCELLATION_REQUESTED
+        // FAILED state will be because of any Exception in execution loop root.next()
+        // CANCELLATION_REQUESTED because of a CANCEL request received by Foreman.
+        // ELSE will be in FINISHED state.
+        cleanup(FragmentState.FINISHED);
+
+        clusterCoordinator.removeDrillbitStatusListener(drillbitStatusListener);
+      }
 
       myThread.setName(originalThreadName);
     }
+    return more;
   }
 
   /**
@@ -652,10 +736,12 @@ public class FragmentExecutor implements Runnable {
      * procedure of the main thread.
     */
     private void killThread() {
-      // myThreadRef must contain a non-null reference at this point
-      final Thread myThread = myThreadRef.get();
-      logger.debug("Interrupting fragment thread {}", myThread.getName());
-      myThread.interrupt();
+      synchronized (threadLock) {
+        // myThreadRef must contain a non-null reference at this point
+        final Thread myThread = myThreadRef.get();
+        logger.debug("Interrupting fragment thread {}", myThread.getName());
+        myThread.interrupt();
+      }
     }
   }
 }
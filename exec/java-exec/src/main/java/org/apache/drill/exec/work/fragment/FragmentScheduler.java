@@ -0,0 +1,483 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.work.fragment;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.proto.UserBitShared.QueryId;
+import org.apache.drill.exec.work.batch.IncomingBuffers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runs fragments in time slices on a fixed number of threads, instead of
+ * giving each fragment a thread for its whole life.
+ * <p>
+ * A fragment runs until its slice expires or its incoming buffers hold no
+ * batch, and then gives its thread to another fragment. Operators cannot be
+ * suspended in the middle of a batch, so a fragment only yields between two
+ * batches of its root. A fragment waiting for input is woken up by the
+ * arrival of a batch, and checked periodically in case a wake-up was missed
+ * or the fragment was cancelled.
+ * <p>
+ * Queries share the threads by weighted fair queuing: each query has a
+ * virtual time which grows with the time its fragments run, divided by the
+ * weight of the query, and the next fragment run is one of the query with the
+ * lowest virtual time. A query which becomes ready again starts from the
+ * lowest virtual time of the running queries, so that it gets no credit for
+ * the time it was idle.
+ * <p>
+ * A fragment may still block in the middle of a batch: a receiver which
+ * merges its incoming streams waits for a batch of a given stream, and a
+ * sender waits for the acknowledgment of its batches. Such waits are wrapped
+ * in {@link #beginBlocking()} and {@link #endBlocking()}, which start another
+ * thread for the time of the wait, so that the fragments which would unblock
+ * it can still run.
+ */
+public class FragmentScheduler implements AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(FragmentScheduler.class);
+
+  /**
+   * How often a fragment waiting for input is checked, in case the batch
+   * listener missed a wake-up or the fragment was cancelled.
+   */
+  private static final long WAIT_CHECK_MILLIS = 100;
+
+  private static final ThreadLocal<FragmentScheduler> CURRENT = new ThreadLocal<>();
+
+  private final int threads;
+  private final long quantumNanos;
+  private final ScheduledExecutorService timer;
+  private final AtomicInteger threadIds = new AtomicInteger();
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition workAvailable = lock.newCondition();
+
+  // Guarded by lock
+  private final Map<QueryId, QueryEntry> queries = new HashMap<>();
+  private long virtualClock;
+  private int workers;
+  private int blockedWorkers;
+  private int idleWorkers;
+  private boolean closed;
+
+  /**
+   * @param threads number of threads running fragments at the same time
+   * @param quantumMillis length of the time slice given to a fragment
+   */
+  public FragmentScheduler(int threads, long quantumMillis) {
+    this.threads = threads;
+    this.quantumNanos = TimeUnit.MILLISECONDS.toNanos(quantumMillis);
+    this.timer = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("drill-fragment-scheduler-timer").setDaemon(true).build());
+  }
+
+  /**
+   * Schedules a fragment.
+   *
+   * @param fragmentExecutor the fragment to run
+   * @param cleanup run once the fragment is done, like
+   *        {@link org.apache.drill.common.SelfCleaningRunnable#cleanup()}
+   */
+  public void submit(FragmentExecutor fragmentExecutor, Runnable cleanup) {
+    final QueryId queryId = fragmentExecutor.getContext().getHandle().getQueryId();
+    final int weight = (int) fragmentExecutor.getContext().getOptions()
+        .getLong(ExecConstants.FRAGMENT_SCHEDULER_QUERY_WEIGHT_KEY);
+
+    final ScheduledFragment fragment;
+    lock.lock();
+    try {
+      QueryEntry query = queries.computeIfAbsent(queryId, id -> new QueryEntry(id, weight));
+      fragment = new ScheduledFragment(fragmentExecutor, cleanup, query);
+      query.fragments.add(fragment);
+    } finally {
+      lock.unlock();
+    }
+
+    // Set before the fragment is queued, so that the listener is cleared
+    // with the fragment even if it is cancelled right away
+    final IncomingBuffers buffers = fragmentExecutor.getContext().getBuffers();
+    if (buffers != null) {
+      buffers.setBatchListener(fragment::signal);
+    }
+
+    lock.lock();
+    try {
+      enqueue(fragment);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Tells the scheduler running the current thread, if any, that the thread
+   * is about to block. Another thread is started if needed, so that the
+   * number of threads running fragments stays the same. Must be followed by
+   * {@link #endBlocking()}.
+   */
+  public static void beginBlocking() {
+    final FragmentScheduler scheduler = CURRENT.get();
+    if (scheduler != null) {
+      scheduler.workerBlocked();
+    }
+  }
+
+  /**
+   * Tells the scheduler running the current thread, if any, that the thread
+   * no longer blocks. The extra thread started meanwhile ends once it has
+   * run its slice.
+   */
+  public static void endBlocking() {
+    final FragmentScheduler scheduler = CURRENT.get();
+    if (scheduler != null) {
+      scheduler.workerUnblocked();
+    }
+  }
+
+  private void workerBlocked() {
+    lock.lock();
+    try {
+      blockedWorkers++;
+      if (hasReadyFragments()) {
+        wakeOrStartWorker();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void workerUnblocked() {
+    lock.lock();
+    try {
+      blockedWorkers--;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Adds a fragment to the ready fragments of its query, or cancels it if the
+   * scheduler is closed. Called with the lock held.
+   */
+  private void enqueue(ScheduledFragment fragment) {
+    if (closed) {
+      cancel(fragment);
+      return;
+    }
+    final QueryEntry query = fragment.query;
+    if (query.ready.isEmpty()) {
+      // No credit for the time the query had nothing to run
+      query.virtualTime = Math.max(query.virtualTime, virtualClock);
+    }
+    query.ready.add(fragment);
+    wakeOrStartWorker();
+  }
+
+  /**
+   * Called with the lock held.
+   */
+  private void wakeOrStartWorker() {
+    if (idleWorkers > 0) {
+      workAvailable.signal();
+    } else if (workers - blockedWorkers < threads) {
+      workers++;
+      final Thread worker = new Thread(this::runWorker, "drill-fragment-scheduler-" + threadIds.incrementAndGet());
+      worker.setDaemon(true);
+      worker.start();
+    }
+  }
+
+  /**
+   * Called with the lock held.
+   */
+  private boolean hasReadyFragments() {
+    for (QueryEntry query : queries.values()) {
+      if (!query.ready.isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Takes the next fragment to run: one of the query with the lowest virtual
+   * time. Called with the lock held.
+   *
+   * @return the fragment, null if no fragment is ready
+   */
+  private ScheduledFragment pollNext() {
+    QueryEntry next = null;
+    for (QueryEntry query : queries.values()) {
+      if (!query.ready.isEmpty() && (next == null || query.virtualTime < next.virtualTime)) {
+        next = query;
+      }
+    }
+    if (next == null) {
+      return null;
+    }
+    virtualClock = Math.max(virtualClock, next.virtualTime);
+    return next.ready.poll();
+  }
+
+  private void runWorker() {
+    CURRENT.set(this);
+    lock.lock();
+    try {
+      while (!closed) {
+        if (workers - blockedWorkers > threads) {
+          // Started while another thread was blocked, which has now returned
+          break;
+        }
+        final ScheduledFragment fragment = pollNext();
+        if (fragment == null) {
+          idleWorkers++;
+          try {
+            workAvailable.await(quantumNanos, TimeUnit.NANOSECONDS);
+          } catch (InterruptedException e) {
+            // Check again whether the scheduler is closed
+          } finally {
+            idleWorkers--;
+          }
+          continue;
+        }
+
+        lock.unlock();
+        final long start = System.nanoTime();
+        boolean more;
+        try {
+          more = fragment.runSlice();
+        } finally {
+          lock.lock();
+        }
+        fragment.query.virtualTime += (System.nanoTime() - start) / fragment.query.weight;
+
+        if (more) {
+          lock.unlock();
+          try {
+            fragment.yielded();
+          } finally {
+            lock.lock();
+          }
+        } else {
+          finished(fragment);
+        }
+      }
+    } finally {
+      workers--;
+      lock.unlock();
+      CURRENT.remove();
+    }
+  }
+
+  /**
+   * Cancels a fragment which the closed scheduler will not run, and cleans it
+   * up as if it had finished, so that its query fails instead of waiting for
+   * it. Called with the lock held, which is released to cancel the fragment.
+   */
+  private void cancel(ScheduledFragment fragment) {
+    logger.warn("Fragment scheduler closed, cancelling fragment {}", fragment.executor.getContext().getHandle());
+    lock.unlock();
+    try {
+      fragment.executor.cancel();
+      // A fragment which already ran a slice only closes its resources once
+      // run again, which stops at once as it is cancelled
+      fragment.executor.runSlice(0);
+    } catch (RuntimeException e) {
+      logger.error("Failure while cancelling fragment {}", fragment.executor.getContext().getHandle(), e);
+    } finally {
+      lock.lock();
+    }
+    finished(fragment);
+  }
+
+  /**
+   * Called with the lock held, which is released to run the cleanup.
+   */
+  private void finished(ScheduledFragment fragment) {
+    final QueryEntry query = fragment.query;
+    query.fragments.remove(fragment);
+    if (query.fragments.isEmpty()) {
+      queries.remove(query.queryId);
+    }
+    lock.unlock();
+    try {
+      final IncomingBuffers buffers = fragment.executor.getContext().getBuffers();
+      if (buffers != null) {
+        buffers.setBatchListener(null);
+      }
+      fragment.cleanup.run();
+    } catch (RuntimeException e) {
+      logger.error("Failure while cleaning up fragment {}", fragment.executor.getContext().getHandle(), e);
+    } finally {
+      lock.lock();
+    }
+  }
+
+  /**
+   * Stops running fragments. The queued and waiting fragments are cancelled,
+   * and so are the running ones once their slice is over.
+   */
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      workAvailable.signalAll();
+
+      final List<ScheduledFragment> stopped = new ArrayList<>();
+      for (QueryEntry query : queries.values()) {
+        stopped.addAll(query.ready);
+        query.ready.clear();
+        for (ScheduledFragment fragment : query.fragments) {
+          if (fragment.state.compareAndSet(State.WAITING, State.QUEUED)) {
+            stopped.add(fragment);
+          }
+        }
+      }
+      for (ScheduledFragment fragment : stopped) {
+        cancel(fragment);
+      }
+    } finally {
+      lock.unlock();
+    }
+    timer.shutdownNow();
+  }
+
+  private static class QueryEntry {
+    private final QueryId queryId;
+    private final int weight;
+    private final Queue<ScheduledFragment> ready = new ArrayDeque<>();
+    private final Set<ScheduledFragment> fragments = new HashSet<>();
+    private long virtualTime;
+
+    private QueryEntry(QueryId queryId, int weight) {
+      this.queryId = queryId;
+      this.weight = weight;
+    }
+  }
+
+  private enum State {
+    QUEUED, RUNNING, WAITING
+  }
+
+  /**
+   * A fragment with its scheduling state. A fragment is queued, running on
+   * one thread, or waiting for input, and moves from waiting to queued only
+   * once, whoever wakes it up first.
+   */
+  private class ScheduledFragment {
+    private final FragmentExecutor executor;
+    private final Runnable cleanup;
+    private final QueryEntry query;
+    private final AtomicReference<State> state = new AtomicReference<>(State.QUEUED);
+    private volatile boolean signalled;
+    private volatile int waitCount;
+
+    private ScheduledFragment(FragmentExecutor executor, Runnable cleanup, QueryEntry query) {
+      this.executor = executor;
+      this.cleanup = cleanup;
+      this.query = query;
+    }
+
+    private boolean runSlice() {
+      state.set(State.RUNNING);
+      try {
+        return executor.runSlice(quantumNanos);
+      } catch (RuntimeException | Error e) {
+        logger.error("Failure while running fragment {}", executor.getContext().getHandle(), e);
+        return false;
+      }
+    }
+
+    /**
+     * Queues the fragment again, or makes it wait for input.
+     */
+    private void yielded() {
+      signalled = false;
+      if (executor.isInputReady()) {
+        requeue(State.RUNNING);
+        return;
+      }
+      state.set(State.WAITING);
+      // A batch may have arrived before the state was set
+      if (signalled || executor.isInputReady()) {
+        requeue(State.WAITING);
+        return;
+      }
+      final int count = ++waitCount;
+      scheduleCheck(count);
+    }
+
+    /**
+     * Wakes up the fragment if it waits for input.
+     */
+    private void signal() {
+      signalled = true;
+      requeue(State.WAITING);
+    }
+
+    private void scheduleCheck(int count) {
+      try {
+        timer.schedule(() -> check(count), WAIT_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (RuntimeException e) {
+        // The scheduler is closed
+        logger.debug("Cannot check fragment {}", executor.getContext().getHandle(), e);
+      }
+    }
+
+    private void check(int count) {
+      if (count != waitCount || state.get() != State.WAITING) {
+        // The fragment was woken up since this check was scheduled
+        return;
+      }
+      if (executor.isInputReady()) {
+        requeue(State.WAITING);
+      } else {
+        scheduleCheck(count);
+      }
+    }
+
+    private void requeue(State expected) {
+      if (state.compareAndSet(expected, State.QUEUED)) {
+        lock.lock();
+        try {
+          enqueue(this);
+        } finally {
+          lock.unlock();
+        }
+      }
+    }
+  }
+}
@@ -77,6 +77,9 @@
               <#if showThreads == true>
               <li class="nav-item"><a class="nav-link" href="/threads">Threads</a></li>
               </#if>
+              <#if showMemory == true>
+              <li class="nav-item"><a class="nav-link" href="/memory">Memory</a></li>
+              </#if>
               <#if showLogs == true>
                   <li class="nav-item"><a class="nav-link" href="/logs">Logs</a></li>
               </#if>
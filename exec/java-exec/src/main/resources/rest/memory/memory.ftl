@@ -0,0 +1,63 @@
+<#--
+
+    Licensed to the Apache Software Foundation (ASF) under one
+    or more contributor license agreements.  See the NOTICE file
+    distributed with this work for additional information
+    regarding copyright ownership.  The ASF licenses this file
+    to you under the Apache License, Version 2.0 (the
+    "License"); you may not use this file except in compliance
+    with the License.  You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+-->
+<#include "*/generic.ftl">
+<#macro page_head>
+</#macro>
+
+<#macro page_body>
+<#if !model.isEnabled()>
+<div id="message" class="alert alert-info">
+    <strong>Allocation sampling is disabled.</strong> Set <code>drill.memory.sampling.rate</code> to sample one in that many direct memory allocations.
+</div>
+<#elseif (model.getSites()?size > 0)>
+<p>One in ${model.getRate()} allocations sampled, sizes estimated from the samples.
+<#if (model.getDroppedSamples() > 0)>${model.getDroppedSamples()} samples of untracked sites dropped.</#if></p>
+<div class="table-responsive">
+    <table class="table table-hover">
+            <thead>
+            <td>Operator</td>
+            <td>Held Bytes</td>
+            <td>Allocated Bytes</td>
+            <td>Samples</td>
+            <td>Allocator</td>
+            <td>Stack</td>
+            </thead>
+        <tbody>
+            <#list model.getSites() as site>
+            <tr>
+                <td>${site.getOperator()}</td>
+                <td>${site.getHeldBytes()?c}</td>
+                <td>${site.getAllocatedBytes()?c}</td>
+                <td>${site.getSampleCount()?c}</td>
+                <td>${site.getAllocatorPath()!""}</td>
+                <td><div style="white-space:pre-line;font-family:monospace">${site.getStack()}</div></td>
+            </tr>
+            </#list>
+        </tbody>
+    </table>
+</div>
+<#else>
+<div id="message" class="alert alert-info">
+    <strong>No allocations were sampled yet.</strong>
+</div>
+</#if>
+</#macro>
+
+<@page_html/>
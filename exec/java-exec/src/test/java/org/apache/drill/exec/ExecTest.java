@@ -25,6 +25,7 @@ import org.apache.drill.common.config.DrillConfig;
 import org.apache.drill.common.expression.LogicalExpression;
 import org.apache.drill.common.scanner.ClassPathScanner;
 import org.apache.drill.exec.compile.CodeCompilerTestFactory;
+import org.apache.drill.exec.memory.MemoryArbiter;
 import org.apache.drill.exec.memory.RootAllocatorFactory;
 import org.apache.drill.exec.metrics.DrillMetrics;
 import org.apache.drill.exec.physical.impl.OperatorCreatorRegistry;
@@ -93,6 +94,7 @@ public class ExecTest extends DrillTest {
     when(context.getConfig()).thenReturn(c);
     when(context.getOptionManager()).thenReturn(optionManager);
     when(context.getCompiler()).thenReturn(CodeCompilerTestFactory.getTestCompiler(c));
+    when(context.getMemoryArbiter()).thenReturn(MemoryArbiter.DISABLED);
 
     return context;
   }
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.PrintWriter;
+
+import org.apache.drill.categories.ParquetTest;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(ParquetTest.class)
+public class TestTableCache extends ClusterTest {
+
+  private static final int ROW_COUNT = 10_000;
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    try (PrintWriter out = new PrintWriter(new File(dirTestWatcher.getRootDir(), "table_cache.json"))) {
+      for (int i = 0; i < ROW_COUNT; i++) {
+        out.println("{\"id\": " + i + ", \"name\": \"name_" + i + "\", \"grp\": " + (i % 10) + "}");
+      }
+    }
+    startCluster(ClusterFixture.builder(dirTestWatcher));
+  }
+
+  private static TableCache tableCache() {
+    return cluster.drillbit().getContext().getTableCache();
+  }
+
+  private static void createTable(String name, String filter) throws Exception {
+    run("CREATE TABLE dfs.tmp.`%s` AS SELECT * FROM dfs.`table_cache.json` WHERE %s", name, filter);
+  }
+
+  private void cacheTable(String name) throws Exception {
+    testBuilder()
+        .sqlQuery("CACHE TABLE dfs.tmp.`%s`", name)
+        .unOrdered()
+        .baselineColumns("ok", "summary")
+        .baselineValues(true, String.format("Table %s will be cached by the Drillbits which scan it.", name))
+        .go();
+  }
+
+  @Test
+  public void testCachedScan() throws Exception {
+    createTable("cached_scan", "TRUE");
+    cacheTable("cached_scan");
+
+    String sql = "SELECT id, name, grp FROM dfs.tmp.`cached_scan`";
+    String baseline = "SELECT id, name, grp FROM dfs.`table_cache.json`";
+    long hits = tableCache().getHitCount();
+    testBuilder().sqlQuery(sql).unOrdered().sqlBaselineQuery(baseline).go();
+    assertTrue(tableCache().getEntryCount() > 0);
+
+    testBuilder().sqlQuery(sql).unOrdered().sqlBaselineQuery(baseline).go();
+    assertTrue(tableCache().getHitCount() > hits);
+
+    // Served from the cached columns
+    hits = tableCache().getHitCount();
+    testBuilder()
+        .sqlQuery("SELECT grp, COUNT(*) AS cnt, MAX(name) AS mx FROM dfs.tmp.`cached_scan` GROUP BY grp")
+        .unOrdered()
+        .sqlBaselineQuery("SELECT grp, COUNT(*) AS cnt, MAX(name) AS mx FROM dfs.`table_cache.json` GROUP BY grp")
+        .go();
+    assertTrue(tableCache().getHitCount() > hits);
+  }
+
+  @Test
+  public void testStarQuery() throws Exception {
+    createTable("star_query", "grp < 5");
+    cacheTable("star_query");
+
+    String sql = "SELECT * FROM dfs.tmp.`star_query`";
+    String baseline = "SELECT * FROM dfs.`table_cache.json` WHERE grp < 5";
+    testBuilder().sqlQuery(sql).unOrdered().sqlBaselineQuery(baseline).go();
+    long hits = tableCache().getHitCount();
+    testBuilder().sqlQuery(sql).unOrdered().sqlBaselineQuery(baseline).go();
+    assertTrue(tableCache().getHitCount() > hits);
+
+    testBuilder()
+        .sqlQuery("SELECT name FROM dfs.tmp.`star_query` WHERE id > 9000")
+        .unOrdered()
+        .sqlBaselineQuery("SELECT name FROM dfs.`table_cache.json` WHERE grp < 5 AND id > 9000")
+        .go();
+  }
+
+  @Test
+  public void testRewrittenTable() throws Exception {
+    createTable("rewritten", "grp = 1");
+    cacheTable("rewritten");
+    String sql = "SELECT COUNT(*) AS cnt, SUM(id) AS total FROM dfs.tmp.`rewritten`";
+    queryBuilder().sql(sql).run();
+
+    run("DROP TABLE dfs.tmp.`rewritten`");
+    createTable("rewritten", "grp = 2");
+    testBuilder()
+        .sqlQuery(sql)
+        .unOrdered()
+        .sqlBaselineQuery("SELECT COUNT(*) AS cnt, SUM(id) AS total FROM dfs.`table_cache.json` WHERE grp = 2")
+        .go();
+  }
+
+  @Test
+  public void testUncacheTable() throws Exception {
+    createTable("uncached", "grp = 3");
+    cacheTable("uncached");
+    queryBuilder().sql("SELECT id FROM dfs.tmp.`uncached`").run();
+
+    testBuilder()
+        .sqlQuery("UNCACHE TABLE dfs.tmp.`uncached`")
+        .unOrdered()
+        .baselineColumns("ok", "summary")
+        .baselineValues(true, "Table uncached is no longer cached.")
+        .go();
+
+    long hits = tableCache().getHitCount();
+    long misses = tableCache().getMissCount();
+    assertEquals(ROW_COUNT / 10, queryBuilder().sql("SELECT id FROM dfs.tmp.`uncached`").run().recordCount());
+    assertEquals(hits, tableCache().getHitCount());
+    assertEquals(misses, tableCache().getMissCount());
+
+    testBuilder()
+        .sqlQuery("UNCACHE TABLE dfs.tmp.`uncached`")
+        .unOrdered()
+        .baselineColumns("ok", "summary")
+        .baselineValues(false, "Table uncached is not cached.")
+        .go();
+  }
+
+  @Test
+  public void testNotParquet() throws Exception {
+    testBuilder()
+        .sqlQuery("CACHE TABLE dfs.`table_cache.json`")
+        .unOrdered()
+        .baselineColumns("ok", "summary")
+        .baselineValues(false, "Table table_cache.json does not support caching. " +
+            "Support is currently limited to Parquet tables.")
+        .go();
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.RootAllocatorFactory;
+import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.store.sys.store.provider.InMemoryStoreProvider;
+import org.apache.drill.exec.vector.IntVector;
+import org.apache.drill.exec.vector.ValueVector;
+import org.apache.drill.test.BaseDirTestWatcher;
+import org.apache.drill.test.DrillTest;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests the eviction of the row groups to disk, and their reload, on a table
+ * cache holding two row groups of {@link #VALUE_COUNT} integers.
+ */
+public class TestTableCacheSpill extends DrillTest {
+
+  private static final int VALUE_COUNT = 1000;
+  private static final List<SchemaPath> COLUMNS = Collections.singletonList(SchemaPath.getSimplePath("a"));
+
+  @ClassRule
+  public static final BaseDirTestWatcher dirTestWatcher = new BaseDirTestWatcher();
+
+  private BufferAllocator rootAllocator;
+  private TableCache tableCache;
+
+  @Before
+  public void setup() {
+    Properties properties = new Properties();
+    properties.put(ExecConstants.TABLE_CACHE_MAX_SIZE, "10000");
+    properties.put(ExecConstants.TABLE_CACHE_SPILL_MAX_SIZE, "1048576");
+    properties.put(ExecConstants.TABLE_CACHE_SPILL_DIRECTORY, dirTestWatcher.getSpillDir().getAbsolutePath());
+    properties.put(ExecConstants.TABLE_CACHE_REGISTRY_REFRESH, "3600000");
+    rootAllocator = RootAllocatorFactory.newRoot(DrillConfig.create(properties));
+    tableCache = new TableCache(DrillConfig.create(properties), rootAllocator,
+        new InMemoryStoreProvider(100), new ObjectMapper());
+  }
+
+  @After
+  public void cleanup() {
+    tableCache.close();
+    rootAllocator.close();
+  }
+
+  private static FileStatus status(Path path) {
+    return new FileStatus(VALUE_COUNT * 4, false, 1, 0, 1000, path);
+  }
+
+  private static TableCache.Key key(Path path) {
+    return new TableCache.Key(path, 0, "test");
+  }
+
+  /**
+   * Caches a row group holding the values from {@code first}.
+   */
+  private Path put(String file, int first) {
+    Path path = new Path("/tmp/cached", file);
+    try (IntVector vector = new IntVector(MaterializedField.create("a", Types.required(MinorType.INT)), rootAllocator)) {
+      vector.allocateNew(VALUE_COUNT);
+      for (int i = 0; i < VALUE_COUNT; i++) {
+        vector.getMutator().set(i, first + i);
+      }
+      vector.getMutator().setValueCount(VALUE_COUNT);
+      TableCache.CachedBatch batch = TableCache.CachedBatch.copyOf(tableCache.getAllocator(),
+          Collections.<ValueVector>singletonList(vector), VALUE_COUNT);
+      tableCache.put(key(path), new TableCache.Entry(status(path), -1, COLUMNS, Collections.singletonList(batch)));
+    }
+    return path;
+  }
+
+  private TableCache.Entry get(Path path) {
+    return tableCache.get(key(path), status(path), -1, COLUMNS);
+  }
+
+  @Test
+  public void testSpillAndLoad() {
+    Path first = put("first.parquet", 0);
+    Path second = put("second.parquet", 10_000);
+    assertEquals(2, tableCache.getEntryCount());
+    assertEquals(0, tableCache.getSpilledEntryCount());
+
+    // The least recently used row group is written to disk
+    put("third.parquet", 20_000);
+    assertEquals(2, tableCache.getEntryCount());
+    assertEquals(1, tableCache.getSpilledEntryCount());
+    assertEquals(1, tableCache.getEvictionCount());
+    assertTrue(tableCache.getSpilledSize() > 0);
+
+    // Read back from disk, it evicts the next least recently used one
+    long hits = tableCache.getHitCount();
+    TableCache.Entry entry = get(first);
+    assertNotNull(entry);
+    assertEquals(hits + 1, tableCache.getHitCount());
+    assertEquals(2, tableCache.getEntryCount());
+    assertEquals(1, tableCache.getSpilledEntryCount());
+    TableCache.CachedBatch batch = entry.getBatches().get(0);
+    assertEquals(VALUE_COUNT, batch.getRecordCount());
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      assertEquals(i, batch.getBody().getInt(i * 4));
+    }
+    entry.release();
+
+    entry = get(second);
+    assertNotNull(entry);
+    assertEquals(10_000, entry.getBatches().get(0).getBody().getInt(0));
+    entry.release();
+  }
+
+  @Test
+  public void testChangedFileNotLoaded() {
+    Path changed = put("changed.parquet", 0);
+    put("other.parquet", 10_000);
+    put("last.parquet", 20_000);
+    assertEquals(1, tableCache.getSpilledEntryCount());
+
+    FileStatus status = new FileStatus(VALUE_COUNT * 4, false, 1, 0, 2000, changed);
+    assertNull(tableCache.get(key(changed), status, -1, COLUMNS));
+    assertEquals(0, tableCache.getSpilledEntryCount());
+    assertEquals(0, tableCache.getSpilledSize());
+  }
+
+  @Test
+  public void testRegisteredRoots() {
+    Path root = new Path("/tmp/cached");
+    assertFalse(tableCache.isCached(root));
+    tableCache.register(root);
+    assertTrue(tableCache.isCached(root));
+    assertTrue(tableCache.unregister(root));
+    assertFalse(tableCache.isCached(root));
+    assertFalse(tableCache.unregister(root));
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.netty.buffer.DrillBuf;
+
+import org.apache.drill.categories.MemoryTest;
+import org.apache.drill.test.DrillTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(MemoryTest.class)
+public class TestMemoryArbiter extends DrillTest {
+
+  private static final long MB = 1024 * 1024;
+
+  @Test
+  public void testGrantAndRevoke() throws Exception {
+    try (BufferAllocator root = RootAllocatorFactory.newRoot(100 * MB);
+         BufferAllocator allocator = root.newChildAllocator("sort", 0, 10 * MB)) {
+      MemoryArbiter arbiter = new MemoryArbiter(root, true, 0.5, 0.75);
+      MemoryArbiter.Consumer consumer = arbiter.register("sort", allocator);
+
+      assertEquals(20 * MB, consumer.requestMemory(20 * MB));
+      assertEquals(30 * MB, allocator.getLimit());
+
+      // the memory granted but not used yet counts as used
+      assertEquals(0, consumer.requestMemory(40 * MB));
+      assertEquals(30 * MB, allocator.getLimit());
+      assertEquals(1, arbiter.getGrantCount());
+
+      assertEquals(20 * MB, consumer.spilled());
+      assertEquals(10 * MB, allocator.getLimit());
+
+      consumer.requestMemory(10 * MB);
+      consumer.close();
+      assertEquals(10 * MB, allocator.getLimit());
+    }
+  }
+
+  @Test
+  public void testSpillRequested() throws Exception {
+    try (BufferAllocator root = RootAllocatorFactory.newRoot(10 * MB);
+         BufferAllocator large = root.newChildAllocator("large", 0, 10 * MB);
+         BufferAllocator small = root.newChildAllocator("small", 0, 10 * MB);
+         BufferAllocator other = root.newChildAllocator("other", 0, 10 * MB)) {
+      MemoryArbiter arbiter = new MemoryArbiter(root, true, 0.5, 0.75);
+      MemoryArbiter.Consumer largeConsumer = arbiter.register("large", large);
+      MemoryArbiter.Consumer smallConsumer = arbiter.register("small", small);
+
+      DrillBuf largeBuf = large.buffer((int) (4 * MB));
+      DrillBuf smallBuf = small.buffer((int) (2 * MB));
+      assertFalse(largeConsumer.shouldSpill());
+
+      // beyond the spill threshold, only the largest consumer is needed to relieve the pressure
+      DrillBuf otherBuf = other.buffer((int) (2 * MB));
+      assertFalse(smallConsumer.shouldSpill());
+      assertTrue(largeConsumer.shouldSpill());
+      assertEquals(1, arbiter.getSpillRequestCount());
+      // no memory is granted to a consumer asked to spill
+      assertEquals(0, largeConsumer.requestMemory(MB));
+
+      largeBuf.release();
+      largeConsumer.spilled();
+      assertFalse(largeConsumer.shouldSpill());
+
+      smallBuf.release();
+      otherBuf.release();
+      largeConsumer.close();
+      smallConsumer.close();
+    }
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    try (BufferAllocator root = RootAllocatorFactory.newRoot(100 * MB);
+         BufferAllocator allocator = root.newChildAllocator("sort", 0, 10 * MB)) {
+      MemoryArbiter.Consumer consumer = MemoryArbiter.DISABLED.register("sort", allocator);
+      assertEquals(0, consumer.requestMemory(MB));
+      assertFalse(consumer.shouldSpill());
+      assertEquals(10 * MB, allocator.getLimit());
+      consumer.close();
+    }
+  }
+}
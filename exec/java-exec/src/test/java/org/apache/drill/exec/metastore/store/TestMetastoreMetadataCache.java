@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.metastore.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.drill.categories.MetastoreTest;
+import org.apache.drill.metastore.components.tables.BasicTablesRequests;
+import org.apache.drill.metastore.components.tables.MetastoreTableInfo;
+import org.apache.drill.metastore.metadata.BaseTableMetadata;
+import org.apache.drill.metastore.metadata.FileMetadata;
+import org.apache.drill.metastore.metadata.TableInfo;
+import org.apache.drill.test.BaseTest;
+import org.apache.hadoop.fs.Path;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(MetastoreTest.class)
+public class TestMetastoreMetadataCache extends BaseTest {
+
+  private static final TableInfo TABLE = TableInfo.builder()
+      .storagePlugin("dfs")
+      .workspace("tmp")
+      .name("nation")
+      .build();
+
+  private BasicTablesRequests requests;
+
+  @Before
+  public void setup() {
+    requests = mock(BasicTablesRequests.class);
+    when(requests.filesMetadata(any(TableInfo.class), isNull(), anyList()))
+        .thenAnswer(invocation -> {
+          List<String> paths = invocation.getArgument(2);
+          // no metadata for the files of the d directory
+          return paths.stream()
+              .filter(path -> !path.startsWith("/d/"))
+              .map(TestMetastoreMetadataCache::file)
+              .collect(Collectors.toList());
+        });
+  }
+
+  @Test
+  public void testFilesRequestedOnce() {
+    MetastoreMetadataCache metadataCache = new MetastoreMetadataCache(1024 * 1024, 0);
+    MetastoreTableInfo table = version(1, 1);
+
+    List<FileMetadata> files = metadataCache.forTable(requests, table)
+        .filesMetadata(Arrays.asList("/a/0.parquet", "/d/0.parquet"));
+    assertEquals(1, files.size());
+    assertEquals(new Path("/a/0.parquet"), files.get(0).getPath());
+
+    // only the metadata of the files not requested yet is requested
+    files = metadataCache.forTable(requests, table)
+        .filesMetadata(Arrays.asList("/a/0.parquet", "/b/0.parquet", "/d/0.parquet"));
+    assertEquals(2, files.size());
+    assertNull(metadataCache.forTable(requests, table).fileMetadata("/d/0.parquet"));
+
+    verify(requests).filesMetadata(TABLE, null, Arrays.asList("/a/0.parquet", "/d/0.parquet"));
+    verify(requests).filesMetadata(TABLE, null, Collections.singletonList("/b/0.parquet"));
+    verify(requests, times(2)).filesMetadata(any(TableInfo.class), isNull(), anyList());
+    assertEquals(3, metadataCache.getMissCount());
+    assertEquals(3, metadataCache.getHitCount());
+  }
+
+  @Test
+  public void testChangedTableRequestedAgain() {
+    MetastoreMetadataCache metadataCache = new MetastoreMetadataCache(1024 * 1024, 0);
+    BaseTableMetadata tableMetadata = mock(BaseTableMetadata.class);
+    when(requests.tableMetadata(TABLE)).thenReturn(tableMetadata);
+
+    assertSame(tableMetadata, metadataCache.forTable(requests, version(1, 1)).tableMetadata());
+    assertSame(tableMetadata, metadataCache.forTable(requests, version(1, 1)).tableMetadata());
+    verify(requests, times(1)).tableMetadata(TABLE);
+
+    // analyzed again, or another table analyzed with a versioned Metastore
+    metadataCache.forTable(requests, version(1, 2)).tableMetadata();
+    verify(requests, times(2)).tableMetadata(TABLE);
+    metadataCache.forTable(requests, version(2, 2)).tableMetadata();
+    verify(requests, times(3)).tableMetadata(TABLE);
+    // metadata of the previous versions is discarded
+    assertEquals(1, metadataCache.getEntryCount());
+
+    metadataCache.invalidate(TableInfo.builder()
+        .storagePlugin("dfs")
+        .workspace("tmp")
+        .name("nation")
+        .build());
+    assertEquals(0, metadataCache.getEntryCount());
+    metadataCache.forTable(requests, version(2, 2)).tableMetadata();
+    verify(requests, times(4)).tableMetadata(TABLE);
+  }
+
+  @Test
+  public void testAbsentTableNotCached() {
+    MetastoreMetadataCache metadataCache = new MetastoreMetadataCache(1024 * 1024, 0);
+    MetastoreTableInfo table = MetastoreTableInfo.of(TABLE, null, 1);
+
+    metadataCache.forTable(requests, table).filesMetadata(Collections.singletonList("/a/0.parquet"));
+    metadataCache.forTable(requests, table).filesMetadata(Collections.singletonList("/a/0.parquet"));
+    verify(requests, times(2)).filesMetadata(any(TableInfo.class), isNull(), anyList());
+    assertEquals(0, metadataCache.getEntryCount());
+  }
+
+  @Test
+  public void testDisabledCache() {
+    MetastoreMetadataCache metadataCache = new MetastoreMetadataCache(0, 0);
+    assertFalse(metadataCache.isEnabled());
+    MetastoreTableInfo table = version(1, 1);
+
+    metadataCache.forTable(requests, table).filesMetadata(Collections.singletonList("/a/0.parquet"));
+    metadataCache.forTable(requests, table).filesMetadata(Collections.singletonList("/a/0.parquet"));
+    verify(requests, times(2)).filesMetadata(any(TableInfo.class), isNull(), anyList());
+    assertEquals(0, metadataCache.getEntryCount());
+  }
+
+  private static MetastoreTableInfo version(long lastModifiedTime, long metastoreVersion) {
+    return new MetastoreTableInfo(TABLE, lastModifiedTime, true, metastoreVersion);
+  }
+
+  private static FileMetadata file(String path) {
+    FileMetadata file = mock(FileMetadata.class);
+    when(file.getPath()).thenReturn(new Path(path));
+    when(file.getColumnsStatistics()).thenReturn(Collections.emptyMap());
+    return file;
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.TopN;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
+
+import org.apache.drill.categories.OperatorTest;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.physical.config.TopN;
+import org.apache.drill.exec.physical.impl.spill.OperatorSpillTestBase;
+import org.apache.drill.exec.physical.impl.xsort.ExternalSortBatch;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.QueryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Test the TopN operator falling back to an external sort when the rows it
+ * retains for a large limit exceed its memory.
+ */
+@Category(OperatorTest.class)
+public class TestTopNSpill extends OperatorSpillTestBase {
+
+  private static final int ROW_COUNT = 100_000;
+
+  private static final long SPILL_MEMORY = 2L * 1024 * 1024;
+  private static final long FALLBACK_MEMORY = 8L * 1024 * 1024;
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    File tableDir = dirTestWatcher.makeRootSubDir(Paths.get("topn_spill"));
+    try (PrintWriter out = new PrintWriter(new File(tableDir, "data.json"))) {
+      for (int i = 0; i < ROW_COUNT; i++) {
+        // Keys in no particular order, each key once
+        long id = (i * 7919L) % ROW_COUNT;
+        out.println("{\"id\": " + id + ", \"name\": \"name_" + id + "_padding_to_make_rows_wider\"}");
+      }
+    }
+    startCluster(ClusterFixture.builder(dirTestWatcher).saveProfiles());
+  }
+
+  public TestTopNSpill() {
+    super(ExecConstants.TOPN_ENABLE_SPILL_KEY, ExecConstants.TOPN_MAX_MEMORY_KEY);
+  }
+
+  @Test
+  public void testSpill() throws Exception {
+    QueryBuilder.QuerySummary summary =
+        runWithMemoryLimit("SELECT id, name FROM dfs.`topn_spill` ORDER BY id LIMIT 60000", SPILL_MEMORY);
+    assertEquals(60_000, summary.recordCount());
+    assertTrue(sumMetric(summary, TopN.OPERATOR_TYPE, ExternalSortBatch.Metric.SPILL_COUNT) > 0);
+  }
+
+  @Test
+  public void testLargeLimit() throws Exception {
+    checkOrderedResults("SELECT id, name FROM dfs.`topn_spill` ORDER BY id LIMIT 60000", SPILL_MEMORY);
+  }
+
+  @Test
+  public void testLimitAboveRowCount() throws Exception {
+    checkOrderedResults("SELECT id, name FROM dfs.`topn_spill` ORDER BY id DESC LIMIT 150000", SPILL_MEMORY);
+  }
+
+  @Test
+  public void testFilteredInput() throws Exception {
+    checkOrderedResults("SELECT id, name FROM dfs.`topn_spill` WHERE MOD(id, 3) <> 0 ORDER BY name LIMIT 40000", SPILL_MEMORY);
+  }
+
+  @Test
+  public void testSmallLimit() throws Exception {
+    checkOrderedResults("SELECT id, name FROM dfs.`topn_spill` ORDER BY id DESC LIMIT 10", SPILL_MEMORY);
+  }
+
+  @Test
+  public void testMoreMemory() throws Exception {
+    checkOrderedResults("SELECT id, name FROM dfs.`topn_spill` ORDER BY id LIMIT 90000", FALLBACK_MEMORY);
+  }
+}
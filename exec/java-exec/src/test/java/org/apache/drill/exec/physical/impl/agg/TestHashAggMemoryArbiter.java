@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.agg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.drill.categories.OperatorTest;
+import org.apache.drill.common.expression.ExpressionPosition;
+import org.apache.drill.common.expression.FieldReference;
+import org.apache.drill.common.expression.FunctionCall;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.logical.data.NamedExpression;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.memory.MemoryArbiter;
+import org.apache.drill.exec.memory.RootAllocatorFactory;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.ops.OperatorStats;
+import org.apache.drill.exec.physical.config.HashAggregate;
+import org.apache.drill.exec.physical.impl.MockRecordBatch;
+import org.apache.drill.exec.physical.impl.aggregate.HashAggBatch;
+import org.apache.drill.exec.physical.impl.aggregate.HashAggTemplate;
+import org.apache.drill.exec.physical.rowSet.DirectRowSet;
+import org.apache.drill.exec.physical.rowSet.RowSetBuilder;
+import org.apache.drill.exec.physical.rowSet.RowSetReader;
+import org.apache.drill.exec.planner.physical.AggPrelBase;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.RecordBatch.IterOutcome;
+import org.apache.drill.exec.record.metadata.SchemaBuilder;
+import org.apache.drill.exec.record.metadata.TupleMetadata;
+import org.apache.drill.test.BaseDirTestWatcher;
+import org.apache.drill.test.DrillTest;
+import org.apache.drill.test.OperatorFixture;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.google.common.collect.ImmutableList;
+
+import io.netty.buffer.DrillBuf;
+
+/**
+ * Tests the 2nd phase hash aggregate with an enabled memory arbiter, on
+ * {@link #KEY_COUNT} keys each found twice, which do not fit the memory
+ * given to the operator.
+ */
+@Category(OperatorTest.class)
+public class TestHashAggMemoryArbiter extends DrillTest {
+
+  private static final long MB = 1024 * 1024;
+  private static final long ROOT_MEMORY = 512 * MB;
+  private static final long OPERATOR_MEMORY = 16 * MB;
+  private static final int KEY_COUNT = 1_000_000;
+  private static final int ROW_COUNT = 2 * KEY_COUNT;
+
+  private static final TupleMetadata INPUT_SCHEMA = new SchemaBuilder()
+      .add("key", MinorType.INT)
+      .add("value", MinorType.INT)
+      .buildSchema();
+
+  @Rule
+  public final BaseDirTestWatcher dirTestWatcher = new BaseDirTestWatcher();
+
+  /**
+   * The hash aggregate asks the memory arbiter for memory rather than
+   * spilling when its groups exceed the memory given by the planner.
+   */
+  @Test
+  public void testGrant() throws Exception {
+    try (OperatorFixture fixture = arbiterFixture()) {
+      MemoryArbiter arbiter = fixture.getFragmentContext().getMemoryArbiter();
+      OperatorStats stats = runAggregate(fixture, OPERATOR_MEMORY);
+
+      assertEquals(0, stats.getLongStat(HashAggTemplate.Metric.SPILLED_PARTITIONS));
+      assertTrue(arbiter.getGrantCount() > 0);
+    }
+  }
+
+  /**
+   * The hash aggregate, with all the memory it needs, spills when the memory
+   * arbiter asks it to.
+   */
+  @Test
+  public void testSpillRequest() throws Exception {
+    try (OperatorFixture fixture = arbiterFixture()) {
+      MemoryArbiter arbiter = fixture.getFragmentContext().getMemoryArbiter();
+
+      // Take the memory of the Drillbit close to the spill threshold, which
+      // the aggregate crosses once it holds a few batches
+      double spillThreshold = fixture.config().getDouble(ExecConstants.MEMORY_ARBITER_SPILL_THRESHOLD);
+      long pressureSize = (long) (ROOT_MEMORY * spillThreshold) - fixture.allocator().getAllocatedMemory() - 4 * MB;
+      DrillBuf pressure = fixture.allocator().buffer((int) pressureSize);
+      try {
+        OperatorStats stats = runAggregate(fixture, ROOT_MEMORY);
+
+        assertTrue(stats.getLongStat(HashAggTemplate.Metric.SPILLED_PARTITIONS) > 0);
+        assertTrue(arbiter.getSpillRequestCount() > 0);
+      } finally {
+        pressure.release();
+      }
+    }
+  }
+
+  /**
+   * Fixture whose operators get memory from an enabled memory arbiter, on a
+   * root allocator limited to {@link #ROOT_MEMORY}, with two partitions for
+   * the hash aggregate.
+   */
+  private OperatorFixture arbiterFixture() {
+    OperatorFixture.Builder builder = OperatorFixture.builder(dirTestWatcher);
+    builder.configBuilder()
+        .put(ExecConstants.MEMORY_ARBITER_ENABLED, true)
+        .put(RootAllocatorFactory.TOP_LEVEL_MAX_ALLOC, ROOT_MEMORY);
+    builder.systemOption(ExecConstants.HASHAGG_NUM_PARTITIONS_KEY, 2);
+    return builder.build();
+  }
+
+  /**
+   * Sums the values of each key, checks the sums and returns the stats of
+   * the hash aggregate.
+   *
+   * @param maxAllocation memory limit of the hash aggregate
+   */
+  private OperatorStats runAggregate(OperatorFixture fixture, long maxAllocation) {
+    FragmentContext context = fixture.getFragmentContext();
+    MockRecordBatch.Builder input = new MockRecordBatch.Builder();
+    for (int start = 0; start < ROW_COUNT; start += RecordBatch.MAX_BATCH_ROW_COUNT) {
+      RowSetBuilder batch = fixture.rowSetBuilder(INPUT_SCHEMA);
+      for (int row = start; row < Math.min(start + RecordBatch.MAX_BATCH_ROW_COUNT, ROW_COUNT); row++) {
+        batch.addRow(row % KEY_COUNT, 1);
+      }
+      input.sendData(batch.build());
+    }
+    MockRecordBatch incoming = input.build(context);
+
+    HashAggregate config = new HashAggregate(null, AggPrelBase.OperatorPhase.PHASE_2of2,
+        ImmutableList.of(new NamedExpression(SchemaPath.getSimplePath("key"), new FieldReference("key"))),
+        ImmutableList.of(new NamedExpression(
+            new FunctionCall("sum", ImmutableList.of(SchemaPath.getSimplePath("value")), ExpressionPosition.UNKNOWN),
+            new FieldReference("total"))),
+        1.0f);
+    config.setMaxAllocation(maxAllocation);
+    StatsHashAggBatch aggregate = new StatsHashAggBatch(config, incoming, context);
+    try {
+      int groupCount = 0;
+      for (IterOutcome outcome = aggregate.next(); outcome != IterOutcome.NONE; outcome = aggregate.next()) {
+        assertNotSame(IterOutcome.EMIT, outcome);
+        RowSetReader reader = DirectRowSet.fromContainer(aggregate.getContainer()).reader();
+        while (reader.next()) {
+          assertEquals(2, reader.scalar("total").getLong());
+          groupCount++;
+        }
+      }
+      assertEquals(KEY_COUNT, groupCount);
+    } finally {
+      aggregate.close();
+      incoming.close();
+    }
+    return aggregate.getStats();
+  }
+
+  /**
+   * Hash aggregate which exposes its stats.
+   */
+  private static class StatsHashAggBatch extends HashAggBatch {
+
+    StatsHashAggBatch(HashAggregate popConfig, RecordBatch incoming, FragmentContext context) {
+      super(popConfig, incoming, context);
+    }
+
+    OperatorStats getStats() {
+      return stats;
+    }
+  }
+}
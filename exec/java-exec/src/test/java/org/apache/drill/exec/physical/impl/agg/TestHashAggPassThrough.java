@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.agg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.apache.drill.categories.OperatorTest;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.physical.config.HashAggregate;
+import org.apache.drill.exec.physical.impl.aggregate.HashAggTemplate;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.QueryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Test the pass-through mode of the 1st phase Hash Aggregate, used when its
+ * input has (nearly) as many groups as rows.
+ */
+@Category(OperatorTest.class)
+public class TestHashAggPassThrough extends ClusterTest {
+
+  private static final int ROW_COUNT = 100_000;
+  // Every 20th row repeats the id of the previous row
+  private static final int UNIQUE_COUNT = ROW_COUNT - (ROW_COUNT - 1) / 20;
+  private static final int NUM_PARTITIONS = 4;
+
+  private static final String UNIQUE_KEYS =
+      "SELECT id, COUNT(*) AS cnt, SUM(val) AS total FROM dfs.`pass_through` GROUP BY id";
+  private static final String FEW_KEYS =
+      "SELECT grp, COUNT(*) AS cnt, SUM(val) AS total FROM dfs.`pass_through` GROUP BY grp";
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    File tableDir = dirTestWatcher.makeRootSubDir(Paths.get("pass_through"));
+    try (PrintWriter out = new PrintWriter(new File(tableDir, "data.json"))) {
+      for (int i = 0; i < ROW_COUNT; i++) {
+        int id = i % 20 == 0 && i > 0 ? i - 1 : i;
+        out.println("{\"id\": " + id + ", \"grp\": " + (i % 100) + ", \"val\": " + (i % 7) + "}");
+      }
+    }
+    startCluster(ClusterFixture.builder(dirTestWatcher)
+        .sessionOption(PlannerSettings.FORCE_2PHASE_AGGR_KEY, true)
+        .sessionOption(PlannerSettings.STREAMAGG.getOptionName(), false)
+        .sessionOption(ExecConstants.SLICE_TARGET, 1)
+        .sessionOption(ExecConstants.HASHAGG_PASS_THROUGH_MIN_BATCHES_KEY, 2)
+        .sessionOption(ExecConstants.HASHAGG_NUM_PARTITIONS_KEY, NUM_PARTITIONS)
+        .saveProfiles());
+  }
+
+  @Test
+  public void testPassThrough() throws Exception {
+    assertTrue(passThroughCount(UNIQUE_KEYS, UNIQUE_COUNT) > 0);
+  }
+
+  @Test
+  public void testNoPassThroughForFewGroups() throws Exception {
+    assertEquals(0, passThroughCount(FEW_KEYS, 100));
+  }
+
+  @Test
+  public void testPassThroughResults() throws Exception {
+    checkResults(UNIQUE_KEYS);
+  }
+
+  @Test
+  public void testPassThroughResultsWithFilter() throws Exception {
+    checkResults("SELECT id, MAX(grp) AS mx FROM dfs.`pass_through` WHERE val <> 3 GROUP BY id");
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    client.alterSession(ExecConstants.HASHAGG_PASS_THROUGH_ENABLED_KEY, false);
+    try {
+      assertEquals(0, passThroughCount(UNIQUE_KEYS, UNIQUE_COUNT));
+    } finally {
+      client.resetSession(ExecConstants.HASHAGG_PASS_THROUGH_ENABLED_KEY);
+    }
+  }
+
+  /**
+   * Runs the query, and returns the number of Hash Aggregates which switched
+   * to the pass-through mode. These must return one batch per incoming batch,
+   * besides the groups of the batches read before switching, and must not
+   * group the repeated ids read after it.
+   */
+  private long passThroughCount(String sql, long expectedRows) throws Exception {
+    QueryBuilder.QuerySummary summary = queryBuilder().sql(sql).run();
+    assertEquals(expectedRows, summary.recordCount());
+
+    ProfileParser profile = client.parseProfile(summary.queryIdString());
+    List<ProfileParser.OperatorProfile> ops = profile.getOpsOfType(HashAggregate.OPERATOR_TYPE);
+    assertFalse(ops.isEmpty());
+    long count = 0;
+    for (ProfileParser.OperatorProfile op : ops) {
+      if (op.getMetric(HashAggTemplate.Metric.PASS_THROUGH.ordinal()) == 0) {
+        continue;
+      }
+      count++;
+      long inputBatches = op.getMetric(HashAggTemplate.Metric.INPUT_BATCH_COUNT.ordinal());
+      long outputBatches = op.getMetric(HashAggTemplate.Metric.OUTPUT_BATCH_COUNT.ordinal());
+      assertTrue(outputBatches <= inputBatches + NUM_PARTITIONS);
+      // Grouping would remove every 20th row
+      long inputRows = op.getMetric(HashAggTemplate.Metric.INPUT_RECORD_COUNT.ordinal());
+      long outputRows = op.getMetric(HashAggTemplate.Metric.OUTPUT_RECORD_COUNT.ordinal());
+      assertTrue(outputRows > inputRows - inputRows / 20);
+    }
+    return count;
+  }
+
+  private void checkResults(String sql) throws Exception {
+    testBuilder()
+        .unOrdered()
+        .sqlQuery(sql)
+        .optionSettingQueriesForBaseline("alter session set `%s` = false", ExecConstants.HASHAGG_PASS_THROUGH_ENABLED_KEY)
+        .sqlBaselineQuery(sql)
+        .go();
+  }
+}
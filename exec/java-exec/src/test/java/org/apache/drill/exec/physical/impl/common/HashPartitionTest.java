@@ -56,6 +56,7 @@ import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.List;
 
 public class HashPartitionTest extends BaseTest {
@@ -241,6 +242,116 @@ public class HashPartitionTest extends BaseTest {
     });
   }
 
+  @Test
+  public void probeForKeysTest() throws Exception
+  {
+    new HashPartitionFixture().run(new HashPartitionTestCase() {
+      private RowSet buildRowSet;
+      private RowSet probeRowSet;
+
+      @Override
+      public CloseableRecordBatch createBuildBatch(BatchSchema schema, FragmentContext context) {
+        buildRowSet = new RowSetBuilder(context.getAllocator(), schema)
+          .addRow(1, "green")
+          .addRow(2, "red")
+          .addRow(3, "blue")
+          .addRow(4, "green")
+          .addRow(5, "blue")
+          .addRow(6, "blue")
+          .build();
+        return new MockRecordBatch.Builder().
+          sendData(buildRowSet).
+          build(context);
+      }
+
+      @Override
+      public void createResultBuildBatch(BatchSchema schema, FragmentContext context) {
+      }
+
+      @Override
+      public CloseableRecordBatch createProbeBatch(BatchSchema schema, FragmentContext context) {
+        probeRowSet = new RowSetBuilder(context.getAllocator(), schema)
+          .addRow(.5f, "blue")
+          .addRow(1.5f, "yellow")
+          .addRow(2.5f, "green")
+          .addRow(3.5f, "blue")
+          .addRow(4.5f, "black")
+          .addRow(5.5f, "red")
+          .addRow(6.5f, "green")
+          .build();
+        return new MockRecordBatch.Builder().
+          sendData(probeRowSet).
+          build(context);
+      }
+
+      @Override
+      public void run(SpillSet spillSet,
+                      BatchSchema buildSchema,
+                      BatchSchema probeSchema,
+                      RecordBatch buildBatch,
+                      RecordBatch probeBatch,
+                      ChainedHashTable baseHashTable,
+                      FragmentContext context,
+                      OperatorContext operatorContext) throws Exception {
+
+        final HashPartition hashPartition = new HashPartition(context,
+          context.getAllocator(),
+          baseHashTable,
+          buildBatch,
+          probeBatch, false, 10,
+          spillSet,
+          0,
+          0,
+          2);
+
+        final HashJoinMemoryCalculator.BuildSidePartitioning noopCalc = new HashJoinMemoryCalculatorImpl.NoopBuildSidePartitioningImpl();
+
+        for (int row = 0; row < buildBatch.getRecordCount(); row++) {
+          hashPartition.appendInnerRow(buildBatch.getContainer(), row, hashPartition.getBuildHashCode(row), noopCalc);
+        }
+        hashPartition.completeAnInnerBatch(false, false);
+        hashPartition.buildContainersHashTableAndHelper();
+
+        // The probe rows in another order, as grouped by partition by the probe
+        final int[] rows = {6, 4, 2, 0, 5, 3, 1};
+        final int[] hashCodes = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+          hashCodes[i] = hashPartition.getProbeHashCode(rows[i]);
+        }
+        final int[] results = new int[rows.length];
+
+        // Only the given range is probed
+        Arrays.fill(results, -2);
+        hashPartition.probeForKeys(rows, hashCodes, 2, 5, results);
+        Assert.assertEquals(-2, results[0]);
+        Assert.assertEquals(-2, results[1]);
+
+        hashPartition.probeForKeys(rows, hashCodes, 0, rows.length, results);
+        // Number of build rows matching each probe row, duplicate keys included
+        final int[] expectedMatches = {2, 0, 2, 3, 1, 3, 0};
+        for (int i = 0; i < rows.length; i++) {
+          Assert.assertEquals(hashPartition.probeForKey(rows[i], hashCodes[i]), results[i]);
+          Assert.assertEquals(expectedMatches[i], countMatches(hashPartition, results[i]));
+        }
+
+        buildRowSet.clear();
+        probeRowSet.clear();
+        hashPartition.close();
+      }
+    });
+  }
+
+  private static int countMatches(HashPartition hashPartition, int probeIndex) {
+    if (probeIndex == -1) {
+      return 0;
+    }
+    int count = 0;
+    for (int index = hashPartition.getStartIndex(probeIndex).getLeft(); index != -1; index = hashPartition.getNextIndex(index)) {
+      count++;
+    }
+    return count;
+  }
+
   public class HashPartitionFixture {
     public void run(HashPartitionTestCase testCase) throws Exception {
       try (OperatorFixture operatorFixture = new OperatorFixture.Builder(HashPartitionTest.this.dirTestWatcher).build()) {
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.common;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
+
+import org.apache.drill.categories.OperatorTest;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Compares Hash Aggregate and Hash Join results on a single fixed-width key
+ * with and without the {@link FixedWidthKeyTable}.
+ */
+@Category(OperatorTest.class)
+public class TestFixedWidthKeyHashTable extends ClusterTest {
+
+  private static final String FACT_TABLE = "fixed_key_fact";
+  private static final String DIM_TABLE = "fixed_key_dim";
+  private static final String ENABLE_KEY_TABLE =
+      "alter session set `" + ExecConstants.HASHTABLE_FIXED_WIDTH_KEY_ENABLE_KEY + "` = true";
+  private static final String DISABLE_KEY_TABLE =
+      "alter session set `" + ExecConstants.HASHTABLE_FIXED_WIDTH_KEY_ENABLE_KEY + "` = false";
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    // Every 10th fact row has a null key, and the dimension table has a single row with a null key
+    File factDir = dirTestWatcher.makeRootSubDir(Paths.get(FACT_TABLE));
+    try (PrintWriter writer = new PrintWriter(new File(factDir, "0.json"))) {
+      for (int i = 0; i < 20_000; i++) {
+        if (i % 10 == 0) {
+          writer.println(String.format("{\"v\": %d, \"d\": \"2020-01-%02d\"}", i, i % 28 + 1));
+        } else {
+          writer.println(String.format("{\"k\": %d, \"v\": %d, \"d\": \"2020-01-%02d\"}", i % 3_000, i, i % 28 + 1));
+        }
+      }
+    }
+    File dimDir = dirTestWatcher.makeRootSubDir(Paths.get(DIM_TABLE));
+    try (PrintWriter writer = new PrintWriter(new File(dimDir, "0.json"))) {
+      for (int i = 0; i < 1_500; i++) {
+        writer.println(String.format("{\"k\": %d, \"name\": \"dim %d\"}", i * 2, i));
+      }
+      writer.println("{\"name\": \"dim null\"}");
+    }
+
+    ClusterFixtureBuilder builder = ClusterFixture.builder(dirTestWatcher)
+        .sessionOption("planner.enable_streamagg", false)
+        .sessionOption("planner.enable_mergejoin", false)
+        .sessionOption("planner.enable_nestedloopjoin", false)
+        .maxParallelization(1);
+    startCluster(builder);
+  }
+
+  @Test
+  public void testGroupByBigInt() throws Exception {
+    compareWithChainedTable(String.format(
+        "SELECT k, COUNT(*) AS c, SUM(v) AS s FROM dfs.`%s` GROUP BY k", FACT_TABLE));
+  }
+
+  @Test
+  public void testGroupByInt() throws Exception {
+    compareWithChainedTable(String.format(
+        "SELECT CAST(k AS INT) AS k, COUNT(*) AS c FROM dfs.`%s` GROUP BY CAST(k AS INT)", FACT_TABLE));
+  }
+
+  @Test
+  public void testGroupByDate() throws Exception {
+    compareWithChainedTable(String.format(
+        "SELECT CAST(d AS DATE) AS d, COUNT(*) AS c, MIN(v) AS m FROM dfs.`%s` GROUP BY CAST(d AS DATE)", FACT_TABLE));
+  }
+
+  @Test
+  public void testDistinctWithFewPartitions() throws Exception {
+    String sql = String.format("SELECT DISTINCT k FROM dfs.`%s`", FACT_TABLE);
+    testBuilder()
+        .unOrdered()
+        .optionSettingQueriesForTestQuery(ENABLE_KEY_TABLE)
+        .optionSettingQueriesForTestQuery("alter session set `" + ExecConstants.HASHAGG_NUM_PARTITIONS_KEY + "` = 4")
+        .optionSettingQueriesForTestQuery("alter session set `" + ExecConstants.HASHAGG_MIN_BATCHES_PER_PARTITION_KEY + "` = 1")
+        .sqlQuery(sql)
+        .optionSettingQueriesForBaseline(DISABLE_KEY_TABLE)
+        .sqlBaselineQuery(sql)
+        .go();
+    client.resetSession(ExecConstants.HASHAGG_NUM_PARTITIONS_KEY);
+    client.resetSession(ExecConstants.HASHAGG_MIN_BATCHES_PER_PARTITION_KEY);
+  }
+
+  @Test
+  public void testInnerJoin() throws Exception {
+    compareWithChainedTable(String.format(
+        "SELECT f.v, d.name FROM dfs.`%s` f JOIN dfs.`%s` d ON f.k = d.k", FACT_TABLE, DIM_TABLE));
+  }
+
+  @Test
+  public void testLeftJoin() throws Exception {
+    compareWithChainedTable(String.format(
+        "SELECT f.v, d.name FROM dfs.`%s` f LEFT JOIN dfs.`%s` d ON f.k = d.k", FACT_TABLE, DIM_TABLE));
+  }
+
+  @Test
+  public void testJoinNullsEqual() throws Exception {
+    compareWithChainedTable(String.format(
+        "SELECT f.v, d.name FROM dfs.`%s` f JOIN dfs.`%s` d ON f.k = d.k OR (f.k IS NULL AND d.k IS NULL)",
+        FACT_TABLE, DIM_TABLE));
+  }
+
+  private void compareWithChainedTable(String sql) throws Exception {
+    testBuilder()
+        .unOrdered()
+        .optionSettingQueriesForTestQuery(ENABLE_KEY_TABLE)
+        .sqlQuery(sql)
+        .optionSettingQueriesForBaseline(DISABLE_KEY_TABLE)
+        .sqlBaselineQuery(sql)
+        .go();
+  }
+}
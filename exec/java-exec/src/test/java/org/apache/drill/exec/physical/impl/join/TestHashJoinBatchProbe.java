@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.join;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.apache.drill.categories.OperatorTest;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.physical.config.HashJoinPOP;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.QueryBuilder;
+import org.apache.drill.test.TestBuilder;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Runs hash joins and hash set operations, which probe their hash tables a
+ * probe batch at a time, on keys with duplicates and nulls on both sides,
+ * over several probe batches, with and without spilled partitions. The joins
+ * are checked against merge joins.
+ */
+@Category(OperatorTest.class)
+public class TestHashJoinBatchProbe extends ClusterTest {
+
+  private static final String PROBE_TABLE = "batch_probe_left";
+  private static final String BUILD_TABLE = "batch_probe_right";
+  private static final int PROBE_FILES = 4;
+  private static final int PROBE_ROWS_PER_FILE = 5_000;
+  private static final int PROBE_KEYS = 5_000;
+  private static final int BUILD_ROWS = 5_000;
+  // only half of the probe keys have a match
+  private static final int BUILD_KEYS = 2_500;
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    // One file per probe batch at least. Every 7th probe row has a null key,
+    // never the first of a file, so that the key is read as a BIGINT
+    File probeDir = dirTestWatcher.makeRootSubDir(Paths.get(PROBE_TABLE));
+    for (int file = 0; file < PROBE_FILES; file++) {
+      try (PrintWriter out = new PrintWriter(new File(probeDir, file + ".json"))) {
+        for (int i = file * PROBE_ROWS_PER_FILE; i < (file + 1) * PROBE_ROWS_PER_FILE; i++) {
+          if (i % 7 == 3) {
+            out.println("{\"k\": null, \"a\": " + i + "}");
+          } else {
+            out.println("{\"k\": " + i % PROBE_KEYS + ", \"a\": " + i + "}");
+          }
+        }
+      }
+    }
+    // Each build key twice, and a null key
+    File buildDir = dirTestWatcher.makeRootSubDir(Paths.get(BUILD_TABLE));
+    try (PrintWriter out = new PrintWriter(new File(buildDir, "0.json"))) {
+      for (int i = 0; i < BUILD_ROWS; i++) {
+        out.println("{\"k\": " + i % BUILD_KEYS + ", \"b\": " + i + "}");
+      }
+      out.println("{\"k\": null, \"b\": -1}");
+    }
+
+    startCluster(ClusterFixture.builder(dirTestWatcher)
+        .sessionOption(PlannerSettings.HASH_JOIN_SWAP.getOptionName(), false)
+        .maxParallelization(1)
+        .saveProfiles());
+  }
+
+  @After
+  public void resetSpillOptions() {
+    client.resetSession(ExecConstants.HASHJOIN_NUM_PARTITIONS_KEY);
+    client.resetSession(ExecConstants.HASHJOIN_NUM_ROWS_IN_BATCH_KEY);
+    client.resetSession(ExecConstants.HASHJOIN_MAX_BATCHES_IN_MEMORY_KEY);
+    client.resetSession(PlannerSettings.ENABLE_HASH_JOIN_OPTION);
+  }
+
+  @Test
+  public void testInnerJoin() throws Exception {
+    checkJoin(joinQuery("JOIN"), false);
+  }
+
+  @Test
+  public void testLeftJoin() throws Exception {
+    checkJoin(joinQuery("LEFT JOIN"), false);
+  }
+
+  @Test
+  public void testFullJoin() throws Exception {
+    checkJoin(joinQuery("FULL JOIN"), false);
+  }
+
+  @Test
+  public void testInnerJoinSpilled() throws Exception {
+    checkJoin(joinQuery("JOIN"), true);
+  }
+
+  @Test
+  public void testLeftJoinSpilled() throws Exception {
+    checkJoin(joinQuery("LEFT JOIN"), true);
+  }
+
+  @Test
+  public void testRightJoinSpilled() throws Exception {
+    checkJoin(joinQuery("RIGHT JOIN"), true);
+  }
+
+  @Test
+  public void testIntersect() throws Exception {
+    checkIntersect(false);
+  }
+
+  @Test
+  public void testIntersectSpilled() throws Exception {
+    checkIntersect(true);
+  }
+
+  @Test
+  public void testExcept() throws Exception {
+    checkExcept(false);
+  }
+
+  @Test
+  public void testExceptSpilled() throws Exception {
+    checkExcept(true);
+  }
+
+  private static String joinQuery(String join) {
+    return String.format("SELECT l.a, r.b FROM dfs.`%s` l %s dfs.`%s` r ON l.k = r.k",
+        PROBE_TABLE, join, BUILD_TABLE);
+  }
+
+  private static String setOpQuery(String setOp) {
+    return String.format("SELECT k FROM dfs.`%s` %s SELECT k FROM dfs.`%s`", PROBE_TABLE, setOp, BUILD_TABLE);
+  }
+
+  /**
+   * Checks that the hash join returns the same rows as the merge join.
+   */
+  private void checkJoin(String sql, boolean spill) throws Exception {
+    setSpill(spill);
+    testBuilder()
+        .unOrdered()
+        .optionSettingQueriesForTestQuery("alter session set `%s` = true", PlannerSettings.ENABLE_HASH_JOIN_OPTION)
+        .sqlQuery(sql)
+        .optionSettingQueriesForBaseline("alter session set `%s` = false", PlannerSettings.ENABLE_HASH_JOIN_OPTION)
+        .sqlBaselineQuery(sql)
+        .go();
+    client.alterSession(PlannerSettings.ENABLE_HASH_JOIN_OPTION, true);
+    checkSpilled(sql, HashJoinPOP.OPERATOR_TYPE, spill);
+  }
+
+  /**
+   * The keys of the build side, null included.
+   */
+  private void checkIntersect(boolean spill) throws Exception {
+    setSpill(spill);
+    TestBuilder builder = testBuilder()
+        .sqlQuery(setOpQuery("INTERSECT"))
+        .unOrdered()
+        .baselineColumns("k");
+    for (long key = 0; key < BUILD_KEYS; key++) {
+      builder.baselineValues(key);
+    }
+    builder.baselineValues((Object) null)
+        .go();
+    checkSpilled(setOpQuery("INTERSECT"), "INTERSECT", spill);
+  }
+
+  /**
+   * The keys of the probe side without a match, which are not null.
+   */
+  private void checkExcept(boolean spill) throws Exception {
+    setSpill(spill);
+    TestBuilder builder = testBuilder()
+        .sqlQuery(setOpQuery("EXCEPT"))
+        .unOrdered()
+        .baselineColumns("k");
+    for (long key = BUILD_KEYS; key < PROBE_KEYS; key++) {
+      builder.baselineValues(key);
+    }
+    builder.go();
+    checkSpilled(setOpQuery("EXCEPT"), "EXCEPT", spill);
+  }
+
+  /**
+   * Small build batches, a few of which fit in memory, make the operators
+   * spill most of their partitions.
+   */
+  private void setSpill(boolean spill) {
+    if (spill) {
+      client.alterSession(ExecConstants.HASHJOIN_NUM_PARTITIONS_KEY, 8);
+      client.alterSession(ExecConstants.HASHJOIN_NUM_ROWS_IN_BATCH_KEY, 64);
+      client.alterSession(ExecConstants.HASHJOIN_MAX_BATCHES_IN_MEMORY_KEY, 8);
+    }
+  }
+
+  private void checkSpilled(String sql, String operatorType, boolean spill) throws Exception {
+    QueryBuilder.QuerySummary summary = queryBuilder().sql(sql).run();
+    ProfileParser profile = client.parseProfile(summary.queryIdString());
+    List<ProfileParser.OperatorProfile> ops = profile.getOpsOfType(operatorType);
+    assertFalse(ops.isEmpty());
+    long spilledPartitions = 0;
+    for (ProfileParser.OperatorProfile op : ops) {
+      spilledPartitions += op.getMetric(AbstractHashBinaryRecordBatch.Metric.SPILLED_PARTITIONS.metricId());
+    }
+    assertEquals(spill, spilledPartitions > 0);
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.join;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
+
+import org.apache.drill.categories.OperatorTest;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.physical.config.NestedLoopJoinPOP;
+import org.apache.drill.exec.physical.impl.spill.OperatorSpillTestBase;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.QueryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Test the block nested loop join, which spills the right side of the join
+ * in blocks when it does not fit in memory.
+ */
+@Category(OperatorTest.class)
+public class TestNestedLoopJoinSpill extends OperatorSpillTestBase {
+
+  private static final int LEFT_ROWS = 2_000;
+  private static final int RIGHT_ROWS = 20_000;
+
+  private static final String INNER_JOIN = "SELECT l.id, l.lo, r.id rid, r.k FROM dfs.`nlj_spill/left` l " +
+      "INNER JOIN dfs.`nlj_spill/right` r ON r.k BETWEEN l.lo AND l.lo + 2";
+  private static final String LEFT_JOIN = "SELECT l.id, l.lo, r.id rid, r.k FROM dfs.`nlj_spill/left` l " +
+      "LEFT JOIN dfs.`nlj_spill/right` r ON r.k BETWEEN l.lo AND l.lo + 2";
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    File leftDir = dirTestWatcher.makeRootSubDir(Paths.get("nlj_spill", "left"));
+    try (PrintWriter out = new PrintWriter(new File(leftDir, "data.json"))) {
+      for (int i = 0; i < LEFT_ROWS; i++) {
+        // Every fourth row has no match on the right side
+        out.println("{\"id\": " + i + ", \"lo\": " + (i % 4 == 0 ? -10 : i * 5) + "}");
+      }
+    }
+    File rightDir = dirTestWatcher.makeRootSubDir(Paths.get("nlj_spill", "right"));
+    try (PrintWriter out = new PrintWriter(new File(rightDir, "data.json"))) {
+      for (int i = 0; i < RIGHT_ROWS; i++) {
+        out.println("{\"id\": " + i + ", \"k\": " + i % (LEFT_ROWS * 5) + "}");
+      }
+    }
+    startCluster(ClusterFixture.builder(dirTestWatcher)
+        .sessionOption(PlannerSettings.NLJOIN_FOR_SCALAR.getOptionName(), false)
+        .sessionOption(PlannerSettings.JOIN_OPTIMIZATION.getOptionName(), false)
+        .saveProfiles());
+  }
+
+  public TestNestedLoopJoinSpill() {
+    super(ExecConstants.NESTEDLOOPJOIN_ENABLE_SPILL_KEY, ExecConstants.NESTEDLOOPJOIN_MAX_MEMORY_KEY);
+  }
+
+  @Test
+  public void testSpill() throws Exception {
+    QueryBuilder.QuerySummary summary = runWithMemoryLimit(INNER_JOIN, 1);
+    assertTrue(summary.recordCount() > 0);
+    assertTrue(sumMetric(summary, NestedLoopJoinPOP.OPERATOR_TYPE, NestedLoopJoinBatch.Metric.SPILLED_BLOCKS) > 0);
+  }
+
+  @Test
+  public void testInnerJoin() throws Exception {
+    checkResults(INNER_JOIN, 1);
+  }
+
+  @Test
+  public void testLeftJoin() throws Exception {
+    checkResults(LEFT_JOIN, 1);
+  }
+
+  @Test
+  public void testLeftJoinWithFilter() throws Exception {
+    checkResults(LEFT_JOIN + " WHERE l.id < 500 OR r.k > 9000", 1);
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.spill;
+
+import static org.junit.Assert.assertFalse;
+
+import java.util.List;
+
+import org.apache.drill.exec.ops.MetricDef;
+import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.QueryBuilder;
+import org.apache.drill.test.TestBuilder;
+import org.junit.After;
+
+/**
+ * Base class of the tests of an operator which spills once its memory,
+ * limited by an option, is exhausted, and whose spilling is enabled by
+ * another option. The cluster must save the query profiles.
+ */
+public abstract class OperatorSpillTestBase extends ClusterTest {
+
+  private final String enableSpillKey;
+  private final String maxMemoryKey;
+
+  /**
+   * @param enableSpillKey name of the option enabling the spilling of the operator
+   * @param maxMemoryKey name of the option limiting the memory of the operator
+   */
+  protected OperatorSpillTestBase(String enableSpillKey, String maxMemoryKey) {
+    this.enableSpillKey = enableSpillKey;
+    this.maxMemoryKey = maxMemoryKey;
+  }
+
+  @After
+  public void resetSpillOptions() {
+    client.resetSession(enableSpillKey);
+    client.resetSession(maxMemoryKey);
+  }
+
+  /**
+   * Runs a query with the memory of the operator limited.
+   */
+  protected QueryBuilder.QuerySummary runWithMemoryLimit(String sql, long memoryLimit) throws Exception {
+    client.alterSession(maxMemoryKey, memoryLimit);
+    return queryBuilder().sql(sql).run();
+  }
+
+  /**
+   * Sums a metric over the operators of a type in the profile of a query.
+   */
+  protected long sumMetric(QueryBuilder.QuerySummary summary, String operatorType, MetricDef metric) {
+    ProfileParser profile = client.parseProfile(summary.queryIdString());
+    List<ProfileParser.OperatorProfile> ops = profile.getOpsOfType(operatorType);
+    assertFalse(ops.isEmpty());
+    long sum = 0;
+    for (ProfileParser.OperatorProfile op : ops) {
+      sum += op.getMetric(metric.metricId());
+    }
+    return sum;
+  }
+
+  /**
+   * Checks that the query returns the same rows, in any order, whether the
+   * operator spills or not.
+   */
+  protected void checkResults(String sql, long memoryLimit) throws Exception {
+    checkResults(testBuilder().unOrdered(), sql, memoryLimit);
+  }
+
+  /**
+   * Checks that the query returns the same rows, in the same order, whether
+   * the operator spills or not.
+   */
+  protected void checkOrderedResults(String sql, long memoryLimit) throws Exception {
+    checkResults(testBuilder().ordered(), sql, memoryLimit);
+  }
+
+  private void checkResults(TestBuilder builder, String sql, long memoryLimit) throws Exception {
+    builder
+        .optionSettingQueriesForTestQuery("alter session set `%s` = true", enableSpillKey)
+        .optionSettingQueriesForTestQuery("alter session set `%s` = %d", maxMemoryKey, memoryLimit)
+        .sqlQuery(sql)
+        .optionSettingQueriesForBaseline("alter session set `%s` = false", enableSpillKey)
+        .sqlBaselineQuery(sql)
+        .go();
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.spill;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.drill.categories.OperatorTest;
+import org.apache.drill.exec.util.BlockCodec;
+import org.apache.drill.test.BaseTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(OperatorTest.class)
+public class TestCompressedSpillStreams extends BaseTest {
+
+  private static final int BLOCK_SIZE = 1024;
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    for (BlockCodec codec : new BlockCodec[] {BlockCodec.LZ4, BlockCodec.SNAPPY, BlockCodec.ZSTD}) {
+      byte[] data = compressibleData(10 * BLOCK_SIZE + 17);
+      ByteArrayOutputStream file = new ByteArrayOutputStream();
+      AtomicLong stored = new AtomicLong();
+      try (CompressedSpillOutputStream out = new CompressedSpillOutputStream(file, codec, BLOCK_SIZE, stored::set)) {
+        out.write(data, 0, 100);
+        out.write(data[100]);
+        out.write(data, 101, data.length - 101);
+      }
+      assertEquals(file.size(), stored.get());
+      assertTrue(codec + " did not compress", stored.get() < data.length);
+      assertArrayEquals(data, readAll(file.toByteArray(), codec, data.length));
+    }
+  }
+
+  @Test
+  public void testIncompressibleData() throws IOException {
+    byte[] data = new byte[3 * BLOCK_SIZE];
+    new Random(17).nextBytes(data);
+    ByteArrayOutputStream file = new ByteArrayOutputStream();
+    try (CompressedSpillOutputStream out = new CompressedSpillOutputStream(file, BlockCodec.LZ4, BLOCK_SIZE, null)) {
+      out.write(data);
+    }
+    // Random blocks are stored as is: only the headers are added
+    assertEquals(data.length + 3 * CompressedSpillOutputStream.HEADER_SIZE, file.size());
+    assertArrayEquals(data, readAll(file.toByteArray(), BlockCodec.LZ4, data.length));
+  }
+
+  @Test
+  public void testCodecNames() {
+    assertEquals(BlockCodec.NONE, BlockCodec.fromName("none"));
+    assertEquals(BlockCodec.ZSTD, BlockCodec.fromName(" Zstd "));
+  }
+
+  /**
+   * Reads the stream back with a single read, as the vector deserializer
+   * does, which must span all the blocks.
+   */
+  private byte[] readAll(byte[] file, BlockCodec codec, int length) throws IOException {
+    byte[] result = new byte[length];
+    try (CompressedSpillInputStream in = new CompressedSpillInputStream(new ByteArrayInputStream(file), codec)) {
+      assertEquals(length, in.read(result, 0, length));
+      assertEquals(-1, in.read());
+    }
+    return result;
+  }
+
+  private byte[] compressibleData(int length) {
+    Random random = new Random(42);
+    byte[] data = new byte[length];
+    for (int i = 0; i < length; i++) {
+      data[i] = (byte) ('a' + random.nextInt(4));
+    }
+    return data;
+  }
+}
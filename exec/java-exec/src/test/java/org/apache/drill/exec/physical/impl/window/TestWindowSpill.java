@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.window;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
+
+import org.apache.drill.categories.OperatorTest;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.physical.config.WindowPOP;
+import org.apache.drill.exec.physical.impl.spill.OperatorSpillTestBase;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.QueryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Test spilling of the batches buffered by the Window operator, with a
+ * single partition that spans many batches.
+ */
+@Category(OperatorTest.class)
+public class TestWindowSpill extends OperatorSpillTestBase {
+
+  private static final int ROW_COUNT = 40_000;
+  private static final int LARGE_PARTITION_ROWS = 30_000;
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    File tableDir = dirTestWatcher.makeRootSubDir(Paths.get("window_spill"));
+    try (PrintWriter out = new PrintWriter(new File(tableDir, "data.json"))) {
+      for (int i = 0; i < ROW_COUNT; i++) {
+        int p = i < LARGE_PARTITION_ROWS ? 0 : 1 + i % 10;
+        out.println("{\"p\": " + p + ", \"o\": " + i / 3 + ", \"v\": " + i % 7 + "}");
+      }
+    }
+    startCluster(ClusterFixture.builder(dirTestWatcher).saveProfiles());
+  }
+
+  public TestWindowSpill() {
+    super(ExecConstants.WINDOW_ENABLE_SPILL_KEY, ExecConstants.WINDOW_MAX_MEMORY_KEY);
+  }
+
+  @Test
+  public void testSpill() throws Exception {
+    QueryBuilder.QuerySummary summary =
+        runWithMemoryLimit("SELECT p, o, SUM(v) OVER(PARTITION BY p) s FROM dfs.`window_spill`", 1);
+    assertEquals(ROW_COUNT, summary.recordCount());
+    assertTrue(sumMetric(summary, WindowPOP.OPERATOR_TYPE, WindowFrameRecordBatch.Metric.SPILLED_BATCHES) > 0);
+  }
+
+  @Test
+  public void testAggregateOverPartition() throws Exception {
+    checkResults("SELECT p, o, v, SUM(v) OVER(PARTITION BY p) s, COUNT(*) OVER(PARTITION BY p) c " +
+        "FROM dfs.`window_spill`");
+  }
+
+  @Test
+  public void testRangeFrame() throws Exception {
+    checkResults("SELECT p, o, v, SUM(v) OVER(PARTITION BY p ORDER BY o) s, " +
+        "LAST_VALUE(v) OVER(PARTITION BY p ORDER BY o) l FROM dfs.`window_spill`");
+  }
+
+  @Test
+  public void testUnboundedFollowingFrame() throws Exception {
+    checkResults("SELECT p, o, v, MAX(v) OVER(PARTITION BY p ORDER BY o " +
+        "RANGE BETWEEN CURRENT ROW AND UNBOUNDED FOLLOWING) m FROM dfs.`window_spill`");
+  }
+
+  @Test
+  public void testRankingFunctions() throws Exception {
+    checkResults("SELECT p, o, v, RANK() OVER(PARTITION BY p ORDER BY o) r, " +
+        "PERCENT_RANK() OVER(PARTITION BY p ORDER BY o) pr, NTILE(7) OVER(PARTITION BY p ORDER BY o) t " +
+        "FROM dfs.`window_spill`");
+  }
+
+  @Test
+  public void testLeadLag() throws Exception {
+    checkResults("SELECT p, o, v, LEAD(v) OVER(PARTITION BY p ORDER BY o, v) ld, " +
+        "LAG(v) OVER(PARTITION BY p ORDER BY o, v) lg FROM dfs.`window_spill`");
+  }
+
+  private void checkResults(String sql) throws Exception {
+    checkResults(sql, 1);
+  }
+}
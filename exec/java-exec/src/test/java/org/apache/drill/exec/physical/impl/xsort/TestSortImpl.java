@@ -30,6 +30,8 @@ import org.apache.drill.common.logical.data.Order.Ordering;
 import org.apache.drill.common.types.TypeProtos.MinorType;
 import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.MemoryArbiter;
+import org.apache.drill.exec.memory.RootAllocatorFactory;
 import org.apache.drill.exec.ops.OperatorContext;
 import org.apache.drill.exec.physical.config.Sort;
 import org.apache.drill.exec.physical.impl.spill.SpillSet;
@@ -71,6 +73,11 @@ public class TestSortImpl extends DrillTest {
   @Rule
   public final BaseDirTestWatcher dirTestWatcher = new BaseDirTestWatcher();
 
+  private static final long MB = 1024 * 1024;
+  private static final long ARBITER_ROOT_MEMORY = 512 * MB;
+  private static final long ARBITER_SORT_MEMORY = 32 * MB;
+  private static final int ARBITER_ROW_COUNT = 2_000_000;
+
   private static VectorContainer dest;
 
   /**
@@ -85,7 +92,26 @@ public class TestSortImpl extends DrillTest {
                                String sortOrder, String nullOrder) {
     FieldReference expr = FieldReference.getWithQuotedRef("key");
     Ordering ordering = new Ordering(sortOrder, expr, nullOrder);
+    return makeSortImpl(fixture, new Sort(null, Lists.newArrayList(ordering), false));
+  }
+
+  /**
+   * Create the sort implementation, in ascending order, with the memory
+   * the planner would give it.
+   *
+   * @param fixture operator fixture
+   * @param maxAllocation memory limit of the sort operator
+   * @return the initialized sort implementation, ready to do work
+   */
+  public static SortImpl makeSortImpl(OperatorFixture fixture, long maxAllocation) {
+    FieldReference expr = FieldReference.getWithQuotedRef("key");
+    Ordering ordering = new Ordering(Ordering.ORDER_ASC, expr, Ordering.NULLS_UNSPECIFIED);
     Sort popConfig = new Sort(null, Lists.newArrayList(ordering), false);
+    popConfig.setMaxAllocation(maxAllocation);
+    return makeSortImpl(fixture, popConfig);
+  }
+
+  private static SortImpl makeSortImpl(OperatorFixture fixture, Sort popConfig) {
     OperatorContext opContext = fixture.newOperatorContext(popConfig);
     QueryId queryId = QueryId.newBuilder()
         .setPart1(1234)
@@ -400,24 +426,29 @@ public class TestSortImpl extends DrillTest {
   public void runLargeSortTest(OperatorFixture fixture, DataGenerator dataGen,
                                DataValidator validator) {
     SortImpl sort = makeSortImpl(fixture, Ordering.ORDER_ASC, Ordering.NULLS_UNSPECIFIED);
-
-    int batchCount = 0;
     RowSet input;
     while ((input = dataGen.nextRowSet()) != null) {
-      batchCount++;
-      if (batchCount == 1) {
-        // Simulates a NEW_SCHEMA event
-
-        sort.setSchema(input.container().getSchema());
-      }
+      addBatch(sort, input);
+    }
+    mergeAndValidate(sort, validator);
+  }
 
-      // Simulates an OK event
+  private static void addBatch(SortImpl sort, RowSet input) {
+    if (sort.getMetrics().getInputBatchCount() == 0) {
+      // Simulates a NEW_SCHEMA event
 
-      sort.addBatch(input.vectorAccessible());
+      sort.setSchema(input.container().getSchema());
     }
 
-    // Simulate returning results
+    // Simulates an OK event
+
+    sort.addBatch(input.vectorAccessible());
+  }
 
+  /**
+   * Simulate returning the results of a sort, validate them and close the sort.
+   */
+  private static void mergeAndValidate(SortImpl sort, DataValidator validator) {
     SortResults results = sort.startMerge();
     if (results.getContainer() != dest) {
       dest.clear();
@@ -587,4 +618,79 @@ public class TestSortImpl extends DrillTest {
       sortTest.run();
     }
   }
+
+  /**
+   * Fixture whose operators get memory from an enabled memory arbiter, on a
+   * root allocator limited to {@link #ARBITER_ROOT_MEMORY}.
+   */
+  private OperatorFixture arbiterFixture() {
+    OperatorFixture.Builder builder = OperatorFixture.builder(dirTestWatcher);
+    builder.configBuilder()
+      .put(ExecConstants.MEMORY_ARBITER_ENABLED, true)
+      .put(RootAllocatorFactory.TOP_LEVEL_MAX_ALLOC, ARBITER_ROOT_MEMORY);
+    return builder.build();
+  }
+
+  /**
+   * The sort asks the memory arbiter for memory when its input exceeds the
+   * memory given by the planner, and keeps the whole input in memory rather
+   * than spilling.
+   */
+  @Test
+  public void testMemoryArbiterGrant() throws Exception {
+    try (OperatorFixture fixture = arbiterFixture()) {
+      MemoryArbiter arbiter = fixture.getFragmentContext().getMemoryArbiter();
+      SortImpl sort = makeSortImpl(fixture, ARBITER_SORT_MEMORY);
+      DataGenerator dataGen = new DataGenerator(fixture, ARBITER_ROW_COUNT, ValueVector.MAX_ROW_COUNT);
+      RowSet input;
+      while ((input = dataGen.nextRowSet()) != null) {
+        addBatch(sort, input);
+      }
+      assertEquals(0, sort.getMetrics().getSpillCount());
+      assertTrue(arbiter.getGrantCount() > 0);
+      assertTrue(sort.opContext().getAllocator().getLimit() > ARBITER_SORT_MEMORY);
+
+      mergeAndValidate(sort, new DataValidator(ARBITER_ROW_COUNT, ValueVector.MAX_ROW_COUNT));
+    }
+  }
+
+  /**
+   * The sort spills when the memory arbiter asks it to, even though it has
+   * room for its next batch, and the spill gives back the memory granted to
+   * the sort.
+   */
+  @Test
+  public void testMemoryArbiterSpillRequest() throws Exception {
+    try (OperatorFixture fixture = arbiterFixture()) {
+      MemoryArbiter arbiter = fixture.getFragmentContext().getMemoryArbiter();
+      SortImpl sort = makeSortImpl(fixture, ARBITER_SORT_MEMORY);
+      DataGenerator dataGen = new DataGenerator(fixture, ARBITER_ROW_COUNT, ValueVector.MAX_ROW_COUNT);
+
+      // Load batches until the sort grows beyond its memory. The grant,
+      // of a quarter of its memory, leaves room for the next batch.
+      while (arbiter.getGrantCount() == 0) {
+        addBatch(sort, dataGen.nextRowSet());
+      }
+      assertEquals(0, sort.getMetrics().getSpillCount());
+      BufferAllocator sortAllocator = sort.opContext().getAllocator();
+      assertTrue(sortAllocator.getLimit() > ARBITER_SORT_MEMORY);
+
+      // Take the memory of the Drillbit beyond the spill threshold
+      double spillThreshold = fixture.config().getDouble(ExecConstants.MEMORY_ARBITER_SPILL_THRESHOLD);
+      long pressureSize = (long) (ARBITER_ROOT_MEMORY * spillThreshold) - fixture.allocator().getAllocatedMemory() + MB;
+      DrillBuf pressure = fixture.allocator().buffer((int) pressureSize);
+      addBatch(sort, dataGen.nextRowSet());
+      pressure.release();
+
+      assertEquals(1, sort.getMetrics().getSpillCount());
+      assertEquals(1, arbiter.getSpillRequestCount());
+      assertEquals(ARBITER_SORT_MEMORY, sortAllocator.getLimit());
+
+      RowSet input;
+      while ((input = dataGen.nextRowSet()) != null) {
+        addBatch(sort, input);
+      }
+      mergeAndValidate(sort, new DataValidator(ARBITER_ROW_COUNT, ValueVector.MAX_ROW_COUNT));
+    }
+  }
 }
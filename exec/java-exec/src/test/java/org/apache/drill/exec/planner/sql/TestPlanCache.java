@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.drill.categories.SqlTest;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(SqlTest.class)
+public class TestPlanCache extends ClusterTest {
+
+  private static final String QUERY = "SELECT count(*) FROM cp.`employee.json` WHERE position_id = 2";
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    startCluster(ClusterFixture.builder(dirTestWatcher)
+        .sessionOption(PlannerSettings.PLAN_CACHE_ENABLED_KEY, true));
+  }
+
+  @Before
+  public void clearCache() {
+    planCache().invalidateAll();
+  }
+
+  private static PlanCache planCache() {
+    return cluster.drillbit().getContext().getPlanCache();
+  }
+
+  @Test
+  public void testNormalize() {
+    assertEquals("SELECT a FROM t WHERE b = 'x  y'",
+        PlanCache.normalize("  SELECT a\n\tFROM   t\r\nWHERE b = 'x  y'  "));
+    assertEquals("SELECT `a  b` FROM t -- a  comment\n",
+        PlanCache.normalize("SELECT `a  b`  FROM t -- a  comment\n"));
+    assertEquals("SELECT /* x  y */ 1", PlanCache.normalize("SELECT   /* x  y */   1"));
+  }
+
+  @Test
+  public void testRepeatedQueryReusesPlan() throws Exception {
+    long hits = planCache().getHitCount();
+    long expected = queryBuilder().sql(QUERY).singletonLong();
+    assertEquals(1, planCache().getEntryCount());
+
+    long actual = queryBuilder()
+        .sql("SELECT count(*)\nFROM   cp.`employee.json`\nWHERE position_id = 2")
+        .singletonLong();
+    assertEquals(expected, actual);
+    assertEquals(hits + 1, planCache().getHitCount());
+  }
+
+  @Test
+  public void testOptionsArePartOfKey() throws Exception {
+    queryBuilder().sql(QUERY).run();
+    long hits = planCache().getHitCount();
+    try {
+      client.alterSession(ExecConstants.SLICE_TARGET, 10);
+      queryBuilder().sql(QUERY).run();
+      assertEquals(hits, planCache().getHitCount());
+      assertEquals(2, planCache().getEntryCount());
+    } finally {
+      client.resetSession(ExecConstants.SLICE_TARGET);
+    }
+  }
+
+  @Test
+  public void testNonDeterministicQueryNotCached() throws Exception {
+    queryBuilder().sql("SELECT now() FROM (VALUES(1))").run();
+    queryBuilder().sql("SELECT random() FROM (VALUES(1))").run();
+    assertEquals(0, planCache().getEntryCount());
+  }
+
+  @Test
+  public void testDdlInvalidatesCache() throws Exception {
+    queryBuilder().sql(QUERY).run();
+    assertEquals(1, planCache().getEntryCount());
+    long invalidations = planCache().getInvalidationCount();
+    try {
+      run("CREATE VIEW dfs.tmp.plan_cache_view AS SELECT * FROM cp.`employee.json`");
+      assertEquals(0, planCache().getEntryCount());
+      assertTrue(planCache().getInvalidationCount() > invalidations);
+    } finally {
+      run("DROP VIEW IF EXISTS dfs.tmp.plan_cache_view");
+    }
+  }
+
+  @Test
+  public void testSysTable() throws Exception {
+    queryBuilder().sql(QUERY).run();
+    queryBuilder().sql(QUERY).run();
+    long hits = queryBuilder().sql("SELECT sum(hits) FROM sys.plan_cache").singletonLong();
+    assertTrue(hits >= 1);
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.rpc.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DrillBuf;
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecTest;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.RootAllocatorFactory;
+import org.apache.drill.exec.util.BlockCodec;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestBatchCompression extends ExecTest {
+
+  private static final BlockCodec[] CODECS = {BlockCodec.LZ4, BlockCodec.SNAPPY, BlockCodec.ZSTD};
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void setup() {
+    allocator = RootAllocatorFactory.newRoot(DrillConfig.create());
+  }
+
+  @After
+  public void teardown() {
+    allocator.close();
+  }
+
+  @Test
+  public void testFromHandshake() {
+    assertEquals(BlockCodec.LZ4, BatchCompression.fromHandshake("lz4"));
+    assertEquals(BlockCodec.ZSTD, BatchCompression.fromHandshake(" ZSTD "));
+    assertEquals(BlockCodec.NONE, BatchCompression.fromHandshake(BlockCodec.NONE.getName()));
+    assertEquals(BlockCodec.NONE, BatchCompression.fromHandshake("gzip"));
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    for (BlockCodec codec : CODECS) {
+      // body split over several buffers, as for a batch with several vectors
+      DrillBuf first = fill(allocator.buffer(10_000), 10_000);
+      DrillBuf second = fill(allocator.buffer(3_000), 3_000);
+      ByteBuf[] body = {first, second};
+      DrillBuf compressed = BatchCompression.compress(codec, allocator, body, 13_000);
+      assertNotNull(codec + " did not compress", compressed);
+      assertTrue(compressed.readableBytes() < 13_000);
+
+      DrillBuf decompressed = BatchCompression.decompress(codec, allocator, compressed, 13_000);
+      assertEquals(13_000, decompressed.readableBytes());
+      for (int i = 0; i < 10_000; i++) {
+        assertEquals(first.getByte(i), decompressed.getByte(i));
+      }
+      for (int i = 0; i < 3_000; i++) {
+        assertEquals(second.getByte(i), decompressed.getByte(10_000 + i));
+      }
+      first.release();
+      second.release();
+      compressed.release();
+      decompressed.release();
+    }
+  }
+
+  @Test
+  public void testIncompressibleBody() {
+    byte[] bytes = new byte[4_096];
+    new Random(17).nextBytes(bytes);
+    DrillBuf body = allocator.buffer(bytes.length);
+    body.writeBytes(bytes);
+    for (BlockCodec codec : CODECS) {
+      assertNull(BatchCompression.compress(codec, allocator, new ByteBuf[] {body}, bytes.length));
+    }
+    body.release();
+  }
+
+  private static DrillBuf fill(DrillBuf buffer, int length) {
+    for (int i = 0; i < length; i++) {
+      buffer.writeByte(i % 97 < 50 ? 'a' : i % 7);
+    }
+    return buffer;
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.dfs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.drill.categories.UnlikelyTest;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.ExecTest;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.io.compress.CompressionInputStream;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnlikelyTest.class)
+public class TestAsyncDecompression extends ClusterTest {
+
+  private static final int ROW_COUNT = 100_000;
+
+  private static FileSystem fs;
+  private static CompressionCodec codec;
+  private static ExecutorService executor;
+  private static byte[] csvData;
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    startCluster(ClusterFixture.builder(dirTestWatcher));
+    fs = ExecTest.getLocalFileSystem();
+    codec = new CompressionCodecFactory(fs.getConf()).getCodecByName("gzip");
+    executor = Executors.newFixedThreadPool(2);
+
+    // Several chunks of decompressed data
+    StringBuilder csv = new StringBuilder("id,name\n");
+    StringBuilder json = new StringBuilder();
+    for (int i = 0; i < ROW_COUNT; i++) {
+      csv.append(i).append(",name_").append(i).append('\n');
+      json.append("{\"id\": ").append(i).append(", \"name\": \"name_").append(i).append("\"}\n");
+    }
+    csvData = csv.toString().getBytes(StandardCharsets.UTF_8);
+    assertTrue(csvData.length > 2 * AsyncDecompressionInputStream.CHUNK_SIZE);
+    writeData("async.csvh.gz", csvData);
+    writeData("async.json.gz", json.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  @AfterClass
+  public static void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testReadAll() throws Exception {
+    for (int queueSize : new int[] {1, 2, 4}) {
+      try (InputStream in = new AsyncDecompressionInputStream(open("async.csvh.gz"), executor, queueSize)) {
+        assertArrayEquals(csvData, readAll(in, 8192));
+      }
+    }
+  }
+
+  @Test
+  public void testReadBytes() throws Exception {
+    try (AsyncDecompressionInputStream in = new AsyncDecompressionInputStream(open("async.csvh.gz"), executor, 2)) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      int b;
+      while ((b = in.read()) != -1) {
+        out.write(b);
+      }
+      assertArrayEquals(csvData, out.toByteArray());
+      assertEquals(csvData.length, in.getPos());
+      assertEquals(-1, in.read());
+    }
+  }
+
+  @Test
+  public void testCloseBeforeEnd() throws Exception {
+    InputStream in = new AsyncDecompressionInputStream(open("async.csvh.gz"), executor, 1);
+    byte[] b = new byte[100];
+    assertEquals(100, in.read(b, 0, b.length));
+    in.close();
+  }
+
+  @Test
+  public void testCsvQuery() throws Exception {
+    checkResults("SELECT id, name FROM dfs.`root`.`async.csvh.gz`");
+  }
+
+  @Test
+  public void testJsonQuery() throws Exception {
+    checkResults("SELECT id, name FROM dfs.`root`.`async.json.gz`");
+  }
+
+  @Test
+  public void testBgzfQuery() throws Exception {
+    Path file = new Path(dirTestWatcher.getRootDir().getAbsolutePath(), "async.csvh.bgz");
+    TestFrameSplit.writeFrames(fs, FrameFormat.BGZF, file, csvData);
+    checkResults("SELECT id, name FROM dfs.`root`.`async.csvh.bgz`");
+    testBuilder()
+        .unOrdered()
+        .sqlQuery("SELECT id, name FROM dfs.`root`.`async.csvh.bgz`")
+        .sqlBaselineQuery("SELECT id, name FROM dfs.`root`.`async.csvh.gz`")
+        .go();
+  }
+
+  private void checkResults(String sql) throws Exception {
+    testBuilder()
+        .unOrdered()
+        .optionSettingQueriesForTestQuery("alter session set `%s` = true", ExecConstants.DECOMPRESSION_ASYNC)
+        .optionSettingQueriesForTestQuery("alter session set `%s` = 1", ExecConstants.DECOMPRESSION_ASYNC_QUEUE_SIZE)
+        .sqlQuery(sql)
+        .optionSettingQueriesForBaseline("alter session set `%s` = false", ExecConstants.DECOMPRESSION_ASYNC)
+        .sqlBaselineQuery(sql)
+        .go();
+  }
+
+  private static CompressionInputStream open(String fileName) throws IOException {
+    Path file = new Path(dirTestWatcher.getRootDir().getAbsolutePath(), fileName);
+    return codec.createInputStream(fs.open(file));
+  }
+
+  private static byte[] readAll(InputStream in, int bufferSize) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[bufferSize];
+    int n;
+    while ((n = in.read(buffer, 0, buffer.length)) != -1) {
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+
+  private static void writeData(String fileName, byte[] data) throws IOException {
+    Path outFile = new Path(dirTestWatcher.getRootDir().getAbsolutePath(), fileName);
+    try (OutputStream out = codec.createOutputStream(fs.create(outFile))) {
+      out.write(data);
+    }
+  }
+}
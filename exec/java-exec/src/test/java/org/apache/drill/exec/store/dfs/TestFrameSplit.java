@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.dfs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.apache.drill.exec.ExecTest;
+import org.apache.drill.test.BaseDirTestWatcher;
+import org.apache.drill.test.DrillTest;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import io.airlift.compress.zstd.ZstdCompressor;
+
+/**
+ * Tests the splitting of BGZF and zstd files at their frame boundaries, on
+ * files of {@link #LINE_COUNT} lines compressed in frames of
+ * {@link #FRAME_DATA_SIZE} bytes, which so end in the middle of lines.
+ */
+public class TestFrameSplit extends DrillTest {
+
+  private static final int LINE_COUNT = 50_000;
+  private static final int FRAME_DATA_SIZE = 10_000;
+  private static final byte[] NEWLINE = {'\n'};
+
+  @ClassRule
+  public static final BaseDirTestWatcher dirTestWatcher = new BaseDirTestWatcher();
+
+  private static FileSystem fs;
+  private static byte[] data;
+
+  @BeforeClass
+  public static void setup() throws IOException {
+    fs = ExecTest.getLocalFileSystem();
+    StringBuilder lines = new StringBuilder();
+    for (int i = 0; i < LINE_COUNT; i++) {
+      lines.append("line_").append(i).append('\n');
+    }
+    data = lines.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testFormatOfPath() {
+    assertSame(FrameFormat.BGZF, FrameFormat.of(new Path("/data/file.csv.bgz")));
+    assertSame(FrameFormat.ZSTD, FrameFormat.of(new Path("/data/file.json.zst")));
+    assertNull(FrameFormat.of(new Path("/data/file.csv.gz")));
+  }
+
+  @Test
+  public void testBgzfFrameStarts() throws IOException {
+    checkFrameStarts(FrameFormat.BGZF, "starts.csv.bgz");
+  }
+
+  @Test
+  public void testZstdFrameStarts() throws IOException {
+    checkFrameStarts(FrameFormat.ZSTD, "starts.csv.zst");
+  }
+
+  @Test
+  public void testBgzfSplits() throws IOException {
+    checkSplits(FrameFormat.BGZF, "splits.csv.bgz");
+  }
+
+  @Test
+  public void testZstdSplits() throws IOException {
+    checkSplits(FrameFormat.ZSTD, "splits.csv.zst");
+  }
+
+  @Test
+  public void testCrlfDelimiter() throws IOException {
+    byte[] crlfData = new String(data, StandardCharsets.UTF_8).replace("\n", "\r\n").getBytes(StandardCharsets.UTF_8);
+    Path path = new Path(dirTestWatcher.getRootDir().getAbsolutePath(), "crlf.csv.bgz");
+    List<Long> frames = writeFrames(fs, FrameFormat.BGZF, path, crlfData);
+    assertArrayEquals(crlfData, readSplits(FrameFormat.BGZF, path, frames, 3, "\r\n".getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  public void testSkipWholeSplit() throws IOException {
+    // A single line spanning several frames is read by the first split only
+    byte[] longLine = new byte[5 * FRAME_DATA_SIZE + 1];
+    Arrays.fill(longLine, (byte) 'a');
+    longLine[longLine.length - 1] = '\n';
+    Path path = new Path(dirTestWatcher.getRootDir().getAbsolutePath(), "long.csv.zst");
+    List<Long> frames = writeFrames(fs, FrameFormat.ZSTD, path, longLine);
+    try (FrameSplitInputStream in = new FrameSplitInputStream(fs.open(path), FrameFormat.ZSTD,
+        frames.get(2), frames.get(3), NEWLINE)) {
+      assertEquals(-1, in.read());
+    }
+    assertArrayEquals(longLine, readSplits(FrameFormat.ZSTD, path, frames, 1, NEWLINE));
+  }
+
+  /**
+   * Checks that the frame found from any position is the next one.
+   */
+  private void checkFrameStarts(FrameFormat format, String fileName) throws IOException {
+    Path path = new Path(dirTestWatcher.getRootDir().getAbsolutePath(), fileName);
+    List<Long> frames = writeFrames(fs, format, path, data);
+    long fileLength = fs.getFileStatus(path).getLen();
+    try (FSDataInputStream in = fs.open(path)) {
+      for (int i = 0; i + 1 < frames.size(); i++) {
+        long frame = frames.get(i);
+        long next = frames.get(i + 1);
+        assertEquals(frame, format.nextFrameStart(in, frame, fileLength));
+        assertEquals(next, format.nextFrameStart(in, frame + 1, fileLength));
+        assertEquals(next, format.nextFrameStart(in, (frame + next) / 2, fileLength));
+      }
+      assertEquals(-1, format.nextFrameStart(in, frames.get(frames.size() - 1) + 1, fileLength));
+    }
+  }
+
+  /**
+   * Checks that the splits built on frame boundaries, as the block map
+   * builder builds them for several block sizes, read each line once.
+   */
+  private void checkSplits(FrameFormat format, String fileName) throws IOException {
+    Path path = new Path(dirTestWatcher.getRootDir().getAbsolutePath(), fileName);
+    List<Long> frames = writeFrames(fs, format, path, data);
+    for (int framesPerSplit : new int[] {1, 2, 7, frames.size()}) {
+      assertArrayEquals(data, readSplits(format, path, frames, framesPerSplit, NEWLINE));
+    }
+  }
+
+  /**
+   * Reads the splits of a file made of the given number of frames each,
+   * found from block boundaries placed in the middle of the frames.
+   */
+  private byte[] readSplits(FrameFormat format, Path path, List<Long> frames, int framesPerSplit,
+      byte[] lineDelimiter) throws IOException {
+    long fileLength = fs.getFileStatus(path).getLen();
+    List<Long> starts = new ArrayList<>();
+    starts.add(0L);
+    try (FSDataInputStream in = fs.open(path)) {
+      for (int i = framesPerSplit; i < frames.size(); i += framesPerSplit) {
+        long blockStart = (frames.get(i - 1) + frames.get(i)) / 2;
+        starts.add(format.nextFrameStart(in, blockStart, fileLength));
+      }
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < starts.size(); i++) {
+      long end = i + 1 < starts.size() ? starts.get(i + 1) : fileLength;
+      try (InputStream in = new FrameSplitInputStream(fs.open(path), format, starts.get(i), end, lineDelimiter)) {
+        out.write(readAll(in));
+      }
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Writes the data in frames of {@link #FRAME_DATA_SIZE} bytes.
+   *
+   * @return positions of the frames, the last one being an empty BGZF block
+   * marking the end of a BGZF file
+   */
+  static List<Long> writeFrames(FileSystem fileSystem, FrameFormat format, Path path, byte[] data) throws IOException {
+    List<Long> frames = new ArrayList<>();
+    long pos = 0;
+    try (OutputStream out = fileSystem.create(path)) {
+      for (int off = 0; off < data.length; off += FRAME_DATA_SIZE) {
+        byte[] frame = compress(format, data, off, Math.min(FRAME_DATA_SIZE, data.length - off));
+        frames.add(pos);
+        out.write(frame);
+        pos += frame.length;
+      }
+      if (format == FrameFormat.BGZF) {
+        byte[] eofBlock = compress(format, data, 0, 0);
+        frames.add(pos);
+        out.write(eofBlock);
+      }
+    }
+    return frames;
+  }
+
+  private static byte[] compress(FrameFormat format, byte[] data, int off, int len) {
+    if (format == FrameFormat.ZSTD) {
+      ZstdCompressor compressor = new ZstdCompressor();
+      byte[] frame = new byte[compressor.maxCompressedLength(len)];
+      int n = compressor.compress(data, off, len, frame, 0, frame.length);
+      return Arrays.copyOf(frame, n);
+    }
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    deflater.setInput(data, off, len);
+    deflater.finish();
+    byte[] compressed = new byte[len + 1024];
+    int compressedLength = deflater.deflate(compressed);
+    deflater.end();
+    CRC32 crc = new CRC32();
+    crc.update(data, off, len);
+
+    int blockSize = 18 + compressedLength + 8;
+    ByteBuffer block = ByteBuffer.allocate(blockSize).order(ByteOrder.LITTLE_ENDIAN);
+    block.put(new byte[] {0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0});
+    block.putShort((short) (blockSize - 1));
+    block.put(compressed, 0, compressedLength);
+    block.putInt((int) crc.getValue());
+    block.putInt(len);
+    return block.array();
+  }
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4096];
+    int n;
+    while ((n = in.read(buffer, 0, buffer.length)) != -1) {
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.easy.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.drill.categories.JsonTest;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(JsonTest.class)
+public class TestLineDelimitedJson extends ClusterTest {
+
+  private static final int ROW_COUNT = 1_000;
+
+  private static File file;
+  private static List<String> lines;
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    File tableDir = dirTestWatcher.makeRootSubDir(Paths.get("ndjson"));
+    file = new File(tableDir, "data.json");
+    lines = new ArrayList<>();
+    try (PrintWriter out = new PrintWriter(file)) {
+      for (int i = 0; i < ROW_COUNT; i++) {
+        // Lines of varying length, so that split boundaries fall everywhere in them
+        String line = "{\"id\": " + i + ", \"name\": \"" + new String(new char[i % 17]).replace('\0', 'x') + "\"}";
+        lines.add(line);
+        out.print(line + "\n");
+      }
+    }
+    startCluster(ClusterFixture.builder(dirTestWatcher));
+  }
+
+  @Test
+  public void testEachLineReadOnce() throws Exception {
+    long length = file.length();
+    for (long splitSize : new long[] {3, 7, 30, 31, 32, 100, 4096, length - 1, length, length + 1}) {
+      List<String> readLines = new ArrayList<>();
+      for (long start = 0; start < length; start += splitSize) {
+        readLines.addAll(readSplit(start, Math.min(splitSize, length - start)));
+      }
+      assertEquals("split size " + splitSize, lines, readLines);
+    }
+  }
+
+  @Test
+  public void testQueryWithV2Reader() throws Exception {
+    checkResults();
+  }
+
+  @Test
+  public void testQueryWithV1Reader() throws Exception {
+    client.alterSession(ExecConstants.ENABLE_V2_JSON_READER_KEY, false);
+    try {
+      checkResults();
+    } finally {
+      client.resetSession(ExecConstants.ENABLE_V2_JSON_READER_KEY);
+    }
+  }
+
+  private void checkResults() throws Exception {
+    testBuilder()
+        .sqlQuery("SELECT id, name FROM table(dfs.`ndjson`(type => 'json', lineDelimited => true))")
+        .unOrdered()
+        .sqlBaselineQuery("SELECT id, name FROM dfs.`ndjson`")
+        .go();
+  }
+
+  private static List<String> readSplit(long start, long length) throws Exception {
+    FileSystem fs = FileSystem.getLocal(new Configuration());
+    List<String> result = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+        new LineSplitInputStream(fs.open(new Path(file.toURI())), start, start + length),
+        StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        result.add(line);
+      }
+    }
+    return result;
+  }
+}
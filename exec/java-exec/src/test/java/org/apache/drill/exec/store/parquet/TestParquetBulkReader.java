@@ -17,13 +17,19 @@
  */
 package org.apache.drill.exec.store.parquet;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 import org.apache.drill.categories.ParquetTest;
 import org.apache.drill.categories.UnlikelyTest;
 import org.apache.drill.test.ClusterFixture;
 import org.apache.drill.test.ClusterFixtureBuilder;
 import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.QueryBuilder;
 import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.exec.store.parquet.columnreaders.ParquetRecordReader;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -35,7 +41,8 @@ public class TestParquetBulkReader extends ClusterTest {
 
   @BeforeClass
   public static void setup() throws Exception {
-    ClusterFixtureBuilder builder = ClusterFixture.builder(dirTestWatcher);
+    ClusterFixtureBuilder builder = ClusterFixture.builder(dirTestWatcher)
+        .saveProfiles();
     startCluster(builder);
   }
 
@@ -140,6 +147,55 @@ public class TestParquetBulkReader extends ClusterTest {
     }
   }
 
+  /**
+   * Load dictionary encoded variable length data, with and without the flat
+   * dictionary. The region text values, of 4 to 11 KB, are too large for the
+   * bulk buffer and are read in place from the dictionary.
+   */
+  @Test
+  public void testDictionaryEncoded() throws Exception {
+    String select = "select case when mod(n_nationkey, 3) = 0 then null else r_name end as region, r_name, " +
+        "case when mod(n_nationkey, 4) = 0 then null else repeatstr(r_name, 1000) end as region_text, n_name " +
+        "from cp.`tpch/nation.parquet` n join cp.`tpch/region.parquet` r on n.n_regionkey = r.r_regionkey";
+    String query = "select region, r_name, n_name, length(region) as len, region_text " +
+        "from dfs.tmp.`dictionary_encoded`";
+    try {
+      alterSession();
+      client.alterSession(ExecConstants.PARQUET_WRITER_ENABLE_DICTIONARY_ENCODING, true);
+      run("create table dfs.tmp.`dictionary_encoded` as %s", select);
+
+      for (boolean flatDictionary : new boolean[] {true, false}) {
+        client.alterSession(ExecConstants.PARQUET_FLAT_READER_FLAT_DICTIONARY, flatDictionary);
+
+        testBuilder()
+          .sqlQuery(query)
+          .unOrdered()
+          .sqlBaselineQuery("select region, r_name, n_name, length(region) as len, region_text from (%s)", select)
+          .go();
+
+        QueryBuilder.QuerySummary summary = queryBuilder().sql(query).run();
+        long values = sumScanMetric(summary, ParquetRecordReader.Metric.NUM_FLAT_DICTIONARY_VALUES);
+        long largeValues = sumScanMetric(summary, ParquetRecordReader.Metric.NUM_FLAT_DICTIONARY_LARGE_VALUES);
+        assertEquals(flatDictionary, values > 0);
+        assertEquals(flatDictionary, largeValues > 0);
+        assertTrue(largeValues < values);
+      }
+    } finally {
+      client.resetSession(ExecConstants.PARQUET_WRITER_ENABLE_DICTIONARY_ENCODING);
+      client.resetSession(ExecConstants.PARQUET_FLAT_READER_FLAT_DICTIONARY);
+      resetSession();
+    }
+  }
+
+  private long sumScanMetric(QueryBuilder.QuerySummary summary, ParquetRecordReader.Metric metric) {
+    ProfileParser profile = client.parseProfile(summary.queryIdString());
+    long sum = 0;
+    for (ProfileParser.OperatorProfile scan : profile.getOpsOfType(ParquetRowGroupScan.OPERATOR_TYPE)) {
+      sum += scan.getMetric(metric.ordinal());
+    }
+    return sum;
+  }
+
   private void alterSession() {
     client.alterSession(ExecConstants.PARQUET_FLAT_READER_BULK, true);
     client.alterSession(PlannerSettings.PARQUET_ROWGROUP_FILTER_PUSHDOWN_PLANNING_KEY, false);
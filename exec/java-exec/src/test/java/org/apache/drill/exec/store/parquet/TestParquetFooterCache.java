@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import org.apache.drill.categories.ParquetTest;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.internal.hadoop.metadata.IndexReference;
+import org.apache.parquet.schema.MessageType;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(ParquetTest.class)
+public class TestParquetFooterCache extends ClusterTest {
+
+  private static File file;
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    file = dirTestWatcher.copyResourceToRoot(Paths.get("parquet", "alltypes_optional.parquet"),
+        Paths.get("footer_cache", "alltypes_optional.parquet"));
+    startCluster(ClusterFixture.builder(dirTestWatcher));
+  }
+
+  @Before
+  public void clearCache() {
+    ParquetFooterCache.getInstance().invalidateAll();
+  }
+
+  @Test
+  public void testFooterReadOncePerFile() throws Exception {
+    ParquetFooterCache footerCache = ParquetFooterCache.getInstance();
+    assertTrue(footerCache.isEnabled());
+    String sql = "SELECT * FROM dfs.`footer_cache`";
+
+    long misses = footerCache.getMissCount();
+    long hits = footerCache.getHitCount();
+    long count = queryBuilder().sql(sql).run().recordCount();
+    // Read while planning, then taken from the cache by the scan
+    assertEquals(misses + 1, footerCache.getMissCount());
+    assertTrue(footerCache.getHitCount() > hits);
+
+    misses = footerCache.getMissCount();
+    assertEquals(count, queryBuilder().sql(sql).run().recordCount());
+    assertEquals(misses, footerCache.getMissCount());
+  }
+
+  @Test
+  public void testChangedFileReadAgain() throws Exception {
+    ParquetFooterCache footerCache = ParquetFooterCache.getInstance();
+    String sql = "SELECT * FROM dfs.`footer_cache`";
+    queryBuilder().sql(sql).run();
+
+    // Make sure the time stamp changes, whatever its resolution
+    assertTrue(file.setLastModified(file.lastModified() + 2000));
+    long misses = footerCache.getMissCount();
+    queryBuilder().sql(sql).run();
+    assertEquals(misses + 1, footerCache.getMissCount());
+  }
+
+  @Test
+  public void testKeyedByFileStatus() throws Exception {
+    ParquetFooterCache footerCache = new ParquetFooterCache(1024 * 1024, 0);
+    ParquetMetadata footer = footer();
+    ParquetMetadata otherFooter = footer();
+    Path path = new Path("file:/tmp/a.parquet");
+
+    assertSame(footer, footerCache.get(status(path, 100, 1), false, () -> footer));
+    assertSame(footer, footerCache.get(status(path, 100, 1), false, () -> otherFooter));
+    assertSame(otherFooter, footerCache.get(status(path, 100, 2), false, () -> otherFooter));
+    assertSame(otherFooter, footerCache.get(status(path, 200, 1), false, () -> otherFooter));
+    assertSame(otherFooter, footerCache.get(status(path, 100, 1), true, () -> otherFooter));
+    assertEquals(1, footerCache.getHitCount());
+    assertEquals(4, footerCache.getMissCount());
+    assertEquals(4, footerCache.getEntryCount());
+  }
+
+  @Test
+  public void testPageIndexes() throws Exception {
+    ParquetFooterCache footerCache = new ParquetFooterCache(1024 * 1024, 0);
+    OffsetIndex offsetIndex = mock(OffsetIndex.class);
+    OffsetIndex otherOffsetIndex = mock(OffsetIndex.class);
+    ColumnIndex columnIndex = mock(ColumnIndex.class);
+    ColumnChunkMetaData chunk = mock(ColumnChunkMetaData.class);
+    when(chunk.getOffsetIndexReference()).thenReturn(new IndexReference(1000, 20));
+    when(chunk.getColumnIndexReference()).thenReturn(new IndexReference(900, 100));
+    ColumnChunkMetaData otherChunk = mock(ColumnChunkMetaData.class);
+    when(otherChunk.getOffsetIndexReference()).thenReturn(new IndexReference(1020, 20));
+    ColumnChunkMetaData chunkWithoutIndex = mock(ColumnChunkMetaData.class);
+    FileStatus status = status(new Path("file:/tmp/a.parquet"), 2000, 1);
+
+    assertSame(offsetIndex, footerCache.getOffsetIndex(status, chunk, reference -> offsetIndex));
+    assertSame(offsetIndex, footerCache.getOffsetIndex(status, chunk, reference -> otherOffsetIndex));
+    assertSame(otherOffsetIndex, footerCache.getOffsetIndex(status, otherChunk, reference -> otherOffsetIndex));
+    assertSame(columnIndex, footerCache.getColumnIndex(status, chunk, reference -> columnIndex));
+    // a rewritten file
+    assertSame(otherOffsetIndex,
+        footerCache.getOffsetIndex(status(status.getPath(), 2000, 2), chunk, reference -> otherOffsetIndex));
+    assertNull(footerCache.getOffsetIndex(status, chunkWithoutIndex, reference -> offsetIndex));
+    assertEquals(1, footerCache.getHitCount());
+    assertEquals(4, footerCache.getMissCount());
+    assertEquals(4, footerCache.getEntryCount());
+  }
+
+  @Test
+  public void testDisabledCache() throws Exception {
+    ParquetFooterCache footerCache = new ParquetFooterCache(0, 0);
+    assertFalse(footerCache.isEnabled());
+    ParquetMetadata footer = footer();
+    ParquetMetadata otherFooter = footer();
+    FileStatus status = status(new Path("file:/tmp/a.parquet"), 100, 1);
+
+    assertSame(footer, footerCache.get(status, false, () -> footer));
+    assertSame(otherFooter, footerCache.get(status, false, () -> otherFooter));
+    assertEquals(0, footerCache.getEntryCount());
+  }
+
+  private static FileStatus status(Path path, long length, long modificationTime) {
+    return new FileStatus(length, false, 1, 1024, modificationTime, path);
+  }
+
+  private static ParquetMetadata footer() {
+    MessageType schema = new MessageType("root");
+    return new ParquetMetadata(new FileMetaData(schema, Collections.emptyMap(), "test"),
+        Collections.emptyList());
+  }
+}
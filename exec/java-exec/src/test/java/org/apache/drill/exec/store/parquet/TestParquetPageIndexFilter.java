@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
+
+import org.apache.drill.categories.ParquetTest;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.store.parquet.columnreaders.ParquetRecordReader;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.QueryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(ParquetTest.class)
+public class TestParquetPageIndexFilter extends ClusterTest {
+
+  private static final int ROW_COUNT = 10_000;
+
+  private static final String[] FILTERS = {
+      "id >= 5000 AND id < 5010",
+      "id < 100",
+      "id > 9900",
+      "id BETWEEN 3000 AND 3100 OR id > 9990",
+      "name = 'name_5000'",
+      "id = -1"
+  };
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    File sourceDir = dirTestWatcher.makeTestTmpSubDir(Paths.get("page_index_source"));
+    try (PrintWriter out = new PrintWriter(new File(sourceDir, "data.json"))) {
+      for (int i = 0; i < ROW_COUNT; i++) {
+        out.println("{\"id\": " + i + ", \"name\": \"name_" + i + "\"}");
+      }
+    }
+    startCluster(ClusterFixture.builder(dirTestWatcher).saveProfiles());
+
+    // Small pages, so that the single row group of the table has many of them
+    client.alterSession(ExecConstants.PARQUET_PAGE_SIZE, 1024);
+    try {
+      run("CREATE TABLE dfs.tmp.page_index AS SELECT * FROM dfs.tmp.page_index_source ORDER BY id");
+    } finally {
+      client.resetSession(ExecConstants.PARQUET_PAGE_SIZE);
+    }
+  }
+
+  @Test
+  public void testPagesSkipped() throws Exception {
+    QueryBuilder.QuerySummary summary = queryBuilder()
+        .sql("SELECT id FROM dfs.tmp.page_index WHERE id >= 5000 AND id < 5010")
+        .run();
+    assertEquals(10, summary.recordCount());
+    assertTrue(skippedPages(summary) > 0);
+  }
+
+  @Test
+  public void testIndexesReadOnce() throws Exception {
+    String sql = "SELECT id FROM dfs.tmp.page_index WHERE id > 9900";
+    queryBuilder().sql(sql).run();
+
+    // The footer and the indexes are taken from the cache
+    ParquetFooterCache footerCache = ParquetFooterCache.getInstance();
+    long misses = footerCache.getMissCount();
+    long hits = footerCache.getHitCount();
+    QueryBuilder.QuerySummary summary = queryBuilder().sql(sql).run();
+    assertEquals(99, summary.recordCount());
+    assertTrue(skippedPages(summary) > 0);
+    assertEquals(misses, footerCache.getMissCount());
+    assertTrue(footerCache.getHitCount() > hits);
+  }
+
+  @Test
+  public void testNoPagesSkippedWhenDisabled() throws Exception {
+    client.alterSession(ExecConstants.PARQUET_PAGEREADER_PAGE_INDEX_FILTER, false);
+    try {
+      QueryBuilder.QuerySummary summary = queryBuilder()
+          .sql("SELECT id FROM dfs.tmp.page_index WHERE id >= 5000 AND id < 5010")
+          .run();
+      assertEquals(10, summary.recordCount());
+      assertEquals(0, skippedPages(summary));
+    } finally {
+      client.resetSession(ExecConstants.PARQUET_PAGEREADER_PAGE_INDEX_FILTER);
+    }
+  }
+
+  @Test
+  public void testResultsWithAsyncPageReader() throws Exception {
+    checkResults();
+  }
+
+  @Test
+  public void testResultsWithSyncPageReader() throws Exception {
+    client.alterSession(ExecConstants.PARQUET_PAGEREADER_ASYNC, false);
+    try {
+      checkResults();
+    } finally {
+      client.resetSession(ExecConstants.PARQUET_PAGEREADER_ASYNC);
+    }
+  }
+
+  /**
+   * Checks that the queries return the same rows whether pages are skipped or not.
+   */
+  private void checkResults() throws Exception {
+    for (String filter : FILTERS) {
+      for (String columns : new String[] {"id", "id, name", "*"}) {
+        String sql = String.format("SELECT %s FROM dfs.tmp.page_index WHERE %s", columns, filter);
+        String expectedSql = String.format("SELECT %s FROM dfs.tmp.page_index_source WHERE %s", columns, filter);
+        testBuilder()
+            .sqlQuery(sql)
+            .unOrdered()
+            .sqlBaselineQuery(expectedSql)
+            .go();
+      }
+    }
+  }
+
+  private long skippedPages(QueryBuilder.QuerySummary summary) throws Exception {
+    ProfileParser profile = client.parseProfile(summary.queryIdString());
+    long skipped = 0;
+    for (ProfileParser.OperatorProfile scan : profile.getOpsOfType(ParquetRowGroupScan.OPERATOR_TYPE)) {
+      skipped += scan.getMetric(ParquetRecordReader.Metric.NUM_DATA_PAGES_SKIPPED.ordinal());
+    }
+    return skipped;
+  }
+}
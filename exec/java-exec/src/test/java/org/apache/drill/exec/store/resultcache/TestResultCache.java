@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.resultcache;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
+
+import org.apache.drill.categories.SqlTest;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.physical.rowSet.RowSet;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.rowSet.RowSetUtilities;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(SqlTest.class)
+public class TestResultCache extends ClusterTest {
+
+  private static File tableDir;
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    tableDir = dirTestWatcher.makeTestTmpSubDir(Paths.get("result_cache_table"));
+    writeFile("a.json", 1, 10);
+    startCluster(ClusterFixture.builder(dirTestWatcher)
+        .configProperty(ExecConstants.RESULT_CACHE_DIRECTORY,
+            new File(dirTestWatcher.getTmpDir(), "result_cache").getPath())
+        .sessionOption(ExecConstants.RESULT_CACHE_ENABLED, true));
+  }
+
+  @Before
+  public void clearCache() {
+    resultCache().invalidateAll();
+  }
+
+  private static ResultCache resultCache() {
+    return cluster.drillbit().getContext().getResultCache();
+  }
+
+  private static void writeFile(String name, int from, int to) throws Exception {
+    try (PrintWriter out = new PrintWriter(new File(tableDir, name))) {
+      for (int i = from; i <= to; i++) {
+        out.println("{\"id\": " + i + "}");
+      }
+    }
+  }
+
+  @Test
+  public void testRepeatedQueryReturnsCachedResults() throws Exception {
+    String sql = "SELECT id FROM dfs.tmp.result_cache_table WHERE id > 5 ORDER BY id";
+    RowSet expected = queryBuilder().sql(sql).rowSet();
+    assertEquals(1, resultCache().getEntryCount());
+
+    long hits = resultCache().getHitCount();
+    RowSet actual = queryBuilder().sql(sql).rowSet();
+    assertEquals(hits + 1, resultCache().getHitCount());
+    RowSetUtilities.verify(expected, actual);
+  }
+
+  @Test
+  public void testEmptyResults() throws Exception {
+    String sql = "SELECT id FROM dfs.tmp.result_cache_table WHERE id > 100";
+    assertEquals(0, queryBuilder().sql(sql).run().recordCount());
+    long hits = resultCache().getHitCount();
+    assertEquals(0, queryBuilder().sql(sql).run().recordCount());
+    assertEquals(hits + 1, resultCache().getHitCount());
+  }
+
+  @Test
+  public void testChangedFilesInvalidateResults() throws Exception {
+    String sql = "SELECT count(*) FROM dfs.tmp.result_cache_table";
+    long count = queryBuilder().sql(sql).singletonLong();
+    try {
+      writeFile("b.json", 11, 15);
+      // Make sure the directory time stamp changes, whatever its resolution
+      tableDir.setLastModified(tableDir.lastModified() + 2000);
+
+      long hits = resultCache().getHitCount();
+      assertEquals(count + 5, queryBuilder().sql(sql).singletonLong());
+      assertEquals(hits, resultCache().getHitCount());
+    } finally {
+      new File(tableDir, "b.json").delete();
+    }
+  }
+
+  @Test
+  public void testNonFileScanNotCached() throws Exception {
+    queryBuilder().sql("SELECT * FROM sys.version").run();
+    queryBuilder().sql("SELECT now() FROM dfs.tmp.result_cache_table").run();
+    assertEquals(0, resultCache().getEntryCount());
+  }
+}
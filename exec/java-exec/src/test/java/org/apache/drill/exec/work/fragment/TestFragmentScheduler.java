@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.work.fragment;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.proto.ExecProtos.FragmentHandle;
+import org.apache.drill.exec.proto.UserBitShared.QueryId;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Runs multi-fragment queries with the fragment scheduler on a single thread,
+ * so that every exchange needs fragments to yield, or blocked fragments to be
+ * compensated, to make progress.
+ */
+public class TestFragmentScheduler extends ClusterTest {
+
+  private static final String JOIN_QUERY =
+      "SELECT r.r_name, COUNT(*) AS cnt FROM cp.`tpch/nation.parquet` n " +
+      "JOIN cp.`tpch/region.parquet` r ON n.n_regionkey = r.r_regionkey GROUP BY r.r_name";
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    startCluster(ClusterFixture.builder(dirTestWatcher)
+        .configProperty(ExecConstants.FRAGMENT_SCHEDULER_ENABLED, true)
+        .configProperty(ExecConstants.FRAGMENT_SCHEDULER_THREADS, 1)
+        .configProperty(ExecConstants.FRAGMENT_SCHEDULER_QUANTUM_MS, 5)
+        .sessionOption(ExecConstants.SLICE_TARGET, 1));
+  }
+
+  @Test
+  public void testAggregate() throws Exception {
+    testBuilder()
+        .sqlQuery("SELECT n_regionkey, COUNT(*) AS cnt FROM cp.`tpch/nation.parquet` GROUP BY n_regionkey")
+        .unOrdered()
+        .baselineColumns("n_regionkey", "cnt")
+        .baselineValues(0, 5L)
+        .baselineValues(1, 5L)
+        .baselineValues(2, 5L)
+        .baselineValues(3, 5L)
+        .baselineValues(4, 5L)
+        .go();
+  }
+
+  @Test
+  public void testJoin() throws Exception {
+    checkJoin();
+  }
+
+  @Test
+  public void testConcurrentQueries() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Long>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(executor.submit(() ->
+            client.queryBuilder().sql("SELECT COUNT(*) FROM (%s)", JOIN_QUERY).singletonLong()));
+      }
+      for (Future<Long> result : results) {
+        assertEquals(5L, (long) result.get(5, TimeUnit.MINUTES));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testQueryWeight() throws Exception {
+    client.alterSession(ExecConstants.FRAGMENT_SCHEDULER_QUERY_WEIGHT_KEY, 10);
+    try {
+      checkJoin();
+    } finally {
+      client.resetSession(ExecConstants.FRAGMENT_SCHEDULER_QUERY_WEIGHT_KEY);
+    }
+  }
+
+  @Test
+  public void testSubmitAfterClose() {
+    FragmentScheduler scheduler = new FragmentScheduler(1, 5);
+    scheduler.close();
+
+    FragmentExecutor executor = mockExecutor();
+    Runnable cleanup = mock(Runnable.class);
+    scheduler.submit(executor, cleanup);
+
+    verify(executor).cancel();
+    verify(cleanup).run();
+  }
+
+  @Test
+  public void testCloseWithQueuedFragment() {
+    // Without threads, the fragment stays queued until the scheduler is closed
+    FragmentScheduler scheduler = new FragmentScheduler(0, 5);
+    FragmentExecutor executor = mockExecutor();
+    Runnable cleanup = mock(Runnable.class);
+    scheduler.submit(executor, cleanup);
+    scheduler.close();
+
+    verify(executor).cancel();
+    verify(cleanup).run();
+  }
+
+  private static FragmentExecutor mockExecutor() {
+    FragmentExecutor executor = mock(FragmentExecutor.class, RETURNS_DEEP_STUBS);
+    when(executor.getContext().getHandle()).thenReturn(FragmentHandle.newBuilder()
+        .setQueryId(QueryId.newBuilder().setPart1(1).setPart2(2))
+        .build());
+    when(executor.getContext().getOptions().getLong(ExecConstants.FRAGMENT_SCHEDULER_QUERY_WEIGHT_KEY)).thenReturn(1L);
+    when(executor.getContext().getBuffers()).thenReturn(null);
+    return executor;
+  }
+
+  private void checkJoin() throws Exception {
+    testBuilder()
+        .sqlQuery(JOIN_QUERY)
+        .unOrdered()
+        .baselineColumns("r_name", "cnt")
+        .baselineValues("AFRICA", 5L)
+        .baselineValues("AMERICA", 5L)
+        .baselineValues("ASIA", 5L)
+        .baselineValues("EUROPE", 5L)
+        .baselineValues("MIDDLE EAST", 5L)
+        .go();
+  }
+}
@@ -45,7 +45,9 @@ import org.apache.drill.exec.exception.OutOfMemoryException;
 import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
 import org.apache.drill.exec.expr.holders.ValueHolder;
 import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.MemoryArbiter;
 import org.apache.drill.exec.memory.RootAllocatorFactory;
+import org.apache.drill.exec.metastore.store.MetastoreMetadataCache;
 import org.apache.drill.exec.ops.BaseFragmentContext;
 import org.apache.drill.exec.ops.BaseOperatorContext;
 import org.apache.drill.exec.ops.BufferManager;
@@ -177,6 +179,7 @@ public class OperatorFixture extends BaseFixture implements AutoCloseable {
     private final CodeCompiler compiler;
     private final BufferManagerImpl bufferManager;
     private final BufferAllocator allocator;
+    private final MemoryArbiter memoryArbiter;
     private final ExecutorService scanExecutorService;
     private final ExecutorService scanDecodeExecutorService;
     private final List<OperatorContext> contexts = Lists.newLinkedList();
@@ -199,6 +202,7 @@ public class OperatorFixture extends BaseFixture implements AutoCloseable {
       this.controls = new ExecutionControls(options);
       compiler = new CodeCompiler(config, options);
       bufferManager = new BufferManagerImpl(allocator);
+      memoryArbiter = new MemoryArbiter(config, allocator);
     }
 
     private static FunctionImplementationRegistry newFunctionRegistry(
@@ -361,11 +365,21 @@ public class OperatorFixture extends BaseFixture implements AutoCloseable {
       return null;
     }
 
+    @Override
+    public MetastoreMetadataCache getMetastoreMetadataCache() {
+      return null;
+    }
+
     @Override
     public AliasRegistryProvider getAliasRegistryProvider() {
       return null;
     }
 
+    @Override
+    public MemoryArbiter getMemoryArbiter() {
+      return memoryArbiter;
+    }
+
     @Override
     public void requestMemory(RecordBatch requestor) {
       // Does nothing in a mock fragment.
@@ -21,6 +21,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.calcite.rel.RelFieldCollation;
 import org.apache.drill.common.util.JacksonUtils;
+import org.apache.drill.exec.cache.TableCache;
 import org.apache.drill.exec.coord.ClusterCoordinator;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.ops.AccountingDataTunnel;
@@ -31,6 +32,7 @@ import org.apache.drill.exec.ops.FragmentStats;
 import org.apache.drill.exec.physical.base.PhysicalVisitor;
 import org.apache.drill.exec.planner.PhysicalPlanReader;
 import org.apache.drill.exec.planner.logical.DrillLogicalTestUtils;
+import org.apache.drill.exec.planner.sql.PlanCache;
 import org.apache.drill.exec.proto.CoordinationProtos;
 import org.apache.drill.exec.rpc.control.Controller;
 import org.apache.drill.exec.rpc.control.WorkEventBus;
@@ -38,6 +40,7 @@ import org.apache.drill.exec.rpc.user.UserServer;
 import org.apache.drill.exec.server.QueryProfileStoreContext;
 import org.apache.drill.exec.store.dfs.DrillFileSystem;
 import org.apache.drill.exec.store.easy.json.JSONRecordReader;
+import org.apache.drill.exec.store.resultcache.ResultCache;
 import org.apache.drill.exec.work.batch.IncomingBuffers;
 import org.apache.drill.exec.work.filter.RuntimeFilterWritable;
 import org.apache.drill.common.config.DrillConfig;
@@ -247,6 +250,21 @@ public class PhysicalOpUnitTestBase extends ExecTest {
       return null;
     }
 
+    @Override
+    public PlanCache getPlanCache() {
+      return null;
+    }
+
+    @Override
+    public ResultCache getResultCache() {
+      return null;
+    }
+
+    @Override
+    public TableCache getTableCache() {
+      return null;
+    }
+
     @Override
     public WorkEventBus getWorkEventBus() {
       return null;
@@ -18,6 +18,7 @@
 package org.apache.drill.exec.memory;
 
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -80,6 +81,18 @@ public class Accountant implements AutoCloseable {
       ? ! AssertionUtil.isAssertionsEnabled()
       : Boolean.parseBoolean(System.getProperty(ALLOW_LENIENT_ALLOCATION));
 
+  // Chunked reservation mode: allocators with a chunk size reserve memory
+  // from their parent in multiples of the chunk size, and serve smaller
+  // allocations from the memory reserved, without updating the accounting
+  // of their ancestors. Up to one chunk of memory released is kept for
+  // later allocations, the rest is returned to the parent, as is all of it
+  // on close. The memory reserved but not allocated yet counts against the
+  // limits of the ancestors.
+
+  private static final LongAdder LOCAL_ALLOCATIONS = new LongAdder();
+  private static final LongAdder PARENT_RESERVATIONS = new LongAdder();
+  private static final LongAdder RESERVED_FROM_PARENTS = new LongAdder();
+
   // Whether leniency has been requested, and granted for this allocator.
 
   private boolean lenient = false;
@@ -95,6 +108,18 @@ public class Accountant implements AutoCloseable {
    */
   protected final long reservation;
 
+  /**
+   * Size of the chunks of memory reserved from the parent Accountant, 0 if memory is reserved from the parent for each
+   * allocation.
+   */
+  private final long chunkSize;
+
+  /**
+   * In chunked reservation mode, the memory obtained from the parent beyond the initial reservation. Updated while
+   * holding the lock of this Accountant.
+   */
+  private volatile long reservedFromParent;
+
   private final AtomicLong peakAllocation = new AtomicLong();
 
   /**
@@ -109,14 +134,20 @@ public class Accountant implements AutoCloseable {
   private final AtomicLong locallyHeldMemory = new AtomicLong();
 
   public Accountant(Accountant parent, long reservation, long maxAllocation) {
+    this(parent, reservation, maxAllocation, 0);
+  }
+
+  public Accountant(Accountant parent, long reservation, long maxAllocation, long chunkSize) {
     Preconditions.checkArgument(reservation >= 0, "The initial reservation size must be non-negative.");
     Preconditions.checkArgument(maxAllocation >= 0, "The maximum allocation limit must be non-negative.");
     Preconditions.checkArgument(reservation <= maxAllocation,
         "The initial reservation size must be <= the maximum allocation.");
     Preconditions.checkArgument(reservation == 0 || parent != null, "The root accountant can't reserve memory.");
+    Preconditions.checkArgument(chunkSize >= 0, "The reservation chunk size must be non-negative.");
 
     this.parent = parent;
     this.reservation = reservation;
+    this.chunkSize = parent == null ? 0 : chunkSize;
     this.allocationLimit.set(maxAllocation);
 
     if (reservation != 0) {
@@ -168,7 +199,8 @@ public class Accountant implements AutoCloseable {
   AllocationOutcome allocateBytes(long size) {
     final AllocationOutcome outcome = allocate(size, true, false);
     if (!outcome.isOk()) {
-      releaseBytes(size);
+      // don't keep the memory reserved from the parent for a failed allocation
+      release(size, 0);
     }
     return outcome;
   }
@@ -241,7 +273,9 @@ public class Accountant implements AutoCloseable {
     final boolean updatePeak = forceAllocation || (incomingUpdatePeak && !beyondLimit);
 
     AllocationOutcome parentOutcome = AllocationOutcome.SUCCESS;
-    if (beyondReservation > 0 && parent != null) {
+    if (chunkSize > 0) {
+      parentOutcome = reserveFromParent(updatePeak, forceAllocation);
+    } else if (beyondReservation > 0 && parent != null) {
       // we need to get memory from our parent.
       final long parentRequest = Math.min(beyondReservation, size);
       parentOutcome = parent.allocate(parentRequest, updatePeak, forceAllocation);
@@ -257,12 +291,60 @@ public class Accountant implements AutoCloseable {
     return finalOutcome;
   }
 
+  /**
+   * In chunked reservation mode, reserves from the parent the memory allocated beyond the initial reservation and the
+   * memory already reserved, rounded up to the chunk size. If the parent can't spare the rounded up memory, only the
+   * memory allocated is reserved from it, as without chunks.
+   */
+  private synchronized AllocationOutcome reserveFromParent(boolean updatePeak, boolean forceAllocation) {
+    final long needed = locallyHeldMemory.get() - reservation - reservedFromParent;
+    if (needed <= 0) {
+      LOCAL_ALLOCATIONS.increment();
+      return AllocationOutcome.SUCCESS;
+    }
+    PARENT_RESERVATIONS.increment();
+    final long chunked = (needed + chunkSize - 1) / chunkSize * chunkSize;
+    AllocationOutcome outcome = parent.allocate(chunked, updatePeak, false);
+    if (outcome.isOk()) {
+      reservedFromParent += chunked;
+      RESERVED_FROM_PARENTS.add(chunked);
+      return outcome;
+    }
+    parent.releaseBytes(chunked);
+    outcome = parent.allocate(needed, updatePeak, forceAllocation);
+    reservedFromParent += needed;
+    RESERVED_FROM_PARENTS.add(needed);
+    return outcome;
+  }
+
+  /**
+   * In chunked reservation mode, returns to the parent the memory reserved from it, but not allocated, beyond the
+   * given slack.
+   */
+  private synchronized void returnToParent(long maxSlack) {
+    final long slack = reservedFromParent - Math.max(0, locallyHeldMemory.get() - reservation);
+    if (slack > maxSlack) {
+      reservedFromParent -= slack - maxSlack;
+      RESERVED_FROM_PARENTS.add(maxSlack - slack);
+      parent.releaseBytes(slack - maxSlack);
+    }
+  }
+
   public void releaseBytes(long size) {
+    release(size, chunkSize);
+  }
+
+  private void release(long size, long maxSlack) {
     // reduce local memory. all memory released above reservation should be released up the tree.
     final long newSize = locallyHeldMemory.addAndGet(-size);
 
     Preconditions.checkArgument(newSize >= 0, "Accounted size went negative.");
 
+    if (chunkSize > 0) {
+      returnToParent(maxSlack);
+      return;
+    }
+
     final long originalSize = newSize + size;
     if(originalSize > reservation && parent != null){
       // we deallocated memory that we should release to our parent.
@@ -294,6 +376,9 @@ public class Accountant implements AutoCloseable {
   public void close() {
     // return memory reservation to parent allocator.
     if (parent != null) {
+      if (chunkSize > 0) {
+        returnToParent(0);
+      }
       parent.releaseBytes(reservation);
     }
   }
@@ -317,6 +402,40 @@ public class Accountant implements AutoCloseable {
     return locallyHeldMemory.get();
   }
 
+  /**
+   * Return the memory this Accountant holds from its parent: the initial reservation, plus the memory allocated beyond
+   * it, or, in chunked reservation mode, reserved beyond it.
+   *
+   * @return Memory held from the parent in bytes.
+   */
+  public long getReservedMemory() {
+    if (chunkSize > 0) {
+      return reservation + reservedFromParent;
+    }
+    return Math.max(getAllocatedMemory(), reservation);
+  }
+
+  /**
+   * @return Number of allocations served from memory reserved in chunks, without reserving memory from the parent.
+   */
+  public static long getLocalAllocationCount() {
+    return LOCAL_ALLOCATIONS.sum();
+  }
+
+  /**
+   * @return Number of chunked reservations of memory from a parent.
+   */
+  public static long getParentReservationCount() {
+    return PARENT_RESERVATIONS.sum();
+  }
+
+  /**
+   * @return Memory reserved in chunks from parents, either allocated or kept for later allocations, in bytes.
+   */
+  public static long getChunkReservedMemory() {
+    return RESERVED_FROM_PARENTS.sum();
+  }
+
   /**
    * The peak memory allocated by this Accountant.
    *
@@ -72,6 +72,9 @@ public class AllocationManager {
   private final AutoCloseableLock writeLock = new AutoCloseableLock(lock.writeLock());
   private final long amCreationTime = System.nanoTime();
 
+  // site of the allocation if it was sampled
+  private final AllocationSampler.Site sampledSite;
+
   private volatile BufferLedger owningLedger;
   private volatile long amDestructionTime = 0;
 
@@ -86,6 +89,7 @@ public class AllocationManager {
     // reference count at that point
     this.owningLedger = associate(accountingAllocator, false);
     this.size = underlying.capacity();
+    this.sampledSite = root.getAllocationSampler().sample(accountingAllocator, size);
   }
 
   /**
@@ -172,6 +176,9 @@ public class AllocationManager {
           // no one else owns, lets release.
           oldLedger.allocator.releaseBytes(size);
           underlying.release();
+          if (sampledSite != null) {
+            sampledSite.released(size);
+          }
           amDestructionTime = System.nanoTime();
           owningLedger = null;
         } else {
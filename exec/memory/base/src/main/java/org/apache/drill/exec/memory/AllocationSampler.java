@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.memory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Samples the sites allocating direct memory, to find the code holding the
+ * most memory on a live Drillbit, at a much lower cost than the debug
+ * allocator.
+ * <p>
+ * One in {@code rate} buffer allocations, picked at random, is sampled: its
+ * stack, trimmed of the allocator frames and limited to {@code stackDepth}
+ * frames, and the operator owning the allocator identify the site of the
+ * allocation. The sampler sums the memory allocated by the samples of each
+ * site, and the memory they still hold, until their buffer is released.
+ * Multiplied by the rate, these sums estimate the memory allocated and held
+ * by each site.
+ * <p>
+ * At most {@code maxSites} sites are tracked. When the table is full, the
+ * sites which do not hold memory anymore are forgotten to make room for new
+ * ones, at most once a second so that a table full of sites holding memory
+ * is not scanned on each sample; the samples of new sites are dropped
+ * meanwhile.
+ * <p>
+ * The classes generated for each query are numbered: their number is removed
+ * from the stacks, so that the same code run by different queries is a
+ * single site.
+ */
+public class AllocationSampler {
+
+  public static final AllocationSampler DISABLED = new AllocationSampler(0, 0, 0);
+
+  private static final String OPERATOR_ALLOCATOR_PREFIX = "op:";
+  private static final long EVICTION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  // classes of the frames trimmed from the top of the stacks
+  private static final Set<String> ALLOCATOR_CLASSES = ImmutableSet.of(
+      AllocationSampler.class.getName(),
+      AllocationManager.class.getName(),
+      BaseAllocator.class.getName(),
+      DrillByteBufAllocator.class.getName());
+  private static final String NETTY_BUFFER_PACKAGE = "io.netty.buffer.";
+  // see CodeGenerator
+  private static final String GENERATED_PACKAGE = "org.apache.drill.exec.test.generated.";
+  private static final Pattern GENERATED_CLASS_NUMBER = Pattern.compile("Gen\\d+");
+  private static final Pattern LAMBDA_CLASS_SUFFIX = Pattern.compile("\\$\\$Lambda[$/].*");
+
+  private final int rate;
+  private final int stackDepth;
+  private final int maxSites;
+  private final long evictionIntervalNanos;
+  private final ConcurrentMap<String, Site> sites = new ConcurrentHashMap<>();
+  private final LongAdder droppedSamples = new LongAdder();
+  private final AtomicLong nextEvictionNanos = new AtomicLong(System.nanoTime());
+
+  /**
+   * @param rate one in {@code rate} allocations is sampled, 0 disables sampling
+   * @param stackDepth number of stack frames identifying a site
+   * @param maxSites maximum number of sites tracked
+   */
+  public AllocationSampler(int rate, int stackDepth, int maxSites) {
+    this(rate, stackDepth, maxSites, EVICTION_INTERVAL_NANOS);
+  }
+
+  @VisibleForTesting
+  AllocationSampler(int rate, int stackDepth, int maxSites, long evictionIntervalNanos) {
+    Preconditions.checkArgument(rate >= 0, "The sampling rate must be non-negative.");
+    this.rate = rate;
+    this.stackDepth = stackDepth;
+    this.maxSites = maxSites;
+    this.evictionIntervalNanos = evictionIntervalNanos;
+  }
+
+  public boolean isEnabled() {
+    return rate > 0;
+  }
+
+  public int getRate() {
+    return rate;
+  }
+
+  public long getDroppedSampleCount() {
+    return droppedSamples.sum();
+  }
+
+  /**
+   * Decides whether to sample an allocation, and records it if so.
+   *
+   * @param allocator allocator accounting for the allocation
+   * @param size size of the buffer allocated
+   * @return the site of the allocation if it was sampled, null otherwise
+   */
+  Site sample(BaseAllocator allocator, int size) {
+    if (rate == 0 || ThreadLocalRandom.current().nextInt(rate) != 0) {
+      return null;
+    }
+    String operator = operatorOf(allocator);
+    String stack = trimmedStack();
+    String key = operator + '\n' + stack;
+    if (sites.size() >= maxSites && !sites.containsKey(key) && !evictIdleSites()) {
+      droppedSamples.increment();
+      return null;
+    }
+    String allocatorPath = pathOf(allocator);
+    // Recorded while holding the entry of the site, so that the site cannot
+    // be evicted before it holds the sample
+    return sites.compute(key, (k, site) -> {
+      Site current = site == null ? new Site(operator, stack) : site;
+      current.allocated(allocatorPath, size);
+      return current;
+    });
+  }
+
+  /**
+   * Returns the sites holding the most memory, then allocating the most.
+   *
+   * @param count maximum number of sites returned
+   * @return the top sites, the site holding the most memory first
+   */
+  public List<Site> getTopSites(int count) {
+    List<Site> topSites = new ArrayList<>(sites.values());
+    topSites.sort(Comparator.comparingLong(Site::getHeldBytes)
+        .thenComparingLong(Site::getAllocatedBytes)
+        .reversed());
+    return topSites.size() > count ? new ArrayList<>(topSites.subList(0, count)) : topSites;
+  }
+
+  /**
+   * Forgets the sites which do not hold memory anymore, unless they were
+   * looked for less than an eviction interval ago.
+   *
+   * @return whether there is room left for a new site
+   */
+  private boolean evictIdleSites() {
+    long now = System.nanoTime();
+    long next = nextEvictionNanos.get();
+    if (now - next < 0 || !nextEvictionNanos.compareAndSet(next, now + evictionIntervalNanos)) {
+      return false;
+    }
+    for (String key : sites.keySet()) {
+      // Checked and removed while holding the entry, like samples are recorded
+      sites.computeIfPresent(key, (k, site) -> site.getHeldBytes() == 0 ? null : site);
+    }
+    return sites.size() < maxSites;
+  }
+
+  /**
+   * Operator allocators are named {@code op:<fragment>:<operator id>:<operator>}.
+   * Other allocators are their own operator.
+   */
+  private static String operatorOf(BaseAllocator allocator) {
+    for (BaseAllocator current = allocator; current != null; current = current.getParentAllocator()) {
+      if (current.name.startsWith(OPERATOR_ALLOCATOR_PREFIX)) {
+        return current.name.substring(current.name.lastIndexOf(':') + 1);
+      }
+    }
+    return allocator.name;
+  }
+
+  private static String pathOf(BaseAllocator allocator) {
+    StringBuilder path = new StringBuilder(allocator.name);
+    for (BaseAllocator parent = allocator.getParentAllocator(); parent != null; parent = parent.getParentAllocator()) {
+      path.insert(0, '/').insert(0, parent.name);
+    }
+    return path.toString();
+  }
+
+  private String trimmedStack() {
+    StringBuilder stack = new StringBuilder();
+    int frames = 0;
+    for (StackTraceElement element : new Throwable().getStackTrace()) {
+      String className = element.getClassName();
+      if (frames == 0 && (ALLOCATOR_CLASSES.contains(className) || className.startsWith(NETTY_BUFFER_PACKAGE))) {
+        continue;
+      }
+      if (frames == stackDepth) {
+        break;
+      }
+      if (frames > 0) {
+        stack.append('\n');
+      }
+      stack.append(normalize(className)).append('.').append(element.getMethodName())
+          .append(':').append(element.getLineNumber());
+      frames++;
+    }
+    return stack.toString();
+  }
+
+  /**
+   * Removes the parts of the class names which differ between the classes
+   * generated for the same code.
+   */
+  static String normalize(String className) {
+    if (className.startsWith(GENERATED_PACKAGE)) {
+      className = GENERATED_CLASS_NUMBER.matcher(className).replaceAll("Gen");
+    }
+    if (className.contains("$$Lambda")) {
+      className = LAMBDA_CLASS_SUFFIX.matcher(className).replaceAll("\\$\\$Lambda");
+    }
+    return className;
+  }
+
+  /**
+   * Memory allocated by the samples of a site.
+   */
+  public class Site {
+    private final String operator;
+    private final String stack;
+    private volatile String allocatorPath;
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder heldBytes = new LongAdder();
+
+    private Site(String operator, String stack) {
+      this.operator = operator;
+      this.stack = stack;
+    }
+
+    private void allocated(String allocatorPath, int size) {
+      this.allocatorPath = allocatorPath;
+      samples.increment();
+      allocatedBytes.add(size);
+      heldBytes.add(size);
+    }
+
+    void released(int size) {
+      heldBytes.add(-size);
+    }
+
+    public String getOperator() {
+      return operator;
+    }
+
+    /**
+     * @return path of the allocator of the last sample, from the root allocator
+     */
+    public String getAllocatorPath() {
+      return allocatorPath;
+    }
+
+    public String getStack() {
+      return stack;
+    }
+
+    public long getSampleCount() {
+      return samples.sum();
+    }
+
+    /**
+     * @return estimated memory allocated by the site
+     */
+    public long getAllocatedBytes() {
+      return allocatedBytes.sum() * rate;
+    }
+
+    /**
+     * @return estimated memory allocated by the site and not released yet
+     */
+    public long getHeldBytes() {
+      return heldBytes.sum() * rate;
+    }
+  }
+}
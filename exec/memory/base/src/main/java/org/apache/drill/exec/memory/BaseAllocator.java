@@ -92,7 +92,8 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
       final String name,
       final long initReservation,
       final long maxAllocation) throws OutOfMemoryException {
-    super(parentAllocator, initReservation, maxAllocation);
+    super(parentAllocator, initReservation, maxAllocation,
+        parentAllocator == null ? 0 : parentAllocator.root.getReservationChunkSize());
 
     if (parentAllocator != null) {
       this.root = parentAllocator.root;
@@ -136,6 +137,11 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
   @Override
   public String getName() { return name; }
 
+  BaseAllocator getParentAllocator() { return parentAllocator; }
+
+  @Override
+  public AllocationSampler getAllocationSampler() { return root.getAllocationSampler(); }
+
   @Override
   public DrillBuf getEmpty() {
     assertOpen();
@@ -635,7 +641,7 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
        */
       long childTotal = 0;
       for (final BaseAllocator childAllocator : childSet) {
-        childTotal += Math.max(childAllocator.getAllocatedMemory(), childAllocator.reservation);
+        childTotal += childAllocator.getReservedMemory();
       }
       if (childTotal > getAllocatedMemory()) {
         historicalLog.logHistory(logger);
@@ -148,6 +148,12 @@ public interface BufferAllocator extends AutoCloseable {
    */
   public String getName();
 
+  /**
+   * Return the sampler of the sites allocating memory from the allocators sharing the root of this allocator. The
+   * sampler is disabled unless configured.
+   */
+  public AllocationSampler getAllocationSampler();
+
   /**
    * Return whether or not this allocator (or one if its parents) is over its limits. In the case that an allocator is
    * over its limit, all consumers of that allocator should aggressively try to addrss the overlimit situation.
@@ -27,8 +27,23 @@ import org.apache.drill.exec.metrics.DrillMetrics;
  */
 public class RootAllocator extends BaseAllocator {
 
+  /**
+   * Size of the chunks in which descendant allocators reserve memory from their
+   * parent, 0 to reserve memory for each allocation.
+   */
+  private final long reservationChunkSize;
+
+  private final AllocationSampler allocationSampler;
+
   public RootAllocator(final long limit) {
+    this(limit, 0, AllocationSampler.DISABLED);
+  }
+
+  public RootAllocator(final long limit, final long reservationChunkSize,
+      final AllocationSampler allocationSampler) {
     super(null, "ROOT", 0, limit);
+    this.reservationChunkSize = reservationChunkSize;
+    this.allocationSampler = allocationSampler;
     DrillMetrics.register("drill.allocator.root.used", new Gauge<Long>() {
       @Override
       public Long getValue() {
@@ -43,6 +58,15 @@ public class RootAllocator extends BaseAllocator {
     });
   }
 
+  public long getReservationChunkSize() {
+    return reservationChunkSize;
+  }
+
+  @Override
+  public AllocationSampler getAllocationSampler() {
+    return allocationSampler;
+  }
+
   /**
    * Verify the accounting state of the allocation system.
    */
@@ -76,6 +76,75 @@ public class TestAccountant extends BaseTest {
     assertEquals(0, parent.getAllocatedMemory());
   }
 
+  @Test
+  public void chunked() {
+    final Accountant parent = new Accountant(null, 0, 100);
+    final Accountant child = new Accountant(parent, 0, Long.MAX_VALUE, 16);
+
+    // the first allocation reserves a chunk, the next one is served from it
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(4));
+    assertEquals(16, parent.getAllocatedMemory());
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(8));
+    assertEquals(12, child.getAllocatedMemory());
+    assertEquals(16, parent.getAllocatedMemory());
+
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(10));
+    assertEquals(32, parent.getAllocatedMemory());
+    assertEquals(32, child.getReservedMemory());
+
+    // up to a chunk of memory released is kept
+    child.releaseBytes(10);
+    assertEquals(28, parent.getAllocatedMemory());
+    child.releaseBytes(12);
+    assertEquals(0, child.getAllocatedMemory());
+    assertEquals(16, parent.getAllocatedMemory());
+
+    // a failed allocation keeps no memory of the parent
+    assertEquals(AllocationOutcome.FAILED_PARENT, child.allocateBytes(200));
+    assertEquals(0, child.getAllocatedMemory());
+    assertEquals(0, parent.getAllocatedMemory());
+
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(1));
+    child.releaseBytes(1);
+    child.close();
+    assertEquals(0, parent.getAllocatedMemory());
+  }
+
+  @Test
+  public void chunkedMultiThread() throws InterruptedException {
+    final Accountant parent = new Accountant(null, 0, Long.MAX_VALUE);
+    final Accountant child = new Accountant(parent, 0, Long.MAX_VALUE, 64);
+
+    final int numberOfThreads = 32;
+    final int loops = 1000;
+    Thread[] threads = new Thread[numberOfThreads];
+
+    for (int i = 0; i < numberOfThreads; i++) {
+      final int size = i + 1;
+      Thread t = new Thread() {
+
+        @Override
+        public void run() {
+          for (int i = 0; i < loops; i++) {
+            assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(size));
+            child.releaseBytes(size);
+          }
+        }
+
+      };
+      threads[i] = t;
+      t.start();
+    }
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(0, child.getAllocatedMemory());
+    child.close();
+    assertEquals(0, parent.getAllocatedMemory());
+  }
+
   private void ensureAccurateReservations(Accountant outsideParent) {
     final Accountant parent = new Accountant(outsideParent, 0, 10);
     assertEquals(0, parent.getAllocatedMemory());
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import io.netty.buffer.DrillBuf;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.drill.categories.MemoryTest;
+import org.apache.drill.test.BaseTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(MemoryTest.class)
+public class TestAllocationSampler extends BaseTest {
+
+  private static final long MAX_ALLOCATION = 8 * 1024 * 1024;
+
+  @Test
+  public void testSitesOfOperators() {
+    final AllocationSampler sampler = new AllocationSampler(1, 4, 10);
+    try (final RootAllocator rootAllocator = new RootAllocator(MAX_ALLOCATION, 0, sampler);
+         final BufferAllocator fragmentAllocator = rootAllocator.newChildAllocator("frag:0:0", 0, MAX_ALLOCATION);
+         final BufferAllocator operatorAllocator =
+             fragmentAllocator.newChildAllocator("op:0:0:1:ExternalSort", 0, MAX_ALLOCATION)) {
+      final DrillBuf buf1 = operatorAllocator.buffer(1024);
+      final DrillBuf buf2 = fragmentAllocator.buffer(256);
+
+      List<AllocationSampler.Site> sites = sampler.getTopSites(10);
+      assertEquals(2, sites.size());
+      final AllocationSampler.Site site = sites.get(0);
+      assertEquals("ExternalSort", site.getOperator());
+      assertEquals("ROOT/frag:0:0/op:0:0:1:ExternalSort", site.getAllocatorPath());
+      assertTrue(site.getStack().startsWith(TestAllocationSampler.class.getName() + ".testSitesOfOperators"));
+      assertEquals(1024, site.getHeldBytes());
+      assertEquals("frag:0:0", sites.get(1).getOperator());
+
+      // released memory is no longer held, but was allocated
+      buf1.release();
+      assertEquals(0, site.getHeldBytes());
+      assertEquals(1024, site.getAllocatedBytes());
+      assertEquals("frag:0:0", sampler.getTopSites(1).get(0).getOperator());
+      buf2.release();
+    }
+  }
+
+  @Test
+  public void testMaxSites() {
+    final AllocationSampler sampler = new AllocationSampler(1, 4, 1, 0);
+    try (final RootAllocator rootAllocator = new RootAllocator(MAX_ALLOCATION, 0, sampler);
+         final BufferAllocator allocator = rootAllocator.newChildAllocator("frag:0:0", 0, MAX_ALLOCATION)) {
+      final DrillBuf buf1 = allocator.buffer(512);
+      // the only site holds memory, the sample of a new site is dropped
+      final DrillBuf buf2 = allocator.buffer(512);
+      assertEquals(1, sampler.getTopSites(10).size());
+      assertEquals(1, sampler.getDroppedSampleCount());
+      buf2.release();
+
+      // once the site holds no memory, it makes room for a new one
+      buf1.release();
+      final DrillBuf buf3 = allocator.buffer(256);
+      final List<AllocationSampler.Site> sites = sampler.getTopSites(10);
+      assertEquals(1, sites.size());
+      assertEquals(256, sites.get(0).getHeldBytes());
+      assertEquals(1, sampler.getDroppedSampleCount());
+      buf3.release();
+    }
+  }
+
+  @Test
+  public void testEvictionInterval() {
+    final AllocationSampler sampler = new AllocationSampler(1, 4, 1, TimeUnit.HOURS.toNanos(1));
+    try (final RootAllocator rootAllocator = new RootAllocator(MAX_ALLOCATION, 0, sampler);
+         final BufferAllocator allocator = rootAllocator.newChildAllocator("frag:0:0", 0, MAX_ALLOCATION)) {
+      final DrillBuf buf1 = allocator.buffer(512);
+      // the table is full of sites holding memory
+      allocator.buffer(512).release();
+      assertEquals(1, sampler.getDroppedSampleCount());
+
+      // the site holds no memory anymore, but is only evicted once the interval is over
+      buf1.release();
+      allocator.buffer(256).release();
+      final List<AllocationSampler.Site> sites = sampler.getTopSites(10);
+      assertEquals(1, sites.size());
+      assertEquals(512, sites.get(0).getAllocatedBytes());
+      assertEquals(2, sampler.getDroppedSampleCount());
+    }
+  }
+
+  @Test
+  public void testGeneratedClassNames() {
+    assertEquals("org.apache.drill.exec.test.generated.HashAggregatorGen$BatchHolder",
+        AllocationSampler.normalize("org.apache.drill.exec.test.generated.HashAggregatorGen1234$BatchHolder"));
+    assertEquals("org.apache.drill.exec.test.generated.PriorityQueueGen",
+        AllocationSampler.normalize("org.apache.drill.exec.test.generated.PriorityQueueGen7"));
+    assertEquals("org.apache.drill.exec.Foo$$Lambda",
+        AllocationSampler.normalize("org.apache.drill.exec.Foo$$Lambda$123/0x0000000800c0b440"));
+    assertEquals("org.apache.drill.exec.Foo$$Lambda",
+        AllocationSampler.normalize("org.apache.drill.exec.Foo$$Lambda/0x0000000800c0b440"));
+    assertEquals("org.apache.drill.exec.physical.impl.sort.Gen2Sorter",
+        AllocationSampler.normalize("org.apache.drill.exec.physical.impl.sort.Gen2Sorter"));
+  }
+
+  @Test
+  public void testDisabled() {
+    try (final RootAllocator rootAllocator = new RootAllocator(MAX_ALLOCATION);
+         final BufferAllocator allocator = rootAllocator.newChildAllocator("frag:0:0", 0, MAX_ALLOCATION)) {
+      assertFalse(allocator.getAllocationSampler().isEnabled());
+      allocator.buffer(512).release();
+      assertTrue(allocator.getAllocationSampler().getTopSites(10).isEmpty());
+    }
+  }
+}
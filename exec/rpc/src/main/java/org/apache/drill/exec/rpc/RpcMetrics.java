@@ -29,4 +29,21 @@ public interface RpcMetrics {
   long getEncryptedConnectionCount();
 
   long getUnEncryptedConnectionCount();
+
+  /**
+   * Records a message body sent compressed over the wire. Only connections
+   * which negotiate compression count these bytes.
+   *
+   * @param uncompressedBytes size of the body before compression
+   * @param compressedBytes size of the body as sent
+   */
+  default void addCompressedBytes(long uncompressedBytes, long compressedBytes) { }
+
+  default long getUncompressedBytes() {
+    return 0;
+  }
+
+  default long getCompressedBytes() {
+    return 0;
+  }
 }
@@ -229,6 +229,35 @@ public final class BitData {
      * @return The channel.
      */
     org.apache.drill.exec.proto.UserBitShared.RpcChannel getChannel();
+
+    /**
+     * <pre>
+     * codec the client would like to compress record batch bodies with
+     * </pre>
+     *
+     * <code>optional string compression_codec = 3;</code>
+     * @return Whether the compressionCodec field is set.
+     */
+    boolean hasCompressionCodec();
+    /**
+     * <pre>
+     * codec the client would like to compress record batch bodies with
+     * </pre>
+     *
+     * <code>optional string compression_codec = 3;</code>
+     * @return The compressionCodec.
+     */
+    java.lang.String getCompressionCodec();
+    /**
+     * <pre>
+     * codec the client would like to compress record batch bodies with
+     * </pre>
+     *
+     * <code>optional string compression_codec = 3;</code>
+     * @return The bytes for compressionCodec.
+     */
+    com.google.protobuf.ByteString
+        getCompressionCodecBytes();
   }
   /**
    * Protobuf type {@code exec.bit.data.BitClientHandshake}
@@ -244,6 +273,7 @@ public final class BitData {
     }
     private BitClientHandshake() {
       channel_ = 1;
+      compressionCodec_ = "";
     }
 
     @java.lang.Override
@@ -310,6 +340,66 @@ public final class BitData {
       return result == null ? org.apache.drill.exec.proto.UserBitShared.RpcChannel.BIT_DATA : result;
     }
 
+    public static final int COMPRESSION_CODEC_FIELD_NUMBER = 3;
+    private volatile java.lang.Object compressionCodec_;
+    /**
+     * <pre>
+     * codec the client would like to compress record batch bodies with
+     * </pre>
+     *
+     * <code>optional string compression_codec = 3;</code>
+     * @return Whether the compressionCodec field is set.
+     */
+    @java.lang.Override
+    public boolean hasCompressionCodec() {
+      return ((bitField0_ & 0x00000004) != 0);
+    }
+    /**
+     * <pre>
+     * codec the client would like to compress record batch bodies with
+     * </pre>
+     *
+     * <code>optional string compression_codec = 3;</code>
+     * @return The compressionCodec.
+     */
+    @java.lang.Override
+    public java.lang.String getCompressionCodec() {
+      java.lang.Object ref = compressionCodec_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          compressionCodec_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * codec the client would like to compress record batch bodies with
+     * </pre>
+     *
+     * <code>optional string compression_codec = 3;</code>
+     * @return The bytes for compressionCodec.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getCompressionCodecBytes() {
+      java.lang.Object ref = compressionCodec_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        compressionCodec_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -330,6 +420,9 @@ public final class BitData {
       if (((bitField0_ & 0x00000002) != 0)) {
         output.writeEnum(2, channel_);
       }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 3, compressionCodec_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -347,6 +440,9 @@ public final class BitData {
         size += com.google.protobuf.CodedOutputStream
           .computeEnumSize(2, channel_);
       }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(3, compressionCodec_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSize = size;
       return size;
@@ -371,6 +467,11 @@ public final class BitData {
       if (hasChannel()) {
         if (channel_ != other.channel_) return false;
       }
+      if (hasCompressionCodec() != other.hasCompressionCodec()) return false;
+      if (hasCompressionCodec()) {
+        if (!getCompressionCodec()
+            .equals(other.getCompressionCodec())) return false;
+      }
       if (!getUnknownFields().equals(other.getUnknownFields())) return false;
       return true;
     }
@@ -390,6 +491,10 @@ public final class BitData {
         hash = (37 * hash) + CHANNEL_FIELD_NUMBER;
         hash = (53 * hash) + channel_;
       }
+      if (hasCompressionCodec()) {
+        hash = (37 * hash) + COMPRESSION_CODEC_FIELD_NUMBER;
+        hash = (53 * hash) + getCompressionCodec().hashCode();
+      }
       hash = (29 * hash) + getUnknownFields().hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -522,6 +627,8 @@ public final class BitData {
         bitField0_ = (bitField0_ & ~0x00000001);
         channel_ = 1;
         bitField0_ = (bitField0_ & ~0x00000002);
+        compressionCodec_ = "";
+        bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
 
@@ -558,6 +665,10 @@ public final class BitData {
           to_bitField0_ |= 0x00000002;
         }
         result.channel_ = channel_;
+        if (((from_bitField0_ & 0x00000004) != 0)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.compressionCodec_ = compressionCodec_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -613,6 +724,11 @@ public final class BitData {
         if (other.hasChannel()) {
           setChannel(other.getChannel());
         }
+        if (other.hasCompressionCodec()) {
+          bitField0_ |= 0x00000004;
+          compressionCodec_ = other.compressionCodec_;
+          onChanged();
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         onChanged();
         return this;
@@ -656,6 +772,11 @@ public final class BitData {
                 }
                 break;
               } // case 16
+              case 26: {
+                compressionCodec_ = input.readBytes();
+                bitField0_ |= 0x00000004;
+                break;
+              } // case 26
               default: {
                 if (!super.parseUnknownField(input, extensionRegistry, tag)) {
                   done = true; // was an endgroup tag
@@ -754,6 +875,113 @@ public final class BitData {
         onChanged();
         return this;
       }
+      private java.lang.Object compressionCodec_ = "";
+      /**
+       * <pre>
+       * codec the client would like to compress record batch bodies with
+       * </pre>
+       *
+       * <code>optional string compression_codec = 3;</code>
+       * @return Whether the compressionCodec field is set.
+       */
+      public boolean hasCompressionCodec() {
+        return ((bitField0_ & 0x00000004) != 0);
+      }
+      /**
+       * <pre>
+       * codec the client would like to compress record batch bodies with
+       * </pre>
+       *
+       * <code>optional string compression_codec = 3;</code>
+       * @return The compressionCodec.
+       */
+      public java.lang.String getCompressionCodec() {
+        java.lang.Object ref = compressionCodec_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            compressionCodec_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * codec the client would like to compress record batch bodies with
+       * </pre>
+       *
+       * <code>optional string compression_codec = 3;</code>
+       * @return The bytes for compressionCodec.
+       */
+      public com.google.protobuf.ByteString
+          getCompressionCodecBytes() {
+        java.lang.Object ref = compressionCodec_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          compressionCodec_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * codec the client would like to compress record batch bodies with
+       * </pre>
+       *
+       * <code>optional string compression_codec = 3;</code>
+       * @param value The compressionCodec to set.
+       * @return This builder for chaining.
+       */
+      public Builder setCompressionCodec(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        compressionCodec_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * codec the client would like to compress record batch bodies with
+       * </pre>
+       *
+       * <code>optional string compression_codec = 3;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearCompressionCodec() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        compressionCodec_ = getDefaultInstance().getCompressionCodec();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * codec the client would like to compress record batch bodies with
+       * </pre>
+       *
+       * <code>optional string compression_codec = 3;</code>
+       * @param value The bytes for compressionCodec to set.
+       * @return This builder for chaining.
+       */
+      public Builder setCompressionCodecBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        compressionCodec_ = value;
+        onChanged();
+        return this;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -857,6 +1085,35 @@ public final class BitData {
      */
     com.google.protobuf.ByteString
         getAuthenticationMechanismsBytes(int index);
+
+    /**
+     * <pre>
+     * codec accepted by the server; bodies are sent uncompressed if not set
+     * </pre>
+     *
+     * <code>optional string compression_codec = 3;</code>
+     * @return Whether the compressionCodec field is set.
+     */
+    boolean hasCompressionCodec();
+    /**
+     * <pre>
+     * codec accepted by the server; bodies are sent uncompressed if not set
+     * </pre>
+     *
+     * <code>optional string compression_codec = 3;</code>
+     * @return The compressionCodec.
+     */
+    java.lang.String getCompressionCodec();
+    /**
+     * <pre>
+     * codec accepted by the server; bodies are sent uncompressed if not set
+     * </pre>
+     *
+     * <code>optional string compression_codec = 3;</code>
+     * @return The bytes for compressionCodec.
+     */
+    com.google.protobuf.ByteString
+        getCompressionCodecBytes();
   }
   /**
    * Protobuf type {@code exec.bit.data.BitServerHandshake}
@@ -872,6 +1129,7 @@ public final class BitData {
     }
     private BitServerHandshake() {
       authenticationMechanisms_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      compressionCodec_ = "";
     }
 
     @java.lang.Override
@@ -954,6 +1212,66 @@ public final class BitData {
       return authenticationMechanisms_.getByteString(index);
     }
 
+    public static final int COMPRESSION_CODEC_FIELD_NUMBER = 3;
+    private volatile java.lang.Object compressionCodec_;
+    /**
+     * <pre>
+     * codec accepted by the server; bodies are sent uncompressed if not set
+     * </pre>
+     *
+     * <code>optional string compression_codec = 3;</code>
+     * @return Whether the compressionCodec field is set.
+     */
+    @java.lang.Override
+    public boolean hasCompressionCodec() {
+      return ((bitField0_ & 0x00000002) != 0);
+    }
+    /**
+     * <pre>
+     * codec accepted by the server; bodies are sent uncompressed if not set
+     * </pre>
+     *
+     * <code>optional string compression_codec = 3;</code>
+     * @return The compressionCodec.
+     */
+    @java.lang.Override
+    public java.lang.String getCompressionCodec() {
+      java.lang.Object ref = compressionCodec_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          compressionCodec_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * codec accepted by the server; bodies are sent uncompressed if not set
+     * </pre>
+     *
+     * <code>optional string compression_codec = 3;</code>
+     * @return The bytes for compressionCodec.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getCompressionCodecBytes() {
+      java.lang.Object ref = compressionCodec_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        compressionCodec_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -974,6 +1292,9 @@ public final class BitData {
       for (int i = 0; i < authenticationMechanisms_.size(); i++) {
         com.google.protobuf.GeneratedMessageV3.writeString(output, 2, authenticationMechanisms_.getRaw(i));
       }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 3, compressionCodec_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -995,6 +1316,9 @@ public final class BitData {
         size += dataSize;
         size += 1 * getAuthenticationMechanismsList().size();
       }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(3, compressionCodec_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSize = size;
       return size;
@@ -1017,6 +1341,11 @@ public final class BitData {
       }
       if (!getAuthenticationMechanismsList()
           .equals(other.getAuthenticationMechanismsList())) return false;
+      if (hasCompressionCodec() != other.hasCompressionCodec()) return false;
+      if (hasCompressionCodec()) {
+        if (!getCompressionCodec()
+            .equals(other.getCompressionCodec())) return false;
+      }
       if (!getUnknownFields().equals(other.getUnknownFields())) return false;
       return true;
     }
@@ -1036,6 +1365,10 @@ public final class BitData {
         hash = (37 * hash) + AUTHENTICATIONMECHANISMS_FIELD_NUMBER;
         hash = (53 * hash) + getAuthenticationMechanismsList().hashCode();
       }
+      if (hasCompressionCodec()) {
+        hash = (37 * hash) + COMPRESSION_CODEC_FIELD_NUMBER;
+        hash = (53 * hash) + getCompressionCodec().hashCode();
+      }
       hash = (29 * hash) + getUnknownFields().hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -1168,6 +1501,8 @@ public final class BitData {
         bitField0_ = (bitField0_ & ~0x00000001);
         authenticationMechanisms_ = com.google.protobuf.LazyStringArrayList.EMPTY;
         bitField0_ = (bitField0_ & ~0x00000002);
+        compressionCodec_ = "";
+        bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
 
@@ -1205,6 +1540,10 @@ public final class BitData {
           bitField0_ = (bitField0_ & ~0x00000002);
         }
         result.authenticationMechanisms_ = authenticationMechanisms_;
+        if (((from_bitField0_ & 0x00000004) != 0)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.compressionCodec_ = compressionCodec_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -1267,6 +1606,11 @@ public final class BitData {
           }
           onChanged();
         }
+        if (other.hasCompressionCodec()) {
+          bitField0_ |= 0x00000004;
+          compressionCodec_ = other.compressionCodec_;
+          onChanged();
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         onChanged();
         return this;
@@ -1304,6 +1648,11 @@ public final class BitData {
                 authenticationMechanisms_.add(bs);
                 break;
               } // case 18
+              case 26: {
+                compressionCodec_ = input.readBytes();
+                bitField0_ |= 0x00000004;
+                break;
+              } // case 26
               default: {
                 if (!super.parseUnknownField(input, extensionRegistry, tag)) {
                   done = true; // was an endgroup tag
@@ -1468,6 +1817,113 @@ public final class BitData {
         onChanged();
         return this;
       }
+      private java.lang.Object compressionCodec_ = "";
+      /**
+       * <pre>
+       * codec accepted by the server; bodies are sent uncompressed if not set
+       * </pre>
+       *
+       * <code>optional string compression_codec = 3;</code>
+       * @return Whether the compressionCodec field is set.
+       */
+      public boolean hasCompressionCodec() {
+        return ((bitField0_ & 0x00000004) != 0);
+      }
+      /**
+       * <pre>
+       * codec accepted by the server; bodies are sent uncompressed if not set
+       * </pre>
+       *
+       * <code>optional string compression_codec = 3;</code>
+       * @return The compressionCodec.
+       */
+      public java.lang.String getCompressionCodec() {
+        java.lang.Object ref = compressionCodec_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            compressionCodec_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * codec accepted by the server; bodies are sent uncompressed if not set
+       * </pre>
+       *
+       * <code>optional string compression_codec = 3;</code>
+       * @return The bytes for compressionCodec.
+       */
+      public com.google.protobuf.ByteString
+          getCompressionCodecBytes() {
+        java.lang.Object ref = compressionCodec_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          compressionCodec_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * codec accepted by the server; bodies are sent uncompressed if not set
+       * </pre>
+       *
+       * <code>optional string compression_codec = 3;</code>
+       * @param value The compressionCodec to set.
+       * @return This builder for chaining.
+       */
+      public Builder setCompressionCodec(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        compressionCodec_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * codec accepted by the server; bodies are sent uncompressed if not set
+       * </pre>
+       *
+       * <code>optional string compression_codec = 3;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearCompressionCodec() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        compressionCodec_ = getDefaultInstance().getCompressionCodec();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * codec accepted by the server; bodies are sent uncompressed if not set
+       * </pre>
+       *
+       * <code>optional string compression_codec = 3;</code>
+       * @param value The bytes for compressionCodec to set.
+       * @return This builder for chaining.
+       */
+      public Builder setCompressionCodecBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        compressionCodec_ = value;
+        onChanged();
+        return this;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -1626,6 +2082,25 @@ public final class BitData {
      * @return The isLastBatch.
      */
     boolean getIsLastBatch();
+
+    /**
+     * <pre>
+     * set when the body is compressed with the codec negotiated in the handshake
+     * </pre>
+     *
+     * <code>optional int32 uncompressed_size = 8;</code>
+     * @return Whether the uncompressedSize field is set.
+     */
+    boolean hasUncompressedSize();
+    /**
+     * <pre>
+     * set when the body is compressed with the codec negotiated in the handshake
+     * </pre>
+     *
+     * <code>optional int32 uncompressed_size = 8;</code>
+     * @return The uncompressedSize.
+     */
+    int getUncompressedSize();
   }
   /**
    * Protobuf type {@code exec.bit.data.FragmentRecordBatch}
@@ -1824,6 +2299,33 @@ public final class BitData {
       return isLastBatch_;
     }
 
+    public static final int UNCOMPRESSED_SIZE_FIELD_NUMBER = 8;
+    private int uncompressedSize_;
+    /**
+     * <pre>
+     * set when the body is compressed with the codec negotiated in the handshake
+     * </pre>
+     *
+     * <code>optional int32 uncompressed_size = 8;</code>
+     * @return Whether the uncompressedSize field is set.
+     */
+    @java.lang.Override
+    public boolean hasUncompressedSize() {
+      return ((bitField0_ & 0x00000040) != 0);
+    }
+    /**
+     * <pre>
+     * set when the body is compressed with the codec negotiated in the handshake
+     * </pre>
+     *
+     * <code>optional int32 uncompressed_size = 8;</code>
+     * @return The uncompressedSize.
+     */
+    @java.lang.Override
+    public int getUncompressedSize() {
+      return uncompressedSize_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -1859,6 +2361,9 @@ public final class BitData {
       if (((bitField0_ & 0x00000020) != 0)) {
         output.writeBool(7, isLastBatch_);
       }
+      if (((bitField0_ & 0x00000040) != 0)) {
+        output.writeInt32(8, uncompressedSize_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -1901,6 +2406,10 @@ public final class BitData {
         size += com.google.protobuf.CodedOutputStream
           .computeBoolSize(7, isLastBatch_);
       }
+      if (((bitField0_ & 0x00000040) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(8, uncompressedSize_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSize = size;
       return size;
@@ -1948,6 +2457,11 @@ public final class BitData {
         if (getIsLastBatch()
             != other.getIsLastBatch()) return false;
       }
+      if (hasUncompressedSize() != other.hasUncompressedSize()) return false;
+      if (hasUncompressedSize()) {
+        if (getUncompressedSize()
+            != other.getUncompressedSize()) return false;
+      }
       if (!getUnknownFields().equals(other.getUnknownFields())) return false;
       return true;
     }
@@ -1988,6 +2502,10 @@ public final class BitData {
         hash = (53 * hash) + com.google.protobuf.Internal.hashBoolean(
             getIsLastBatch());
       }
+      if (hasUncompressedSize()) {
+        hash = (37 * hash) + UNCOMPRESSED_SIZE_FIELD_NUMBER;
+        hash = (53 * hash) + getUncompressedSize();
+      }
       hash = (29 * hash) + getUnknownFields().hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -2145,6 +2663,8 @@ public final class BitData {
         bitField0_ = (bitField0_ & ~0x00000020);
         isLastBatch_ = false;
         bitField0_ = (bitField0_ & ~0x00000040);
+        uncompressedSize_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000080);
         return this;
       }
 
@@ -2210,6 +2730,10 @@ public final class BitData {
           result.isLastBatch_ = isLastBatch_;
           to_bitField0_ |= 0x00000020;
         }
+        if (((from_bitField0_ & 0x00000080) != 0)) {
+          result.uncompressedSize_ = uncompressedSize_;
+          to_bitField0_ |= 0x00000040;
+        }
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -2287,6 +2811,9 @@ public final class BitData {
         if (other.hasIsLastBatch()) {
           setIsLastBatch(other.getIsLastBatch());
         }
+        if (other.hasUncompressedSize()) {
+          setUncompressedSize(other.getUncompressedSize());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         onChanged();
         return this;
@@ -2363,6 +2890,11 @@ public final class BitData {
                 bitField0_ |= 0x00000040;
                 break;
               } // case 56
+              case 64: {
+                uncompressedSize_ = input.readInt32();
+                bitField0_ |= 0x00000080;
+                break;
+              } // case 64
               default: {
                 if (!super.parseUnknownField(input, extensionRegistry, tag)) {
                   done = true; // was an endgroup tag
@@ -2854,6 +3386,60 @@ public final class BitData {
         onChanged();
         return this;
       }
+      private int uncompressedSize_ ;
+      /**
+       * <pre>
+       * set when the body is compressed with the codec negotiated in the handshake
+       * </pre>
+       *
+       * <code>optional int32 uncompressed_size = 8;</code>
+       * @return Whether the uncompressedSize field is set.
+       */
+      @java.lang.Override
+      public boolean hasUncompressedSize() {
+        return ((bitField0_ & 0x00000080) != 0);
+      }
+      /**
+       * <pre>
+       * set when the body is compressed with the codec negotiated in the handshake
+       * </pre>
+       *
+       * <code>optional int32 uncompressed_size = 8;</code>
+       * @return The uncompressedSize.
+       */
+      @java.lang.Override
+      public int getUncompressedSize() {
+        return uncompressedSize_;
+      }
+      /**
+       * <pre>
+       * set when the body is compressed with the codec negotiated in the handshake
+       * </pre>
+       *
+       * <code>optional int32 uncompressed_size = 8;</code>
+       * @param value The uncompressedSize to set.
+       * @return This builder for chaining.
+       */
+      public Builder setUncompressedSize(int value) {
+        bitField0_ |= 0x00000080;
+        uncompressedSize_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * set when the body is compressed with the codec negotiated in the handshake
+       * </pre>
+       *
+       * <code>optional int32 uncompressed_size = 8;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearUncompressedSize() {
+        bitField0_ = (bitField0_ & ~0x00000080);
+        uncompressedSize_ = 0;
+        onChanged();
+        return this;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -5148,29 +5734,31 @@ public final class BitData {
     java.lang.String[] descriptorData = {
       "\n\rBitData.proto\022\rexec.bit.data\032\025Executio" +
       "nProtos.proto\032\022Coordination.proto\032\023UserB" +
-      "itShared.proto\"]\n\022BitClientHandshake\022\023\n\013" +
+      "itShared.proto\"x\n\022BitClientHandshake\022\023\n\013" +
       "rpc_version\030\001 \001(\005\0222\n\007channel\030\002 \001(\0162\027.exe" +
-      "c.shared.RpcChannel:\010BIT_DATA\"K\n\022BitServ" +
-      "erHandshake\022\023\n\013rpc_version\030\001 \001(\005\022 \n\030auth" +
-      "enticationMechanisms\030\002 \003(\t\"\214\002\n\023FragmentR" +
-      "ecordBatch\022&\n\010query_id\030\001 \001(\0132\024.exec.shar" +
-      "ed.QueryId\022#\n\033receiving_major_fragment_i" +
-      "d\030\002 \001(\005\022#\n\033receiving_minor_fragment_id\030\003" +
-      " \003(\005\022!\n\031sending_major_fragment_id\030\004 \001(\005\022" +
-      "!\n\031sending_minor_fragment_id\030\005 \001(\005\022(\n\003de" +
-      "f\030\006 \001(\0132\033.exec.shared.RecordBatchDef\022\023\n\013" +
-      "isLastBatch\030\007 \001(\010\"\350\001\n\021RuntimeFilterBDef\022" +
-      "&\n\010query_id\030\001 \001(\0132\024.exec.shared.QueryId\022" +
-      "\031\n\021major_fragment_id\030\002 \001(\005\022\031\n\021minor_frag" +
-      "ment_id\030\003 \001(\005\022\022\n\nto_foreman\030\004 \001(\010\022\"\n\032blo" +
-      "om_filter_size_in_bytes\030\005 \003(\005\022\024\n\014probe_f" +
-      "ields\030\006 \003(\t\022\020\n\010hj_op_id\030\007 \001(\005\022\025\n\rrf_iden" +
-      "tifier\030\010 \001(\003\"\'\n\rAckWithCredit\022\026\n\016allowed" +
-      "_credit\030\001 \001(\005*\210\001\n\007RpcType\022\r\n\tHANDSHAKE\020\000" +
-      "\022\007\n\003ACK\020\001\022\013\n\007GOODBYE\020\002\022\024\n\020REQ_RECORD_BAT" +
-      "CH\020\003\022\020\n\014SASL_MESSAGE\020\004\022\026\n\022REQ_RUNTIME_FI" +
-      "LTER\020\005\022\030\n\024DATA_ACK_WITH_CREDIT\020\006B(\n\033org." +
-      "apache.drill.exec.protoB\007BitDataH\001"
+      "c.shared.RpcChannel:\010BIT_DATA\022\031\n\021compres" +
+      "sion_codec\030\003 \001(\t\"f\n\022BitServerHandshake\022\023" +
+      "\n\013rpc_version\030\001 \001(\005\022 \n\030authenticationMec" +
+      "hanisms\030\002 \003(\t\022\031\n\021compression_codec\030\003 \001(\t" +
+      "\"\247\002\n\023FragmentRecordBatch\022&\n\010query_id\030\001 \001" +
+      "(\0132\024.exec.shared.QueryId\022#\n\033receiving_ma" +
+      "jor_fragment_id\030\002 \001(\005\022#\n\033receiving_minor" +
+      "_fragment_id\030\003 \003(\005\022!\n\031sending_major_frag" +
+      "ment_id\030\004 \001(\005\022!\n\031sending_minor_fragment_" +
+      "id\030\005 \001(\005\022(\n\003def\030\006 \001(\0132\033.exec.shared.Reco" +
+      "rdBatchDef\022\023\n\013isLastBatch\030\007 \001(\010\022\031\n\021uncom" +
+      "pressed_size\030\010 \001(\005\"\350\001\n\021RuntimeFilterBDef" +
+      "\022&\n\010query_id\030\001 \001(\0132\024.exec.shared.QueryId" +
+      "\022\031\n\021major_fragment_id\030\002 \001(\005\022\031\n\021minor_fra" +
+      "gment_id\030\003 \001(\005\022\022\n\nto_foreman\030\004 \001(\010\022\"\n\032bl" +
+      "oom_filter_size_in_bytes\030\005 \003(\005\022\024\n\014probe_" +
+      "fields\030\006 \003(\t\022\020\n\010hj_op_id\030\007 \001(\005\022\025\n\rrf_ide" +
+      "ntifier\030\010 \001(\003\"\'\n\rAckWithCredit\022\026\n\016allowe" +
+      "d_credit\030\001 \001(\005*\210\001\n\007RpcType\022\r\n\tHANDSHAKE\020" +
+      "\000\022\007\n\003ACK\020\001\022\013\n\007GOODBYE\020\002\022\024\n\020REQ_RECORD_BA" +
+      "TCH\020\003\022\020\n\014SASL_MESSAGE\020\004\022\026\n\022REQ_RUNTIME_F" +
+      "ILTER\020\005\022\030\n\024DATA_ACK_WITH_CREDIT\020\006B(\n\033org" +
+      ".apache.drill.exec.protoB\007BitDataH\001"
     };
     descriptor = com.google.protobuf.Descriptors.FileDescriptor
       .internalBuildGeneratedFileFrom(descriptorData,
@@ -5184,19 +5772,19 @@ public final class BitData {
     internal_static_exec_bit_data_BitClientHandshake_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_exec_bit_data_BitClientHandshake_descriptor,
-        new java.lang.String[] { "RpcVersion", "Channel", });
+        new java.lang.String[] { "RpcVersion", "Channel", "CompressionCodec", });
     internal_static_exec_bit_data_BitServerHandshake_descriptor =
       getDescriptor().getMessageTypes().get(1);
     internal_static_exec_bit_data_BitServerHandshake_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_exec_bit_data_BitServerHandshake_descriptor,
-        new java.lang.String[] { "RpcVersion", "AuthenticationMechanisms", });
+        new java.lang.String[] { "RpcVersion", "AuthenticationMechanisms", "CompressionCodec", });
     internal_static_exec_bit_data_FragmentRecordBatch_descriptor =
       getDescriptor().getMessageTypes().get(2);
     internal_static_exec_bit_data_FragmentRecordBatch_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_exec_bit_data_FragmentRecordBatch_descriptor,
-        new java.lang.String[] { "QueryId", "ReceivingMajorFragmentId", "ReceivingMinorFragmentId", "SendingMajorFragmentId", "SendingMinorFragmentId", "Def", "IsLastBatch", });
+        new java.lang.String[] { "QueryId", "ReceivingMajorFragmentId", "ReceivingMinorFragmentId", "SendingMajorFragmentId", "SendingMinorFragmentId", "Def", "IsLastBatch", "UncompressedSize", });
     internal_static_exec_bit_data_RuntimeFilterBDef_descriptor =
       getDescriptor().getMessageTypes().get(3);
     internal_static_exec_bit_data_RuntimeFilterBDef_fieldAccessorTable = new
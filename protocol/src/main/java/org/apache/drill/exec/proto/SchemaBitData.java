@@ -39,6 +39,8 @@ public final class SchemaBitData
                     output.writeInt32(1, message.getRpcVersion(), false);
                 if(message.hasChannel())
                     output.writeEnum(2, message.getChannel().getNumber(), false);
+                if(message.hasCompressionCodec())
+                    output.writeString(3, message.getCompressionCodec(), false);
             }
             public boolean isInitialized(org.apache.drill.exec.proto.BitData.BitClientHandshake message)
             {
@@ -84,6 +86,9 @@ public final class SchemaBitData
                         case 2:
                             builder.setChannel(org.apache.drill.exec.proto.UserBitShared.RpcChannel.valueOf(input.readEnum()));
                             break;
+                        case 3:
+                            builder.setCompressionCodec(input.readString());
+                            break;
                         default:
                             input.handleUnknownField(number, this);
                     }
@@ -126,6 +131,7 @@ public final class SchemaBitData
             {
                 case 1: return "rpcVersion";
                 case 2: return "channel";
+                case 3: return "compressionCodec";
                 default: return null;
             }
         }
@@ -139,6 +145,7 @@ public final class SchemaBitData
         {
             fieldMap.put("rpcVersion", 1);
             fieldMap.put("channel", 2);
+            fieldMap.put("compressionCodec", 3);
         }
     }
 
@@ -157,6 +164,8 @@ public final class SchemaBitData
                     output.writeInt32(1, message.getRpcVersion(), false);
                 for(String authenticationMechanisms : message.getAuthenticationMechanismsList())
                     output.writeString(2, authenticationMechanisms, true);
+                if(message.hasCompressionCodec())
+                    output.writeString(3, message.getCompressionCodec(), false);
             }
             public boolean isInitialized(org.apache.drill.exec.proto.BitData.BitServerHandshake message)
             {
@@ -202,6 +211,9 @@ public final class SchemaBitData
                         case 2:
                             builder.addAuthenticationMechanisms(input.readString());
                             break;
+                        case 3:
+                            builder.setCompressionCodec(input.readString());
+                            break;
                         default:
                             input.handleUnknownField(number, this);
                     }
@@ -244,6 +256,7 @@ public final class SchemaBitData
             {
                 case 1: return "rpcVersion";
                 case 2: return "authenticationMechanisms";
+                case 3: return "compressionCodec";
                 default: return null;
             }
         }
@@ -257,6 +270,7 @@ public final class SchemaBitData
         {
             fieldMap.put("rpcVersion", 1);
             fieldMap.put("authenticationMechanisms", 2);
+            fieldMap.put("compressionCodec", 3);
         }
     }
 
@@ -287,6 +301,8 @@ public final class SchemaBitData
 
                 if(message.hasIsLastBatch())
                     output.writeBool(7, message.getIsLastBatch(), false);
+                if(message.hasUncompressedSize())
+                    output.writeInt32(8, message.getUncompressedSize(), false);
             }
             public boolean isInitialized(org.apache.drill.exec.proto.BitData.FragmentRecordBatch message)
             {
@@ -349,6 +365,9 @@ public final class SchemaBitData
                         case 7:
                             builder.setIsLastBatch(input.readBool());
                             break;
+                        case 8:
+                            builder.setUncompressedSize(input.readInt32());
+                            break;
                         default:
                             input.handleUnknownField(number, this);
                     }
@@ -396,6 +415,7 @@ public final class SchemaBitData
                 case 5: return "sendingMinorFragmentId";
                 case 6: return "def";
                 case 7: return "isLastBatch";
+                case 8: return "uncompressedSize";
                 default: return null;
             }
         }
@@ -414,6 +434,7 @@ public final class SchemaBitData
             fieldMap.put("sendingMinorFragmentId", 5);
             fieldMap.put("def", 6);
             fieldMap.put("isLastBatch", 7);
+            fieldMap.put("uncompressedSize", 8);
         }
     }
 